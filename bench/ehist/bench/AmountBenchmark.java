@@ -0,0 +1,95 @@
+package ehist.bench;
+
+import ehist.mem.Amount;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * === AmountBenchmark Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Measures adding amounts, one pair at a time and summed over many, against
+ * summing the same cents as primitives. The amounts are mostly small enough to
+ * come from the cache of {@link Amount#of(long)} but not all, run with
+ * <tt>-prof gc</tt> to see what is allocated per operation.
+ * </p>
+ *
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class AmountBenchmark {
+
+    /** The number of amounts summed, a power of two. */
+    private static final int AMOUNTS = 1024;
+
+    private Amount[] amounts;
+    private long[] cents;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+
+        amounts = new Amount[AMOUNTS];
+        cents = new long[AMOUNTS];
+
+        for (int i = 0; i < AMOUNTS; ++i) {
+            cents[i] = (random.nextInt(8) == 0 ? random.nextInt(1_000_000) : random.nextInt(10_000));
+            amounts[i] = Amount.of(cents[i]);
+        }
+    }
+
+    @Benchmark
+    public Amount add() {
+        int i = next++ & (AMOUNTS - 1);
+        return (amounts[i].add(amounts[(i + 1) & (AMOUNTS - 1)]));
+    }
+
+    @Benchmark
+    public Amount subtract() {
+        int i = next++ & (AMOUNTS - 1);
+        return (amounts[i].subtract(amounts[(i + 1) & (AMOUNTS - 1)]));
+    }
+
+    @Benchmark
+    public Amount sum() {
+        Amount total = Amount.ZERO;
+
+        for (Amount amount : amounts) {
+            total = total.add(amount);
+        }
+
+        return (total);
+    }
+
+    @Benchmark
+    public long sumCents() {
+        long total = 0;
+
+        for (long c : cents) {
+            total += c;
+        }
+
+        return (total);
+    }
+}
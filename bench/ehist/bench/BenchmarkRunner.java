@@ -0,0 +1,45 @@
+package ehist.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * <p>
+ * === BenchmarkRunner Enum ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Runs the benchmarks with the allocation profiler and writes the results
+ * as JSON to a file named after the time of the run, so runs can be kept and
+ * compared over time. The arguments are an optional regular expression of the
+ * benchmarks to run, all by default, and an optional file to write the results
+ * to. For any other option run JMH's own <tt>org.openjdk.jmh.Main</tt>.
+ * </p>
+ *
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+public enum BenchmarkRunner {
+    ;
+
+    public static void main(String[] args) throws RunnerException {
+        String include = (args.length > 0 ? args[0] : "ehist\\.bench\\..*");
+        String result = (args.length > 1 ? args[1] : "jmh-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result);
+
+        new Runner(options.build()).run();
+    }
+}
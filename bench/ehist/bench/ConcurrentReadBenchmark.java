@@ -0,0 +1,183 @@
+package ehist.bench;
+
+import ehist.mem.Amount;
+import ehist.mem.DataControl;
+import ehist.mem.Deduction;
+import ehist.mem.PayPeriod;
+import ehist.mem.PayPeriodStore;
+import ehist.mem.Position;
+import ehist.mem.date.Date;
+import ehist.mem.date.DateManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * === ConcurrentReadBenchmark Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Measures queries of a {@link SyntheticHistory} made by three threads at
+ * once, on their own and while a fourth thread keeps adding pay periods. Each
+ * query totals the net earned over a random month through the range index,
+ * the net of a random position in a random year through its calendar totals
+ * and the gross of the last rows of a snapshot of the store. The history is
+ * generated afresh for every iteration so the writer cannot grow it without
+ * bound. Run on at least four cores, or the writer only takes time from the
+ * readers.
+ * </p>
+ *
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ConcurrentReadBenchmark {
+
+    /** The number of pay periods of the history each iteration starts with. */
+    private static final int PAY_PERIODS = 100_000;
+
+    /** The number of queries and pay periods cycled through, a power of two. */
+    private static final int CYCLE = 4096;
+
+    /** The number of rows at the end of the store each snapshot sums. */
+    private static final int TAIL = 256;
+
+    /**
+     *  The history shared by the threads of a group.
+     */
+    @State(Scope.Group)
+    public static class History {
+
+        DataControl data;
+        Position[] positions;
+
+        /** Copies of random pay periods of the history, added again by the writer. */
+        PayPeriod[] copies;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            data = SyntheticHistory.generate(PAY_PERIODS, 42);
+            positions = data.getPositions().toArray(new Position[0]);
+
+            Random random = new Random(42);
+            copies = new PayPeriod[CYCLE];
+
+            for (int i = 0; i < CYCLE; ++i) {
+                copies[i] = data.getPayPeriod(random.nextInt(PAY_PERIODS));
+            }
+        }
+    }
+
+    /**
+     *  The random queries of one reader, as epoch days, positions and years.
+     */
+    @State(Scope.Thread)
+    public static class Queries {
+
+        long[] from_days;
+        long[] to_days;
+        int[] positions;
+        int[] years;
+        int next;
+
+        @Setup(Level.Iteration)
+        public void setUp(History history) {
+            Random random = new Random(Thread.currentThread().getId());
+            long first_day = DateManager.getDate(SyntheticHistory.FIRST_YEAR, 1, 1).toEpochDay();
+            long last_day = DateManager.getDate(SyntheticHistory.LAST_YEAR, 12, 1).toEpochDay();
+
+            from_days = new long[CYCLE];
+            to_days = new long[CYCLE];
+            positions = new int[CYCLE];
+            years = new int[CYCLE];
+
+            for (int i = 0; i < CYCLE; ++i) {
+                from_days[i] = first_day + random.nextInt((int)(last_day - first_day));
+                to_days[i] = from_days[i] + 30;
+                positions[i] = random.nextInt(history.positions.length);
+                years[i] = SyntheticHistory.FIRST_YEAR + random.nextInt(SyntheticHistory.LAST_YEAR
+                        - SyntheticHistory.FIRST_YEAR + 1);
+            }
+        }
+    }
+
+    /**
+     *  The next pay period the writer adds again.
+     */
+    @State(Scope.Thread)
+    public static class Writer {
+        int next;
+    }
+
+    @Benchmark
+    @Group("read")
+    @GroupThreads(3)
+    public long read(History history, Queries queries) {
+        return (query(history, queries));
+    }
+
+    @Benchmark
+    @Group("readWhileWriting")
+    @GroupThreads(3)
+    public long readWhileWriting(History history, Queries queries) {
+        return (query(history, queries));
+    }
+
+    /**
+     *  Adds a copy of a pay period of the history, acquiring its dates as any
+     * caller of {@link DataControl#addPayPeriod} does.
+     */
+    @Benchmark
+    @Group("readWhileWriting")
+    @GroupThreads(1)
+    public PayPeriod write(History history, Writer writer) {
+        PayPeriod copy = history.copies[writer.next++ & (CYCLE - 1)];
+        Date start = DateManager.getDate(copy.getStartDate().getDateVal());
+        Date end = DateManager.getDate(copy.getEndDate().getDateVal());
+        Deduction[] deductions = new Deduction[copy.getDeductions().size()];
+
+        for (int i = 0; i < deductions.length; ++i) {
+            deductions[i] = copy.getDeductions().get(i);
+        }
+
+        return (history.data.addPayPeriod(start, end, copy.getPosition(), Amount.of(copy.getGrossCents()),
+                deductions));
+    }
+
+    /**
+     * @param history the history
+     * @param queries the queries of the thread
+     * @return the sum of the totals found
+     */
+    private static long query(History history, Queries queries) {
+        int i = queries.next++ & (CYCLE - 1);
+        long total = history.data.getEarningsRangeIndex().getNetCents(queries.from_days[i], queries.to_days[i]);
+        total += history.positions[queries.positions[i]].getCalendarTotals().getNetCents(queries.years[i]);
+
+        PayPeriodStore store = history.data.getPayPeriodStore().snapshot();
+
+        for (int row = Math.max(0, store.size() - TAIL), rows = store.size(); row < rows; ++row) {
+            total += store.getGrossCents(row);
+        }
+
+        return (total);
+    }
+}
@@ -0,0 +1,127 @@
+package ehist.bench;
+
+import ehist.mem.date.Date;
+import ehist.mem.date.DateFormatter;
+import ehist.mem.date.DateManager;
+import ehist.mem.date.Day;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * === DateBenchmark Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Measures the date operations used for every pay period: finding the days
+ * between two dates, the day of the week of a date and formatting a date. Each
+ * call works on the next of a few thousand random dates between 1900 and 2099
+ * so neither the branch predictor nor the JIT can learn a single date.
+ * </p>
+ *
+ * @see DateManagerBenchmark
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class DateBenchmark {
+
+    /** The number of dates cycled through, a power of two. */
+    private static final int DATES = 4096;
+
+    /** The format of the custom formatter, every kind of field. */
+    @Param({"$y$/$mm$/$dd$", "$W$, $M$ $D$, $y$"})
+    public String format;
+
+    private Date[] dates;
+    private int[] years;
+    private int[] months;
+    private int[] days;
+    private DateFormatter formatter;
+    private StringBuilder builder;
+    private byte[] bytes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+
+        dates = new Date[DATES];
+        years = new int[DATES];
+        months = new int[DATES];
+        days = new int[DATES];
+
+        long first = DateManager.getDate(1900, 1, 1).toEpochDay();
+        long last = DateManager.getDate(2099, 12, 31).toEpochDay();
+
+        for (int i = 0; i < DATES; ++i) {
+            dates[i] = Date.ofEpochDay(first + (long)(random.nextDouble() * (last - first)));
+            years[i] = dates[i].getYear();
+            months[i] = dates[i].getMonthNumber();
+            days[i] = dates[i].getDay();
+        }
+
+        formatter = DateFormatter.createFormatter(format);
+        builder = new StringBuilder(64);
+        bytes = new byte[64];
+    }
+
+    @Benchmark
+    public int daysBetween() {
+        int i = next++ & (DATES - 1);
+        return (Date.daysBetween(dates[i], dates[(i + 1) & (DATES - 1)]));
+    }
+
+    @Benchmark
+    public Day dayOfWeek() {
+        int i = next++ & (DATES - 1);
+        return (Day.dayOfWeek(years[i], months[i], days[i]));
+    }
+
+    @Benchmark
+    public Day dateDayOfWeek() {
+        return (dates[next++ & (DATES - 1)].dayOfWeek());
+    }
+
+    @Benchmark
+    public String format() {
+        return (formatter.format(dates[next++ & (DATES - 1)]));
+    }
+
+    /**
+     *  Formats into a reused builder, the allocation free path of the formatter.
+     */
+    @Benchmark
+    public void formatToBuilder(Blackhole blackhole) {
+        builder.setLength(0);
+        formatter.formatTo(dates[next++ & (DATES - 1)], builder);
+        blackhole.consume(builder);
+    }
+
+    /**
+     *  Formats into a reused byte array, as the exporter does.
+     */
+    @Benchmark
+    public int formatToBytes() {
+        return (formatter.formatTo(dates[next++ & (DATES - 1)], bytes, 0));
+    }
+}
@@ -0,0 +1,152 @@
+package ehist.bench;
+
+import ehist.mem.date.Date;
+import ehist.mem.date.DateManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * === DateManagerBenchmark Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Measures getting dates from the {@link DateManager} in each of the ways it
+ * can store them: counted references, a dense window of years or weak
+ * references. Each get is paired with a remove so counted references neither
+ * grow nor release the date. The lookups run on one thread and on eight
+ * threads at once, and alongside a thread that keeps creating and releasing
+ * dates no other thread uses, to show the cost of contention on the tables.
+ * </p><p>
+ *  The storage can only be chosen before the first date is stored, every
+ * trial runs in a fresh fork.
+ * </p>
+ *
+ * @see DateBenchmark
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DateManagerBenchmark {
+
+    /** The number of dates each thread cycles through, a power of two. */
+    private static final int DATES = 4096;
+
+    /**
+     *  Chooses how the dates are stored, once per fork.
+     */
+    @State(Scope.Benchmark)
+    public static class Storage {
+
+        @Param({"COUNTED", "DENSE", "WEAK"})
+        public String storage;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            if (storage.equals("WEAK")) {
+                DateManager.setWeakEviction(true);
+            } else if (storage.equals("DENSE")) {
+                DateManager.setDenseYears(1900, 2099, true);
+            }
+        }
+    }
+
+    /**
+     *  The dates of one thread, as year, month and day. Those in use are held so
+     * weakly held dates are not collected while measured.
+     */
+    @State(Scope.Thread)
+    public static class Dates {
+
+        int[] years;
+        int[] months;
+        int[] days;
+        Date[] held;
+        int next;
+
+        /** A date far from every other thread's, created and released on every call. */
+        int churn_year;
+
+        @Setup(Level.Trial)
+        public void setUp(Storage storage) {
+            Random random = new Random(Thread.currentThread().getId());
+
+            years = new int[DATES];
+            months = new int[DATES];
+            days = new int[DATES];
+            held = new Date[DATES];
+
+            for (int i = 0; i < DATES; ++i) {
+                years[i] = 1900 + random.nextInt(200);
+                months[i] = 1 + random.nextInt(12);
+                days[i] = 1 + random.nextInt(28);
+                held[i] = DateManager.getDate(years[i], months[i], days[i]);
+            }
+
+            churn_year = 5000 + random.nextInt(1000);
+        }
+    }
+
+    @Benchmark
+    public Date lookup(Dates dates) {
+        return (getAndRemove(dates));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Date lookupContended(Dates dates) {
+        return (getAndRemove(dates));
+    }
+
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(7)
+    public Date churnLookup(Dates dates) {
+        return (getAndRemove(dates));
+    }
+
+    /**
+     *  Creates a date no one else holds and releases it, so each call adds to
+     * and removes from the counted table while the other threads look up.
+     */
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(1)
+    public Date churnCreate(Dates dates) {
+        int i = dates.next++ & (DATES - 1);
+        Date date = DateManager.getDate(dates.churn_year, dates.months[i], dates.days[i]);
+        DateManager.removeDate(date);
+        return (date);
+    }
+
+    /**
+     * @param dates the dates of the thread
+     * @return the next date of the thread, got and released
+     */
+    private static Date getAndRemove(Dates dates) {
+        int i = dates.next++ & (DATES - 1);
+        Date date = DateManager.getDate(dates.years[i], dates.months[i], dates.days[i]);
+        DateManager.removeDate(date);
+        return (date);
+    }
+}
@@ -0,0 +1,94 @@
+package ehist.bench;
+
+import ehist.mem.Amount;
+import ehist.mem.DataControl;
+import ehist.mem.PayPeriod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * === PayPeriodBenchmark Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Measures reading the net amount of pay periods of a {@link SyntheticHistory}
+ * of a thousand to ten million pay periods: through a {@link PayPeriod} view
+ * of a random row, as cents from the view, and for every row of the history.
+ * The larger histories need a heap of a few gigabytes, see the README.
+ * </p>
+ *
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class PayPeriodBenchmark {
+
+    /** The number of random rows cycled through, a power of two. */
+    private static final int ROWS = 4096;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int payPeriods;
+
+    private DataControl data;
+    private int[] rows;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = SyntheticHistory.generate(payPeriods, 42);
+
+        Random random = new Random(42);
+        rows = new int[ROWS];
+
+        for (int i = 0; i < ROWS; ++i) {
+            rows[i] = random.nextInt(payPeriods);
+        }
+    }
+
+    @Benchmark
+    public Amount getNetAmount() {
+        return (data.getPayPeriod(rows[next++ & (ROWS - 1)]).getNetAmount());
+    }
+
+    @Benchmark
+    public long getNetCents() {
+        return (data.getPayPeriod(rows[next++ & (ROWS - 1)]).getNetCents());
+    }
+
+    /**
+     *  Sums the net amount of every pay period of the history.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    public long sumNetCents() {
+        long total = 0;
+
+        for (int row = 0, size = data.getPayPeriodStore().size(); row < size; ++row) {
+            total += data.getPayPeriod(row).getNetCents();
+        }
+
+        return (total);
+    }
+}
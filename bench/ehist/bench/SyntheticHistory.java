@@ -0,0 +1,112 @@
+package ehist.bench;
+
+import ehist.mem.Amount;
+import ehist.mem.DataControl;
+import ehist.mem.Deduction;
+import ehist.mem.DeductionType;
+import ehist.mem.Employer;
+import ehist.mem.Position;
+import ehist.mem.date.Date;
+import ehist.mem.date.DateManager;
+
+import java.util.Random;
+
+/**
+ * <p>
+ * === SyntheticHistory Enum ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Generates earnings histories for the benchmarks. A history is a number of
+ * careers, each a position at an employer held for one to ten years somewhere
+ * between 1960 and 2030 and paid weekly, every two weeks or twice a month.
+ * Careers are added until the history has the requested number of pay
+ * periods, so a history of a thousand pay periods holds a few careers and one
+ * of ten million tens of thousands, spread over decades either way.
+ * </p><p>
+ *  Every pay period has an income tax, a pension and an insurance deduction.
+ * The same seed always generates the same history.
+ * </p>
+ *
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+public enum SyntheticHistory {
+    ;
+
+    /** The first year a career can start in. */
+    public final static int FIRST_YEAR = 1960;
+
+    /** The last year a pay period can end in. */
+    public final static int LAST_YEAR = 2030;
+
+    /** The number of employers the careers are spread over. */
+    private final static int EMPLOYERS = 500;
+
+    /** The titles a position can have. */
+    private final static String[] TITLES = {"Analyst", "Clerk", "Developer", "Manager", "Technician", "Operator"};
+
+    /**
+     *  Generates a history.
+     * @param payPeriods the number of pay periods of the history
+     * @param seed       the seed of the random numbers
+     * @return a data control holding the history
+     */
+    public static DataControl generate(int payPeriods, long seed) {
+        DataControl data = new DataControl();
+        Random random = new Random(seed);
+        Employer[] employers = new Employer[EMPLOYERS];
+
+        for (int i = 0; i < employers.length; ++i) {
+            employers[i] = data.addEmployer("Employer " + i);
+        }
+
+        DeductionType tax = data.addDeductionType("Income Tax");
+        DeductionType pension = data.addDeductionType("Pension");
+        DeductionType insurance = data.addDeductionType("Insurance");
+
+        long first_day = DateManager.getDate(FIRST_YEAR, 1, 1).toEpochDay();
+        long last_day = DateManager.getDate(LAST_YEAR, 12, 31).toEpochDay();
+        int added = 0;
+
+        while (added < payPeriods) {
+            Employer employer = employers[random.nextInt(employers.length)];
+            Position position = data.findOrAddPosition(TITLES[random.nextInt(TITLES.length)], employer);
+            int length = 7 + 7 * random.nextInt(2);
+            boolean semi_monthly = random.nextInt(4) == 0;
+            long day = first_day + random.nextInt((int)(last_day - first_day - 3650));
+            long end_of_career = day + 365L * (1 + random.nextInt(10));
+            long gross = 50_000 + random.nextInt(400_000);
+
+            while (day < end_of_career && added < payPeriods) {
+                Date start = Date.ofEpochDay(day);
+                long next = (semi_monthly ? nextHalfMonth(start) : day + length);
+                Date end = Date.ofEpochDay(next - 1);
+
+                data.addPayPeriod(start, end, position, Amount.of(gross), new Deduction[] {
+                        new Deduction(Amount.of(gross / 5), tax),
+                        new Deduction(Amount.of(gross / 20), pension),
+                        new Deduction(Amount.of(gross / 60), insurance)
+                });
+
+                day = next;
+                ++added;
+            }
+        }
+
+        return (data);
+    }
+
+    /**
+     * @param start the start date of a pay period paid twice a month
+     * @return the epoch day of the 1st or 16th following the start date
+     */
+    private static long nextHalfMonth(Date start) {
+        long first_of_month = start.toEpochDay() - start.getDay() + 1;
+
+        if (start.getDay() < 16) {
+            return (first_of_month + 15);
+        }
+        return (first_of_month + start.getMonth().getDays(start.isLeapYear()));
+    }
+}
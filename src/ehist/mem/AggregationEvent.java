@@ -0,0 +1,46 @@
+package ehist.mem;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * <p>
+ * === AggregationEvent Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  A Java Flight Recorder event for one {@link EarningsAggregator} query over
+ * a data control. Disabled by default, enable <tt>ehist.Aggregation</tt> in a
+ * recording.
+ * </p>
+ *
+ * @see EarningsAggregator
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+@Name("ehist.Aggregation")
+@Label("Aggregation")
+@Category({"EHist", "Query"})
+@Description("Pay periods summed by the keys of an EarningsAggregator")
+@Enabled(false)
+@StackTrace(false)
+final class AggregationEvent extends Event {
+
+    /** The keys grouped by. */
+    @Label("Keys")
+    String keys;
+
+    /** The number of pay periods scanned. */
+    @Label("Rows")
+    int rows;
+
+    /** The number of non-empty groups found. */
+    @Label("Groups")
+    int groups;
+}
+
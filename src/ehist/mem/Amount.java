@@ -6,14 +6,26 @@ package ehist.mem;
  * </p><p>
  * Date : March 02, 2017
  * </p><p>
- * TODO Description here
+ *  An immutable amount of money stored in cents. Every operation creates a
+ * new amount, so loops summing many amounts should use an
+ * {@link AmountAccumulator} or the cents of the amounts directly and only
+ * create the final amount. {@link #of(long)} reuses the amounts of small values.
  * </p>
  *
  * @author Michael van Dyk
  */
 public final class Amount implements Comparable<Amount> {
 
-    public final static Amount ZERO = new Amount(0);
+    /** The lowest number of cents that has a cached amount. */
+    private static final int CACHE_LOW = -100_00;
+
+    /** The highest number of cents that has a cached amount. */
+    private static final int CACHE_HIGH = 100_00;
+
+    /** The cached amounts, filled as they are asked for. Races only create an extra equal amount. */
+    private static final Amount[] CACHE = new Amount[CACHE_HIGH - CACHE_LOW + 1];
+
+    public final static Amount ZERO = of(0);
 
     private final long cents;
 
@@ -25,22 +37,70 @@ public final class Amount implements Comparable<Amount> {
         this.cents = dollars * 100 + cents;
     }
 
+    /**
+     *  Gets an amount of the given cents. Amounts between -$100.00 and $100.00
+     * are cached and reused, others are created.
+     * @param cents the cents of the amount
+     * @return an amount of the given cents
+     */
+    public static Amount of(long cents) {
+        Amount ret;
+
+        if (cents >= CACHE_LOW && cents <= CACHE_HIGH) {
+            int index = (int)cents - CACHE_LOW;
+
+            if ((ret = CACHE[index]) == null) {
+                CACHE[index] = ret = new Amount(cents);
+            }
+        } else {
+            ret = new Amount(cents);
+        }
+
+        return (ret);
+    }
+
     public Amount add(Amount o) {
-        return (new Amount(cents + o.cents));
+        return (of(cents + o.cents));
     }
 
     public Amount subtract(Amount o) {
-        return (new Amount(cents - o.cents));
+        return (of(cents - o.cents));
+    }
+
+    public long getCents() {
+        return (cents);
     }
 
     @Override
     public int compareTo(Amount o) {
-        return ((int)Math.signum(cents - o.cents));
+        return (Long.compare(cents, o.cents));
     }
 
+    @Override
+    public boolean equals(Object o) {
+        return (o instanceof Amount && ((Amount)o).cents == cents);
+    }
+
+    @Override
+    public int hashCode() {
+        return (Long.hashCode(cents));
+    }
+
+    /**
+     * @return the amount as dollars and two digits of cents, such as $12.05 or -$0.50
+     */
     @Override
     public String toString() {
-        return (String.format("$%d.%02d", cents/100, cents%100));
+        long dollars = Math.abs(cents / 100);
+        int rest = (int)Math.abs(cents % 100);
+        StringBuilder sb = new StringBuilder(24);
+
+        if (cents < 0) {
+            sb.append('-');
+        }
+
+        return (sb.append('$').append(dollars).append('.')
+                .append((char)('0' + rest / 10)).append((char)('0' + rest % 10)).toString());
     }
 
 }
@@ -0,0 +1,97 @@
+package ehist.mem;
+
+/**
+ * <p>
+ * === AmountAccumulator Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  A mutable running total of money in cents. Meant for loops that sum many
+ * amounts, such as the gross of a year of pay periods, where adding
+ * {@link Amount}s would create an object for every addend. Only the final
+ * total is created as an amount with {@link #toAmount()}. Not thread safe.
+ * </p>
+ *
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+public final class AmountAccumulator {
+
+    /** The running total in cents. */
+    private long cents;
+
+    /**
+     *  Creates an accumulator with a total of zero.
+     */
+    public AmountAccumulator() {
+        this.cents = 0;
+    }
+
+    /**
+     *  Adds the amount to the total.
+     * @param amount the amount to add
+     * @return this accumulator
+     */
+    public AmountAccumulator add(Amount amount) {
+        cents += amount.getCents();
+        return (this);
+    }
+
+    /**
+     *  Adds the cents to the total.
+     * @param cents the cents to add
+     * @return this accumulator
+     */
+    public AmountAccumulator add(long cents) {
+        this.cents += cents;
+        return (this);
+    }
+
+    /**
+     * @return the total in cents
+     */
+    public long getCents() {
+        return (cents);
+    }
+
+    /**
+     *  Sets the total back to zero so the accumulator can be reused.
+     * @return this accumulator
+     */
+    public AmountAccumulator reset() {
+        cents = 0;
+        return (this);
+    }
+
+    /**
+     *  Subtracts the amount from the total.
+     * @param amount the amount to subtract
+     * @return this accumulator
+     */
+    public AmountAccumulator subtract(Amount amount) {
+        cents -= amount.getCents();
+        return (this);
+    }
+
+    /**
+     *  Subtracts the cents from the total.
+     * @param cents the cents to subtract
+     * @return this accumulator
+     */
+    public AmountAccumulator subtract(long cents) {
+        this.cents -= cents;
+        return (this);
+    }
+
+    /**
+     * @return the total as an amount
+     */
+    public Amount toAmount() {
+        return (Amount.of(cents));
+    }
+
+    @Override
+    public String toString() {
+        return (toAmount().toString());
+    }
+}
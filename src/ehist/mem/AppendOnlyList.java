@@ -0,0 +1,95 @@
+package ehist.mem;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>
+ * === AppendOnlyList Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  A list that is only ever appended to, by one writer at a time, while any
+ * number of threads read it without locking. The elements are held in an
+ * array that is replaced rather than grown in place, and the array and the
+ * size are published through volatile fields, the element before the size, so
+ * a reader that sees a size also sees every element below it.
+ * </p><p>
+ *  Since no element below the size ever changes, a snapshot of the list is
+ * only the array and size of the moment, taken in O(1) and unaffected by
+ * anything appended afterwards.
+ * </p>
+ *
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ *
+ * @param <T> The type of element stored in the list.
+ */
+final class AppendOnlyList<T> {
+
+    /** The initial number of elements there is room for. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** The elements, replaced when full so readers always see a complete array. */
+    private volatile Object[] elements;
+
+    /** The number of elements. */
+    private volatile int size;
+
+    AppendOnlyList() {
+        this.elements = new Object[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    /**
+     *  Appends an element. The caller must hold the lock of the writers.
+     * @param element the element
+     */
+    void append(T element) {
+        Object[] array = elements;
+        int count = size;
+
+        if (count == array.length) {
+            array = Arrays.copyOf(array, count * 2);
+        }
+
+        array[count] = element;
+
+        /* The element is stored before the size lets another thread see it */
+        elements = array;
+        size = count + 1;
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException if there is no element at the index
+     * @param index the index of the element
+     * @return the element
+     */
+    @SuppressWarnings("unchecked")
+    T get(int index) {
+        int count = size;
+
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException(String.format("Index out of range [0, %d) : %d", count, index));
+        }
+        return ((T)elements[index]);
+    }
+
+    /**
+     * @return the number of elements
+     */
+    int size() {
+        return (size);
+    }
+
+    /**
+     * @return a read only list of the elements appended so far, never changed by later appends
+     */
+    @SuppressWarnings("unchecked")
+    List<T> snapshot() {
+        int count = size;
+        List<T> list = (List<T>)Arrays.asList(elements);
+        return (Collections.unmodifiableList(list.subList(0, count)));
+    }
+}
@@ -0,0 +1,247 @@
+package ehist.mem;
+
+import ehist.mem.date.Date;
+import ehist.mem.date.Month;
+import ehist.mem.date.Year;
+
+/**
+ * <p>
+ * === CalendarTotals Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  The gross, deduction and net amounts earned in each calendar year and
+ * month by the pay periods of a {@link Position} or of every position of an
+ * {@link Employer}. A pay period spanning more than one month is split between
+ * them by day, the same way an {@link EarningsRangeIndex} prorates it, so the
+ * total of a month equals what the range index finds over its days.
+ * </p><p>
+ *  The totals are kept up to date eagerly: each pay period is added to the
+ * buckets by {@link DataControl#addPayPeriod} itself, before it returns,
+ * rather than when a total is asked for. Each year and month has its own
+ * bucket of primitive cents in {@link MonthlyBuckets}, so adding a pay period
+ * takes O(1) for every month it touches, after finding the page of its year,
+ * and reading a total takes a search of the years that have pay periods. Only
+ * those years have buckets, however far apart they are.
+ * </p><p>
+ *  The buckets are written under the write lock of the data control and read
+ * optimistically, see
+ * {@link DataControl#read(java.util.function.LongSupplier)}. The net
+ * amount is read from both sums of a bucket at once.
+ * </p>
+ *
+ * @see Position#getCalendarTotals()
+ * @see Employer#getCalendarTotals()
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+public final class CalendarTotals {
+
+    /** The offset of the gross amount within a bucket. */
+    private static final int GROSS = 0;
+
+    /** The offset of the deduction total within a bucket. */
+    private static final int DEDUCTIONS = 1;
+
+    /** The number of longs of each bucket. */
+    private static final int STRIDE = 2;
+
+    /** Asks for the gross less the deduction total of a bucket. */
+    private static final int NET = -1;
+
+    /** The data control the pay periods belong to. */
+    private final DataControl data;
+
+    /** The gross and deduction sums of each year and month. */
+    private final MonthlyBuckets buckets;
+
+    /** The earliest year anything was earned in. */
+    private int min_year;
+
+    /** The latest year anything was earned in. */
+    private int max_year;
+
+    /**
+     *  Creates empty totals. Only created by the owner of the totals.
+     * @param data the data control the pay periods belong to
+     */
+    CalendarTotals(DataControl data) {
+        this.data = data;
+        this.buckets = new MonthlyBuckets(STRIDE);
+        this.min_year = Integer.MAX_VALUE;
+        this.max_year = Integer.MIN_VALUE;
+    }
+
+    /**
+     *  Adds the amounts of a pay period to the months it spans, each month
+     * taking the part earned on its days.
+     * @param start_val  the date value of the start date
+     * @param end_val    the date value of the end date
+     * @param gross      the gross amount in cents
+     * @param deductions the deduction total in cents
+     */
+    void add(int start_val, int end_val, long gross, long deductions) {
+        int year = Date.getYear(start_val);
+        int month = Date.getMonthNumber(start_val);
+        long length = Date.daysBetween(start_val, end_val);
+
+        min_year = Math.min(min_year, year);
+        max_year = Math.max(max_year, Date.getYear(end_val));
+
+        /* The days of the pay period up to the end of the month, and the part of each amount earned by then */
+        long days = Month.getMonth(month).getDays(Year.isLeapYear(year)) - Date.getDay(start_val) + 1;
+        long gross_done = 0;
+        long deductions_done = 0;
+
+        while (true) {
+            days = Math.min(days, length);
+
+            long gross_part = EarningsRangeIndex.prorate(gross, days, length);
+            long deductions_part = EarningsRangeIndex.prorate(deductions, days, length);
+
+            buckets.add(year, month, GROSS, gross_part - gross_done);
+            buckets.add(year, month, DEDUCTIONS, deductions_part - deductions_done);
+
+            if (days == length) {
+                return;
+            }
+
+            gross_done = gross_part;
+            deductions_done = deductions_part;
+
+            if (++month > 12) {
+                month = 1;
+                ++year;
+            }
+
+            days += Month.getMonth(month).getDays(Year.isLeapYear(year));
+        }
+    }
+
+    /**
+     * @throws EHistException if there are no pay periods
+     * @param year the earliest or latest year read, still at its initial value if there are no pay periods
+     * @return the year
+     */
+    private static int checkNotEmpty(long year) {
+        if (year == Integer.MAX_VALUE || year == Integer.MIN_VALUE) {
+            throw new EHistException("CalendarTotals: no pay periods");
+        }
+        return ((int)year);
+    }
+
+    /**
+     * @return the bytes of the buckets
+     */
+    long estimateBytes() {
+        return (buckets.estimateBytes());
+    }
+
+    /**
+     * @param year the year
+     * @return the deductions earned in the year in cents
+     */
+    public long getDeductionCents(int year) {
+        return (year(year, DEDUCTIONS));
+    }
+
+    /**
+     * @throws EHistException if the month is null
+     * @param year  the year
+     * @param month the month of the year
+     * @return the deductions earned in the month in cents
+     */
+    public long getDeductionCents(int year, Month month) {
+        return (month(year, month, DEDUCTIONS));
+    }
+
+    /**
+     * @throws EHistException if there are no pay periods
+     * @return the earliest year a pay period falls in
+     */
+    public int getFirstYear() {
+        return (checkNotEmpty(data.read(() -> min_year)));
+    }
+
+    /**
+     * @param year the year
+     * @return the gross earned in the year in cents
+     */
+    public long getGrossCents(int year) {
+        return (year(year, GROSS));
+    }
+
+    /**
+     * @throws EHistException if the month is null
+     * @param year  the year
+     * @param month the month of the year
+     * @return the gross earned in the month in cents
+     */
+    public long getGrossCents(int year, Month month) {
+        return (month(year, month, GROSS));
+    }
+
+    /**
+     * @throws EHistException if there are no pay periods
+     * @return the latest year a pay period falls in
+     */
+    public int getLastYear() {
+        return (checkNotEmpty(data.read(() -> max_year)));
+    }
+
+    /**
+     *  The net amount is the gross less the deductions.
+     * @param year the year
+     * @return the net earned in the year in cents
+     */
+    public long getNetCents(int year) {
+        return (year(year, NET));
+    }
+
+    /**
+     *  The net amount is the gross less the deductions.
+     * @throws EHistException if the month is null
+     * @param year  the year
+     * @param month the month of the year
+     * @return the net earned in the month in cents
+     */
+    public long getNetCents(int year, Month month) {
+        return (month(year, month, NET));
+    }
+
+    /**
+     * @return if no pay period has been added
+     */
+    public boolean isEmpty() {
+        return (data.read(() -> buckets.isEmpty() ? 0 : 1) == 0);
+    }
+
+    /**
+     * @param year  the year
+     * @param month the month of the year
+     * @param kind  the offset of the amount within a bucket, or NET
+     * @return the amount of the kind earned in the month
+     */
+    private long month(int year, Month month, int kind) {
+        if (month == null) {
+            throw new EHistException("CalendarTotals: month cannot be null");
+        }
+
+        int number = month.getMonthNumber();
+
+        return (data.read(() -> kind == NET
+                ? buckets.month(year, number, GROSS) - buckets.month(year, number, DEDUCTIONS)
+                : buckets.month(year, number, kind)));
+    }
+
+    /**
+     * @param year the year
+     * @param kind the offset of the amount within a bucket, or NET
+     * @return the amount of the kind earned in the year
+     */
+    private long year(int year, int kind) {
+        return (data.read(() -> kind == NET
+                ? buckets.year(year, GROSS) - buckets.year(year, DEDUCTIONS)
+                : buckets.year(year, kind)));
+    }
+}
@@ -0,0 +1,863 @@
+package ehist.mem;
+
+import ehist.mem.date.Month;
+import ehist.mem.date.Year;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>
+ * === CsvImporter Enum ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Loads pay periods from a CSV file into a {@link DataControl}. The first line
+ * of the file is a header and is skipped, every other line is one pay period:
+ * </p>
+ * <pre>
+ * employer,position,start,end,gross[,deduction type,amount]...
+ * Acme,Developer,2024-01-01,2024-01-14,2500.00,Income Tax,412.50,Pension,120
+ * </pre>
+ * <p>
+ *  Dates are <tt>year-month-day</tt>, amounts are an optional minus sign, the
+ * dollars and at most two digits of cents. A name may be quoted with double
+ * quotes, a quote within it doubled, but cannot span lines. Empty lines are
+ * skipped, as are deduction pairs whose type and amount are both empty.
+ * </p><p>
+ *  The file is cut into chunks of a few megabytes at line ends. Each chunk is
+ * read over the file channel and parsed by its own task of a fork/join pool
+ * straight from the bytes into primitive columns, names into a table of the
+ * chunk that gives each distinct name an id without creating a string. As
+ * soon as a chunk and every chunk before it are parsed, the names of the
+ * chunk are matched to the employers, positions (by employer and title) and
+ * deduction types of the data control through its find or add methods, adding
+ * those not found, and its pay periods are appended, while the pool goes on
+ * parsing the chunks after it. At most two chunks per thread of the pool are
+ * read ahead, so memory stays bounded whatever the size of the file.
+ * </p><p>
+ *  If a line is invalid nothing from its chunk or any later chunk is added,
+ * but the pay periods of the chunks before it have been. The exception gives
+ * the line and how many pay periods were added.
+ * </p>
+ *
+ * @see Journal
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+public enum CsvImporter {
+    ;
+
+    /** The number of bytes of each chunk, the file is cut at the first line end after each multiple. */
+    private static final int CHUNK = 1 << 23;
+
+    /** The number of bytes read at a time while looking for a line end. */
+    private static final int SCAN = 1 << 12;
+
+    /**
+     *  Loads the pay periods of the file on the common fork/join pool.
+     * @throws EHistException if the file cannot be read or a line is invalid
+     * @param data the data control to add to
+     * @param path the path of the CSV file
+     * @return the number of pay periods added
+     */
+    public static int load(DataControl data, Path path) {
+        return (load(data, path, ForkJoinPool.commonPool()));
+    }
+
+    /**
+     *  Loads the pay periods of the file, parsing on the given fork/join pool.
+     * @throws EHistException if the file cannot be read or a line is invalid
+     * @param data the data control to add to
+     * @param path the path of the CSV file
+     * @param pool the pool to parse on
+     * @return the number of pay periods added
+     */
+    public static int load(DataControl data, Path path, ForkJoinPool pool) {
+        if (data == null) {
+            throw new EHistException("CsvImporter: data cannot be null");
+        } else if (path == null) {
+            throw new EHistException("CsvImporter: path cannot be null");
+        } else if (pool == null) {
+            throw new EHistException("CsvImporter: pool cannot be null");
+        }
+
+        long started = System.nanoTime();
+        Resolver resolver = new Resolver(data);
+        int rows = 0;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] bounds = split(channel);
+            int count = bounds.length - 1;
+            int ahead = Math.max(2, pool.getParallelism() * 2);
+            ParseTask[] tasks = new ParseTask[count];
+
+            for (int i = 0; i < Math.min(ahead, count); ++i) {
+                tasks[i] = submit(pool, channel, bounds, i);
+            }
+
+            /* Line 1 is the header */
+            int line = 1;
+
+            try {
+                for (int i = 0; i < count; ++i) {
+                    tasks[i].join();
+
+                    Batch batch = tasks[i].batch;
+                    tasks[i] = null;
+
+                    if (i + ahead < count) {
+                        tasks[i + ahead] = submit(pool, channel, bounds, i + ahead);
+                    }
+
+                    if (batch.failure != null) {
+                        throw new EHistException(String.format("CsvImporter: %s line %d: %s (%d pay periods added)",
+                                path, line + batch.failure_line + 1, batch.failure.getMessage(), rows), batch.failure);
+                    }
+
+                    line += batch.lines;
+                    rows += resolver.append(batch);
+                }
+            } finally {
+                /* The channel is closed on the way out, no parse may still be reading it */
+                for (ParseTask task : tasks) {
+                    if (task != null && !task.cancel(false)) {
+                        task.quietlyJoin();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new EHistException("CsvImporter: cannot read " + path, e);
+        }
+
+        data.metrics().loaded(rows, started);
+        return (rows);
+    }
+
+    /**
+     *  Starts parsing a chunk on the pool.
+     * @param pool    the pool to parse on
+     * @param channel the channel of the file
+     * @param bounds  the offset of the start of each chunk followed by the size of the file
+     * @param chunk   the index of the chunk
+     * @return the task parsing the chunk
+     */
+    private static ParseTask submit(ForkJoinPool pool, FileChannel channel, long[] bounds, int chunk) {
+        ParseTask task = new ParseTask(new Batch(channel, bounds[chunk], bounds[chunk + 1]));
+        pool.execute(task);
+        return (task);
+    }
+
+    /**
+     *  Finds where each chunk starts, just after the header and then just after
+     * the first line end at or after each multiple of the chunk size.
+     * @param channel the channel of the file
+     * @return the offset of the start of each chunk followed by the size of the file
+     * @throws IOException if the file cannot be read
+     */
+    private static long[] split(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long[] bounds = new long[(int)(size / CHUNK) + 2];
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN);
+        int count = 0;
+        long at = 0;
+
+        while (at < size) {
+            long end = lineEnd(channel, buffer, at, size);
+            bounds[count++] = end;
+            at = Math.max(end, (at / CHUNK + 1) * CHUNK);
+        }
+
+        if (count == 0) {
+            bounds[count++] = 0;
+        }
+
+        if (count == 1 || bounds[count - 1] != size) {
+            bounds[count++] = size;
+        }
+
+        return (Arrays.copyOf(bounds, count));
+    }
+
+    /**
+     * @param channel the channel of the file
+     * @param buffer  a buffer to read through
+     * @param at      the offset to look from
+     * @param size    the size of the file
+     * @return the offset just after the first line end at or after the offset, or the size if none
+     * @throws IOException if the file cannot be read
+     */
+    private static long lineEnd(FileChannel channel, ByteBuffer buffer, long at, long size) throws IOException {
+        while (at < size) {
+            buffer.clear();
+            int read = channel.read(buffer, at);
+
+            if (read < 0) {
+                break;
+            }
+
+            for (int i = 0; i < read; ++i) {
+                if (buffer.get(i) == '\n') {
+                    return (at + i + 1);
+                }
+            }
+
+            at += read;
+        }
+        return (size);
+    }
+
+    /**
+     *  The pay periods of one chunk of the file in primitive columns, with the
+     * names they use by ids local to the chunk.
+     */
+    private static final class Batch {
+
+        final FileChannel channel;
+        final long from;
+        final long to;
+
+        int rows;
+        int[] start;
+        int[] end;
+        long[] gross;
+        int[] position;
+
+        /** The index of the first deduction of each row, with one extra entry holding the deduction count. */
+        int[] deduction_offset;
+        long[] cents;
+        int[] types;
+
+        final NameTable employers;
+
+        /** Positions keyed by title and the id of their employer in {@link #employers}. */
+        final NameTable positions;
+        final NameTable type_names;
+
+        /** The number of lines of the chunk. */
+        int lines;
+
+        /** The first error of the chunk and its line within the chunk, or null. */
+        RuntimeException failure;
+        int failure_line;
+
+        Batch(FileChannel channel, long from, long to) {
+            this.channel = channel;
+            this.from = from;
+            this.to = to;
+            this.start = new int[1024];
+            this.end = new int[1024];
+            this.gross = new long[1024];
+            this.position = new int[1024];
+            this.deduction_offset = new int[1025];
+            this.cents = new long[1024];
+            this.types = new int[1024];
+            this.employers = new NameTable();
+            this.positions = new NameTable();
+            this.type_names = new NameTable();
+        }
+
+        /**
+         *  Reads and parses the chunk, keeping the first error instead of throwing it.
+         */
+        void parse() {
+            ImportBatchEvent event = new ImportBatchEvent();
+            event.begin();
+
+            try {
+                byte[] bytes = new byte[(int)(to - from)];
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, from + buffer.position()) < 0) {
+                        throw new EHistException("file ended while reading");
+                    }
+                }
+
+                new Parser(this, bytes).parse();
+            } catch (IOException e) {
+                failure = new EHistException("cannot read", e);
+            } catch (RuntimeException e) {
+                failure = e;
+                failure_line = lines;
+            }
+
+            if (event.shouldCommit()) {
+                event.phase = "parse";
+                event.rows = rows;
+                event.bytes = to - from;
+                event.commit();
+            }
+        }
+
+        /**
+         *  Makes room for another row with the given number of deductions.
+         * @param deductions the number of deductions of the row
+         */
+        void ensure(int deductions) {
+            if (rows == start.length) {
+                int capacity = rows * 2;
+                start = Arrays.copyOf(start, capacity);
+                end = Arrays.copyOf(end, capacity);
+                gross = Arrays.copyOf(gross, capacity);
+                position = Arrays.copyOf(position, capacity);
+                deduction_offset = Arrays.copyOf(deduction_offset, capacity + 1);
+            }
+
+            int needed = deduction_offset[rows] + deductions;
+
+            if (needed > cents.length) {
+                int capacity = Math.max(needed, cents.length * 2);
+                cents = Arrays.copyOf(cents, capacity);
+                types = Arrays.copyOf(types, capacity);
+            }
+        }
+    }
+
+    /**
+     *  Parses the lines of a chunk. Fields are located within the bytes of the
+     * chunk, a quoted field with doubled quotes is unescaped into a scratch
+     * array instead.
+     */
+    private static final class Parser {
+
+        private final Batch batch;
+        private final byte[] bytes;
+
+        /** The position within the bytes and the end of the current line. */
+        private int pos;
+        private int line_end;
+
+        /** The bytes, offset and length of the last field read. */
+        private byte[] field;
+        private int field_from;
+        private int field_length;
+
+        /** Holds unescaped quoted fields. */
+        private byte[] scratch;
+
+        /** The deduction amounts and type ids of the current line. */
+        private long[] line_cents;
+        private int[] line_types;
+
+        Parser(Batch batch, byte[] bytes) {
+            this.batch = batch;
+            this.bytes = bytes;
+            this.pos = 0;
+            this.scratch = new byte[64];
+            this.line_cents = new long[8];
+            this.line_types = new int[8];
+        }
+
+        /**
+         *  Parses every line of the chunk, the first chunk starts after the header.
+         */
+        void parse() {
+            while (pos < bytes.length) {
+                int next = pos;
+
+                while (next < bytes.length && bytes[next] != '\n') {
+                    ++next;
+                }
+
+                line_end = (next > pos && bytes[next - 1] == '\r' ? next - 1 : next);
+
+                if (line_end > pos) {
+                    parseLine();
+                }
+
+                ++batch.lines;
+                pos = next + 1;
+            }
+        }
+
+        /**
+         *  Parses one line into the next row of the batch.
+         */
+        private void parseLine() {
+            boolean more = nextField();
+            int employer = batch.employers.id(field, field_from, field_length, 0);
+
+            more = require(more, "position") && nextField();
+            int position = batch.positions.id(field, field_from, field_length, employer);
+
+            more = require(more, "start date") && nextField();
+            int start_val = date();
+
+            more = require(more, "end date") && nextField();
+            int end_val = date();
+
+            if (Integer.compareUnsigned(end_val, start_val) < 0) {
+                throw new EHistException("end date before start date");
+            }
+
+            more = require(more, "gross") && nextField();
+            long gross = amount();
+            int count = 0;
+
+            while (more) {
+                boolean has_amount = nextField();
+                byte[] type_bytes = field;
+                int type_from = field_from;
+                int type_length = field_length;
+
+                if (field == scratch) {
+                    type_bytes = Arrays.copyOfRange(scratch, field_from, field_from + field_length);
+                    type_from = 0;
+                }
+
+                more = require(has_amount, "deduction amount") && nextField();
+
+                if (type_length == 0 && field_length == 0) {
+                    continue;
+                }
+
+                if (count == line_cents.length) {
+                    line_cents = Arrays.copyOf(line_cents, count * 2);
+                    line_types = Arrays.copyOf(line_types, count * 2);
+                }
+
+                line_types[count] = batch.type_names.id(type_bytes, type_from, type_length, 0);
+                line_cents[count++] = amount();
+            }
+
+            batch.ensure(count);
+
+            int row = batch.rows;
+            int first = batch.deduction_offset[row];
+            batch.start[row] = start_val;
+            batch.end[row] = end_val;
+            batch.gross[row] = gross;
+            batch.position[row] = position;
+            System.arraycopy(line_cents, 0, batch.cents, first, count);
+            System.arraycopy(line_types, 0, batch.types, first, count);
+            batch.deduction_offset[row + 1] = first + count;
+            batch.rows = row + 1;
+        }
+
+        /**
+         *  Reads the next field of the line, moving past the comma after it.
+         * @return if another field follows
+         */
+        private boolean nextField() {
+            if (pos < line_end && bytes[pos] == '"') {
+                return (quotedField());
+            }
+
+            int from = pos;
+
+            while (pos < line_end && bytes[pos] != ',') {
+                ++pos;
+            }
+
+            field = bytes;
+            field_from = from;
+            field_length = pos - from;
+
+            return (pos++ < line_end);
+        }
+
+        /**
+         *  Reads a quoted field, unescaping doubled quotes into the scratch array
+         * if there are any.
+         * @return if another field follows
+         */
+        private boolean quotedField() {
+            int from = ++pos;
+            int length = 0;
+            boolean escaped = false;
+
+            while (true) {
+                if (pos >= line_end) {
+                    throw new EHistException("unterminated quoted field");
+                } else if (bytes[pos] != '"') {
+                    if (escaped) {
+                        putScratch(length, bytes[pos]);
+                    }
+                    ++length;
+                    ++pos;
+                } else if (pos + 1 < line_end && bytes[pos + 1] == '"') {
+                    if (!escaped) {
+                        escaped = true;
+
+                        for (int i = 0; i < length; ++i) {
+                            putScratch(i, bytes[from + i]);
+                        }
+                    }
+                    putScratch(length++, (byte)'"');
+                    pos += 2;
+                } else {
+                    ++pos;
+                    break;
+                }
+            }
+
+            field = (escaped ? scratch : bytes);
+            field_from = (escaped ? 0 : from);
+            field_length = length;
+
+            if (pos < line_end && bytes[pos] != ',') {
+                throw new EHistException("text after quoted field");
+            }
+
+            return (pos++ < line_end);
+        }
+
+        /**
+         * @param index the index to put at
+         * @param b     the byte to put
+         */
+        private void putScratch(int index, byte b) {
+            if (index == scratch.length) {
+                scratch = Arrays.copyOf(scratch, index * 2);
+            }
+            scratch[index] = b;
+        }
+
+        /**
+         * @param more  if another field follows
+         * @param field the name of the field that must follow
+         * @return true
+         * @throws EHistException if no field follows
+         */
+        private static boolean require(boolean more, String field) {
+            if (!more) {
+                throw new EHistException("missing " + field);
+            }
+            return (true);
+        }
+
+        /**
+         *  Parses the last field read as a date.
+         * @return the date value of the date
+         * @throws EHistException if the field is not a valid date
+         */
+        private int date() {
+            int i = field_from;
+            int last = field_from + field_length;
+            int year = 0;
+            int month = 0;
+            int day = 0;
+
+            int from = i;
+            for (; i < last && field[i] != '-' && i - from < 8; ++i) {
+                year = year * 10 + digit(field[i], "date");
+            }
+            int year_digits = i - from;
+
+            from = ++i;
+            for (; i < last && field[i] != '-' && i - from < 3; ++i) {
+                month = month * 10 + digit(field[i], "date");
+            }
+            int month_digits = i - from;
+
+            from = ++i;
+            for (; i < last && i - from < 3; ++i) {
+                day = day * 10 + digit(field[i], "date");
+            }
+            int day_digits = i - from;
+
+            if (i != last || year_digits < 1 || year_digits > 7 || month_digits < 1 || month_digits > 2
+                    || day_digits < 1 || day_digits > 2 || year > Year.MAX_YEAR || month < 1 || month > 12
+                    || day < 1 || day > Month.getMonth(month).getDays(Year.isLeapYear(year))) {
+                throw new EHistException("invalid date " + new String(field, field_from, field_length, StandardCharsets.UTF_8));
+            }
+
+            return ((year << 9) | (month << 5) | day);
+        }
+
+        /**
+         *  Parses the last field read as an amount of money.
+         * @return the amount in cents
+         * @throws EHistException if the field is not a valid amount
+         */
+        private long amount() {
+            int i = field_from;
+            int last = field_from + field_length;
+            boolean negative = (i < last && field[i] == '-');
+            long cents = 0;
+            int digits = 0;
+
+            if (negative) {
+                ++i;
+            }
+
+            for (; i < last && field[i] != '.'; ++i) {
+                cents = cents * 10 + digit(field[i], "amount");
+
+                if (++digits > 16) {
+                    throw new EHistException("amount too large");
+                }
+            }
+
+            int fraction = 0;
+            int fraction_digits = 0;
+
+            if (i < last) {
+                for (++i; i < last; ++i, ++fraction_digits) {
+                    fraction = fraction * 10 + digit(field[i], "amount");
+                }
+
+                if (fraction_digits == 0 || fraction_digits > 2) {
+                    throw new EHistException("amount must have one or two digits of cents");
+                }
+            }
+
+            if (digits == 0 && fraction_digits == 0) {
+                throw new EHistException("missing amount");
+            }
+
+            cents = cents * 100 + (fraction_digits == 1 ? fraction * 10 : fraction);
+            return (negative ? -cents : cents);
+        }
+
+        /**
+         * @param b    a byte
+         * @param what what is being parsed
+         * @return the value of the digit
+         * @throws EHistException if the byte is not a digit
+         */
+        private static int digit(byte b, String what) {
+            if (b < '0' || b > '9') {
+                throw new EHistException("invalid " + what);
+            }
+            return (b - '0');
+        }
+    }
+
+    /**
+     *  Gives each distinct name, with a key of another id, a dense id. Names
+     * are kept back to back in one byte array and found with an open addressed
+     * table, so finding a name already seen creates nothing.
+     */
+    private static final class NameTable {
+
+        /** The bytes of every name. */
+        private byte[] names;
+        private int names_used;
+
+        /** The offset, length and key of each name by id. */
+        private int[] offset;
+        private int[] length;
+        private int[] key;
+        private int count;
+
+        /** The open addressed table of one more than each id, 0 if empty. */
+        private int[] slots;
+
+        NameTable() {
+            this.names = new byte[256];
+            this.offset = new int[16];
+            this.length = new int[16];
+            this.key = new int[16];
+            this.slots = new int[32];
+        }
+
+        /**
+         *  Finds the id of a name and key, giving it the next id if it is new.
+         * @param bytes  the bytes holding the name
+         * @param from   the offset of the name
+         * @param len    the length of the name
+         * @param of     the key of the name
+         * @return the id of the name and key
+         */
+        int id(byte[] bytes, int from, int len, int of) {
+            int hash = of;
+
+            for (int i = from; i < from + len; ++i) {
+                hash = hash * 31 + bytes[i];
+            }
+
+            int mask = slots.length - 1;
+            int i = (hash * 0x9E3779B9 >>> 7) & mask;
+
+            for (; slots[i] != 0; i = (i + 1) & mask) {
+                int id = slots[i] - 1;
+
+                if (key[id] == of && length[id] == len && equal(bytes, from, len, offset[id])) {
+                    return (id);
+                }
+            }
+
+            if (count == offset.length) {
+                offset = Arrays.copyOf(offset, count * 2);
+                length = Arrays.copyOf(length, count * 2);
+                key = Arrays.copyOf(key, count * 2);
+            }
+
+            if (names_used + len > names.length) {
+                names = Arrays.copyOf(names, Math.max(names_used + len, names.length * 2));
+            }
+
+            System.arraycopy(bytes, from, names, names_used, len);
+            offset[count] = names_used;
+            length[count] = len;
+            key[count] = of;
+            names_used += len;
+            slots[i] = ++count;
+
+            if (count * 2 > slots.length) {
+                rehash();
+            }
+
+            return (count - 1);
+        }
+
+        /**
+         * @return the number of names
+         */
+        int size() {
+            return (count);
+        }
+
+        /**
+         * @param id the id of a name
+         * @return the name
+         */
+        String name(int id) {
+            return (new String(names, offset[id], length[id], StandardCharsets.UTF_8));
+        }
+
+        /**
+         * @param id the id of a name
+         * @return the key of the name
+         */
+        int key(int id) {
+            return (key[id]);
+        }
+
+        /**
+         * @return if the bytes equal the stored name at the offset
+         */
+        private boolean equal(byte[] bytes, int from, int len, int at) {
+            for (int i = 0; i < len; ++i) {
+                if (bytes[from + i] != names[at + i]) {
+                    return (false);
+                }
+            }
+            return (true);
+        }
+
+        /**
+         *  Doubles the table and puts every id back in it.
+         */
+        private void rehash() {
+            slots = new int[slots.length * 2];
+            int mask = slots.length - 1;
+
+            for (int id = 0; id < count; ++id) {
+                int hash = key[id];
+
+                for (int i = offset[id]; i < offset[id] + length[id]; ++i) {
+                    hash = hash * 31 + names[i];
+                }
+
+                int i = (hash * 0x9E3779B9 >>> 7) & mask;
+
+                while (slots[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+
+                slots[i] = id + 1;
+            }
+        }
+    }
+
+    /**
+     *  Matches the names of each batch to those of the data control, adding
+     * the missing ones, and appends the rows of the batch.
+     */
+    private static final class Resolver {
+
+        private final DataControl data;
+
+        Resolver(DataControl data) {
+            this.data = data;
+        }
+
+        /**
+         *  Appends the rows of the batch to the data control.
+         * @param batch the parsed batch
+         * @return the number of rows appended
+         */
+        int append(Batch batch) {
+            ImportBatchEvent event = new ImportBatchEvent();
+            event.begin();
+
+            Employer[] employer_of = new Employer[batch.employers.size()];
+
+            for (int i = 0; i < employer_of.length; ++i) {
+                employer_of[i] = data.findOrAddEmployer(batch.employers.name(i));
+            }
+
+            int[] position_of = new int[batch.positions.size()];
+
+            for (int i = 0; i < position_of.length; ++i) {
+                position_of[i] = data.findOrAddPosition(batch.positions.name(i),
+                        employer_of[batch.positions.key(i)]).getId();
+            }
+
+            int[] type_of = new int[batch.type_names.size()];
+
+            for (int i = 0; i < type_of.length; ++i) {
+                type_of[i] = data.findOrAddDeductionType(batch.type_names.name(i)).getId();
+            }
+
+            int[] offsets = batch.deduction_offset;
+
+            for (int d = 0; d < offsets[batch.rows]; ++d) {
+                batch.types[d] = type_of[batch.types[d]];
+            }
+
+            /* One batch per chunk, so the indexes are updated once for all of its rows */
+            synchronized (data) {
+                data.beginBatch();
+
+                try {
+                    for (int row = 0; row < batch.rows; ++row) {
+                        data.replayPayPeriod(batch.start[row], batch.end[row], position_of[batch.position[row]],
+                                batch.gross[row], batch.cents, batch.types, offsets[row], offsets[row + 1] - offsets[row]);
+                    }
+                } finally {
+                    data.listAll();
+                }
+            }
+
+            if (event.shouldCommit()) {
+                event.phase = "append";
+                event.rows = batch.rows;
+                event.bytes = batch.to - batch.from;
+                event.commit();
+            }
+
+            return (batch.rows);
+        }
+    }
+
+    /**
+     *  Parses one chunk on a thread of the pool.
+     */
+    private static final class ParseTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        /** The chunk to parse, read once the task is done. */
+        private final transient Batch batch;
+
+        ParseTask(Batch batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        protected void compute() {
+            batch.parse();
+        }
+    }
+}
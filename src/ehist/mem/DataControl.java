@@ -1,7 +1,16 @@
 package ehist.mem;
 
+import ehist.mem.date.Date;
+import ehist.mem.date.DateManager;
+
+import java.nio.IntBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongSupplier;
 
 /**
  * <p>
@@ -9,24 +18,729 @@ import java.util.List;
  * </p><p>
  * Date : March 13, 2017
  * </p><p>
- * TODO Description here
+ *  Holds the employers, positions, deduction types and pay periods of an
+ * earnings history. All of them are created through this class, which gives
+ * each an id unique within it. Pay periods are stored as rows of columns in a
+ * {@link PayPeriodStore} rather than as objects, a {@link PayPeriod} is a view
+ * of one row. The start and end dates of the pay periods are also kept in a
+ * {@link PayPeriodIndex} to find those covering a date or overlapping a range.
+ * </p><p>
+ *  Every name is kept once in a {@link NameDictionary}. Employers and
+ * deduction types are also found by name, and positions by employer and title,
+ * in O(1) through tables keyed by the id of the name. The find or add methods
+ * may be called by many threads at once, only adding takes a lock.
+ * </p><p>
+ *  Pay periods may be added while any number of threads read, threads
+ * adding them take turns. The store and the lists of employers, positions and
+ * deduction types are only appended to and never take a lock to read, their
+ * lists and {@link PayPeriodStore#snapshot()} are points in time that later
+ * additions do not change.
+ * </p><p>
+ *  Everything kept over the pay periods, the rows and totals of the positions
+ * and deduction types and the indexes, is brought up to date by the thread
+ * adding a pay period before the add returns, under the write lock of one
+ * {@link StampedLock}. Readers never write and never wait for each other: a
+ * read is made without locking and only made again under the read lock if a
+ * pay period was added meanwhile. Each read, such as a total or a query of an
+ * index, sees every pay period added before some moment during it and none
+ * after, so both ends of a range, and the gross and deductions of a net
+ * amount, always agree. Separate reads may see different moments, and a store
+ * snapshot may hold pay periods no index has yet. The rows found by a query
+ * are passed to its action after the read, so the action may do anything,
+ * add pay periods or query again included.
+ * </p><p>
+ *  Replaying a {@link Journal} and each chunk of a {@link CsvImporter} load
+ * add their pay periods as one batch, brought up to date together at its end:
+ * the interval index is rebuilt in one pass if the batch at least doubles it
+ * and each range index is updated once per day the pay periods end on.
+ * Readers see none of a batch until it is complete.
+ * </p><p>
+ *  A data control can be written to and opened from a {@link Snapshot}, whose
+ * columns are then read straight from the mapped file. The pay periods of an
+ * opened snapshot are brought up to date as one batch by the first read,
+ * append or batch, so opening does not pay for it.
+ * </p><p>
+ *  Its sizes and counters of the work done on it can be watched through
+ * {@link #getMXBean()}, registered by {@link EHistMBeans}.
  * </p>
  *
  * @author Michael van Dyk
  */
 public class DataControl {
 
-    private final List<Employer> employers;
-    private final List<DeductionType> deductionTypes;
-    private final List<Deduction> deductions;
-    private final List<Position> positions;
-    private final List<PayPeriod> payPeriods;
+    private final AppendOnlyList<Employer> employers;
+    private final AppendOnlyList<DeductionType> deductionTypes;
+    private final AppendOnlyList<Position> positions;
+    private final PayPeriodStore payPeriods;
+    private final PayPeriodIndex payPeriodIndex;
+    private final EarningsRangeIndex earningsRangeIndex;
+
+    /** The single copy of every name. */
+    private final NameDictionary names;
+
+    /** The first employer and deduction type added with each name, by the id of the name. */
+    private final ConcurrentHashMap<Integer, Employer> employersByName;
+    private final ConcurrentHashMap<Integer, DeductionType> deductionTypesByName;
+
+    /** The counters exported as the management interface of this data control. */
+    private final DataControlMetrics metrics;
+
+    /** The journal every creation is appended to before it is made, or null. Set under the lock of this. */
+    private volatile Journal journal;
+
+    /** Guards the rows and totals of the positions, employers and deduction types and the indexes. */
+    private final StampedLock lock;
+
+    /** The number of rows of the store added to everything kept over them, written under the write lock. */
+    private volatile int listed;
+
+    /** If the pay periods appended are only listed at the end of the batch, guarded by the lock of this. */
+    private boolean batching;
+
+    /** If the store holds pay periods of an opened snapshot not yet listed, listed by the first use. */
+    private volatile boolean unlisted;
 
     public DataControl() {
-        this.deductions = new ArrayList<>();
-        this.deductionTypes = new ArrayList<>();
-        this.employers = new ArrayList<>();
-        this.payPeriods = new ArrayList<>();
-        this.positions = new ArrayList<>();
+        this(new PayPeriodStore());
+    }
+
+    /**
+     *  Creates a data control over the pay periods already in the store, as
+     * opened by a {@link Snapshot}. The positions the rows refer to must be
+     * added before the rows are used.
+     * @param payPeriods the store of the pay periods
+     */
+    DataControl(PayPeriodStore payPeriods) {
+        this.deductionTypes = new AppendOnlyList<>();
+        this.employers = new AppendOnlyList<>();
+        this.payPeriods = payPeriods;
+        this.payPeriodIndex = new PayPeriodIndex(this);
+        this.earningsRangeIndex = new EarningsRangeIndex(this, false);
+        this.positions = new AppendOnlyList<>();
+        this.names = new NameDictionary();
+        this.employersByName = new ConcurrentHashMap<>();
+        this.deductionTypesByName = new ConcurrentHashMap<>();
+        this.metrics = new DataControlMetrics(this);
+        this.lock = new StampedLock();
+    }
+
+    public synchronized DeductionType addDeductionType(String name) {
+        DeductionType deductionType = new DeductionType(this, deductionTypes.size(), canonical(name));
+
+        if (journal != null) {
+            journal.deductionTypeAdded(deductionType);
+        }
+
+        deductionTypes.append(deductionType);
+
+        if (name != null) {
+            deductionTypesByName.putIfAbsent(names.intern(name), deductionType);
+        }
+
+        return (deductionType);
+    }
+
+    public synchronized Employer addEmployer(String name) {
+        Employer employer = new Employer(this, employers.size(), canonical(name));
+
+        if (journal != null) {
+            journal.employerAdded(employer);
+        }
+
+        employers.append(employer);
+
+        if (name != null) {
+            employersByName.putIfAbsent(names.intern(name), employer);
+        }
+
+        return (employer);
+    }
+
+    /**
+     *  Adds a pay period as a new row of the pay period store. The start and end
+     * dates are kept as date values, the reference to each date acquired by the
+     * caller is held by the store from then on.
+     * @throws EHistException if any value is null or does not belong to this data control,
+     *                        or the end date is before the start date
+     * @param start      the first day of the pay period
+     * @param end        the last day of the pay period
+     * @param position   the position the pay period is for
+     * @param gross      the gross pay
+     * @param deductions the deductions taken from the gross pay
+     * @return a view of the new pay period
+     */
+    public PayPeriod addPayPeriod(Date start, Date end, Position position, Amount gross, Deduction[] deductions) {
+        if (start == null) {
+            throw new EHistException("PayPeriod: start date cannot be null");
+        } else if (end == null) {
+            throw new EHistException("PayPeriod: end date cannot be null");
+        } else if (position == null) {
+            throw new EHistException("PayPeriod: position cannot be null");
+        } else if (gross == null) {
+            throw new EHistException("PayPeriod: gross cannot be null");
+        } else if (deductions == null) {
+            throw new EHistException("PayPeriod: deductions cannot be null");
+        } else if (end.compareTo(start) < 0) {
+            throw new EHistException("PayPeriod: end date cannot be before start date");
+        } else if (position.getDataControl() != this) {
+            throw new EHistException("PayPeriod: position belongs to another data control");
+        }
+
+        long[] cents = new long[deductions.length];
+        int[] types = new int[deductions.length];
+
+        for (int i = 0; i < deductions.length; ++i) {
+            if (deductions[i] == null) {
+                throw new EHistException("PayPeriod: deductions cannot contain null");
+            } else if (deductions[i].getDeductionType().getDataControl() != this) {
+                throw new EHistException("PayPeriod: deduction type belongs to another data control");
+            }
+
+            cents[i] = deductions[i].getAmount().getCents();
+            types[i] = deductions[i].getDeductionType().getId();
+        }
+
+        return (new PayPeriod(this, appendPayPeriod(start.getDateVal(), end.getDateVal(),
+                position, gross.getCents(), cents, types, 0, deductions.length)));
+    }
+
+    public synchronized Position addPosition(String title, Employer employer) {
+        if (employer == null) {
+            throw new EHistException("Position: employer cannot be null");
+        } else if (employer.getId() >= employers.size() || employers.get(employer.getId()) != employer) {
+            throw new EHistException("Position: employer belongs to another data control");
+        }
+
+        Position position = new Position(this, positions.size(), canonical(title), employer);
+
+        if (journal != null) {
+            journal.positionAdded(position);
+        }
+
+        positions.append(position);
+
+        if (title != null) {
+            employer.positionsByTitle().putIfAbsent(names.intern(title), position);
+        }
+
+        return (position);
+    }
+
+    /**
+     * @param name the name of the deduction type
+     * @return the first deduction type added with the name, or null if there is none
+     */
+    public DeductionType findDeductionType(String name) {
+        int id = names.find(name);
+        return (id >= 0 ? deductionTypesByName.get(id) : null);
+    }
+
+    /**
+     * @param name the name of the employer
+     * @return the first employer added with the name, or null if there is none
+     */
+    public Employer findEmployer(String name) {
+        int id = names.find(name);
+        return (id >= 0 ? employersByName.get(id) : null);
+    }
+
+    /**
+     *  Finds the first deduction type added with the name, adding one if there
+     * is none. Safe to call from many threads at once.
+     * @throws EHistException if the name is null
+     * @param name the name of the deduction type
+     * @return the deduction type with the name
+     */
+    public DeductionType findOrAddDeductionType(String name) {
+        DeductionType deductionType = deductionTypesByName.get(names.intern(name));
+
+        if (deductionType == null) {
+            synchronized (this) {
+                deductionType = findDeductionType(name);
+
+                if (deductionType == null) {
+                    deductionType = addDeductionType(name);
+                }
+            }
+        }
+
+        return (deductionType);
+    }
+
+    /**
+     *  Finds the first employer added with the name, adding one if there is
+     * none. Safe to call from many threads at once.
+     * @throws EHistException if the name is null
+     * @param name the name of the employer
+     * @return the employer with the name
+     */
+    public Employer findOrAddEmployer(String name) {
+        Employer employer = employersByName.get(names.intern(name));
+
+        if (employer == null) {
+            synchronized (this) {
+                employer = findEmployer(name);
+
+                if (employer == null) {
+                    employer = addEmployer(name);
+                }
+            }
+        }
+
+        return (employer);
+    }
+
+    /**
+     *  Finds the first position added with the title at the employer, adding
+     * one if there is none. Safe to call from many threads at once.
+     * @throws EHistException if the title or employer is null, or the employer belongs to another data control
+     * @param title    the title of the position
+     * @param employer the employer of the position
+     * @return the position with the title at the employer
+     */
+    public Position findOrAddPosition(String title, Employer employer) {
+        if (employer == null) {
+            throw new EHistException("Position: employer cannot be null");
+        } else if (employer.getDataControl() != this) {
+            throw new EHistException("Position: employer belongs to another data control");
+        }
+
+        Position position = employer.positionsByTitle().get(names.intern(title));
+
+        if (position == null) {
+            synchronized (this) {
+                position = findPosition(title, employer);
+
+                if (position == null) {
+                    position = addPosition(title, employer);
+                }
+            }
+        }
+
+        return (position);
+    }
+
+    /**
+     * @param title    the title of the position
+     * @param employer the employer of the position
+     * @return the first position added with the title at the employer, or null if there is none
+     */
+    public Position findPosition(String title, Employer employer) {
+        int id = names.find(title);
+        return (id >= 0 && employer != null && employer.getDataControl() == this
+                ? employer.positionsByTitle().get(id) : null);
+    }
+
+    public DeductionType getDeductionType(int id) {
+        return (deductionTypes.get(id));
+    }
+
+    /**
+     * @return a read only list of the deduction types added so far
+     */
+    public List<DeductionType> getDeductionTypes() {
+        return (deductionTypes.snapshot());
+    }
+
+    /**
+     * @return the index of the amounts earned over ranges of days by all pay periods
+     */
+    public EarningsRangeIndex getEarningsRangeIndex() {
+        return (earningsRangeIndex);
+    }
+
+    public Employer getEmployer(int id) {
+        return (employers.get(id));
+    }
+
+    /**
+     * @return a read only list of the employers added so far
+     */
+    public List<Employer> getEmployers() {
+        return (employers.snapshot());
+    }
+
+    /**
+     * @return the journal every creation is appended to, or null if none is attached
+     * @see Journal#open(java.nio.file.Path, DataControl)
+     */
+    public Journal getJournal() {
+        return (journal);
+    }
+
+    /**
+     * @return the sizes and counters of this data control, to be registered with an MBean server
+     */
+    public DataControlMXBean getMXBean() {
+        return (metrics);
+    }
+
+    /**
+     * @return the dictionary holding the single copy of every name
+     */
+    public NameDictionary getNames() {
+        return (names);
+    }
+
+    /**
+     * @param row the row of the pay period
+     * @return a view of the pay period in the given row
+     */
+    public PayPeriod getPayPeriod(int row) {
+        if (row < 0 || row >= payPeriods.size()) {
+            throw new IndexOutOfBoundsException(String.format("Row out of range [0, %d) : %d", payPeriods.size(), row));
+        }
+        return (new PayPeriod(this, row));
+    }
+
+    /**
+     * @return the interval index over the start and end dates of every pay period
+     */
+    public PayPeriodIndex getPayPeriodIndex() {
+        return (payPeriodIndex);
+    }
+
+    /**
+     * @param date the date
+     * @return views of the pay periods whose start and end dates include the date, in order of start date
+     */
+    public List<PayPeriod> getPayPeriodsCovering(Date date) {
+        return (views(payPeriodIndex.covering(date)));
+    }
+
+    /**
+     * @param from the first date of the range
+     * @param to   the last date of the range
+     * @return views of the pay periods with at least one day in the range, in order of start date
+     */
+    public List<PayPeriod> getPayPeriodsOverlapping(Date from, Date to) {
+        return (views(payPeriodIndex.overlapping(from, to)));
+    }
+
+    /**
+     * @return the columns holding every pay period
+     */
+    public PayPeriodStore getPayPeriodStore() {
+        return (payPeriods);
+    }
+
+    public Position getPosition(int id) {
+        return (positions.get(id));
+    }
+
+    /**
+     * @return a read only list of the positions added so far
+     */
+    public List<Position> getPositions() {
+        return (positions.snapshot());
+    }
+
+    /**
+     *  Appends a validated pay period to the journal and then the store, and
+     * adds it to the rows and totals of its position and deduction types and
+     * to the indexes under the write lock, unless a batch is being appended.
+     * Adding threads take turns.
+     * @param start_val the date value of the start date
+     * @param end_val   the date value of the end date
+     * @param position  the position
+     * @param gross     the gross amount in cents
+     * @param cents     the amount of each deduction in cents
+     * @param types     the id of the deduction type of each deduction
+     * @param from      the index of the first deduction in the arrays
+     * @param count     the number of deductions
+     * @return the row of the pay period
+     */
+    synchronized int appendPayPeriod(int start_val, int end_val, Position position, long gross, long[] cents, int[] types,
+                        int from, int count) {
+        if (journal != null) {
+            journal.payPeriodAdded(start_val, end_val, position.getId(), gross, cents, types, from, count);
+        }
+
+        if (unlisted) {
+            listAll();
+        }
+
+        int row = payPeriods.append(start_val, end_val, gross, position.getId(), cents, types, from, count);
+        metrics.appended.increment();
+
+        if (!batching) {
+            long stamp = lock.writeLock();
+
+            try {
+                listRows(row, row + 1);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        return (row);
+    }
+
+    /**
+     *  Adds a pay period read back from a journal or file, checking the values
+     * instead of the objects {@link #addPayPeriod(Date, Date, Position, Amount, Deduction[])}
+     * checks. Each date is acquired for the store as it would be by the caller.
+     * @throws EHistException if a value is invalid or an id does not exist
+     * @param start_val the date value of the start date
+     * @param end_val   the date value of the end date
+     * @param position  the id of the position
+     * @param gross     the gross amount in cents
+     * @param cents     the amount of each deduction in cents
+     * @param types     the id of the deduction type of each deduction
+     * @param from      the index of the first deduction in the arrays
+     * @param count     the number of deductions
+     * @return the row of the pay period
+     */
+    int replayPayPeriod(int start_val, int end_val, int position, long gross, long[] cents, int[] types,
+                        int from, int count) {
+        if (position < 0 || position >= positions.size()) {
+            throw new EHistException("PayPeriod: no position with id " + position);
+        } else if (Integer.compareUnsigned(end_val, start_val) < 0) {
+            throw new EHistException("PayPeriod: end date cannot be before start date");
+        }
+
+        for (int i = from; i < from + count; ++i) {
+            if (types[i] < 0 || types[i] >= deductionTypes.size()) {
+                throw new EHistException("PayPeriod: no deduction type with id " + types[i]);
+            }
+        }
+
+        try {
+            DateManager.getDate(start_val);
+            DateManager.getDate(end_val);
+        } catch (EHistException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new EHistException("PayPeriod: invalid date value", e);
+        }
+
+        return (appendPayPeriod(start_val, end_val, positions.get(position), gross, cents, types, from, count));
+    }
+
+    /**
+     *  Starts a batch: the pay periods appended from now on are only added to
+     * the rows, totals and indexes by the next {@link #listAll()}. The caller
+     * must hold the lock of this from here until after that call, so no other
+     * thread appends meanwhile, and call it even if appending fails.
+     */
+    void beginBatch() {
+        if (!Thread.holdsLock(this)) {
+            throw new EHistException("DataControl: a batch is appended holding the lock of the data control");
+        }
+
+        if (unlisted) {
+            listAll();
+        }
+
+        batching = true;
+    }
+
+    /**
+     *  Ends any batch and adds the pay periods not yet listed to the rows and
+     * totals of their positions and deduction types and to the indexes, all at
+     * once.
+     */
+    synchronized void listAll() {
+        batching = false;
+        unlisted = false;
+
+        if (listed == payPeriods.size()) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        long stamp = lock.writeLock();
+
+        try {
+            listRows(listed, payPeriods.size());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+
+        metrics.caughtUp(started);
+    }
+
+    /**
+     *  Adds rows of the store to the rows and totals of their positions, their
+     * deductions to the totals of their types, and the rows to the interval
+     * index and to the range indexes of everything, their positions and their
+     * employers. A single row is added to the trees of the range indexes
+     * directly, more are first summed per end day. The caller holds the write
+     * lock.
+     * @param from the first row, the number of rows listed so far
+     * @param to   the row after the last row
+     */
+    private void listRows(int from, int to) {
+        IntBuffer start_col = payPeriods.startColumn();
+        IntBuffer position_col = payPeriods.positionColumn();
+        IntBuffer end_col = payPeriods.endColumn();
+
+        for (int row = from; row < to; ++row) {
+            positions.get(position_col.get(row)).addPayPeriod(row);
+
+            for (int d = 0, count = payPeriods.getDeductionCount(row); d < count; ++d) {
+                deductionTypes.get(payPeriods.getDeductionTypeId(row, d))
+                        .addDeduction(row, end_col.get(row), payPeriods.getDeductionCents(row, d));
+            }
+        }
+
+        if (to - from == 1) {
+            Position position = positions.get(position_col.get(from));
+            payPeriodIndex.add(from, start_col.get(from), end_col.get(from));
+            earningsRangeIndex.add(from);
+            position.getEarningsRangeIndex().add(from);
+            position.getEmployer().getEarningsRangeIndex().add(from);
+        } else {
+            payPeriodIndex.addAll(payPeriods, to);
+
+            List<EarningsRangeIndex> staged = new ArrayList<>();
+
+            for (int row = from; row < to; ++row) {
+                Position position = positions.get(position_col.get(row));
+                stage(staged, earningsRangeIndex, row);
+                stage(staged, position.getEarningsRangeIndex(), row);
+                stage(staged, position.getEmployer().getEarningsRangeIndex(), row);
+            }
+
+            for (EarningsRangeIndex index : staged) {
+                index.flush();
+            }
+        }
+
+        listed = to;
+    }
+
+    /**
+     *  Reads a value of the rows, totals or indexes. The pay periods of an
+     * opened snapshot are listed first if they have not been. The read is
+     * first made without locking and made again under the read lock if a pay
+     * period was added meanwhile. The first time it may see half written state and
+     * return a value that is thrown away or throw, which is also taken as a
+     * sign to read again, but it must not loop forever. Nothing is written by
+     * a read.
+     * @param read the read of the value
+     * @return the value
+     */
+    long read(LongSupplier read) {
+        if (unlisted) {
+            listAll();
+        }
+
+        long stamp = lock.tryOptimisticRead();
+
+        if (stamp != 0) {
+            try {
+                long value = read.getAsLong();
+
+                if (lock.validate(stamp)) {
+                    return (value);
+                }
+            } catch (RuntimeException e) {
+                /* Made again under the lock, where a real failure happens again */
+            }
+        }
+
+        stamp = lock.readLock();
+
+        try {
+            return (read.getAsLong());
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return the lock of the rows and totals of the positions, employers and deduction types and of the indexes
+     */
+    StampedLock lock() {
+        return (lock);
+    }
+
+    /**
+     *  Leaves the pay periods already in the store, those of an opened
+     * {@link Snapshot}, to be listed by the first read, append or batch
+     * rather than now. Called once the positions and types they refer to are
+     * added.
+     */
+    void listLater() {
+        unlisted = (listed != payPeriods.size());
+    }
+
+    /**
+     * @return the number of rows of the store added to the rows, totals and indexes
+     */
+    int listed() {
+        return (listed);
+    }
+
+    /**
+     *  Estimates the bytes held on the heap by the columns, indexes and totals.
+     * Read without locking, so the entities are walked by index.
+     * @return the estimated bytes
+     */
+    long estimateHeapBytes() {
+        long bytes = (payPeriods.isMapped() ? 0 : payPeriods.getColumnBytes());
+        bytes += payPeriodIndex.estimateBytes() + earningsRangeIndex.estimateBytes();
+
+        for (int i = 0, size = positions.size(); i < size; ++i) {
+            bytes += positions.get(i).estimateBytes();
+        }
+
+        for (int i = 0, size = employers.size(); i < size; ++i) {
+            bytes += employers.get(i).estimateBytes();
+        }
+
+        for (int i = 0, size = deductionTypes.size(); i < size; ++i) {
+            bytes += deductionTypes.get(i).estimateBytes();
+        }
+
+        return (bytes);
+    }
+
+    /**
+     * @return the counters of this data control
+     */
+    DataControlMetrics metrics() {
+        return (metrics);
+    }
+
+    /**
+     * @param name a name, may be null
+     * @return the copy of the name kept in the dictionary, or null
+     */
+    private String canonical(String name) {
+        return (name != null ? names.get(names.intern(name)) : null);
+    }
+
+    /**
+     * @param staged the range indexes with rows waiting to be added
+     * @param index  the range index to add the row to
+     * @param row    the row
+     */
+    private static void stage(List<EarningsRangeIndex> staged, EarningsRangeIndex index, int row) {
+        if (index.stage(row)) {
+            staged.add(index);
+        }
+    }
+
+    /**
+     * @param journal the journal to append every creation to, or null
+     */
+    synchronized void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * @param rows the rows of pay periods
+     * @return a read only list of views of the rows
+     */
+    private List<PayPeriod> views(int[] rows) {
+        PayPeriod[] views = new PayPeriod[rows.length];
+
+        for (int i = 0; i < rows.length; ++i) {
+            views[i] = new PayPeriod(this, rows[i]);
+        }
+
+        return (Collections.unmodifiableList(Arrays.asList(views)));
     }
 }
@@ -0,0 +1,110 @@
+package ehist.mem;
+
+/**
+ * <p>
+ * === DataControlMXBean Interface ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  The management interface of a {@link DataControl}: how much it holds, how
+ * much memory that takes and how long loading and querying it takes. Counts of
+ * things held are read as they are when asked for, counts of things done are
+ * totals since the data control was created.
+ * </p>
+ *
+ * @see EHistMBeans#register(DataControl, String)
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+public interface DataControlMXBean {
+
+    /**
+     * @return the number of employers
+     */
+    int getEmployerCount();
+
+    /**
+     * @return the number of positions
+     */
+    int getPositionCount();
+
+    /**
+     * @return the number of deduction types
+     */
+    int getDeductionTypeCount();
+
+    /**
+     * @return the number of distinct names
+     */
+    int getNameCount();
+
+    /**
+     * @return the number of pay periods
+     */
+    int getPayPeriodCount();
+
+    /**
+     * @return the number of deductions of every pay period
+     */
+    int getDeductionCount();
+
+    /**
+     * @return the number of pay periods appended, by any means
+     */
+    long getPayPeriodsAppended();
+
+    /**
+     * @return the number of {@link PayPeriod} views created
+     */
+    long getPayPeriodViewsCreated();
+
+    /**
+     * @return the number of {@link Deduction} objects created to read the deductions of a pay period
+     */
+    long getDeductionsCreated();
+
+    /**
+     * @return the number of imports, journal replays and snapshots opened
+     */
+    long getLoadCount();
+
+    /**
+     * @return the number of pay periods added by loads
+     */
+    long getLoadedPayPeriods();
+
+    /**
+     * @return the time spent loading in nanoseconds
+     */
+    long getLoadNanos();
+
+    /**
+     * @return the number of aggregations and range queries
+     */
+    long getQueryCount();
+
+    /**
+     * @return the time spent in aggregations and range queries in nanoseconds
+     */
+    long getQueryNanos();
+
+    /**
+     * @return the number of batches of pay periods added to the indexes and totals at once
+     */
+    long getCatchUpCount();
+
+    /**
+     * @return the time spent adding batches of pay periods to the indexes and totals in nanoseconds
+     */
+    long getCatchUpNanos();
+
+    /**
+     * @return an estimate of the bytes of the columns, indexes and totals on the heap
+     */
+    long getEstimatedHeapBytes();
+
+    /**
+     * @return the bytes of the columns read from a mapped snapshot
+     */
+    long getMappedBytes();
+}
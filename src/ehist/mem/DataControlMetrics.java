@@ -0,0 +1,165 @@
+package ehist.mem;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * === DataControlMetrics Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  The counters of a {@link DataControl}, exported as its
+ * {@link DataControlMXBean}. Every counter is a striped {@link LongAdder},
+ * counting costs one uncontended add. Pay periods appended and views created
+ * are only counted, loads, queries and batches are also timed, being bulk
+ * operations where reading the clock twice is lost in the work.
+ * </p><p>
+ *  The sizes are read from the data control as they are when asked for,
+ * without locking, so they may be slightly out of date while it changes.
+ * </p>
+ *
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+final class DataControlMetrics implements DataControlMXBean {
+
+    private final DataControl data;
+
+    final LongAdder appended = new LongAdder();
+    final LongAdder views = new LongAdder();
+    final LongAdder deductions = new LongAdder();
+    final LongAdder loads = new LongAdder();
+    final LongAdder loaded_rows = new LongAdder();
+    final LongAdder load_nanos = new LongAdder();
+    final LongAdder queries = new LongAdder();
+    final LongAdder query_nanos = new LongAdder();
+    final LongAdder catch_ups = new LongAdder();
+    final LongAdder catch_up_nanos = new LongAdder();
+
+    /**
+     * @param data the data control the counters belong to
+     */
+    DataControlMetrics(DataControl data) {
+        this.data = data;
+    }
+
+    /**
+     *  Counts a load.
+     * @param rows  the number of pay periods added
+     * @param start the time the load started from {@link System#nanoTime()}
+     */
+    void loaded(int rows, long start) {
+        loads.increment();
+        loaded_rows.add(rows);
+        load_nanos.add(System.nanoTime() - start);
+    }
+
+    /**
+     *  Counts a query.
+     * @param start the time the query started from {@link System#nanoTime()}
+     */
+    void queried(long start) {
+        queries.increment();
+        query_nanos.add(System.nanoTime() - start);
+    }
+
+    /**
+     *  Counts a batch of pay periods added to the indexes and totals at once.
+     * @param start the time adding the batch started from {@link System#nanoTime()}
+     */
+    void caughtUp(long start) {
+        catch_ups.increment();
+        catch_up_nanos.add(System.nanoTime() - start);
+    }
+
+    @Override
+    public int getEmployerCount() {
+        return (data.getEmployers().size());
+    }
+
+    @Override
+    public int getPositionCount() {
+        return (data.getPositions().size());
+    }
+
+    @Override
+    public int getDeductionTypeCount() {
+        return (data.getDeductionTypes().size());
+    }
+
+    @Override
+    public int getNameCount() {
+        return (data.getNames().size());
+    }
+
+    @Override
+    public int getPayPeriodCount() {
+        return (data.getPayPeriodStore().size());
+    }
+
+    @Override
+    public int getDeductionCount() {
+        return (data.getPayPeriodStore().deductionCount());
+    }
+
+    @Override
+    public long getPayPeriodsAppended() {
+        return (appended.sum());
+    }
+
+    @Override
+    public long getPayPeriodViewsCreated() {
+        return (views.sum());
+    }
+
+    @Override
+    public long getDeductionsCreated() {
+        return (deductions.sum());
+    }
+
+    @Override
+    public long getLoadCount() {
+        return (loads.sum());
+    }
+
+    @Override
+    public long getLoadedPayPeriods() {
+        return (loaded_rows.sum());
+    }
+
+    @Override
+    public long getLoadNanos() {
+        return (load_nanos.sum());
+    }
+
+    @Override
+    public long getQueryCount() {
+        return (queries.sum());
+    }
+
+    @Override
+    public long getQueryNanos() {
+        return (query_nanos.sum());
+    }
+
+    @Override
+    public long getCatchUpCount() {
+        return (catch_ups.sum());
+    }
+
+    @Override
+    public long getCatchUpNanos() {
+        return (catch_up_nanos.sum());
+    }
+
+    @Override
+    public long getEstimatedHeapBytes() {
+        return (data.estimateHeapBytes());
+    }
+
+    @Override
+    public long getMappedBytes() {
+        PayPeriodStore store = data.getPayPeriodStore();
+        return (store.isMapped() ? store.getColumnBytes() : 0);
+    }
+}
@@ -6,7 +6,8 @@ package ehist.mem;
  * </p><p>
  * Date : March 02, 2017
  * </p><p>
- * TODO Description here
+ *  An amount of a {@link DeductionType} taken from pay. Counted in the totals
+ * of its type once its pay period is added to a {@link DataControl}.
  * </p>
  *
  * @author Michael van Dyk
@@ -25,10 +26,13 @@ public class Deduction {
 
         this.amount = amount;
         this.deductionType = deductionType;
-        deductionType.addDeduction(this);
     }
 
     public Amount getAmount() {
         return (amount);
     }
+
+    public DeductionType getDeductionType() {
+        return (deductionType);
+    }
 }
@@ -0,0 +1,144 @@
+package ehist.mem;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * === DeductionLog Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  The individual deductions of one {@link DeductionType}, in the order their
+ * pay periods were added. Only kept for a type once asked for through
+ * {@link DeductionType#keepLog()}, the totals of a type never need it.
+ * </p><p>
+ *  Each deduction is kept as the row of its pay period and its amount in
+ * primitive chunks of a fixed size, twelve bytes a deduction. Appending never
+ * copies what was logged before, only the small array of chunks grows.
+ * Appended to as each pay period is added and read optimistically, as the
+ * totals of its type are.
+ * </p>
+ *
+ * @see DeductionType#getLog()
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+public final class DeductionLog {
+
+    /** The number of bits of an index within its chunk. */
+    private static final int CHUNK_BITS = 12;
+
+    /** The number of deductions of each chunk. */
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    /** The data control the deductions belong to. */
+    private final DataControl data;
+
+    /** The deduction type of every deduction in the log. */
+    private final DeductionType type;
+
+    /** The row of the pay period of each deduction, by chunk. */
+    private int[][] rows;
+
+    /** The amount of each deduction in cents, by chunk. */
+    private long[][] cents;
+
+    /** The number of deductions in the log. */
+    private int size;
+
+    /**
+     *  Creates an empty log. Only created by its {@link DeductionType}.
+     * @param data the data control the deductions belong to
+     * @param type the deduction type of the deductions
+     */
+    DeductionLog(DataControl data, DeductionType type) {
+        this.data = data;
+        this.type = type;
+        this.rows = new int[0][];
+        this.cents = new long[0][];
+        this.size = 0;
+    }
+
+    /**
+     *  Appends a deduction to the log.
+     * @param row    the row of the pay period of the deduction
+     * @param amount the amount of the deduction in cents
+     */
+    void append(int row, long amount) {
+        int chunk = size >>> CHUNK_BITS;
+
+        if (chunk == rows.length) {
+            rows = Arrays.copyOf(rows, Math.max(4, chunk * 2));
+            cents = Arrays.copyOf(cents, rows.length);
+        }
+
+        if (rows[chunk] == null) {
+            rows[chunk] = new int[CHUNK_SIZE];
+            cents[chunk] = new long[CHUNK_SIZE];
+        }
+
+        rows[chunk][size & (CHUNK_SIZE - 1)] = row;
+        cents[chunk][size & (CHUNK_SIZE - 1)] = amount;
+        ++size;
+    }
+
+    /**
+     * @param index the index of the deduction in the log
+     * @return the amount of the deduction in cents
+     */
+    public long getCents(int index) {
+        checkIndex(index);
+        return (data.read(() -> {
+            long[][] chunks = cents;
+            int chunk = index >>> CHUNK_BITS;
+            return (chunk < chunks.length && chunks[chunk] != null ? chunks[chunk][index & (CHUNK_SIZE - 1)] : 0);
+        }));
+    }
+
+    /**
+     * @param index the index of the deduction in the log
+     * @return a new deduction with the amount of the deduction
+     */
+    public Deduction getDeduction(int index) {
+        return (new Deduction(Amount.of(getCents(index)), type));
+    }
+
+    /**
+     * @param index the index of the deduction in the log
+     * @return a view of the pay period the deduction was taken from
+     */
+    public PayPeriod getPayPeriod(int index) {
+        return (data.getPayPeriod(getRow(index)));
+    }
+
+    /**
+     * @param index the index of the deduction in the log
+     * @return the row of the pay period the deduction was taken from
+     */
+    public int getRow(int index) {
+        checkIndex(index);
+        return ((int)data.read(() -> {
+            int[][] chunks = rows;
+            int chunk = index >>> CHUNK_BITS;
+            return (chunk < chunks.length && chunks[chunk] != null ? chunks[chunk][index & (CHUNK_SIZE - 1)] : 0);
+        }));
+    }
+
+    /**
+     * @return the number of deductions in the log
+     */
+    public int size() {
+        return ((int)data.read(() -> size));
+    }
+
+    /**
+     * @param index the index of a deduction
+     */
+    private void checkIndex(int index) {
+        int count = size();
+
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException(String.format("Index out of range [0, %d) : %d", count, index));
+        }
+    }
+}
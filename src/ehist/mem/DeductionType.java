@@ -1,7 +1,9 @@
 package ehist.mem;
 
-import java.util.ArrayList;
-import java.util.List;
+import ehist.mem.date.Date;
+import ehist.mem.date.Month;
+
+import java.util.concurrent.locks.StampedLock;
 
 /**
  * <p>
@@ -9,26 +11,211 @@ import java.util.List;
  * </p><p>
  * Date : March 02, 2017
  * </p><p>
- * TODO Description here
+ *  A kind of deduction taken from pay, such as a tax. Created through
+ * {@link DataControl#addDeductionType(String)} which gives it an id unique to
+ * that data control.
+ * </p><p>
+ *  The cents and number of the deductions of the type are totalled by the
+ * year and month of the end date of their pay period, as an
+ * {@link EarningsAggregator} groups them, in primitive buckets kept up to date
+ * as pay periods are added. The individual deductions are not kept unless a
+ * {@link DeductionLog} is asked for. The buckets are the same
+ * {@link MonthlyBuckets} as the {@link CalendarTotals} of a position, written
+ * as each pay period is added and read optimistically. A deduction joins
+ * its type when the pay period holding it is added, see
+ * {@link DataControl#addPayPeriod}.
  * </p>
  *
  * @author Michael van Dyk
  */
 public class DeductionType {
 
+    /** The offset of the cents within a bucket. */
+    private static final int CENTS = 0;
+
+    /** The offset of the number of deductions within a bucket. */
+    private static final int COUNT = 1;
+
+    /** The number of longs of each bucket. */
+    private static final int STRIDE = 2;
+
+    private final DataControl data;
+    private final int id;
     private String name;
-    private final List<Deduction> deductions;
 
-    public DeductionType(String name) {
+    /** The cents and number of deductions of each year and month. */
+    private final MonthlyBuckets buckets;
+
+    /** The sums of every deduction of the type. */
+    private long total_cents;
+    private long total_count;
+
+    /** The individual deductions, or null if not kept. */
+    private volatile DeductionLog log;
+
+    DeductionType(DataControl data, int id, String name) {
+        this.data = data;
+        this.id = id;
         this.name = name;
-        this.deductions = new ArrayList<>();
+        this.buckets = new MonthlyBuckets(STRIDE);
+    }
+
+    /**
+     *  Adds a deduction of this type to the buckets of the year and month of
+     * the end date of its pay period, and to the log if one is kept.
+     * @param row     the row of the pay period
+     * @param end_val the date value of the end date of the pay period
+     * @param cents   the amount of the deduction in cents
+     */
+    void addDeduction(int row, int end_val, long cents) {
+        int year = Date.getYear(end_val);
+        int month = Date.getMonthNumber(end_val);
+
+        buckets.add(year, month, CENTS, cents);
+        buckets.add(year, month, COUNT, 1);
+        total_cents += cents;
+        total_count += 1;
+
+        if (log != null) {
+            log.append(row, cents);
+        }
+    }
+
+    /**
+     * @param year the year
+     * @return the sum of the deductions of this type in pay periods ending in the year in cents
+     */
+    public long getCents(int year) {
+        return (year(year, CENTS));
+    }
+
+    /**
+     * @throws EHistException if the month is null
+     * @param year  the year
+     * @param month the month of the year
+     * @return the sum of the deductions of this type in pay periods ending in the month in cents
+     */
+    public long getCents(int year, Month month) {
+        return (month(year, month, CENTS));
+    }
+
+    /**
+     * @param year the year
+     * @return the number of deductions of this type in pay periods ending in the year
+     */
+    public long getCount(int year) {
+        return (year(year, COUNT));
+    }
+
+    /**
+     * @throws EHistException if the month is null
+     * @param year  the year
+     * @param month the month of the year
+     * @return the number of deductions of this type in pay periods ending in the month
+     */
+    public long getCount(int year, Month month) {
+        return (month(year, month, COUNT));
+    }
+
+    /**
+     * @return the bytes of the buckets of this type, not counting its log
+     */
+    long estimateBytes() {
+        return (buckets.estimateBytes());
+    }
+
+    DataControl getDataControl() {
+        return data;
     }
 
-    public void addDeduction(Deduction deduction) {
-        deductions.add(deduction);
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return the log of the individual deductions of this type, or null if none is kept
+     * @see #keepLog()
+     */
+    public DeductionLog getLog() {
+        return (log);
     }
 
     public String getName() {
         return (name);
     }
+
+    /**
+     * @return the sum of every deduction of this type in cents
+     */
+    public long getTotalCents() {
+        return (data.read(() -> total_cents));
+    }
+
+    /**
+     * @return the number of deductions of this type
+     */
+    public long getTotalCount() {
+        return (data.read(() -> total_count));
+    }
+
+    /**
+     *  Starts keeping a log of the individual deductions of this type. The log
+     * is filled with every deduction of the type already added, in order of
+     * row, and kept up to date from then on. Filled under the write lock of
+     * the data control, so no pay period is added to it before it is complete.
+     * @return the log of the deductions of this type
+     */
+    public DeductionLog keepLog() {
+        if (log == null) {
+            StampedLock lock = data.lock();
+            long stamp = lock.writeLock();
+
+            try {
+                if (log == null) {
+                    PayPeriodStore store = data.getPayPeriodStore();
+                    DeductionLog created = new DeductionLog(data, this);
+
+                    /* Only the rows already in the buckets, the next pay period added appends to it */
+                    for (int row = 0, rows = data.listed(); row < rows; ++row) {
+                        for (int d = 0, count = store.getDeductionCount(row); d < count; ++d) {
+                            if (store.getDeductionTypeId(row, d) == id) {
+                                created.append(row, store.getDeductionCents(row, d));
+                            }
+                        }
+                    }
+
+                    log = created;
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        return (log);
+    }
+
+    /**
+     * @param year  the year
+     * @param month the month of the year
+     * @param kind  the offset of the sum within a bucket
+     * @return the sum of the kind of the month
+     */
+    private long month(int year, Month month, int kind) {
+        if (month == null) {
+            throw new EHistException("DeductionType: month cannot be null");
+        }
+
+        int number = month.getMonthNumber();
+
+        return (data.read(() -> buckets.month(year, number, kind)));
+    }
+
+    /**
+     * @param year the year
+     * @param kind the offset of the sum within a bucket
+     * @return the sum of the kind of the year
+     */
+    private long year(int year, int kind) {
+        return (data.read(() -> buckets.year(year, kind)));
+    }
 }
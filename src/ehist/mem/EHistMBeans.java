@@ -0,0 +1,108 @@
+package ehist.mem;
+
+import ehist.mem.date.DateManager;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * <p>
+ * === EHistMBeans Enum ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Registers the management interfaces of the {@link DateManager} and of
+ * data controls with the platform MBean server, under the <tt>ehist</tt>
+ * domain, so they can be watched with JConsole, VisualVM or any JMX client.
+ * The date manager is registered as <tt>ehist:type=DateManager</tt> and each
+ * data control as <tt>ehist:type=DataControl,name=&lt;name&gt;</tt>.
+ * </p><p>
+ *  Nothing is registered unless asked for. The counters behind the beans are
+ * kept whether or not they are registered.
+ * </p>
+ *
+ * @see ehist.mem.date.DateManagerMXBean
+ * @see DataControlMXBean
+ * @since EHist 1.0
+ *
+ * @author Michael van Dyk
+ */
+public enum EHistMBeans {
+    ;
+
+    /** The domain of every name. */
+    public final static String DOMAIN = "ehist";
+
+    /**
+     *  Registers the date manager, unless it already is.
+     * @throws EHistException if the bean cannot be registered
+     * @return the name of the bean
+     */
+    public static ObjectName registerDateManager() {
+        return (register(DateManager.getMXBean(), DOMAIN + ":type=DateManager", true));
+    }
+
+    /**
+     *  Registers a data control under a name.
+     * @throws EHistException if the data control or name is null, or a bean is already registered with the name
+     * @param data the data control
+     * @param name the name to register it under, unique among data controls
+     * @return the name of the bean
+     */
+    public static ObjectName register(DataControl data, String name) {
+        if (data == null) {
+            throw new EHistException("EHistMBeans: data cannot be null");
+        } else if (name == null) {
+            throw new EHistException("EHistMBeans: name cannot be null");
+        }
+
+        return (register(data.getMXBean(), DOMAIN + ":type=DataControl,name=" + ObjectName.quote(name), false));
+    }
+
+    /**
+     *  Unregisters a bean registered by this class. Does nothing if it is not registered.
+     * @throws EHistException if the bean cannot be unregistered
+     * @param name the name of the bean
+     */
+    public static void unregister(ObjectName name) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch (InstanceNotFoundException e) {
+            /* Already unregistered */
+        } catch (JMException e) {
+            throw new EHistException("EHistMBeans: cannot unregister " + name, e);
+        }
+    }
+
+    /**
+     * @throws EHistException if the bean cannot be registered
+     * @param bean     the bean
+     * @param name     the name of the bean
+     * @param existing if a bean already registered with the name is kept rather than an error
+     * @return the name of the bean
+     */
+    private static ObjectName register(Object bean, String name, boolean existing) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        try {
+            ObjectName object_name = new ObjectName(name);
+
+            try {
+                server.registerMBean(bean, object_name);
+            } catch (InstanceAlreadyExistsException e) {
+                /* Registered earlier or by another thread at the same time */
+                if (!existing) {
+                    throw e;
+                }
+            }
+
+            return (object_name);
+        } catch (JMException e) {
+            throw new EHistException("EHistMBeans: cannot register " + name, e);
+        }
+    }
+}
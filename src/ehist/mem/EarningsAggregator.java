@@ -0,0 +1,471 @@
+package ehist.mem;
+
+import ehist.mem.date.Date;
+
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.EnumSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>
+ * === EarningsAggregator Enum ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Sums the gross, deduction and net amounts of the pay periods of a
+ * {@link DataControl} by any combination of the {@link GroupBy} keys.
+ * </p><p>
+ *  Every combination of key values is given a cell of a dense array, the cell
+ * of a pay period is computed from the year and month of its date value and a
+ * per position offset, so no objects are created or looked up per pay period.
+ * The columns are read where they are, on the heap or in a mapped snapshot.
+ * The rows of the {@link PayPeriodStore} are split across a fork/join pool,
+ * each worker thread adds into its own primitive arrays which are merged once
+ * all rows are done.
+ * </p><p>
+ *  A copy of every cell per worker thread only pays while the cells are few.
+ * Past {@link #MAX_PARTIAL_LONGS} sums per copy each task instead sums only
+ * the cells its rows touch, in small hash tables sized by its rows, and
+ * merges them into the summary when done. The memory of a worker is then
+ * bounded by the rows of a task rather than by the cells of the summary.
+ * </p><p>
+ *  An aggregation covers one point in time, the pay periods stored when it
+ * starts. Pay periods may be added by other threads while it runs, they are
+ * left out of its summary.
+ * </p>
+ *
+ * @see EarningsSummary
+ * @since EHist 1.0
+ *
+ * @author Michael van Dyk
+ */
+public enum EarningsAggregator {
+    ;
+
+    /** The largest number of cells, and cells times deduction types, a summary may have. */
+    public final static int MAX_CELLS = 1 << 22;
+
+    /** The most sums of a copy of every cell a worker thread may be given, 2 MB of longs. */
+    public final static int MAX_PARTIAL_LONGS = 1 << 18;
+
+    /** The number of rows below which a task no longer splits. */
+    private final static int LEAF_ROWS = 1 << 14;
+
+    /**
+     *  Aggregates the pay periods on the common fork/join pool.
+     * @throws EHistException if the keys would need more than {@link #MAX_CELLS} cells
+     * @param data the data to aggregate
+     * @param keys the keys to group by, none sums everything into one group
+     * @return the summary of the pay periods
+     */
+    public static EarningsSummary aggregate(DataControl data, GroupBy... keys) {
+        return (aggregate(data, ForkJoinPool.commonPool(), keys));
+    }
+
+    /**
+     *  Aggregates the pay periods on the given fork/join pool.
+     * @throws EHistException if the keys would need more than {@link #MAX_CELLS} cells
+     * @param data the data to aggregate
+     * @param pool the pool to run the aggregation on
+     * @param keys the keys to group by, none sums everything into one group
+     * @return the summary of the pay periods
+     */
+    public static EarningsSummary aggregate(DataControl data, ForkJoinPool pool, GroupBy... keys) {
+        if (data == null) {
+            throw new EHistException("EarningsAggregator: data cannot be null");
+        } else if (pool == null) {
+            throw new EHistException("EarningsAggregator: pool cannot be null");
+        }
+
+        long started = System.nanoTime();
+        AggregationEvent event = new AggregationEvent();
+        event.begin();
+
+        EnumSet<GroupBy> by = EnumSet.noneOf(GroupBy.class);
+
+        for (GroupBy key : keys) {
+            if (key == null) {
+                throw new EHistException("EarningsAggregator: keys cannot contain null");
+            }
+            by.add(key);
+        }
+
+        /* Taken first, every position and deduction type in its rows is counted below */
+        PayPeriodStore store = data.getPayPeriodStore().snapshot();
+        int rows = store.size();
+        IntBuffer end = store.endColumn();
+
+        int first_year = 0;
+        int years = 1;
+
+        if (by.contains(GroupBy.YEAR) && rows > 0) {
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+
+            for (int i = 0; i < rows; ++i) {
+                int year = Date.getYear(end.get(i));
+                min = Math.min(min, year);
+                max = Math.max(max, year);
+            }
+
+            first_year = min;
+            years = max - min + 1;
+        }
+
+        int months = by.contains(GroupBy.MONTH) ? 12 : 1;
+        int position_count = data.getPositions().size();
+        int types = by.contains(GroupBy.DEDUCTION_TYPE) ? data.getDeductionTypes().size() : 0;
+
+        /* A position only has one employer, so grouping by position already groups by employer */
+        int parties;
+        int[] party_of = new int[position_count];
+
+        if (by.contains(GroupBy.POSITION)) {
+            parties = position_count;
+            for (int i = 0; i < position_count; ++i) {
+                party_of[i] = i;
+            }
+        } else if (by.contains(GroupBy.EMPLOYER)) {
+            parties = data.getEmployers().size();
+            for (int i = 0; i < position_count; ++i) {
+                party_of[i] = data.getPosition(i).getEmployer().getId();
+            }
+        } else {
+            parties = 1;
+        }
+
+        long cells = (long)years * months * Math.max(parties, 1);
+
+        if (cells > MAX_CELLS || cells * types > MAX_CELLS) {
+            throw new EHistException(String.format(
+                    "EarningsAggregator: grouping needs %d cells, more than %d", cells * Math.max(types, 1), MAX_CELLS));
+        }
+
+        Layout layout = new Layout(data, by, first_year, years, months, parties, types);
+
+        if (rows > 0) {
+            /* Folds the first year and month out of the cell so the scan only multiplies and adds */
+            int origin = first_year * layout.year_stride + layout.month_stride;
+
+            for (int i = 0; i < position_count; ++i) {
+                party_of[i] -= origin;
+            }
+
+            Scan scan = new Scan(store, layout, party_of);
+            pool.invoke(new ScanTask(scan, 0, rows));
+
+            for (Partial partial : scan.partials.values()) {
+                layout.sums.merge(partial);
+            }
+        }
+
+        EarningsSummary summary = new EarningsSummary(layout);
+        data.metrics().queried(started);
+
+        if (event.shouldCommit()) {
+            event.keys = by.toString();
+            event.rows = rows;
+            event.groups = summary.getGroupCount();
+            event.commit();
+        }
+
+        return (summary);
+    }
+
+    /**
+     *  The dimensions of the cells of a summary and the merged sums of each cell.
+     * The cell of a pay period is the year, month and party (the position or
+     * employer) indices, each multiplied by its stride, added together. The
+     * stride of a key that is not grouped by is zero.
+     */
+    static final class Layout {
+
+        final DataControl data;
+        final EnumSet<GroupBy> by;
+        final int first_year;
+        final int years;
+        final int months;
+        final int parties;
+        final int types;
+
+        final int month_stride;
+        final int year_stride;
+
+        /** The sums of every cell once all partials are merged. */
+        final Partial sums;
+
+        Layout(DataControl data, EnumSet<GroupBy> by, int first_year, int years, int months, int parties, int types) {
+            int party_cells = Math.max(parties, 1);
+
+            this.data = data;
+            this.by = by;
+            this.first_year = first_year;
+            this.years = years;
+            this.months = months;
+            this.parties = parties;
+            this.types = types;
+            this.month_stride = (by.contains(GroupBy.MONTH) ? party_cells : 0);
+            this.year_stride = (by.contains(GroupBy.YEAR) ? party_cells * months : 0);
+            this.sums = new Partial(years * months * party_cells, types);
+        }
+
+        /**
+         * @return the number of cells
+         */
+        int cells() {
+            return (sums.count.length);
+        }
+    }
+
+    /**
+     *  The sums of each cell over some of the rows, owned by a single thread.
+     */
+    static final class Partial {
+
+        final long[] count;
+        final long[] gross;
+        final long[] deductions;
+
+        /** The deductions of each cell by type, the types of a cell are contiguous. */
+        final long[] type_cents;
+
+        Partial(int cells, int types) {
+            this.count = new long[cells];
+            this.gross = new long[cells];
+            this.deductions = new long[cells];
+            this.type_cents = new long[cells * types];
+        }
+
+        /**
+         *  Adds the sums of another partial into the sums of this.
+         * @param partial the partial to add
+         */
+        void merge(Partial partial) {
+            for (int i = 0; i < count.length; ++i) {
+                count[i] += partial.count[i];
+                gross[i] += partial.gross[i];
+                deductions[i] += partial.deductions[i];
+            }
+
+            for (int i = 0; i < type_cents.length; ++i) {
+                type_cents[i] += partial.type_cents[i];
+            }
+        }
+    }
+
+    /**
+     *  The state shared by every task of one aggregation.
+     */
+    private static final class Scan {
+
+        final IntBuffer end;
+        final LongBuffer gross;
+        final IntBuffer position;
+        final LongBuffer deduction_total;
+        final IntBuffer deduction_offset;
+        final LongBuffer deduction_cents;
+        final IntBuffer deduction_type;
+
+        final Layout layout;
+
+        /** The offset of each position's party, less the offsets of the first year and month. */
+        final int[] party_of;
+
+        /** The partial sums of each thread that has run a task. */
+        final ConcurrentHashMap<Thread, Partial> partials;
+
+        Scan(PayPeriodStore store, Layout layout, int[] party_of) {
+            this.end = store.endColumn();
+            this.gross = store.grossColumn();
+            this.position = store.positionColumn();
+            this.deduction_total = store.deductionTotalColumn();
+            this.deduction_offset = store.deductionOffsetColumn();
+            this.deduction_cents = store.deductionCentsColumn();
+            this.deduction_type = store.deductionTypeColumn();
+            this.layout = layout;
+            this.party_of = party_of;
+            this.partials = new ConcurrentHashMap<>();
+        }
+
+        /**
+         *  Adds the rows to the partial sums of the current thread, or to sums of
+         * only the cells they touch if a partial of every cell would be too large.
+         * @param from the first row
+         * @param to   the row after the last row
+         */
+        void add(int from, int to) {
+            if ((long)layout.cells() * (3 + layout.types) > MAX_PARTIAL_LONGS) {
+                addSparse(from, to);
+                return;
+            }
+
+            Partial partial = partials.computeIfAbsent(Thread.currentThread(),
+                    t -> new Partial(layout.cells(), layout.types));
+
+            long[] count = partial.count;
+            long[] sum_gross = partial.gross;
+            long[] sum_deductions = partial.deductions;
+            long[] type_cents = partial.type_cents;
+            int types = layout.types;
+            int year_stride = layout.year_stride;
+            int month_stride = layout.month_stride;
+
+            for (int i = from; i < to; ++i) {
+                int date_val = end.get(i);
+                int cell = party_of[position.get(i)]
+                        + Date.getYear(date_val) * year_stride
+                        + Date.getMonthNumber(date_val) * month_stride;
+
+                ++count[cell];
+                sum_gross[cell] += gross.get(i);
+                sum_deductions[cell] += deduction_total.get(i);
+
+                if (types > 0) {
+                    int base = cell * types;
+
+                    for (int d = deduction_offset.get(i), last = deduction_offset.get(i + 1); d < last; ++d) {
+                        type_cents[base + deduction_type.get(d)] += deduction_cents.get(d);
+                    }
+                }
+            }
+        }
+
+        /**
+         *  Adds the rows to sums of only the cells they touch, then merges those
+         * into the sums of the layout.
+         * @param from the first row
+         * @param to   the row after the last row
+         */
+        void addSparse(int from, int to) {
+            int types = layout.types;
+            int year_stride = layout.year_stride;
+            int month_stride = layout.month_stride;
+            SparseSums cells = new SparseSums(to - from, true);
+            SparseSums type_cells = (types > 0
+                    ? new SparseSums(deduction_offset.get(to) - deduction_offset.get(from), false) : null);
+
+            for (int i = from; i < to; ++i) {
+                int date_val = end.get(i);
+                int cell = party_of[position.get(i)]
+                        + Date.getYear(date_val) * year_stride
+                        + Date.getMonthNumber(date_val) * month_stride;
+                int slot = cells.slot(cell);
+
+                ++cells.count[slot];
+                cells.cents[slot] += gross.get(i);
+                cells.deductions[slot] += deduction_total.get(i);
+
+                if (types > 0) {
+                    int base = cell * types;
+
+                    for (int d = deduction_offset.get(i), last = deduction_offset.get(i + 1); d < last; ++d) {
+                        type_cells.cents[type_cells.slot(base + deduction_type.get(d))] += deduction_cents.get(d);
+                    }
+                }
+            }
+
+            Partial sums = layout.sums;
+
+            synchronized (sums) {
+                for (int slot = 0; slot < cells.keys.length; ++slot) {
+                    int cell = cells.keys[slot] - 1;
+
+                    if (cell >= 0) {
+                        sums.count[cell] += cells.count[slot];
+                        sums.gross[cell] += cells.cents[slot];
+                        sums.deductions[cell] += cells.deductions[slot];
+                    }
+                }
+
+                for (int slot = 0; type_cells != null && slot < type_cells.keys.length; ++slot) {
+                    int key = type_cells.keys[slot] - 1;
+
+                    if (key >= 0) {
+                        sums.type_cents[key] += type_cells.cents[slot];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     *  Sums of the cells touched by the rows of one task, keyed by cell in an
+     * open addressed table with room for twice the keys it can be given.
+     */
+    private static final class SparseSums {
+
+        /** The keys plus one of each slot, zero for an empty slot. */
+        final int[] keys;
+        final long[] count;
+
+        /** The gross of each cell, or the cents of each cell and type. */
+        final long[] cents;
+        final long[] deductions;
+        final int mask;
+
+        /**
+         * @param max_keys the most distinct keys that will be added
+         * @param totals   if the count and deductions of each key are summed, not only the cents
+         */
+        SparseSums(int max_keys, boolean totals) {
+            int capacity = Integer.highestOneBit(Math.max(max_keys * 2 - 1, 1)) << 1;
+
+            this.keys = new int[capacity];
+            this.count = (totals ? new long[capacity] : null);
+            this.cents = new long[capacity];
+            this.deductions = (totals ? new long[capacity] : null);
+            this.mask = capacity - 1;
+        }
+
+        /**
+         * @param key the key, not negative
+         * @return the slot of the key, claimed for it if it had none
+         */
+        int slot(int key) {
+            int h = (key + 1) * 0x9E3779B9;
+            int i = (h ^ (h >>> 16)) & mask;
+            int k;
+
+            while ((k = keys[i]) != key + 1) {
+                if (k == 0) {
+                    keys[i] = key + 1;
+                    break;
+                }
+                i = (i + 1) & mask;
+            }
+
+            return (i);
+        }
+    }
+
+    /**
+     *  Splits a range of rows in half until it is small enough to scan.
+     */
+    private static final class ScanTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Scan scan;
+        private final int from;
+        private final int to;
+
+        ScanTask(Scan scan, int from, int to) {
+            this.scan = scan;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_ROWS) {
+                scan.add(from, to);
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ScanTask(scan, from, mid), new ScanTask(scan, mid, to));
+            }
+        }
+    }
+}
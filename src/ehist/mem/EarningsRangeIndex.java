@@ -0,0 +1,602 @@
+package ehist.mem;
+
+import ehist.mem.date.Date;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * <p>
+ * === EarningsRangeIndex Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Totals the gross, deduction and net amounts earned over any range of days,
+ * for all pay periods of a {@link DataControl} or only those of one
+ * {@link Position} or {@link Employer}. A pay period that only partly falls
+ * within the range contributes the part of its amounts earned on the days
+ * within the range.
+ * </p><p>
+ *  The amount of a pay period earned by the end of its j-th day of n is
+ * <tt>q * j + r * j / n</tt> where <tt>q</tt> and <tt>r</tt> are the quotient
+ * and remainder of the amount divided by n. The amount earned over a range is
+ * the difference of this at both ends of the range, so the parts of adjacent
+ * ranges always add up to the whole amount and no cent is lost to rounding.
+ * </p><p>
+ *  The amount earned up to a day is the sum of every pay period ending on or
+ * before it, kept in a Fenwick tree indexed by the epoch day of the end date,
+ * plus the prorated part of the pay periods that started but have not ended by
+ * then, found through a {@link PayPeriodIndex}. The index of a data control
+ * uses the data control's, the index of a position or employer keeps one of
+ * its own pay periods, so it never walks those of others. Adding a pay period
+ * and querying a range both take O(log d) for the d days a date can be on, at
+ * most 32 nodes, plus O(log n) for the n pay periods of the index and the k
+ * of them straddling the ends of the range.
+ * Each pay period is added by the {@link DataControl} as it is added to it.
+ * The pay periods of a batch, such as a replay or a chunk of an import, are
+ * first summed per end day so each day updates the trees once.
+ * </p><p>
+ *  The trees span every day from {@link Date#MIN_EPOCH_DAY} to
+ * {@link Date#MAX_EPOCH_DAY} but only the nodes that have been added to are
+ * stored, in an open addressed table keyed by node. Pay periods clustered
+ * within a few decades touch about as many nodes as there are days they end
+ * on. Each node holds the sums of every kind of amount side by side, the table
+ * is widened the first time a deduction type is used within the index.
+ * </p><p>
+ *  Like the {@link PayPeriodIndex} it relies on, the index is changed under
+ * the write lock of the data control and queried without locking, see
+ * {@link DataControl#read(java.util.function.LongSupplier)}. A node table is
+ * replaced rather than grown in place, so a query always probes a table whose
+ * slots match its stride, and gives up probing once it has seen every slot.
+ * Both ends of a range, and the gross and deductions of a net amount, are
+ * summed in the same read so they always agree.
+ * </p>
+ *
+ * @see DataControl#getEarningsRangeIndex()
+ * @see Position#getEarningsRangeIndex()
+ * @see Employer#getEarningsRangeIndex()
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+public final class EarningsRangeIndex {
+
+    /** The tree of the gross amounts. */
+    private static final int GROSS = 0;
+
+    /** The tree of the deduction totals. */
+    private static final int DEDUCTIONS = 1;
+
+    /** Asks for the gross less the deduction totals, not a tree of its own. */
+    private static final int NET = -1;
+
+    /** The tree of the first deduction type, followed by the rest by id. */
+    private static final int FIRST_TYPE = 2;
+
+    /** The number of days a date can be on, the size of the Fenwick trees. */
+    private static final long DAYS = Date.MAX_EPOCH_DAY - Date.MIN_EPOCH_DAY + 1;
+
+    /** The initial number of slots of a node table, must be a power of two. */
+    private static final int INITIAL_CAPACITY = 256;
+
+    /** The data control the pay periods belong to. */
+    private final DataControl data;
+
+    /** The interval index of only the pay periods of this index, or null if it holds every pay period. */
+    private final PayPeriodIndex straddles;
+
+    /** The nodes of the Fenwick trees that have been added to, each with the sums of every kind. */
+    private NodeTable nodes;
+
+    /** The sums of every kind of the rows staged since the last flush, keyed by the leaf of their end day. */
+    private NodeTable staged;
+
+    /** The totals of each kind of amount. */
+    private long[] totals;
+
+    /** The earliest start day of the pay periods in the index. */
+    private long min_start;
+
+    /** The latest end day of the pay periods in the index. */
+    private long max_end;
+
+    /** The number of pay periods in the index. */
+    private int size;
+
+    /**
+     *  Creates an empty index. Only created by the owner of the index.
+     * @param data   the data control the pay periods belong to
+     * @param subset if only some pay periods are added, those of a position or employer
+     */
+    EarningsRangeIndex(DataControl data, boolean subset) {
+        this.data = data;
+        this.straddles = (subset ? new PayPeriodIndex(data, true) : null);
+        this.nodes = new NodeTable(INITIAL_CAPACITY, FIRST_TYPE);
+        this.staged = new NodeTable(INITIAL_CAPACITY, FIRST_TYPE);
+        this.totals = new long[FIRST_TYPE];
+        this.min_start = Long.MAX_VALUE;
+        this.max_end = Long.MIN_VALUE;
+        this.size = 0;
+    }
+
+    /**
+     *  Adds the amounts of a row of the data control's store to every node of
+     * the trees above its end day, for a pay period added on its own.
+     * @param row the row to add
+     */
+    void add(int row) {
+        PayPeriodStore store = data.getPayPeriodStore();
+        int count = store.getDeductionCount(row);
+        long leaf = Date.toEpochDay(store.getEnd(row)) - Date.MIN_EPOCH_DAY + 1;
+
+        widen(store, row, count);
+
+        for (long node = leaf; node <= DAYS; node += node & -node) {
+            if (nodes.isFull()) {
+                nodes = nodes.resize(nodes.capacity() * 2, totals.length);
+            }
+
+            addAmounts(nodes, nodes.slot(node), store, row, count);
+        }
+
+        total(store, row, count);
+
+        if (straddles != null) {
+            straddles.stage(row, store.getStart(row), store.getEnd(row));
+            straddles.flush();
+        }
+    }
+
+    /**
+     *  Adds the amounts of a row of the data control's store to the sums of
+     * its end day, the trees are only updated by the next {@link #flush()}.
+     * @param row the row to add
+     * @return if the row is the first staged since the last flush
+     */
+    boolean stage(int row) {
+        PayPeriodStore store = data.getPayPeriodStore();
+        int count = store.getDeductionCount(row);
+        long leaf = Date.toEpochDay(store.getEnd(row)) - Date.MIN_EPOCH_DAY + 1;
+        boolean first = (staged.used == 0);
+
+        widen(store, row, count);
+
+        if (staged.isFull()) {
+            staged = staged.resize(staged.capacity() * 2, totals.length);
+        }
+
+        addAmounts(staged, staged.slot(leaf), store, row, count);
+        total(store, row, count);
+
+        if (straddles != null) {
+            straddles.stage(row, store.getStart(row), store.getEnd(row));
+        }
+
+        return (first);
+    }
+
+    /**
+     *  Adds the sums of every staged end day to the nodes of the trees, so each
+     * distinct day updates the trees once however many rows end on it, and the
+     * staged rows to the interval index of a position or employer.
+     */
+    void flush() {
+        long[] sums = staged.table;
+        int stride = staged.stride;
+
+        for (int j = 0; j < sums.length; j += stride) {
+            if (sums[j] == 0) {
+                continue;
+            }
+
+            for (long node = sums[j]; node <= DAYS; node += node & -node) {
+                if (nodes.isFull()) {
+                    nodes = nodes.resize(nodes.capacity() * 2, totals.length);
+                }
+
+                int slot = nodes.slot(node) + 1;
+                long[] table = nodes.table;
+
+                for (int k = 1; k < stride; ++k) {
+                    table[slot + k - 1] += sums[j + k];
+                }
+            }
+        }
+
+        staged = new NodeTable(INITIAL_CAPACITY, totals.length);
+
+        if (straddles != null) {
+            straddles.flush();
+        }
+    }
+
+    /**
+     *  Makes room in the totals and node tables for the deduction types of a
+     * row not yet used within the index.
+     * @param store the store of the row
+     * @param row   the row
+     * @param count the number of deductions of the row
+     */
+    private void widen(PayPeriodStore store, int row, int count) {
+        for (int d = 0; d < count; ++d) {
+            int kind = FIRST_TYPE + store.getDeductionTypeId(row, d);
+
+            if (kind >= totals.length) {
+                totals = Arrays.copyOf(totals, kind + 1);
+                nodes = nodes.resize(nodes.capacity(), kind + 1);
+                staged = staged.resize(staged.capacity(), kind + 1);
+            }
+        }
+    }
+
+    /**
+     *  Adds the amounts of a row to the sums of a slot.
+     * @param table the node table of the slot
+     * @param slot  the offset of the slot
+     * @param store the store of the row
+     * @param row   the row
+     * @param count the number of deductions of the row
+     */
+    private static void addAmounts(NodeTable table, int slot, PayPeriodStore store, int row, int count) {
+        long[] sums = table.table;
+        int at = slot + 1;
+
+        sums[at + GROSS] += store.getGrossCents(row);
+        sums[at + DEDUCTIONS] += store.getDeductionTotalCents(row);
+
+        for (int d = 0; d < count; ++d) {
+            sums[at + FIRST_TYPE + store.getDeductionTypeId(row, d)] += store.getDeductionCents(row, d);
+        }
+    }
+
+    /**
+     *  Adds the amounts and days of a row to the totals of the index.
+     * @param store the store of the row
+     * @param row   the row
+     * @param count the number of deductions of the row
+     */
+    private void total(PayPeriodStore store, int row, int count) {
+        totals[GROSS] += store.getGrossCents(row);
+        totals[DEDUCTIONS] += store.getDeductionTotalCents(row);
+
+        for (int d = 0; d < count; ++d) {
+            totals[FIRST_TYPE + store.getDeductionTypeId(row, d)] += store.getDeductionCents(row, d);
+        }
+
+        min_start = Math.min(min_start, Date.toEpochDay(store.getStart(row)));
+        max_end = Math.max(max_end, Date.toEpochDay(store.getEnd(row)));
+        ++size;
+    }
+
+    /**
+     * @param from the first day of the range
+     * @param to   the last day of the range
+     * @return the prorated deductions earned over the days of the range in cents
+     */
+    public long getDeductionCents(Date from, Date to) {
+        return (getDeductionCents(from.toEpochDay(), to.toEpochDay()));
+    }
+
+    /**
+     * @param from_day the epoch day of the first day of the range
+     * @param to_day   the epoch day of the last day of the range
+     * @return the prorated deductions earned over the days of the range in cents
+     */
+    public long getDeductionCents(long from_day, long to_day) {
+        return (range(DEDUCTIONS, from_day, to_day));
+    }
+
+    /**
+     * @throws EHistException if the type belongs to another data control
+     * @param type the deduction type
+     * @param from the first day of the range
+     * @param to   the last day of the range
+     * @return the prorated deductions of the type over the days of the range in cents
+     */
+    public long getDeductionCents(DeductionType type, Date from, Date to) {
+        return (getDeductionCents(type, from.toEpochDay(), to.toEpochDay()));
+    }
+
+    /**
+     * @throws EHistException if the type belongs to another data control
+     * @param type     the deduction type
+     * @param from_day the epoch day of the first day of the range
+     * @param to_day   the epoch day of the last day of the range
+     * @return the prorated deductions of the type over the days of the range in cents
+     */
+    public long getDeductionCents(DeductionType type, long from_day, long to_day) {
+        if (type == null || type.getDataControl() != data) {
+            throw new EHistException("EarningsRangeIndex: deduction type belongs to another data control");
+        }
+        return (range(FIRST_TYPE + type.getId(), from_day, to_day));
+    }
+
+    /**
+     * @param from the first day of the range
+     * @param to   the last day of the range
+     * @return the prorated gross earned over the days of the range in cents
+     */
+    public long getGrossCents(Date from, Date to) {
+        return (getGrossCents(from.toEpochDay(), to.toEpochDay()));
+    }
+
+    /**
+     * @param from_day the epoch day of the first day of the range
+     * @param to_day   the epoch day of the last day of the range
+     * @return the prorated gross earned over the days of the range in cents
+     */
+    public long getGrossCents(long from_day, long to_day) {
+        return (range(GROSS, from_day, to_day));
+    }
+
+    /**
+     *  The net amount is the prorated gross less the prorated deductions.
+     * @param from the first day of the range
+     * @param to   the last day of the range
+     * @return the net earned over the days of the range in cents
+     */
+    public long getNetCents(Date from, Date to) {
+        return (getNetCents(from.toEpochDay(), to.toEpochDay()));
+    }
+
+    /**
+     *  The net amount is the prorated gross less the prorated deductions.
+     * @param from_day the epoch day of the first day of the range
+     * @param to_day   the epoch day of the last day of the range
+     * @return the net earned over the days of the range in cents
+     */
+    public long getNetCents(long from_day, long to_day) {
+        return (range(NET, from_day, to_day));
+    }
+
+    /**
+     * @return the bytes of the node tables and totals of the index
+     */
+    long estimateBytes() {
+        return (8L * (nodes.table.length + staged.table.length + totals.length)
+                + (straddles != null ? straddles.estimateBytes() : 0));
+    }
+
+    /**
+     * @return the number of pay periods in the index
+     */
+    public int size() {
+        return ((int)data.read(() -> size));
+    }
+
+    /**
+     *  Finds the part of an amount earned by the end of a day of a pay period.
+     * @param amount the amount of the pay period
+     * @param day    the number of days of the pay period up to and including the day
+     * @param length the number of days of the pay period
+     * @return the part of the amount earned by the end of the day
+     */
+    static long prorate(long amount, long day, long length) {
+        return ((amount / length) * day + (amount % length) * day / length);
+    }
+
+    /**
+     *  Finds the prorated amount of a kind earned up to and including the day.
+     * @param tree the kind of amount
+     * @param day  the epoch day
+     * @return the amount earned up to the day in cents
+     */
+    private long prefix(int tree, long day) {
+        long[] sums = totals;
+        NodeTable table = nodes;
+
+        if (size == 0 || tree >= sums.length || day < min_start) {
+            return (0);
+        } else if (day >= max_end) {
+            return (sums[tree]);
+        }
+
+        long sum = 0;
+
+        for (long node = day - Date.MIN_EPOCH_DAY + 1; node > 0; node -= node & -node) {
+            int slot = table.find(node);
+
+            if (slot >= 0) {
+                sum += table.table[slot + 1 + tree];
+            }
+        }
+
+        /* The pay periods that started on or before the day but end after it */
+        Straddle straddle = new Straddle(tree, day);
+        int date_val = Date.epochDayToDateVal(day);
+        (straddles != null ? straddles : data.getPayPeriodIndex()).visitOverlapping(date_val, date_val, straddle);
+
+        return (sum + straddle.sum);
+    }
+
+    /**
+     * @param tree     the kind of amount, or NET
+     * @param from_day the epoch day of the first day of the range
+     * @param to_day   the epoch day of the last day of the range
+     * @return the prorated amount earned over the range in cents
+     */
+    private long range(int tree, long from_day, long to_day) {
+        if (from_day > to_day) {
+            return (0);
+        }
+
+        long started = System.nanoTime();
+        long sum = data.read(() -> tree == NET
+                ? prefix(GROSS, to_day) - prefix(GROSS, from_day - 1)
+                        - (prefix(DEDUCTIONS, to_day) - prefix(DEDUCTIONS, from_day - 1))
+                : prefix(tree, to_day) - prefix(tree, from_day - 1));
+
+        data.metrics().queried(started);
+        return (sum);
+    }
+
+    /**
+     *  Sums the part of an amount of each straddling pay period of the index
+     * earned by the end of a day.
+     */
+    private final class Straddle implements IntConsumer {
+
+        private final int tree;
+        private final long day;
+        private long sum;
+
+        Straddle(int tree, long day) {
+            this.tree = tree;
+            this.day = day;
+            this.sum = 0;
+        }
+
+        @Override
+        public void accept(int row) {
+            PayPeriodStore store = data.getPayPeriodStore();
+            long end = Date.toEpochDay(store.getEnd(row));
+
+            if (end <= day) {
+                return;
+            }
+
+            int start_val = store.getStart(row);
+            long amount;
+
+            if (tree == GROSS) {
+                amount = store.getGrossCents(row);
+            } else if (tree == DEDUCTIONS) {
+                amount = store.getDeductionTotalCents(row);
+            } else {
+                amount = 0;
+
+                for (int i = 0, count = store.getDeductionCount(row); i < count; ++i) {
+                    if (store.getDeductionTypeId(row, i) == tree - FIRST_TYPE) {
+                        amount += store.getDeductionCents(row, i);
+                    }
+                }
+            }
+
+            sum += prorate(amount, day - Date.toEpochDay(start_val) + 1, Date.daysBetween(start_val, store.getEnd(row)));
+        }
+    }
+
+    /**
+     *  An open addressed table of nodes, each slot the one-based index of its
+     * node, 0 if empty, followed by the sum of each kind of amount of the node,
+     * so a node and its sums share a cache line. Never grown in place, a full
+     * table is replaced by a larger copy.
+     */
+    private static final class NodeTable {
+
+        /** The slots of the table. */
+        final long[] table;
+
+        /** The number of longs of each slot, one more than the number of kinds of amounts. */
+        final int stride;
+
+        /** The number of slots in use. */
+        int used;
+
+        /**
+         * @param capacity the number of slots, a power of two
+         * @param kinds    the number of kinds of amounts
+         */
+        NodeTable(int capacity, int kinds) {
+            this.stride = 1 + kinds;
+            this.table = new long[capacity * stride];
+            this.used = 0;
+        }
+
+        /**
+         * @return the number of slots
+         */
+        int capacity() {
+            return (table.length / stride);
+        }
+
+        /**
+         *  Finds the slot of a node. Probes each slot at most once, as a table
+         * read while a node was added may have no empty slot left to stop at.
+         * @param node the one-based index of the node
+         * @return the offset of the slot of the node, or -1 if the node has no sums
+         */
+        int find(long node) {
+            int mask = capacity() - 1;
+            int i = hash(node) & mask;
+
+            for (int probes = 0; probes <= mask && table[i * stride] != 0; ++probes, i = (i + 1) & mask) {
+                if (table[i * stride] == node) {
+                    return (i * stride);
+                }
+            }
+
+            return (-1);
+        }
+
+        /**
+         *  Hashes a node so each group of eight consecutive nodes takes eight
+         * consecutive slots, the groups themselves are scattered. The lowest
+         * nodes updated by pay periods ending on nearby days then share cache
+         * lines without long runs of filled slots building up.
+         * @param node the one-based index of the node
+         * @return the hash of the node
+         */
+        private static int hash(long node) {
+            long group = (node >>> 3) * 0x9E3779B97F4A7C15L;
+            return (((int)(group >>> 32) << 3) | (int)(node & 7));
+        }
+
+        /**
+         * @return if another node would fill more than half of the slots, so the table must be replaced first
+         */
+        boolean isFull() {
+            return ((used + 1) * 2 > capacity());
+        }
+
+        /**
+         *  Finds the slot of a node, taking an empty slot for it if it has none.
+         * The table must not be full.
+         * @param node the one-based index of the node
+         * @return the offset of the slot of the node
+         */
+        int slot(long node) {
+            int mask = capacity() - 1;
+            int i = hash(node) & mask;
+
+            while (table[i * stride] != 0 && table[i * stride] != node) {
+                i = (i + 1) & mask;
+            }
+
+            if (table[i * stride] == 0) {
+                table[i * stride] = node;
+                ++used;
+            }
+
+            return (i * stride);
+        }
+
+        /**
+         *  Copies every node and its sums into a new table of the given size
+         * with room for the given number of kinds of amounts. This table is left
+         * as it was for queries still probing it.
+         * @param capacity the number of slots of the new table, a power of two
+         * @param kinds    the number of kinds of amounts, at least the current number
+         * @return the new table
+         */
+        NodeTable resize(int capacity, int kinds) {
+            NodeTable resized = new NodeTable(capacity, kinds);
+            long[] copy = resized.table;
+            int mask = capacity - 1;
+
+            for (int j = 0; j < table.length; j += stride) {
+                if (table[j] != 0) {
+                    int i = hash(table[j]) & mask;
+
+                    while (copy[i * resized.stride] != 0) {
+                        i = (i + 1) & mask;
+                    }
+
+                    System.arraycopy(table, j, copy, i * resized.stride, stride);
+                }
+            }
+
+            resized.used = used;
+            return (resized);
+        }
+    }
+}
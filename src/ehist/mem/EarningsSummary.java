@@ -0,0 +1,227 @@
+package ehist.mem;
+
+import ehist.mem.date.Month;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * <p>
+ * === EarningsSummary Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  The result of an {@link EarningsAggregator}, the totals of each group of
+ * pay periods. Only groups with at least one pay period are kept, indexed from
+ * zero in order of year, month, then employer or position id. The key values of
+ * a group can only be read for the keys that were grouped by.
+ * </p>
+ *
+ * @see EarningsAggregator
+ * @since EHist 1.0
+ *
+ * @author Michael van Dyk
+ */
+public final class EarningsSummary {
+
+    /** The dimensions and sums of every cell. */
+    private final EarningsAggregator.Layout layout;
+
+    /** The cell of each group. */
+    private final int[] groups;
+
+    /**
+     *  Creates the summary of the non-empty cells of the layout.
+     * @param layout the layout with its merged sums
+     */
+    EarningsSummary(EarningsAggregator.Layout layout) {
+        long[] count = layout.sums.count;
+        int size = 0;
+
+        for (long c : count) {
+            size += (c > 0 ? 1 : 0);
+        }
+
+        this.layout = layout;
+        this.groups = new int[size];
+
+        for (int cell = 0, g = 0; cell < count.length; ++cell) {
+            if (count[cell] > 0) {
+                groups[g++] = cell;
+            }
+        }
+    }
+
+    /**
+     * @return the keys the pay periods were grouped by
+     */
+    public Set<GroupBy> getGroupBy() {
+        return (Collections.unmodifiableSet(EnumSet.copyOf(layout.by)));
+    }
+
+    /**
+     * @return the number of non-empty groups
+     */
+    public int getGroupCount() {
+        return (groups.length);
+    }
+
+    /**
+     * @param group the index of the group
+     * @return the sum of the deductions of the group in cents
+     */
+    public long getDeductionCents(int group) {
+        return (layout.sums.deductions[cell(group)]);
+    }
+
+    /**
+     * @throws EHistException if not grouped by deduction type or the type belongs to another data control
+     * @param group the index of the group
+     * @param type  the deduction type
+     * @return the sum of the deductions of the type in the group in cents
+     */
+    public long getDeductionCents(int group, DeductionType type) {
+        require(GroupBy.DEDUCTION_TYPE);
+
+        if (type == null || type.getDataControl() != layout.data) {
+            throw new EHistException("EarningsSummary: deduction type belongs to another data control");
+        } else if (type.getId() >= layout.types) {
+            /* Added after the aggregation */
+            return (0);
+        }
+
+        return (layout.sums.type_cents[cell(group) * layout.types + type.getId()]);
+    }
+
+    /**
+     * @param group the index of the group
+     * @return the sum of the deductions of the group
+     */
+    public Amount getDeductions(int group) {
+        return (Amount.of(getDeductionCents(group)));
+    }
+
+    /**
+     * @throws EHistException if not grouped by employer or position
+     * @param group the index of the group
+     * @return the employer of the group
+     */
+    public Employer getEmployer(int group) {
+        if (layout.by.contains(GroupBy.POSITION)) {
+            return (getPosition(group).getEmployer());
+        }
+
+        require(GroupBy.EMPLOYER);
+        return (layout.data.getEmployer(party(group)));
+    }
+
+    /**
+     * @param group the index of the group
+     * @return the sum of the gross amounts of the group
+     */
+    public Amount getGross(int group) {
+        return (Amount.of(getGrossCents(group)));
+    }
+
+    /**
+     * @param group the index of the group
+     * @return the sum of the gross amounts of the group in cents
+     */
+    public long getGrossCents(int group) {
+        return (layout.sums.gross[cell(group)]);
+    }
+
+    /**
+     * @throws EHistException if not grouped by month
+     * @param group the index of the group
+     * @return the month of the group
+     */
+    public Month getMonth(int group) {
+        require(GroupBy.MONTH);
+        return (Month.getMonth(cell(group) / layout.month_stride % layout.months + 1));
+    }
+
+    /**
+     * @param group the index of the group
+     * @return the sum of the net amounts of the group
+     */
+    public Amount getNet(int group) {
+        return (Amount.of(getNetCents(group)));
+    }
+
+    /**
+     * @param group the index of the group
+     * @return the sum of the gross less deductions of the group in cents
+     */
+    public long getNetCents(int group) {
+        int cell = cell(group);
+        return (layout.sums.gross[cell] - layout.sums.deductions[cell]);
+    }
+
+    /**
+     * @param group the index of the group
+     * @return the number of pay periods in the group
+     */
+    public long getPayPeriodCount(int group) {
+        return (layout.sums.count[cell(group)]);
+    }
+
+    /**
+     * @throws EHistException if not grouped by position
+     * @param group the index of the group
+     * @return the position of the group
+     */
+    public Position getPosition(int group) {
+        require(GroupBy.POSITION);
+        return (layout.data.getPosition(party(group)));
+    }
+
+    /**
+     * @throws EHistException if not grouped by year
+     * @param group the index of the group
+     * @return the year of the group
+     */
+    public int getYear(int group) {
+        require(GroupBy.YEAR);
+        return (layout.first_year + cell(group) / layout.year_stride);
+    }
+
+    /**
+     * @param key the key to check
+     * @return if the pay periods were grouped by the key
+     */
+    public boolean isGroupedBy(GroupBy key) {
+        return (layout.by.contains(key));
+    }
+
+    /**
+     * @param group the index of the group
+     * @return the cell of the group
+     * @throws IndexOutOfBoundsException if the group does not exist
+     */
+    private int cell(int group) {
+        if (group < 0 || group >= groups.length) {
+            throw new IndexOutOfBoundsException(String.format("Group out of range [0, %d) : %d", groups.length, group));
+        }
+        return (groups[group]);
+    }
+
+    /**
+     * @param group the index of the group
+     * @return the employer or position id of the group
+     */
+    private int party(int group) {
+        return (cell(group) % Math.max(layout.parties, 1));
+    }
+
+    /**
+     * @param key the key that must have been grouped by
+     * @throws EHistException if the key was not grouped by
+     */
+    private void require(GroupBy key) {
+        if (!layout.by.contains(key)) {
+            throw new EHistException("EarningsSummary: not grouped by " + key);
+        }
+    }
+}
@@ -1,8 +1,7 @@
 package ehist.mem;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * <p>
@@ -10,30 +9,85 @@ import java.util.List;
  * </p><p>
  * Date : March 02, 2017
  * </p><p>
- * TODO Description here
+ *  An employer within a {@link DataControl}. Created through
+ * {@link DataControl#addEmployer(String)} which gives it an id unique to
+ * that data control.
  * </p>
  *
  * @author Michael van Dyk
  */
 public class Employer {
 
+    private final DataControl data;
+    private final int id;
     private String name;
-    private final List<Position> positions;
+    private final AppendOnlyList<Position> positions;
 
-    public Employer(String name) {
+    /** The first position added with each title, by the id of the title in the data control's names. */
+    private final ConcurrentHashMap<Integer, Position> positionsByTitle;
+    private final EarningsRangeIndex earningsRangeIndex;
+
+    /** The amounts earned in each year and month at this employer, rolled up from its positions. */
+    private final CalendarTotals calendarTotals;
+
+    Employer(DataControl data, int id, String name) {
+        this.data = data;
+        this.id = id;
         this.name = name;
-        this.positions = new ArrayList<>();
+        this.positions = new AppendOnlyList<>();
+        this.positionsByTitle = new ConcurrentHashMap<>();
+        this.earningsRangeIndex = new EarningsRangeIndex(data, true);
+        this.calendarTotals = new CalendarTotals(data);
+    }
+
+    void addPosition(Position position) {
+        positions.append(position);
+    }
+
+    /**
+     * @return the bytes of the range index and calendar totals of this employer
+     */
+    long estimateBytes() {
+        return (earningsRangeIndex.estimateBytes() + calendarTotals.estimateBytes());
+    }
+
+    DataControl getDataControl() {
+        return data;
+    }
+
+    /**
+     * @return the amounts earned in each year and month at this employer, in all of its positions
+     */
+    public CalendarTotals getCalendarTotals() {
+        return (calendarTotals);
     }
 
-    public void addPosition(Position position) {
-        positions.add(position);
+    /**
+     * @return the index of the amounts earned over ranges of days at this employer
+     */
+    public EarningsRangeIndex getEarningsRangeIndex() {
+        return (earningsRangeIndex);
+    }
+
+    public int getId() {
+        return id;
     }
 
     public String getName() {
         return name;
     }
 
+    /**
+     * @return a read only list of the positions added so far at this employer
+     */
     public List<Position> getPositions() {
-        return (Collections.unmodifiableList(positions));
+        return (positions.snapshot());
+    }
+
+    /**
+     * @return the first position added with each title, by the id of the title
+     */
+    ConcurrentHashMap<Integer, Position> positionsByTitle() {
+        return (positionsByTitle);
     }
 }
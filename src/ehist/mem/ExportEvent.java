@@ -0,0 +1,48 @@
+package ehist.mem;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * <p>
+ * === ExportEvent Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  A Java Flight Recorder event for one {@link Exporter} run, the dates and
+ * amounts formatted and the bytes written. Disabled by default, enable
+ * <tt>ehist.Export</tt> in a recording.
+ * </p>
+ *
+ * @see Exporter
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+@Name("ehist.Export")
+@Label("Export")
+@Category({"EHist", "Export"})
+@Description("Pay periods formatted and written by an Exporter")
+@Enabled(false)
+@StackTrace(false)
+final class ExportEvent extends Event {
+
+    /** The format written. */
+    @Label("Format")
+    String format;
+
+    /** The number of pay periods written. */
+    @Label("Rows")
+    long rows;
+
+    /** The number of bytes written. */
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+}
+
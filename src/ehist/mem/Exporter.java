@@ -0,0 +1,516 @@
+package ehist.mem;
+
+import ehist.mem.date.Date;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.function.IntFunction;
+
+/**
+ * <p>
+ * === Exporter Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Writes the pay periods of a {@link DataControl} to a channel as CSV or as
+ * JSON lines, optionally only those of an employer or position or ending within
+ * a range of dates. The CSV is in the layout {@link CsvImporter} reads:
+ * </p>
+ * <pre>
+ * employer,position,start,end,gross,deduction type,amount
+ * Acme,Developer,2024-01-01,2024-01-14,2500.00,Income Tax,412.50,Pension,120.00
+ * </pre>
+ * <p>
+ *  A JSON line is one object per pay period:
+ * </p>
+ * <pre>
+ * {"employer":"Acme","position":"Developer","start":"2024-01-01","end":"2024-01-14",
+ *  "gross":2500.00,"deductions":[{"type":"Income Tax","amount":412.50}],"net":2087.50}
+ * </pre>
+ * <p>
+ *  Every name is encoded once per export. Dates and amounts are written as
+ * digits straight from the columns of the {@link PayPeriodStore} into one
+ * reusable buffer, which is written to the channel whenever it fills, so no
+ * objects are created per pay period and memory stays the same for any
+ * number of pay periods. The channel must be blocking.
+ * </p><p>
+ *  Without a date range pay periods are written in the order they were added,
+ * with one they are found through the {@link PayPeriodIndex} and written in
+ * order of start date.
+ * </p><p>
+ *  An export writes the pay periods of a snapshot of the store taken as it
+ * starts, so pay periods added while it runs are left out. The names are
+ * encoded after the snapshot is taken, so every employer, position and
+ * deduction type of a pay period in it has a name. CSV cannot hold a name
+ * with a line end, as {@link CsvImporter} reads each pay period from one line,
+ * so a CSV export of a data control with such a name fails before anything is
+ * written.
+ * </p>
+ *
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+public final class Exporter {
+
+    /**
+     *  The formats an exporter can write.
+     */
+    public enum Format {
+        /** Comma separated values with a header line. */
+        CSV,
+        /** One JSON object per line. */
+        JSON_LINES
+    }
+
+    /** The size of the buffer the output is written through. */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static final byte[] CSV_HEADER =
+            "employer,position,start,end,gross,deduction type,amount\n".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] JSON_EMPLOYER = "{\"employer\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] JSON_POSITION = ",\"position\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] JSON_START = ",\"start\":\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] JSON_END = "\",\"end\":\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] JSON_GROSS = "\",\"gross\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] JSON_DEDUCTIONS = ",\"deductions\":[".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] JSON_TYPE = "{\"type\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] JSON_AMOUNT = ",\"amount\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] JSON_NET = "],\"net\":".getBytes(StandardCharsets.US_ASCII);
+
+    private final DataControl data;
+    private final Format format;
+
+    /** The employer to export, or null for all. */
+    private Employer employer;
+
+    /** The position to export, or null for all. */
+    private Position position;
+
+    /** The date values of the range the end date must be within, or -1 for none. */
+    private int from_val;
+    private int to_val;
+
+    /** The buffer the output is written through. */
+    private final ByteBuffer buffer;
+
+    /*
+     * The state of the export in progress.
+     */
+    private WritableByteChannel channel;
+    private PayPeriodStore store;
+    private byte[][] employer_names;
+    private byte[][] position_names;
+    private byte[][] type_names;
+    private long written;
+    private long bytes_written;
+
+    /**
+     *  Creates an exporter of every pay period of the data control.
+     * @throws EHistException if the data control or format is null
+     * @param data   the data control to export
+     * @param format the format to write
+     */
+    public Exporter(DataControl data, Format format) {
+        if (data == null) {
+            throw new EHistException("Exporter: data cannot be null");
+        } else if (format == null) {
+            throw new EHistException("Exporter: format cannot be null");
+        }
+
+        this.data = data;
+        this.format = format;
+        this.from_val = -1;
+        this.to_val = -1;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    }
+
+    /**
+     *  Limits the export to the pay periods ending within the range.
+     * @throws EHistException if either date is null or the range ends before it starts
+     * @param from the first date of the range
+     * @param to   the last date of the range
+     * @return this exporter
+     */
+    public Exporter setDateRange(Date from, Date to) {
+        if (from == null || to == null) {
+            throw new EHistException("Exporter: range dates cannot be null");
+        } else if (to.compareTo(from) < 0) {
+            throw new EHistException("Exporter: range cannot end before it starts");
+        }
+
+        this.from_val = from.getDateVal();
+        this.to_val = to.getDateVal();
+        return (this);
+    }
+
+    /**
+     *  Limits the export to the pay periods of an employer.
+     * @throws EHistException if the employer belongs to another data control
+     * @param employer the employer, or null for all
+     * @return this exporter
+     */
+    public Exporter setEmployer(Employer employer) {
+        if (employer != null && employer.getDataControl() != data) {
+            throw new EHistException("Exporter: employer belongs to another data control");
+        }
+
+        this.employer = employer;
+        return (this);
+    }
+
+    /**
+     *  Limits the export to the pay periods of a position.
+     * @throws EHistException if the position belongs to another data control
+     * @param position the position, or null for all
+     * @return this exporter
+     */
+    public Exporter setPosition(Position position) {
+        if (position != null && position.getDataControl() != data) {
+            throw new EHistException("Exporter: position belongs to another data control");
+        }
+
+        this.position = position;
+        return (this);
+    }
+
+    /**
+     *  Writes the pay periods to the channel. The channel is not closed.
+     * @throws EHistException if the channel cannot be written, or a name has a line end and the format is CSV
+     * @param channel the blocking channel to write to
+     * @return the number of pay periods written
+     */
+    public synchronized long export(WritableByteChannel channel) {
+        this.channel = channel;
+        this.written = 0;
+        this.bytes_written = 0;
+
+        /* Taken first, every id in its rows has a name by the time the names are encoded */
+        this.store = data.getPayPeriodStore().snapshot();
+        this.employer_names = encode(data.getEmployers().size(), i -> data.getEmployer(i).getName());
+        this.position_names = encode(data.getPositions().size(), i -> data.getPosition(i).getTitle());
+        this.type_names = encode(data.getDeductionTypes().size(), i -> data.getDeductionType(i).getName());
+        buffer.clear();
+
+        ExportEvent event = new ExportEvent();
+        event.begin();
+
+        try {
+            if (format == Format.CSV) {
+                put(CSV_HEADER);
+            }
+
+            if (from_val != -1) {
+                data.getPayPeriodIndex().forEachOverlapping(from_val, to_val, this::writeIfMatching);
+            } else if (position != null) {
+                for (int i = 0, count = position.getPayPeriodCount(); i < count; ++i) {
+                    writeIfMatching(position.getPayPeriodRow(i));
+                }
+            } else {
+                for (int row = 0, rows = store.size(); row < rows; ++row) {
+                    writeIfMatching(row);
+                }
+            }
+
+            flush();
+
+            if (event.shouldCommit()) {
+                event.format = format.name();
+                event.rows = written;
+                event.bytes = bytes_written;
+                event.commit();
+            }
+
+            return (written);
+        } catch (UncheckedIOException e) {
+            throw new EHistException("Exporter: cannot write", e.getCause());
+        } catch (IOException e) {
+            throw new EHistException("Exporter: cannot write", e);
+        } finally {
+            this.channel = null;
+            this.store = null;
+            this.employer_names = null;
+            this.position_names = null;
+            this.type_names = null;
+        }
+    }
+
+    /**
+     *  Encodes each name once, quoted as the format needs.
+     * @throws EHistException if a name has a line end and the format is CSV
+     * @param count the number of names
+     * @param names the name of each id
+     * @return the encoded name of each id
+     */
+    private byte[][] encode(int count, IntFunction<String> names) {
+        byte[][] encoded = new byte[count][];
+
+        for (int i = 0; i < count; ++i) {
+            String name = names.apply(i);
+            encoded[i] = (format == Format.CSV ? csvName(name) : jsonName(name));
+        }
+
+        return (encoded);
+    }
+
+    /**
+     * @throws EHistException if the name has a line end, which CsvImporter cannot read back
+     * @param name a name, may be null
+     * @return the name as a CSV field, quoted if it has a comma or quote
+     */
+    private static byte[] csvName(String name) {
+        String str = (name != null ? name : "");
+
+        if (str.indexOf('\n') >= 0 || str.indexOf('\r') >= 0) {
+            /* Shown escaped as in JSON so the line end is visible */
+            throw new EHistException("Exporter: a CSV name cannot have a line end: "
+                    + new String(jsonName(str), StandardCharsets.UTF_8));
+        } else if (str.indexOf(',') >= 0 || str.indexOf('"') >= 0) {
+            str = '"' + str.replace("\"", "\"\"") + '"';
+        }
+
+        return (str.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param name a name, may be null
+     * @return the name as a JSON string
+     */
+    private static byte[] jsonName(String name) {
+        String str = (name != null ? name : "");
+        StringBuilder sb = new StringBuilder(str.length() + 2).append('"');
+
+        for (int i = 0; i < str.length(); ++i) {
+            char c = str.charAt(i);
+
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int)c));
+            } else {
+                sb.append(c);
+            }
+        }
+
+        return (sb.append('"').toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     *  Writes the row if it is in the snapshot and passes the filters.
+     * @param row the row
+     */
+    private void writeIfMatching(int row) {
+        if (row >= store.size()) {
+            return;
+        }
+
+        int position_id = store.getPositionId(row);
+        Position row_position = data.getPosition(position_id);
+
+        if ((position != null && row_position != position)
+                || (employer != null && row_position.getEmployer() != employer)) {
+            return;
+        }
+
+        if (from_val != -1) {
+            int end_val = store.getEnd(row);
+
+            if (Integer.compareUnsigned(end_val, from_val) < 0 || Integer.compareUnsigned(end_val, to_val) > 0) {
+                return;
+            }
+        }
+
+        try {
+            if (format == Format.CSV) {
+                writeCsv(store, row, row_position);
+            } else {
+                writeJson(store, row, row_position);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        ++written;
+    }
+
+    /**
+     * @param store    the store of the row
+     * @param row      the row
+     * @param position the position of the row
+     * @throws IOException if the channel cannot be written
+     */
+    private void writeCsv(PayPeriodStore store, int row, Position position) throws IOException {
+        put(employer_names[position.getEmployer().getId()]);
+        put((byte)',');
+        put(position_names[position.getId()]);
+        put((byte)',');
+        putDate(store.getStart(row));
+        put((byte)',');
+        putDate(store.getEnd(row));
+        put((byte)',');
+        putCents(store.getGrossCents(row));
+
+        for (int d = 0, count = store.getDeductionCount(row); d < count; ++d) {
+            put((byte)',');
+            put(type_names[store.getDeductionTypeId(row, d)]);
+            put((byte)',');
+            putCents(store.getDeductionCents(row, d));
+        }
+
+        put((byte)'\n');
+    }
+
+    /**
+     * @param store    the store of the row
+     * @param row      the row
+     * @param position the position of the row
+     * @throws IOException if the channel cannot be written
+     */
+    private void writeJson(PayPeriodStore store, int row, Position position) throws IOException {
+        put(JSON_EMPLOYER);
+        put(employer_names[position.getEmployer().getId()]);
+        put(JSON_POSITION);
+        put(position_names[position.getId()]);
+        put(JSON_START);
+        putDate(store.getStart(row));
+        put(JSON_END);
+        putDate(store.getEnd(row));
+        put(JSON_GROSS);
+        putCents(store.getGrossCents(row));
+        put(JSON_DEDUCTIONS);
+
+        for (int d = 0, count = store.getDeductionCount(row); d < count; ++d) {
+            if (d > 0) {
+                put((byte)',');
+            }
+
+            put(JSON_TYPE);
+            put(type_names[store.getDeductionTypeId(row, d)]);
+            put(JSON_AMOUNT);
+            putCents(store.getDeductionCents(row, d));
+            put((byte)'}');
+        }
+
+        put(JSON_NET);
+        putCents(store.getNetCents(row));
+        put((byte)'}');
+        put((byte)'\n');
+    }
+
+    /**
+     *  Writes out the buffer and clears it.
+     * @throws IOException if the channel cannot be written
+     */
+    private void flush() throws IOException {
+        buffer.flip();
+        bytes_written += buffer.remaining();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+
+    /**
+     * @param b the byte to put
+     * @throws IOException if the channel cannot be written
+     */
+    private void put(byte b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            flush();
+        }
+        buffer.put(b);
+    }
+
+    /**
+     * @param bytes the bytes to put, written straight to the channel if larger than the buffer
+     * @throws IOException if the channel cannot be written
+     */
+    private void put(byte[] bytes) throws IOException {
+        if (buffer.remaining() < bytes.length) {
+            flush();
+
+            if (bytes.length > buffer.capacity()) {
+                ByteBuffer large = ByteBuffer.wrap(bytes);
+                bytes_written += bytes.length;
+
+                while (large.hasRemaining()) {
+                    channel.write(large);
+                }
+                return;
+            }
+        }
+        buffer.put(bytes);
+    }
+
+    /**
+     *  Puts an amount as dollars and two digits of cents, a minus sign first
+     * if negative.
+     * @param cents the amount in cents
+     * @throws IOException if the channel cannot be written
+     */
+    private void putCents(long cents) throws IOException {
+        /* Sign, 17 digits of dollars, point and 2 cents */
+        if (buffer.remaining() < 21) {
+            flush();
+        }
+
+        if (cents < 0) {
+            buffer.put((byte)'-');
+        }
+
+        long dollars = Math.abs(cents / 100);
+        int rest = (int)Math.abs(cents % 100);
+
+        putDigits(dollars, 1);
+        buffer.put((byte)'.');
+        buffer.put((byte)('0' + rest / 10));
+        buffer.put((byte)('0' + rest % 10));
+    }
+
+    /**
+     *  Puts a date value as year-month-day, month and day padded to two digits.
+     * @param date_val the date value
+     * @throws IOException if the channel cannot be written
+     */
+    private void putDate(int date_val) throws IOException {
+        /* 7 digits of year, 2 dashes, 4 digits of month and day */
+        if (buffer.remaining() < 13) {
+            flush();
+        }
+
+        putDigits(Date.getYear(date_val), 4);
+        buffer.put((byte)'-');
+        putDigits(Date.getMonthNumber(date_val), 2);
+        buffer.put((byte)'-');
+        putDigits(Date.getDay(date_val), 2);
+    }
+
+    /**
+     *  Puts the digits of a non negative value, with leading zeros up to the
+     * width. The buffer must have room.
+     * @param value the value
+     * @param width the least number of digits
+     */
+    private void putDigits(long value, int width) {
+        int digits = 1;
+
+        for (long v = value / 10; v > 0; v /= 10) {
+            ++digits;
+        }
+
+        int length = Math.max(digits, width);
+        int at = buffer.position();
+
+        for (int i = length - 1; i >= 0; --i) {
+            buffer.put(at + i, (byte)('0' + value % 10));
+            value /= 10;
+        }
+
+        buffer.position(at + length);
+    }
+}
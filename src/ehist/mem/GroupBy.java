@@ -0,0 +1,41 @@
+package ehist.mem;
+
+/**
+ * <p>
+ * === GroupBy Enum ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  The keys pay periods can be grouped by in an {@link EarningsAggregator}.
+ * The year and month are taken from the end date of each pay period. Each key
+ * is independent, grouping by month alone puts the same month of every year
+ * in one group.
+ * </p>
+ *
+ * @see EarningsAggregator
+ * @see EarningsSummary
+ * @since EHist 1.0
+ *
+ * @author Michael van Dyk
+ */
+public enum GroupBy {
+
+    /** The calendar year of the end date. */
+    YEAR,
+
+    /** The calendar month of the end date. */
+    MONTH,
+
+    /** The employer of the position. */
+    EMPLOYER,
+
+    /** The position. */
+    POSITION,
+
+    /**
+     *  The deduction type. A pay period has many deductions so this does not
+     * split pay periods into groups, instead the deductions of every group are
+     * further broken down by their type.
+     */
+    DEDUCTION_TYPE
+}
@@ -0,0 +1,50 @@
+package ehist.mem;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * <p>
+ * === ImportBatchEvent Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  A Java Flight Recorder event for one chunk of a {@link CsvImporter} load,
+ * committed once when the chunk is parsed on its worker thread and once when
+ * its rows are appended. Disabled by default, enable <tt>ehist.ImportBatch</tt>
+ * in a recording to see how the time of an import splits between threads and
+ * phases.
+ * </p>
+ *
+ * @see CsvImporter
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+@Name("ehist.ImportBatch")
+@Label("Import Batch")
+@Category({"EHist", "Import"})
+@Description("A chunk of a CSV file parsed into columns, or its rows appended to the data control")
+@Enabled(false)
+@StackTrace(false)
+final class ImportBatchEvent extends Event {
+
+    /** The phase, parse or append. */
+    @Label("Phase")
+    String phase;
+
+    /** The number of pay periods of the chunk. */
+    @Label("Rows")
+    int rows;
+
+    /** The number of bytes of the chunk. */
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+}
+
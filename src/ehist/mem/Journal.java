@@ -0,0 +1,738 @@
+package ehist.mem;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * <p>
+ * === Journal Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  An append only write ahead journal of the creations made in a
+ * {@link DataControl}. Every employer, position, deduction type and pay period
+ * (with its deductions) added to the data control is written as a compact
+ * binary record. Opening a journal replays its records into an empty data
+ * control, rebuilding the same ids in the same order.
+ * </p><p>
+ *  Records are first copied into a buffer in memory. {@link #commit()} writes
+ * the buffer through the file channel and forces it to the device. Commits are
+ * grouped: the first thread to commit becomes the leader and forces every
+ * record appended so far, threads that commit while it is forcing wait for it
+ * and then either find their records already durable or lead the next group.
+ * </p><p>
+ *  The file starts with a magic number followed by the records. Each record is
+ * its body length and the CRC-32 of its body, then the body: a kind byte and the
+ * fields of the creation, big endian. Names are UTF-8 with an unsigned short
+ * length. A record cut short or failing its CRC, as left by a crash during a
+ * write, ends the replay and is cut from the file, but only if it is the torn
+ * tail of the file: nothing but zeros may follow it. A damaged record followed
+ * by anything else is corruption and fails the replay, leaving the file as is.
+ * </p><p>
+ *  A record is appended before the creation is made in the data control, so a
+ * record that cannot be made, for a name too long or a closed journal, leaves
+ * the data control unchanged. Records are only appended while holding the
+ * lock of the data control, which {@link #close()} takes to detach the journal
+ * before it commits the last records.
+ * </p>
+ *
+ * @see DataControl#getJournal()
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+public final class Journal implements Closeable {
+
+    /** The first four bytes of a journal, "EHJ1". */
+    private static final int MAGIC = 0x45484A31;
+
+    /** The bytes before the body of a record, the length and CRC. */
+    private static final int RECORD_HEADER = 8;
+
+    /** The number of buffered bytes past which records are written without waiting for a commit. */
+    private static final int WRITE_THRESHOLD = 1 << 20;
+
+    /** The size of the buffer records are read into during a replay. */
+    private static final int READ_BUFFER = 1 << 22;
+
+    private static final byte EMPLOYER = 1;
+    private static final byte POSITION = 2;
+    private static final byte DEDUCTION_TYPE = 3;
+    private static final byte PAY_PERIOD = 4;
+
+    /** The data control whose creations are journaled. */
+    private final DataControl data;
+
+    /** The channel of the journal file. */
+    private final FileChannel channel;
+
+    /** Computes the CRC of each record as it is appended. */
+    private final CRC32 crc;
+
+    /** The records appended but not yet handed to a writer, guarded by this. */
+    private ByteBuffer pending;
+
+    /** A cleared buffer to swap with the pending one, null while a writer holds it. */
+    private ByteBuffer spare;
+
+    /** The file offset after the last appended record, guarded by this. */
+    private long appended;
+
+    /** The file offset up to which records have been written, guarded by this. */
+    private long written;
+
+    /** The file offset up to which records have been forced, guarded by this. */
+    private long durable;
+
+    /** If a thread is writing records, guarded by this. */
+    private boolean flushing;
+
+    /** If the journal has been closed, guarded by this. */
+    private boolean closed;
+
+    /** The failure of an earlier write, after which nothing more is written. */
+    private IOException failure;
+
+    /**
+     * @param data    the data control whose creations are journaled
+     * @param channel the channel of the journal file, positioned at its end
+     * @param end     the size of the file
+     */
+    private Journal(DataControl data, FileChannel channel, long end) {
+        this.data = data;
+        this.channel = channel;
+        this.crc = new CRC32();
+        this.pending = ByteBuffer.allocate(1 << 16);
+        this.spare = ByteBuffer.allocate(1 << 16);
+        this.appended = end;
+        this.written = end;
+        this.durable = end;
+        this.flushing = false;
+        this.closed = false;
+    }
+
+    /**
+     *  Opens the journal file, creating it if it does not exist, replays its
+     * records into the data control and attaches the journal to the data
+     * control so every later creation is appended to it.
+     * @throws EHistException if the data control is not empty or already has a
+     *                        journal, the file is not a journal or cannot be read
+     * @param path the path of the journal file
+     * @param data the empty data control to replay into
+     * @return the journal
+     */
+    public static Journal open(Path path, DataControl data) {
+        if (data.getJournal() != null) {
+            throw new EHistException("Journal: data control already has a journal");
+        } else if (!data.getEmployers().isEmpty() || !data.getDeductionTypes().isEmpty()) {
+            throw new EHistException("Journal: can only replay into an empty data control");
+        }
+
+        FileChannel channel = null;
+
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+            long end;
+
+            if (channel.size() == 0) {
+                ByteBuffer magic = ByteBuffer.allocate(4).putInt(0, MAGIC);
+                channel.write(magic, 0);
+                channel.force(true);
+                end = 4;
+            } else {
+                long started = System.nanoTime();
+
+                /* Replayed as one batch, the indexes are built once at the end */
+                synchronized (data) {
+                    data.beginBatch();
+
+                    try {
+                        end = replay(channel, data);
+                    } finally {
+                        data.listAll();
+                    }
+                }
+
+                data.metrics().loaded(data.getPayPeriodStore().size(), started);
+
+                if (end < channel.size()) {
+                    channel.truncate(end);
+                    channel.force(true);
+                }
+            }
+
+            channel.position(end);
+
+            Journal journal = new Journal(data, channel, end);
+            data.setJournal(journal);
+            return (journal);
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw new EHistException("Journal: cannot open " + path, e);
+        } catch (RuntimeException e) {
+            closeQuietly(channel);
+            throw e;
+        }
+    }
+
+    /**
+     *  Writes every record appended so far and waits until they are durable.
+     * If another thread is already forcing, this waits for it and only forces
+     * again if its records were not part of that group.
+     * @throws EHistException if the records cannot be written
+     */
+    public void commit() {
+        long target;
+
+        synchronized (this) {
+            target = appended;
+        }
+
+        flush(target, true);
+    }
+
+    /**
+     *  Detaches the journal from its data control, commits every appended
+     * record and closes the file. Creations made in the data control afterwards
+     * are no longer journaled.
+     * @throws EHistException if the records cannot be written or the file closed
+     */
+    @Override
+    public void close() {
+        synchronized (data) {
+            /* Records are appended under the lock of the data control, none can follow this */
+            if (data.getJournal() == this) {
+                data.setJournal(null);
+            }
+        }
+
+        long target;
+
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+            target = appended;
+        }
+
+        try {
+            flush(target, true);
+        } finally {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new EHistException("Journal: cannot close", e);
+            }
+        }
+    }
+
+    /**
+     * @return the number of bytes of records that have been forced to the device, including the magic number
+     */
+    public synchronized long getDurableSize() {
+        return (durable);
+    }
+
+    /**
+     * @return the number of bytes of records appended, including the magic number
+     */
+    public synchronized long getSize() {
+        return (appended);
+    }
+
+    /**
+     * @param deductionType the deduction type about to be added
+     */
+    void deductionTypeAdded(DeductionType deductionType) {
+        byte[] name = encode(deductionType.getName());
+
+        synchronized (this) {
+            int body = begin(DEDUCTION_TYPE, 2 + name.length);
+            putName(name);
+            end(body);
+        }
+
+        writeIfFull();
+    }
+
+    /**
+     * @param employer the employer about to be added
+     */
+    void employerAdded(Employer employer) {
+        byte[] name = encode(employer.getName());
+
+        synchronized (this) {
+            int body = begin(EMPLOYER, 2 + name.length);
+            putName(name);
+            end(body);
+        }
+
+        writeIfFull();
+    }
+
+    /**
+     * @param start_val the date value of the start date
+     * @param end_val   the date value of the end date
+     * @param position  the id of the position
+     * @param gross     the gross amount in cents
+     * @param cents     the amount of each deduction in cents
+     * @param types     the id of the deduction type of each deduction
+     * @param from      the index of the first deduction in the arrays
+     * @param count     the number of deductions
+     */
+    void payPeriodAdded(int start_val, int end_val, int position, long gross, long[] cents, int[] types,
+                        int from, int count) {
+        synchronized (this) {
+            int body = begin(PAY_PERIOD, 4 + 4 + 4 + 8 + 4 + count * 12);
+            pending.putInt(start_val)
+                    .putInt(end_val)
+                    .putInt(position)
+                    .putLong(gross)
+                    .putInt(count);
+
+            for (int i = from; i < from + count; ++i) {
+                pending.putInt(types[i]).putLong(cents[i]);
+            }
+
+            end(body);
+        }
+
+        writeIfFull();
+    }
+
+    /**
+     * @param position the position about to be added
+     */
+    void positionAdded(Position position) {
+        byte[] title = encode(position.getTitle());
+
+        synchronized (this) {
+            int body = begin(POSITION, 4 + 2 + title.length);
+            pending.putInt(position.getEmployer().getId());
+            putName(title);
+            end(body);
+        }
+
+        writeIfFull();
+    }
+
+    /**
+     *  Starts a record in the pending buffer, making room for it.
+     * @param kind the kind of record
+     * @param size the size of the fields after the kind byte
+     * @return the position of the body in the pending buffer
+     */
+    private int begin(byte kind, int size) {
+        if (closed) {
+            throw new EHistException("Journal: closed");
+        }
+
+        int length = RECORD_HEADER + 1 + size;
+
+        if (pending.remaining() < length) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + length));
+            pending.flip();
+            grown.put(pending);
+            pending = grown;
+        }
+
+        pending.putInt(1 + size).putInt(0);
+        int body = pending.position();
+        pending.put(kind);
+        return (body);
+    }
+
+    /**
+     *  Finishes the record started at the body position by filling in its CRC.
+     * @param body the position of the body in the pending buffer
+     */
+    private void end(int body) {
+        int length = pending.position() - body;
+
+        crc.reset();
+        crc.update(pending.array(), pending.arrayOffset() + body, length);
+        pending.putInt(body - 4, (int)crc.getValue());
+        appended += RECORD_HEADER + length;
+    }
+
+    /**
+     * @param name the name to put in the pending buffer
+     */
+    private void putName(byte[] name) {
+        pending.putShort((short)name.length).put(name);
+    }
+
+    /**
+     *  Writes the pending records without forcing them once enough have
+     * built up, so the buffer does not grow without bound between commits.
+     */
+    private void writeIfFull() {
+        long target;
+
+        synchronized (this) {
+            if (flushing || pending.position() < WRITE_THRESHOLD) {
+                return;
+            }
+            target = appended;
+        }
+
+        flush(target, false);
+    }
+
+    /**
+     *  Writes, and forces if asked, the records up to the target offset. Only
+     * one thread writes at a time, the others wait for it.
+     * @param target the file offset the records must be written up to
+     * @param force  if the records must also be durable
+     */
+    private void flush(long target, boolean force) {
+        ByteBuffer buffer;
+        long end;
+
+        synchronized (this) {
+            while (true) {
+                if (failure != null) {
+                    throw new EHistException("Journal: an earlier write failed", failure);
+                } else if ((force ? durable : written) >= target) {
+                    return;
+                } else if (!flushing) {
+                    break;
+                }
+
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new EHistException("Journal: interrupted while waiting for a commit", e);
+                }
+            }
+
+            /* Lead the group, everything appended so far goes in it */
+            flushing = true;
+            buffer = pending;
+            pending = spare;
+            spare = null;
+            end = appended;
+        }
+
+        IOException failed = null;
+        JournalWriteEvent event = new JournalWriteEvent();
+        event.begin();
+
+        try {
+            buffer.flip();
+            event.bytes = buffer.remaining();
+
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+
+            if (force) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            failed = e;
+        }
+
+        synchronized (this) {
+            buffer.clear();
+            spare = buffer;
+            flushing = false;
+
+            if (failed != null) {
+                failure = failed;
+            } else {
+                written = end;
+                durable = (force ? end : durable);
+            }
+
+            notifyAll();
+        }
+
+        if (failed != null) {
+            throw new EHistException("Journal: cannot write", failed);
+        }
+
+        if (event.shouldCommit()) {
+            event.forced = force;
+            event.commit();
+        }
+    }
+
+    /**
+     *  Replays every complete record of the journal into the data control.
+     * @throws IOException if the file cannot be read
+     * @throws EHistException if the file is not a journal, a record does not fit the
+     *                        data or a damaged record is followed by more of the file
+     * @param channel the channel of the journal file
+     * @param data    the data control to replay into
+     * @return the file offset after the last complete record
+     */
+    private static long replay(FileChannel channel, DataControl data) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER);
+        CRC32 crc = new CRC32();
+        long size = channel.size();
+        long offset = 4;
+
+        channel.position(0);
+        read(channel, buffer);
+
+        if (buffer.remaining() < 4 || buffer.getInt() != MAGIC) {
+            throw new EHistException("Journal: not a journal file");
+        }
+
+        long[] cents = new long[16];
+        int[] types = new int[16];
+
+        while (true) {
+            if (buffer.remaining() < RECORD_HEADER && !refill(channel, buffer, RECORD_HEADER)) {
+                break;
+            }
+
+            int length = buffer.getInt(buffer.position());
+            int check = buffer.getInt(buffer.position() + 4);
+
+            if (length <= 0) {
+                /* Only a tail of zeros, header included, is torn rather than damaged */
+                if (isTornTail(channel, offset, size)) {
+                    break;
+                }
+                throw new EHistException("Journal: corrupt record length at offset " + offset);
+            } else if (length > size - offset - RECORD_HEADER) {
+                long implied = impliedLength(channel, offset + RECORD_HEADER, size);
+
+                /* Cut short only if the fields that are there agree with the length */
+                if (implied < 0 || implied == length) {
+                    break;
+                }
+                throw new EHistException("Journal: corrupt record length at offset " + offset);
+            } else if (buffer.remaining() < RECORD_HEADER + length) {
+                if (RECORD_HEADER + length > buffer.capacity()) {
+                    ByteBuffer grown = ByteBuffer.allocateDirect(RECORD_HEADER + length);
+                    grown.put(buffer);
+                    grown.flip();
+                    buffer = grown;
+                }
+                if (!refill(channel, buffer, RECORD_HEADER + length)) {
+                    throw new EHistException("Journal: cannot read the record at offset " + offset);
+                }
+            }
+
+            buffer.position(buffer.position() + RECORD_HEADER);
+
+            int body = buffer.position();
+            int limit = buffer.limit();
+
+            buffer.limit(body + length);
+            crc.reset();
+            crc.update(buffer);
+
+            if ((int)crc.getValue() != check) {
+                if (isTornTail(channel, offset + RECORD_HEADER + length, size)) {
+                    break;
+                }
+                throw new EHistException("Journal: corrupt record at offset " + offset + " followed by more records");
+            }
+
+            buffer.position(body);
+
+            try {
+                switch (buffer.get()) {
+                    case EMPLOYER:
+                        data.addEmployer(getName(buffer));
+                        break;
+
+                    case POSITION:
+                        int employer = buffer.getInt();
+                        data.addPosition(getName(buffer), data.getEmployer(employer));
+                        break;
+
+                    case DEDUCTION_TYPE:
+                        data.addDeductionType(getName(buffer));
+                        break;
+
+                    case PAY_PERIOD:
+                        int start = buffer.getInt();
+                        int end = buffer.getInt();
+                        int position = buffer.getInt();
+                        long gross = buffer.getLong();
+                        int count = buffer.getInt();
+
+                        if (count > cents.length) {
+                            cents = new long[count];
+                            types = new int[count];
+                        }
+
+                        for (int i = 0; i < count; ++i) {
+                            types[i] = buffer.getInt();
+                            cents[i] = buffer.getLong();
+                        }
+
+                        data.replayPayPeriod(start, end, position, gross, cents, types, 0, count);
+                        break;
+
+                    default:
+                        throw new EHistException("Journal: unknown record at offset " + offset);
+                }
+            } catch (IndexOutOfBoundsException | BufferUnderflowException e) {
+                throw new EHistException("Journal: malformed record at offset " + offset, e);
+            }
+
+            buffer.limit(limit);
+            buffer.position(body + length);
+            offset += RECORD_HEADER + length;
+        }
+
+        return (offset);
+    }
+
+    /**
+     *  Decides if a damaged record is the torn tail of the file, the end of a
+     * write cut short by a crash. Either the record runs up to or past the end
+     * of the file or only zeros, as left by a file extended before its data
+     * was written, follow it.
+     * @throws IOException if the file cannot be read
+     * @param channel the channel of the journal file
+     * @param from    the file offset after the damaged record
+     * @param size    the size of the file
+     * @return if nothing but zeros follow the offset
+     */
+    private static boolean isTornTail(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+
+        for (long offset = from; offset < size; offset += buffer.limit()) {
+            buffer.clear();
+
+            if (channel.read(buffer, offset) < 0) {
+                break;
+            }
+
+            buffer.flip();
+
+            while (buffer.hasRemaining()) {
+                if (buffer.get() != 0) {
+                    return (false);
+                }
+            }
+        }
+
+        return (true);
+    }
+
+    /**
+     *  Works out the length of a record body from the fields at its start, to
+     * tell a record cut short from one whose length was damaged.
+     * @throws IOException if the file cannot be read
+     * @param channel the channel of the journal file
+     * @param body    the file offset of the body
+     * @param size    the size of the file
+     * @return the length the fields imply, -1 if the file ends before them or 0 for an unknown kind
+     */
+    private static long impliedLength(FileChannel channel, long body, long size) throws IOException {
+        ByteBuffer head = ByteBuffer.allocate(1 + 4 + 4 + 4 + 8 + 4);
+
+        while (head.hasRemaining() && body + head.position() < size
+                && channel.read(head, body + head.position()) >= 0) {
+            /* Keep reading */
+        }
+
+        int read = head.position();
+
+        if (read == 0) {
+            return (-1);
+        }
+
+        switch (head.get(0)) {
+            case EMPLOYER:
+            case DEDUCTION_TYPE:
+                return (read >= 3 ? 1 + 2 + (head.getShort(1) & 0xFFFF) : -1);
+
+            case POSITION:
+                return (read >= 7 ? 1 + 4 + 2 + (head.getShort(5) & 0xFFFF) : -1);
+
+            case PAY_PERIOD:
+                return (read >= 25 ? 25 + (head.getInt(21) & 0xFFFFFFFFL) * 12 : -1);
+
+            default:
+                return (0);
+        }
+    }
+
+    /**
+     *  Decodes a name whose length is at the current position of the buffer.
+     * @param buffer the buffer to read from
+     * @return the name
+     */
+    private static String getName(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return (new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    /**
+     *  Reads from the channel until the buffer is full or the file ends, then
+     * flips the buffer for reading.
+     * @param channel the channel to read
+     * @param buffer  the buffer to read into
+     * @throws IOException if the channel cannot be read
+     */
+    private static void read(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+            /* Keep reading */
+        }
+        buffer.flip();
+    }
+
+    /**
+     *  Moves the unread bytes to the front of the buffer and reads more after them.
+     * @param channel the channel to read
+     * @param buffer  the buffer to refill
+     * @param needed  the number of unread bytes needed
+     * @return if at least the needed bytes are now unread
+     * @throws IOException if the channel cannot be read
+     */
+    private static boolean refill(FileChannel channel, ByteBuffer buffer, int needed) throws IOException {
+        buffer.compact();
+        read(channel, buffer);
+        return (buffer.remaining() >= needed);
+    }
+
+    /**
+     * @throws EHistException if the name is too long for a record
+     * @param name the name to encode
+     * @return the UTF-8 bytes of the name
+     */
+    private static byte[] encode(String name) {
+        byte[] bytes = (name != null ? name : "").getBytes(StandardCharsets.UTF_8);
+
+        if (bytes.length > 0xFFFF) {
+            throw new EHistException("Journal: name longer than 65535 bytes");
+        }
+
+        return (bytes);
+    }
+
+    /**
+     * @param channel the channel to close, may be null
+     */
+    private static void closeQuietly(FileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                /* Already failing, the first error is the one reported */
+            }
+        }
+    }
+}
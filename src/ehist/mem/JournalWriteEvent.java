@@ -0,0 +1,45 @@
+package ehist.mem;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * <p>
+ * === JournalWriteEvent Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  A Java Flight Recorder event for one group of {@link Journal} records
+ * written by the leading thread, and forced to the device when the group is a
+ * commit. Disabled by default, enable <tt>ehist.JournalWrite</tt> in a
+ * recording.
+ * </p>
+ *
+ * @see Journal
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+@Name("ehist.JournalWrite")
+@Label("Journal Write")
+@Category({"EHist", "Persistence"})
+@Description("A group of journal records written, and forced if committed")
+@Enabled(false)
+@StackTrace(false)
+final class JournalWriteEvent extends Event {
+
+    /** The number of bytes written. */
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    /** If the records were forced to the device. */
+    @Label("Forced")
+    boolean forced;
+}
+
@@ -0,0 +1,179 @@
+package ehist.mem;
+
+/**
+ * <p>
+ * === MonthlyBuckets Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Sums of primitive cents or counts by calendar year and month. Each year
+ * that has anything added to it gets a page of its own, holding a bucket for
+ * each month and one for the whole year, and a bucket is a few longs, one for
+ * each kind of sum. Years with nothing in them take no memory, so a single pay
+ * period far from the others costs one page rather than every year between.
+ * </p><p>
+ *  The pages are kept in order of year in an array that is replaced, never
+ * changed, when a year is added, so a reader finds a page by a binary search
+ * without locking. Adding to a bucket takes O(1) once its page is found, and
+ * the page last added to is checked before searching. Sums are written by one
+ * writer at a time, holding the write lock of the data control, and read under
+ * {@link DataControl#read(java.util.function.LongSupplier)}.
+ * </p>
+ *
+ * @see CalendarTotals
+ * @see DeductionType
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+final class MonthlyBuckets {
+
+    /** The bucket of the whole year within a page, after the twelve months. */
+    private static final int YEAR = 12;
+
+    /** The number of longs of each bucket. */
+    private final int stride;
+
+    /** The pages in order of year, replaced whole when a year is added. */
+    private volatile Page[] pages;
+
+    /** The page last added to, only used by the writer. */
+    private Page last;
+
+    /**
+     *  Creates empty buckets.
+     * @param stride the number of sums of each bucket
+     */
+    MonthlyBuckets(int stride) {
+        this.stride = stride;
+        this.pages = new Page[0];
+    }
+
+    /**
+     *  Adds to a sum of a month and of its year. The caller must hold the write
+     * lock of the data control.
+     * @param year   the year
+     * @param month  the month of the year, 1 to 12
+     * @param offset the offset of the sum within a bucket
+     * @param value  the amount to add
+     */
+    void add(int year, int month, int offset, long value) {
+        long[] sums = page(year).sums;
+        sums[(month - 1) * stride + offset] += value;
+        sums[YEAR * stride + offset] += value;
+    }
+
+    /**
+     * @return the bytes of the pages
+     */
+    long estimateBytes() {
+        return (8L * pages.length * (YEAR + 1) * stride);
+    }
+
+    /**
+     * @return if nothing has been added
+     */
+    boolean isEmpty() {
+        return (pages.length == 0);
+    }
+
+    /**
+     * @param year   the year
+     * @param month  the month of the year, 1 to 12
+     * @param offset the offset of the sum within a bucket
+     * @return the sum of the month, 0 if nothing was added to its year
+     */
+    long month(int year, int month, int offset) {
+        long[] sums = find(year);
+        return (sums != null ? sums[(month - 1) * stride + offset] : 0);
+    }
+
+    /**
+     * @param year   the year
+     * @param offset the offset of the sum within a bucket
+     * @return the sum of the year, 0 if nothing was added to it
+     */
+    long year(int year, int offset) {
+        long[] sums = find(year);
+        return (sums != null ? sums[YEAR * stride + offset] : 0);
+    }
+
+    /**
+     * @param year the year
+     * @return the sums of the year, or null if nothing was added to it
+     */
+    private long[] find(int year) {
+        Page[] current = pages;
+        int at = search(current, year);
+        return (at >= 0 ? current[at].sums : null);
+    }
+
+    /**
+     *  Finds the page of the year, adding it if there is none.
+     * @param year the year
+     * @return the page of the year
+     */
+    private Page page(int year) {
+        if (last != null && last.year == year) {
+            return (last);
+        }
+
+        Page[] current = pages;
+        int at = search(current, year);
+
+        if (at < 0) {
+            at = -at - 1;
+
+            Page[] added = new Page[current.length + 1];
+            System.arraycopy(current, 0, added, 0, at);
+            added[at] = new Page(year, new long[(YEAR + 1) * stride]);
+            System.arraycopy(current, at, added, at + 1, current.length - at);
+
+            pages = added;
+            current = added;
+        }
+
+        last = current[at];
+        return (last);
+    }
+
+    /**
+     * @param pages the pages in order of year
+     * @param year  the year to find
+     * @return the index of the page of the year, or -(insertion point) - 1 if there is none
+     */
+    private static int search(Page[] pages, int year) {
+        int low = 0;
+        int high = pages.length - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int mid_year = pages[mid].year;
+
+            if (mid_year < year) {
+                low = mid + 1;
+            } else if (mid_year > year) {
+                high = mid - 1;
+            } else {
+                return (mid);
+            }
+        }
+
+        return (-(low + 1));
+    }
+
+    /**
+     *  The buckets of one year.
+     */
+    private static final class Page {
+
+        private final int year;
+
+        /** The bucket of each month followed by that of the year. */
+        private final long[] sums;
+
+        Page(int year, long[] sums) {
+            this.year = year;
+            this.sums = sums;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package ehist.mem;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * === NameDictionary Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Gives each distinct name used by the employers, positions and deduction
+ * types of a {@link DataControl} a dense id, and keeps a single copy of each
+ * name however many of them share it. The names are held in an array by id
+ * and found by a concurrent hash table from name to id.
+ * </p><p>
+ *  Looking up a name already in the dictionary takes O(1), creates nothing
+ * and takes no lock, so many importer threads may look up names at once.
+ * Adding a new name takes a lock only long enough to give it the next id.
+ * </p>
+ *
+ * @see DataControl#getNames()
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+public final class NameDictionary {
+
+    /** The initial number of names there is room for. */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** The id of each name. */
+    private final ConcurrentHashMap<String, Integer> ids;
+
+    /** The name of each id, replaced when full so readers always see a complete array. */
+    private volatile String[] names;
+
+    /** The number of names. */
+    private volatile int size;
+
+    /**
+     *  Creates an empty dictionary. Only a {@link DataControl} creates one.
+     */
+    NameDictionary() {
+        this.ids = new ConcurrentHashMap<>();
+        this.names = new String[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    /**
+     *  Finds the id of a name, adding the name if it is new. Only the data
+     * control adds names, as it creates the things named.
+     * @throws EHistException if the name is null
+     * @param name the name
+     * @return the id of the name
+     */
+    int add(String name) {
+        return (intern(name));
+    }
+
+    /**
+     * @param name the name
+     * @return the id of the name, or -1 if it is not in the dictionary or is null
+     */
+    public int find(String name) {
+        Integer id = (name != null ? ids.get(name) : null);
+        return (id != null ? id : -1);
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException if there is no name with the id
+     * @param id the id of a name
+     * @return the name
+     */
+    public String get(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException(String.format("Id out of range [0, %d) : %d", size, id));
+        }
+        return (names[id]);
+    }
+
+    /**
+     * @return the number of names
+     */
+    public int size() {
+        return (size);
+    }
+
+    /**
+     *  Finds the id of a name, adding the name if it is new. The boxed id is
+     * the one kept in the table, so maps keyed by it share a single box.
+     * @throws EHistException if the name is null
+     * @param name the name
+     * @return the id of the name
+     */
+    Integer intern(String name) {
+        if (name == null) {
+            throw new EHistException("NameDictionary: name cannot be null");
+        }
+
+        Integer id = ids.get(name);
+        return (id != null ? id : insert(name));
+    }
+
+    /**
+     *  Gives a name the next id unless another thread added it first.
+     * @param name the name
+     * @return the id of the name
+     */
+    private synchronized Integer insert(String name) {
+        Integer id = ids.get(name);
+
+        if (id == null) {
+            if (size == names.length) {
+                names = Arrays.copyOf(names, size * 2);
+            }
+
+            id = size;
+            names[size] = name;
+
+            /* The name is stored before the size or the table let another thread see its id */
+            size = id + 1;
+            ids.put(name, id);
+        }
+
+        return (id);
+    }
+}
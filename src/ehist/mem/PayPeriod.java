@@ -2,6 +2,7 @@ package ehist.mem;
 
 
 import ehist.mem.date.Date;
+import ehist.mem.date.DateManager;
 
 /**
  * <p>
@@ -9,75 +10,104 @@ import ehist.mem.date.Date;
  * </p><p>
  * Date : March 02, 2017
  * </p><p>
- * TODO Description here
+ *  A view of a single row of the {@link PayPeriodStore} of a {@link DataControl}.
+ * Holds nothing but the data control and the row, every value is read from the
+ * store's columns when asked for. Two views of the same row are equal. Created
+ * through {@link DataControl#addPayPeriod(Date, Date, Position, Amount, Deduction[])}.
  * </p>
  *
  * @author Michael van Dyk
  */
 public class PayPeriod {
 
-    private final Date start;
-    private final Date end;
-
-    private final Position position;
-
-    private final Amount gross;
-    private final Deduction[] deductions;
-
-    public PayPeriod(Date start, Date end, Position position, Amount gross, Deduction[] deductions) {
-        if (start == null) {
-            throw new EHistException("PayPeriod: start date cannot be null");
-        } else if (end == null) {
-            throw new EHistException("PayPeriod: end date cannot be null");
-        } else if (position == null) {
-            throw new EHistException("PayPeriod: position cannot be null");
-        } else if (gross == null) {
-            throw new EHistException("PayPeriod: gross cannot be null");
-        } else if (deductions == null) {
-            throw new EHistException("PayPeriod: deductions cannot be null");
-        }
-
-        this.start = start;
-        this.end = end;
+    private final DataControl data;
+    private final int row;
 
-        this.position = position;
-        position.addPayPeriod(this);
+    /** The deductions read from the store, created on the first call to {@link #getDeductions()}. */
+    private ReadOnlyArray<Deduction> deductions;
 
-        this.gross = gross;
-        this.deductions = deductions;
+    PayPeriod(DataControl data, int row) {
+        this.data = data;
+        this.row = row;
+        data.metrics().views.increment();
     }
 
     public ReadOnlyArray<Deduction> getDeductions() {
-        return (new ReadOnlyArray<>(deductions));
+        if (deductions == null) {
+            PayPeriodStore store = data.getPayPeriodStore();
+            Deduction[] array = new Deduction[store.getDeductionCount(row)];
+
+            for (int i = 0; i < array.length; ++i) {
+                array[i] = new Deduction(Amount.of(store.getDeductionCents(row, i)),
+                        data.getDeductionType(store.getDeductionTypeId(row, i)));
+            }
+
+            data.metrics().deductions.add(array.length);
+            deductions = new ReadOnlyArray<>(array);
+        }
+
+        return (deductions);
     }
 
     public Date getEndDate() {
-        return end;
+        return (DateManager.lookupDate(data.getPayPeriodStore().getEnd(row)));
     }
 
     public Amount getGrossAmount() {
-        return gross;
+        return (Amount.of(getGrossCents()));
     }
 
-    public Amount getDeductionAmount() {
-        Amount sum = Amount.ZERO;
+    /**
+     * @return the gross amount in cents, without creating an {@link Amount}
+     */
+    public long getGrossCents() {
+        return (data.getPayPeriodStore().getGrossCents(row));
+    }
 
-        for (Deduction d : deductions) {
-            sum = sum.add(d.getAmount());
-        }
+    public Amount getDeductionAmount() {
+        return (Amount.of(getDeductionCents()));
+    }
 
-        return (sum);
+    /**
+     * @return the sum of the deductions in cents, computed once when the pay period was added
+     */
+    public long getDeductionCents() {
+        return (data.getPayPeriodStore().getDeductionTotalCents(row));
     }
 
     public Amount getNetAmount() {
-        return (gross.subtract(getDeductionAmount()));
+        return (Amount.of(getNetCents()));
+    }
+
+    /**
+     * @return the gross amount less the deductions in cents, without creating an {@link Amount}
+     */
+    public long getNetCents() {
+        return (data.getPayPeriodStore().getNetCents(row));
     }
 
     public Position getPosition() {
-        return position;
+        return (data.getPosition(data.getPayPeriodStore().getPositionId(row)));
+    }
+
+    /**
+     * @return the row of this pay period in the data control's store
+     */
+    public int getRow() {
+        return (row);
     }
 
     public Date getStartDate() {
-        return start;
+        return (DateManager.lookupDate(data.getPayPeriodStore().getStart(row)));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return (o instanceof PayPeriod && ((PayPeriod)o).data == data && ((PayPeriod)o).row == row);
+    }
+
+    @Override
+    public int hashCode() {
+        return (31 * System.identityHashCode(data) + row);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,603 @@
+package ehist.mem;
+
+import ehist.mem.date.Date;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>
+ * === PayPeriodIndex Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  An interval index over the start and end date values of the rows of a
+ * {@link PayPeriodStore}, answering which pay periods cover a date or overlap
+ * a range of dates without scanning every row. Kept up to date by its
+ * {@link DataControl} as pay periods are added.
+ * </p><p>
+ *  The index is an augmented interval tree: a treap ordered by start date
+ * (ties broken by row) where every node also holds the latest end date of its
+ * subtree, so whole subtrees that end before a query are skipped. Each node is
+ * the row itself and the tree is kept in primitive columns like the store.
+ * The priority of a node is a hash of its row, so the tree stays balanced even
+ * though rows usually arrive in date order. Adding a row takes O(log n), a
+ * query takes O(log n + k) for the k pay periods found when periods overlap
+ * little, as pay periods do, and at worst O(k log n). Many rows added at once,
+ * as by a replay or an import, are instead sorted and built into a new tree.
+ * </p><p>
+ *  The index of a data control holds every row, each row its own node. The
+ * {@link EarningsRangeIndex} of a position or employer keeps an index of only
+ * its own rows, where each row is given the next node and the row of each node
+ * is kept beside it, so it never walks the pay periods of others.
+ * </p><p>
+ *  Date values are compared as unsigned numbers. They are stored with the
+ * sign bit flipped so plain comparisons order them correctly.
+ * </p><p>
+ *  The tree is changed in place under the write lock of the data control and
+ * walked without locking, see {@link DataControl#read(java.util.function.LongSupplier)}.
+ * A walk made while a row was inserted may meet a rotation half done, even a
+ * loop, so it gives up once it has taken more steps than there are rows or
+ * gone deeper than a treap of hashed priorities ever grows, and is made again
+ * under the read lock. The rows found are passed to the action of a query
+ * only after the walk, outside any lock.
+ * </p>
+ *
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+public final class PayPeriodIndex {
+
+    /** The initial number of rows the columns have room for. */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** Marks a missing child. */
+    private static final int NONE = -1;
+
+    /** The depth past which a walk is taken to have met a tree changed meanwhile, over 20 times the expected depth. */
+    private static final int MAX_DEPTH = 1024;
+
+    /** Abandons a walk of a tree changed meanwhile, no stack trace is filled in. */
+    private static final RuntimeException TORN = new TornWalkException();
+
+    /** The flipped start date value of each row. */
+    private int[] start;
+
+    /** The flipped end date value of each row. */
+    private int[] end;
+
+    /** The latest flipped end date value in the subtree of each row. */
+    private int[] max_end;
+
+    /** The left child of each row. */
+    private int[] left;
+
+    /** The right child of each row. */
+    private int[] right;
+
+    /** The row of the store of each node of an index of only some rows, or null if each row is its own node. */
+    private int[] node_rows;
+
+    /** The data control the rows belong to. */
+    private final DataControl data;
+
+    /** The row at the root of the tree. */
+    private int root;
+
+    /** The number of rows in the index. */
+    private int size;
+
+    /** The number of nodes of an index of only some rows written past the size, not yet in the tree. */
+    private int staged;
+
+    /**
+     *  Creates an empty index of every row. Only a {@link DataControl} creates
+     * an index of every row.
+     * @param data the data control the rows belong to
+     */
+    PayPeriodIndex(DataControl data) {
+        this(data, false);
+    }
+
+    /**
+     *  Creates an empty index.
+     * @param data   the data control the rows belong to
+     * @param subset if only some rows are indexed, added through {@link #stage(int, int, int)}
+     */
+    PayPeriodIndex(DataControl data, boolean subset) {
+        this.data = data;
+        this.start = new int[INITIAL_CAPACITY];
+        this.end = new int[INITIAL_CAPACITY];
+        this.max_end = new int[INITIAL_CAPACITY];
+        this.left = new int[INITIAL_CAPACITY];
+        this.right = new int[INITIAL_CAPACITY];
+        this.node_rows = (subset ? new int[INITIAL_CAPACITY] : null);
+        this.root = NONE;
+        this.size = 0;
+        this.staged = 0;
+    }
+
+    /**
+     *  Brings the index up to date with the rows of the store. If there are at
+     * least as many new rows as indexed ones the whole tree is rebuilt from the
+     * rows sorted by start date, otherwise the new rows are inserted one by one.
+     * @param store the store the rows are in
+     * @param rows  the number of rows of the store to index
+     */
+    void addAll(PayPeriodStore store, int rows) {
+        IntBuffer start_col = store.startColumn();
+        IntBuffer end_col = store.endColumn();
+
+        if (rows - size <= size) {
+            for (int row = size; row < rows; ++row) {
+                add(row, start_col.get(row), end_col.get(row));
+            }
+            return;
+        }
+
+        start = Arrays.copyOf(start, Math.max(rows, INITIAL_CAPACITY));
+        end = Arrays.copyOf(end, start.length);
+
+        for (int row = 0; row < rows; ++row) {
+            start[row] = flip(start_col.get(row));
+            end[row] = flip(end_col.get(row));
+        }
+
+        build(rows);
+    }
+
+    /**
+     *  Adds the next row of the store to the index. Rows must be added in order.
+     * @param row       the row, equal to the number of rows already added
+     * @param start_val the date value of the start date of the row
+     * @param end_val   the date value of the end date of the row
+     */
+    void add(int row, int start_val, int end_val) {
+        if (row != size) {
+            throw new EHistException(String.format("PayPeriodIndex: expected row %d, got %d", size, row));
+        }
+
+        put(row, start_val, end_val);
+        link(row);
+    }
+
+    /**
+     *  Writes a row of the store into the next node of an index of only some
+     * rows, it is only found once added to the tree by {@link #flush()}.
+     * @param row       the row
+     * @param start_val the date value of the start date of the row
+     * @param end_val   the date value of the end date of the row
+     */
+    void stage(int row, int start_val, int end_val) {
+        int node = size + staged;
+
+        put(node, start_val, end_val);
+        node_rows[node] = row;
+        ++staged;
+    }
+
+    /**
+     *  Adds the staged nodes to the tree. If there are at least as many staged
+     * nodes as nodes in the tree the whole tree is rebuilt, otherwise they are
+     * inserted one by one.
+     */
+    void flush() {
+        int nodes = size + staged;
+
+        if (staged > size) {
+            build(nodes);
+        } else {
+            for (int node = size; node < nodes; ++node) {
+                link(node);
+            }
+        }
+
+        staged = 0;
+    }
+
+    /**
+     *  Writes the dates of a node not yet in the tree, making room for it.
+     * @param node      the node, at most the number of nodes written so far
+     * @param start_val the date value of the start date
+     * @param end_val   the date value of the end date
+     */
+    private void put(int node, int start_val, int end_val) {
+        if (node == start.length) {
+            int capacity = start.length * 2;
+            start = Arrays.copyOf(start, capacity);
+            end = Arrays.copyOf(end, capacity);
+            max_end = Arrays.copyOf(max_end, capacity);
+            left = Arrays.copyOf(left, capacity);
+            right = Arrays.copyOf(right, capacity);
+
+            if (node_rows != null) {
+                node_rows = Arrays.copyOf(node_rows, capacity);
+            }
+        }
+
+        start[node] = flip(start_val);
+        end[node] = flip(end_val);
+    }
+
+    /**
+     *  Inserts the next node, already written, into the tree.
+     * @param node the node, equal to the number of nodes in the tree
+     */
+    private void link(int node) {
+        max_end[node] = end[node];
+        left[node] = NONE;
+        right[node] = NONE;
+        ++size;
+
+        root = insert(root, node);
+    }
+
+    /**
+     *  Builds a new tree of the nodes, already written, sorted by start date.
+     * @param nodes the number of nodes
+     */
+    private void build(int nodes) {
+        max_end = new int[start.length];
+        left = new int[start.length];
+        right = new int[start.length];
+
+        /* Sort by start then node, a flipped value in the upper half orders as a signed long */
+        long[] order = new long[nodes];
+
+        for (int node = 0; node < nodes; ++node) {
+            order[node] = ((long)start[node] << 32) | node;
+        }
+
+        Arrays.sort(order);
+
+        /* The treap of sorted keys is their Cartesian tree by priority, built with a stack of the right spine */
+        int[] spine = new int[64];
+        int depth = 0;
+
+        for (long key : order) {
+            int node = (int)key;
+            int last = NONE;
+
+            while (depth > 0 && priority(spine[depth - 1]) < priority(node)) {
+                last = spine[--depth];
+            }
+
+            left[node] = last;
+            right[node] = NONE;
+
+            if (depth > 0) {
+                right[spine[depth - 1]] = node;
+            }
+
+            if (depth == spine.length) {
+                spine = Arrays.copyOf(spine, depth * 2);
+            }
+
+            spine[depth++] = node;
+        }
+
+        size = nodes;
+        root = (depth > 0 ? spine[0] : NONE);
+        updateAll(root);
+    }
+
+    /**
+     *  Counts the pay periods that overlap the range of dates.
+     * @param from_val the date value of the first date of the range
+     * @param to_val   the date value of the last date of the range
+     * @return the number of pay periods that overlap the range
+     */
+    public int countOverlapping(int from_val, int to_val) {
+        return (find(from_val, to_val).count);
+    }
+
+    /**
+     *  Finds the pay periods whose start and end dates include the date.
+     * @param date_val the date value of the date
+     * @return the rows of the pay periods covering the date in order of start date
+     */
+    public int[] covering(int date_val) {
+        return (overlapping(date_val, date_val));
+    }
+
+    /**
+     *  Finds the pay periods whose start and end dates include the date.
+     * @param date the date
+     * @return the rows of the pay periods covering the date in order of start date
+     */
+    public int[] covering(Date date) {
+        return (covering(date.getDateVal()));
+    }
+
+    /**
+     *  Passes the row of every pay period that overlaps the range of dates to
+     * the action, in order of start date. The rows are found first and then
+     * passed to the action outside any lock, so the action may add pay
+     * periods or query again. Pay periods added meanwhile are not passed.
+     * @param from_val the date value of the first date of the range
+     * @param to_val   the date value of the last date of the range
+     * @param action   the action to pass each row to
+     */
+    public void forEachOverlapping(int from_val, int to_val, IntConsumer action) {
+        Walk walk = find(from_val, to_val);
+
+        for (int i = 0; i < walk.count; ++i) {
+            action.accept(walk.rows[i]);
+        }
+    }
+
+    /**
+     *  Passes the row of every pay period that overlaps the range of dates to
+     * the action as the tree is walked, for a read of the data control already
+     * in progress. The action must only sum, the walk may be made again.
+     * @throws RuntimeException if the tree changed meanwhile, to make the read again
+     * @param from_val the date value of the first date of the range
+     * @param to_val   the date value of the last date of the range
+     * @param action   the action to pass each row to
+     */
+    void visitOverlapping(int from_val, int to_val, IntConsumer action) {
+        Walk walk = new Walk(flip(from_val), flip(to_val), action);
+        walk.getAsLong();
+    }
+
+    /**
+     *  Finds the pay periods that have at least one day within the range of
+     * dates, both ends of the range and of each pay period included.
+     * @param from_val the date value of the first date of the range
+     * @param to_val   the date value of the last date of the range
+     * @return the rows of the overlapping pay periods in order of start date
+     */
+    public int[] overlapping(int from_val, int to_val) {
+        Walk walk = find(from_val, to_val);
+        return (Arrays.copyOf(walk.rows, walk.count));
+    }
+
+    /**
+     *  Finds the pay periods that have at least one day within the range of
+     * dates, both ends of the range and of each pay period included.
+     * @param from the first date of the range
+     * @param to   the last date of the range
+     * @return the rows of the overlapping pay periods in order of start date
+     */
+    public int[] overlapping(Date from, Date to) {
+        return (overlapping(from.getDateVal(), to.getDateVal()));
+    }
+
+    /**
+     * @return the bytes of the columns of the tree
+     */
+    long estimateBytes() {
+        return (4L * (start.length + end.length + max_end.length + left.length + right.length
+                + (node_rows != null ? node_rows.length : 0)));
+    }
+
+    /**
+     * @return the number of rows in the index
+     */
+    public int size() {
+        return ((int)data.read(() -> size));
+    }
+
+    /**
+     *  Finds the rows of the pay periods that overlap the range of dates.
+     * @param from_val the date value of the first date of the range
+     * @param to_val   the date value of the last date of the range
+     * @return the walk holding the rows found, in order of start date
+     */
+    private Walk find(int from_val, int to_val) {
+        Walk walk = new Walk(flip(from_val), flip(to_val), null);
+        data.read(walk);
+        return (walk);
+    }
+
+    /**
+     * @param date_val a date value
+     * @return the date value with its sign bit flipped so it compares as unsigned
+     */
+    private static int flip(int date_val) {
+        return (date_val ^ Integer.MIN_VALUE);
+    }
+
+    /**
+     *  Inserts the row into the subtree, rotating it up while its priority is
+     * higher than its parent's.
+     * @param node the root of the subtree
+     * @param row  the row to insert
+     * @return the new root of the subtree
+     */
+    private int insert(int node, int row) {
+        if (node == NONE) {
+            return (row);
+        }
+
+        if (start[row] < start[node] || (start[row] == start[node] && row < node)) {
+            left[node] = insert(left[node], row);
+
+            if (priority(left[node]) > priority(node)) {
+                node = rotateRight(node);
+            }
+        } else {
+            right[node] = insert(right[node], row);
+
+            if (priority(right[node]) > priority(node)) {
+                node = rotateLeft(node);
+            }
+        }
+
+        update(node);
+        return (node);
+    }
+
+    /**
+     *  Mixes the bits of the row so the priorities of consecutive rows are
+     * unrelated, which keeps the treap balanced.
+     * @param row the row
+     * @return the priority of the row
+     */
+    private static int priority(int row) {
+        int h = row * 0x9E3779B9;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        return (h ^ (h >>> 13));
+    }
+
+    /**
+     * @param node the node to rotate down to the left
+     * @return the new root of the subtree, the right child of the node
+     */
+    private int rotateLeft(int node) {
+        int child = right[node];
+        right[node] = left[child];
+        left[child] = node;
+        update(node);
+        return (child);
+    }
+
+    /**
+     * @param node the node to rotate down to the right
+     * @return the new root of the subtree, the left child of the node
+     */
+    private int rotateRight(int node) {
+        int child = left[node];
+        left[node] = right[child];
+        right[child] = node;
+        update(node);
+        return (child);
+    }
+
+    /**
+     *  Recomputes the latest end date of the subtree of the node from its children.
+     * @param node the node to update
+     */
+    private void update(int node) {
+        int max = end[node];
+
+        if (left[node] != NONE) {
+            max = Math.max(max, max_end[left[node]]);
+        }
+
+        if (right[node] != NONE) {
+            max = Math.max(max, max_end[right[node]]);
+        }
+
+        max_end[node] = max;
+    }
+
+    /**
+     *  Recomputes the latest end date of every node of the subtree, children first.
+     * @param node the root of the subtree
+     */
+    private void updateAll(int node) {
+        if (node != NONE) {
+            updateAll(left[node]);
+            updateAll(right[node]);
+            update(node);
+        }
+    }
+
+    /**
+     *  A walk of the tree for the rows that overlap a range, made again from
+     * the start each time it is read. The left subtree of a node is skipped if
+     * it ends before the range, the right subtree if the node starts after it.
+     */
+    private final class Walk implements LongSupplier {
+
+        /** The flipped first and last date values of the range. */
+        private final int from;
+        private final int to;
+
+        /** The action each row is passed to as it is found, or null to collect them. */
+        private final IntConsumer action;
+
+        /** The rows found, if collected. */
+        private int[] rows;
+
+        /** The number of rows found. */
+        private int count;
+
+        /** The number of nodes that may still be visited before the walk gives up. */
+        private int steps;
+
+        Walk(int from, int to, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+            this.rows = (action == null ? new int[8] : null);
+        }
+
+        /**
+         * @throws RuntimeException if the tree changed meanwhile
+         * @return the number of rows found
+         */
+        @Override
+        public long getAsLong() {
+            count = 0;
+            steps = size;
+            visit(root, 0);
+            return (count);
+        }
+
+        /**
+         *  Visits the rows of the subtree that overlap the range, in order.
+         * @param node  the root of the subtree
+         * @param depth the depth of the subtree
+         */
+        private void visit(int node, int depth) {
+            if (depth > MAX_DEPTH) {
+                throw TORN;
+            }
+
+            while (node != NONE && max_end[node] >= from) {
+                if (--steps < 0) {
+                    throw TORN;
+                }
+
+                visit(left[node], depth + 1);
+
+                if (start[node] > to) {
+                    return;
+                }
+
+                if (end[node] >= from) {
+                    found(node);
+                }
+
+                node = right[node];
+            }
+        }
+
+        /**
+         * @param node the node of a pay period overlapping the range
+         */
+        private void found(int node) {
+            int[] of = node_rows;
+            int row = (of != null ? of[node] : node);
+
+            if (action != null) {
+                action.accept(row);
+                ++count;
+                return;
+            }
+
+            if (count == rows.length) {
+                rows = Arrays.copyOf(rows, count * 2);
+            }
+
+            rows[count++] = row;
+        }
+    }
+
+    /**
+     *  Thrown to give up a walk of a tree that changed meanwhile.
+     */
+    private static final class TornWalkException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        TornWalkException() {
+            super("PayPeriodIndex: tree changed during the walk", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,467 @@
+package ehist.mem;
+
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * <p>
+ * === PayPeriodStore Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  The columns that hold every pay period of a {@link DataControl}. Each pay
+ * period is a row, its dates are stored as date values (see
+ * {@link ehist.mem.date.Date#getDateVal()}), its amounts in cents and its
+ * position and deduction types by their ids. The deductions of all rows are
+ * stored back to back, the deductions of a row are those between its offset
+ * and the offset of the next row.
+ * </p><p>
+ *  Scans over the columns touch contiguous primitive arrays rather than
+ * following references from object to object. {@link PayPeriod} objects are
+ * views over a row of this store.
+ * </p><p>
+ *  Each column is an int or long buffer. A store that is filled by appending
+ * keeps its columns in buffers over arrays on the heap. A store opened from a
+ * {@link Snapshot} reads its columns straight from the mapped file, appending
+ * to it first copies every column to the heap.
+ * </p><p>
+ *  One thread at a time appends while any number of threads read. A row is
+ * written past the size before the size is raised, and a full column is
+ * copied into a larger one rather than grown in place, so no row a reader can
+ * see is ever written again. The columns and the size are published through
+ * volatile fields, so a reader that sees a size sees every row below it.
+ * {@link #snapshot()} keeps the columns and size of the moment as a store of
+ * its own, a point in time that later appends do not change.
+ * </p>
+ *
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+public final class PayPeriodStore {
+
+    /** The initial number of rows and deductions the columns have room for. */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** The columns, replaced together when any of them is full. */
+    private volatile Columns columns;
+
+    /** The number of rows stored. */
+    private volatile int size;
+
+    /** If the columns are read only views of a mapped file. */
+    private boolean mapped;
+
+    /** If the columns may be read by another store, so appending copies them first. */
+    private boolean shared;
+
+    /**
+     *  Creates an empty store. Only a {@link DataControl} creates a store.
+     */
+    PayPeriodStore() {
+        this.columns = new Columns(IntBuffer.allocate(INITIAL_CAPACITY), IntBuffer.allocate(INITIAL_CAPACITY),
+                LongBuffer.allocate(INITIAL_CAPACITY), IntBuffer.allocate(INITIAL_CAPACITY),
+                LongBuffer.allocate(INITIAL_CAPACITY), IntBuffer.allocate(INITIAL_CAPACITY + 1),
+                LongBuffer.allocate(INITIAL_CAPACITY), IntBuffer.allocate(INITIAL_CAPACITY));
+        this.size = 0;
+        this.mapped = false;
+        this.shared = false;
+    }
+
+    /**
+     *  Creates a store over the columns of a mapped snapshot. The columns are
+     * used as they are, nothing is read until a row is asked for.
+     * @param rows              the number of rows
+     * @param start             the start date values
+     * @param end               the end date values
+     * @param gross_cents       the gross amounts
+     * @param position_id       the position ids
+     * @param deduction_total   the deduction totals
+     * @param deduction_offset  the deduction offsets, one more than the rows
+     * @param deduction_cents   the deduction amounts
+     * @param deduction_type_id the deduction type ids
+     */
+    PayPeriodStore(int rows, IntBuffer start, IntBuffer end, LongBuffer gross_cents, IntBuffer position_id,
+                   LongBuffer deduction_total, IntBuffer deduction_offset, LongBuffer deduction_cents,
+                   IntBuffer deduction_type_id) {
+        this(rows, new Columns(start, end, gross_cents, position_id, deduction_total, deduction_offset,
+                deduction_cents, deduction_type_id), true);
+    }
+
+    /**
+     *  Creates a store over columns shared with another store.
+     * @param rows    the number of rows
+     * @param columns the columns
+     * @param mapped  if the columns are read from a mapped snapshot
+     */
+    private PayPeriodStore(int rows, Columns columns, boolean mapped) {
+        this.columns = columns;
+        this.size = rows;
+        this.mapped = mapped;
+        this.shared = true;
+    }
+
+    /**
+     *  Appends a row to the store.
+     * @param start_val    the date value of the start date
+     * @param end_val      the date value of the end date
+     * @param gross        the gross amount in cents
+     * @param position     the id of the position
+     * @param cents        the amount of each deduction in cents
+     * @param types        the id of the deduction type of each deduction
+     * @param from         the index of the first deduction in the arrays
+     * @param deductions   the number of deductions
+     * @return the index of the new row
+     */
+    int append(int start_val, int end_val, long gross, int position, long[] cents, int[] types,
+               int from, int deductions) {
+        Columns c = columns;
+        int row = size;
+        IntBuffer start = c.start;
+        IntBuffer end = c.end;
+        LongBuffer gross_cents = c.gross_cents;
+        IntBuffer position_id = c.position_id;
+        LongBuffer deduction_total = c.deduction_total;
+        IntBuffer deduction_offset = c.deduction_offset;
+        LongBuffer deduction_cents = c.deduction_cents;
+        IntBuffer deduction_type_id = c.deduction_type_id;
+
+        if (shared || row == start.capacity()) {
+            int capacity = Math.max(row * 2, INITIAL_CAPACITY);
+            start = grow(start, row, capacity);
+            end = grow(end, row, capacity);
+            gross_cents = grow(gross_cents, row, capacity);
+            position_id = grow(position_id, row, capacity);
+            deduction_total = grow(deduction_total, row, capacity);
+            deduction_offset = grow(deduction_offset, row + 1, capacity + 1);
+        }
+
+        int first = deduction_offset.get(row);
+        int count = first + deductions;
+
+        if (shared || count > deduction_cents.capacity()) {
+            int capacity = Math.max(count, Math.max(first * 2, INITIAL_CAPACITY));
+            deduction_cents = grow(deduction_cents, first, capacity);
+            deduction_type_id = grow(deduction_type_id, first, capacity);
+        }
+
+        long total = 0;
+
+        for (int i = 0; i < deductions; ++i) {
+            deduction_cents.put(first + i, cents[from + i]);
+            deduction_type_id.put(first + i, types[from + i]);
+            total += cents[from + i];
+        }
+
+        start.put(row, start_val);
+        end.put(row, end_val);
+        gross_cents.put(row, gross);
+        position_id.put(row, position);
+        deduction_total.put(row, total);
+        deduction_offset.put(row + 1, count);
+
+        if (start != c.start || deduction_cents != c.deduction_cents) {
+            columns = new Columns(start, end, gross_cents, position_id, deduction_total, deduction_offset,
+                    deduction_cents, deduction_type_id);
+        }
+
+        mapped = false;
+        shared = false;
+
+        /* The row is stored before the size lets another thread see it */
+        size = row + 1;
+        return (row);
+    }
+
+    /**
+     * @param row the row
+     * @return the number of deductions of the row
+     */
+    public int getDeductionCount(int row) {
+        checkRow(row);
+        IntBuffer deduction_offset = columns.deduction_offset;
+        return (deduction_offset.get(row + 1) - deduction_offset.get(row));
+    }
+
+    /**
+     * @param row   the row
+     * @param index the index of the deduction within the row
+     * @return the amount of the deduction in cents
+     */
+    public long getDeductionCents(int row, int index) {
+        return (columns.deduction_cents.get(deductionIndex(row, index)));
+    }
+
+    /**
+     * @param row the row
+     * @return the sum of the deductions of the row in cents
+     */
+    public long getDeductionTotalCents(int row) {
+        checkRow(row);
+        return (columns.deduction_total.get(row));
+    }
+
+    /**
+     * @param row   the row
+     * @param index the index of the deduction within the row
+     * @return the id of the deduction type of the deduction
+     */
+    public int getDeductionTypeId(int row, int index) {
+        return (columns.deduction_type_id.get(deductionIndex(row, index)));
+    }
+
+    /**
+     * @param row the row
+     * @return the date value of the end date of the row
+     */
+    public int getEnd(int row) {
+        checkRow(row);
+        return (columns.end.get(row));
+    }
+
+    /**
+     * @param row the row
+     * @return the gross amount of the row in cents
+     */
+    public long getGrossCents(int row) {
+        checkRow(row);
+        return (columns.gross_cents.get(row));
+    }
+
+    /**
+     * @param row the row
+     * @return the gross amount less the deductions of the row in cents
+     */
+    public long getNetCents(int row) {
+        checkRow(row);
+        Columns c = columns;
+        return (c.gross_cents.get(row) - c.deduction_total.get(row));
+    }
+
+    /**
+     * @param row the row
+     * @return the id of the position of the row
+     */
+    public int getPositionId(int row) {
+        checkRow(row);
+        return (columns.position_id.get(row));
+    }
+
+    /**
+     * @param row the row
+     * @return the date value of the start date of the row
+     */
+    public int getStart(int row) {
+        checkRow(row);
+        return (columns.start.get(row));
+    }
+
+    /**
+     * @return the number of deductions of every row
+     */
+    public int deductionCount() {
+        int rows = size;
+        return (columns.deduction_offset.get(rows));
+    }
+
+    /**
+     * @return the bytes the columns have room for, on the heap or in the mapped file
+     */
+    public long getColumnBytes() {
+        Columns c = columns;
+        return (4L * (c.start.capacity() + c.end.capacity() + c.position_id.capacity()
+                + c.deduction_offset.capacity() + c.deduction_type_id.capacity())
+                + 8L * (c.gross_cents.capacity() + c.deduction_total.capacity() + c.deduction_cents.capacity()));
+    }
+
+    /**
+     * @return if the columns are read from a mapped snapshot
+     */
+    public boolean isMapped() {
+        return (mapped);
+    }
+
+    /**
+     * @return the number of rows in the store
+     */
+    public int size() {
+        return (size);
+    }
+
+    /**
+     *  Keeps the rows of the moment as a store of their own, sharing the
+     * columns of this store. Takes O(1) and can be called while another thread
+     * appends, the snapshot never sees rows appended after it was taken.
+     * @return a store of the rows stored so far
+     */
+    public PayPeriodStore snapshot() {
+        int rows = size;
+        return (new PayPeriodStore(rows, columns, mapped));
+    }
+
+    /**
+     *  Sums the amounts of all deductions of all rows.
+     * @return the total deduction amount in cents
+     */
+    public long totalDeductionCents() {
+        int rows = size;
+        LongBuffer deduction_total = columns.deduction_total;
+        long total = 0;
+
+        for (int i = 0; i < rows; ++i) {
+            total += deduction_total.get(i);
+        }
+
+        return (total);
+    }
+
+    /**
+     *  Sums the gross amounts of all rows.
+     * @return the total gross amount in cents
+     */
+    public long totalGrossCents() {
+        int rows = size;
+        LongBuffer gross_cents = columns.gross_cents;
+        long total = 0;
+
+        for (int i = 0; i < rows; ++i) {
+            total += gross_cents.get(i);
+        }
+
+        return (total);
+    }
+
+    /*
+     * The columns themselves, for scans within the package. Only the first
+     * size() rows (and the deductions before the offset of row size()) are used,
+     * read with absolute gets so the positions of the buffers never change.
+     * Read size() before a column, a column read later holds at least as many
+     * rows.
+     */
+
+    IntBuffer startColumn() {
+        return (columns.start);
+    }
+
+    IntBuffer endColumn() {
+        return (columns.end);
+    }
+
+    LongBuffer grossColumn() {
+        return (columns.gross_cents);
+    }
+
+    IntBuffer positionColumn() {
+        return (columns.position_id);
+    }
+
+    LongBuffer deductionTotalColumn() {
+        return (columns.deduction_total);
+    }
+
+    IntBuffer deductionOffsetColumn() {
+        return (columns.deduction_offset);
+    }
+
+    LongBuffer deductionCentsColumn() {
+        return (columns.deduction_cents);
+    }
+
+    IntBuffer deductionTypeColumn() {
+        return (columns.deduction_type_id);
+    }
+
+    /**
+     * @param row the row to check
+     * @throws IndexOutOfBoundsException if the row is not in the store
+     */
+    private void checkRow(int row) {
+        int rows = size;
+
+        if (row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException(String.format("Row out of range [0, %d) : %d", rows, row));
+        }
+    }
+
+    /**
+     * @param row   the row
+     * @param index the index of the deduction within the row
+     * @return the index of the deduction in the deduction columns
+     * @throws IndexOutOfBoundsException if the deduction is not in the row
+     */
+    private int deductionIndex(int row, int index) {
+        int count = getDeductionCount(row);
+
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException(String.format("Index out of range [0, %d) : %d", count, index));
+        }
+
+        return (columns.deduction_offset.get(row) + index);
+    }
+
+    /**
+     *  Copies the used part of a column into a new heap buffer.
+     * @param column   the column
+     * @param used     the number of values used
+     * @param capacity the capacity of the new column
+     * @return the new column
+     */
+    private static IntBuffer grow(IntBuffer column, int used, int capacity) {
+        IntBuffer old = column.duplicate();
+        IntBuffer copy = IntBuffer.allocate(capacity);
+
+        old.clear();
+        old.limit(used);
+        copy.put(old);
+        copy.clear();
+
+        return (copy);
+    }
+
+    /**
+     *  Copies the used part of a column into a new heap buffer.
+     * @param column   the column
+     * @param used     the number of values used
+     * @param capacity the capacity of the new column
+     * @return the new column
+     */
+    private static LongBuffer grow(LongBuffer column, int used, int capacity) {
+        LongBuffer old = column.duplicate();
+        LongBuffer copy = LongBuffer.allocate(capacity);
+
+        old.clear();
+        old.limit(used);
+        copy.put(old);
+        copy.clear();
+
+        return (copy);
+    }
+
+    /**
+     *  The columns of a store, replaced together so a reader never sees some
+     * columns of one capacity and some of another.
+     */
+    private static final class Columns {
+
+        private final IntBuffer start;
+        private final IntBuffer end;
+        private final LongBuffer gross_cents;
+        private final IntBuffer position_id;
+        private final LongBuffer deduction_total;
+        private final IntBuffer deduction_offset;
+        private final LongBuffer deduction_cents;
+        private final IntBuffer deduction_type_id;
+
+        Columns(IntBuffer start, IntBuffer end, LongBuffer gross_cents, IntBuffer position_id,
+                LongBuffer deduction_total, IntBuffer deduction_offset, LongBuffer deduction_cents,
+                IntBuffer deduction_type_id) {
+            this.start = start;
+            this.end = end;
+            this.gross_cents = gross_cents;
+            this.position_id = position_id;
+            this.deduction_total = deduction_total;
+            this.deduction_offset = deduction_offset;
+            this.deduction_cents = deduction_cents;
+            this.deduction_type_id = deduction_type_id;
+        }
+    }
+}
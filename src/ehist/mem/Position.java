@@ -1,7 +1,7 @@
 package ehist.mem;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -10,35 +10,138 @@ import java.util.List;
  * </p><p>
  * Date : March 02, 2017
  * </p><p>
- * TODO Description here
+ *  A position held at an {@link Employer}. Created through
+ * {@link DataControl#addPosition(String, Employer)} which gives it an id unique
+ * to that data control. The pay periods of the position are kept as rows of the
+ * data control's {@link PayPeriodStore}, appended to as each pay period is
+ * added and read optimistically, so reading them never changes anything.
  * </p>
  *
  * @author Michael van Dyk
  */
 public class Position {
 
+    private final DataControl data;
+    private final int id;
     private String title;
     private final Employer employer;
 
-    private final List<PayPeriod> payPeriods;
+    /** The rows of the pay periods of this position in the data control's store, written under its write lock. */
+    private int[] rows;
+    private int rowCount;
 
-    public Position(String title, Employer employer) {
+    /** The amounts earned over ranges of days in this position. */
+    private final EarningsRangeIndex earningsRangeIndex;
+
+    /** The amounts earned in each year and month in this position. */
+    private final CalendarTotals calendarTotals;
+
+    Position(DataControl data, int id, String title, Employer employer) {
+        this.data = data;
+        this.id = id;
         this.title = title;
         this.employer = employer;
         employer.addPosition(this);
-        this.payPeriods = new ArrayList<>();
+        this.rows = new int[8];
+        this.rowCount = 0;
+        this.earningsRangeIndex = new EarningsRangeIndex(data, true);
+        this.calendarTotals = new CalendarTotals(data);
+    }
+
+    /**
+     *  Adds a row of the data control's store to the rows of this position and
+     * its amounts to the calendar totals of this position and its employer.
+     * @param row the row
+     */
+    void addPayPeriod(int row) {
+        if (rowCount == rows.length) {
+            rows = Arrays.copyOf(rows, rows.length * 2);
+        }
+        rows[rowCount++] = row;
+
+        PayPeriodStore store = data.getPayPeriodStore();
+        int start_val = store.getStart(row);
+        int end_val = store.getEnd(row);
+        long gross = store.getGrossCents(row);
+        long deductions = store.getDeductionTotalCents(row);
+
+        calendarTotals.add(start_val, end_val, gross, deductions);
+        employer.getCalendarTotals().add(start_val, end_val, gross, deductions);
     }
 
-    public void addPayPeriod(PayPeriod payPeriod) {
-        payPeriods.add(payPeriod);
+    /**
+     * @return the amounts earned in each year and month in this position
+     */
+    public CalendarTotals getCalendarTotals() {
+        return (calendarTotals);
+    }
+
+    /**
+     * @return the bytes of the rows, range index and calendar totals of this position
+     */
+    long estimateBytes() {
+        return (4L * rows.length + earningsRangeIndex.estimateBytes() + calendarTotals.estimateBytes());
+    }
+
+    DataControl getDataControl() {
+        return data;
+    }
+
+    /**
+     * @return the index of the amounts earned over ranges of days in this position
+     */
+    public EarningsRangeIndex getEarningsRangeIndex() {
+        return (earningsRangeIndex);
     }
 
     public Employer getEmployer() {
         return employer;
     }
 
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return a read only list of the pay periods of this position, each element is a view of a row
+     */
     public List<PayPeriod> getPayPeriods() {
-        return (Collections.unmodifiableList(payPeriods));
+        return (new AbstractList<PayPeriod>() {
+            @Override
+            public PayPeriod get(int index) {
+                return (data.getPayPeriod(getPayPeriodRow(index)));
+            }
+
+            @Override
+            public int size() {
+                return (getPayPeriodCount());
+            }
+        });
+    }
+
+    /**
+     * @param index the index of the pay period within this position
+     * @return the row of the pay period in the data control's store
+     */
+    public int getPayPeriodRow(int index) {
+        int count = getPayPeriodCount();
+
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException(String.format("Index out of range [0, %d) : %d", count, index));
+        }
+
+        /* Rows are only appended, so the index stays valid whatever was added since */
+        return ((int)data.read(() -> {
+            int[] array = rows;
+            return (index < array.length ? array[index] : 0);
+        }));
+    }
+
+    /**
+     * @return the number of pay periods of this position
+     */
+    public int getPayPeriodCount() {
+        return ((int)data.read(() -> rowCount));
     }
 
     public String getTitle() {
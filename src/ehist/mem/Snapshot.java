@@ -0,0 +1,408 @@
+package ehist.mem;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * <p>
+ * === Snapshot Enum ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Writes every employer, position, deduction type and pay period of a
+ * {@link DataControl} to a file in the layout of its {@link PayPeriodStore},
+ * and opens such a file as a new data control whose pay periods are read
+ * straight from the mapped file. Opening only reads the names and maps the
+ * columns, O(names) whatever the number of pay periods. The rows of each
+ * position, the calendar and deduction totals and the indexes are not stored
+ * in the file, they are built by the first read of the data control, append
+ * or batch, in one O(n log n) pass over the columns, and kept up to date by
+ * every later pay period. Exports, aggregations and snapshot writes read only
+ * the columns and never wait for that pass. The columns are read by the
+ * operating system as they are used, {@link PayPeriod} views and dates are
+ * only created when asked for.
+ * </p><p>
+ *  The file is little endian. It starts with a header of eight ints: the
+ * magic number, the number of employers, positions, deduction types, pay
+ * periods and deductions, the length of the names and a zero. The names
+ * follow, UTF-8 with an unsigned short length, each position's preceded by
+ * the id of its employer. From the next multiple of eight bytes the columns
+ * follow back to back, the long columns first: gross, deduction total and
+ * deduction cents, then start, end, position id, deduction offset and
+ * deduction type id.
+ * </p><p>
+ *  A snapshot is trusted to be one written by {@link #write(DataControl, Path)},
+ * only its lengths are checked when it is opened. Adding pay periods to a data
+ * control opened from a snapshot first copies its columns to the heap, the
+ * file is never written to.
+ * </p>
+ *
+ * @see Journal
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+public enum Snapshot {
+    ;
+
+    /** The first four bytes of a snapshot, "EHS1". */
+    private static final int MAGIC = 0x45485331;
+
+    /** The number of bytes of the header. */
+    private static final int HEADER = 32;
+
+    /** The size of the buffer the file is written through. */
+    private static final int WRITE_BUFFER = 1 << 20;
+
+    /**
+     *  Opens a snapshot as a new data control. The file can be closed, moved
+     * or deleted once this returns but must not be changed while the data
+     * control is in use.
+     * @throws EHistException if the file is not a snapshot or cannot be read
+     * @param path the path of the snapshot
+     * @return a data control over the mapped snapshot
+     */
+    public static DataControl open(Path path) {
+        long started = System.nanoTime();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+
+            if (length < HEADER) {
+                throw new EHistException("Snapshot: not a snapshot " + path);
+            }
+
+            ByteBuffer header = map(channel, 0, HEADER);
+
+            if (header.getInt() != MAGIC) {
+                throw new EHistException("Snapshot: not a snapshot " + path);
+            }
+
+            int employers = header.getInt();
+            int positions = header.getInt();
+            int types = header.getInt();
+            int rows = header.getInt();
+            int deductions = header.getInt();
+            int names_length = header.getInt();
+
+            if (employers < 0 || positions < 0 || types < 0 || rows < 0 || deductions < 0 || names_length < 0) {
+                throw new EHistException("Snapshot: corrupt header in " + path);
+            }
+
+            long offset = align(HEADER + (long)names_length);
+            long expected = offset + 8L * (2L * rows + deductions) + 4L * (4L * rows + 1 + deductions);
+
+            if (length != expected) {
+                throw new EHistException(String.format("Snapshot: %s is %d bytes, expected %d", path, length, expected));
+            }
+
+            LongBuffer gross = map(channel, offset, 8L * rows).asLongBuffer();
+            offset += 8L * rows;
+            LongBuffer deduction_total = map(channel, offset, 8L * rows).asLongBuffer();
+            offset += 8L * rows;
+            LongBuffer deduction_cents = map(channel, offset, 8L * deductions).asLongBuffer();
+            offset += 8L * deductions;
+            IntBuffer start = map(channel, offset, 4L * rows).asIntBuffer();
+            offset += 4L * rows;
+            IntBuffer end = map(channel, offset, 4L * rows).asIntBuffer();
+            offset += 4L * rows;
+            IntBuffer position = map(channel, offset, 4L * rows).asIntBuffer();
+            offset += 4L * rows;
+            IntBuffer deduction_offset = map(channel, offset, 4L * (rows + 1)).asIntBuffer();
+            offset += 4L * (rows + 1);
+            IntBuffer deduction_type = map(channel, offset, 4L * deductions).asIntBuffer();
+
+            PayPeriodStore store = new PayPeriodStore(rows, start, end, gross, position, deduction_total,
+                    deduction_offset, deduction_cents, deduction_type);
+
+            DataControl data = new DataControl(store);
+            ByteBuffer names = map(channel, HEADER, names_length);
+
+            for (int i = 0; i < employers; ++i) {
+                data.addEmployer(getName(names));
+            }
+
+            for (int i = 0; i < positions; ++i) {
+                int employer = names.getInt();
+
+                if (employer < 0 || employer >= employers) {
+                    throw new EHistException("Snapshot: no employer with id " + employer);
+                }
+
+                data.addPosition(getName(names), data.getEmployer(employer));
+            }
+
+            for (int i = 0; i < types; ++i) {
+                data.addDeductionType(getName(names));
+            }
+
+            data.listLater();
+            data.metrics().loaded(rows, started);
+            return (data);
+        } catch (IOException e) {
+            throw new EHistException("Snapshot: cannot open " + path, e);
+        } catch (BufferUnderflowException e) {
+            throw new EHistException("Snapshot: corrupt names in " + path, e);
+        }
+    }
+
+    /**
+     *  Writes the data control to a snapshot. The snapshot is written to a
+     * file beside the path and moved over it once complete, so the path holds
+     * either the old snapshot or the whole new one. Pay periods and anything
+     * else added while it is written are left out, so the snapshot may be
+     * written while another thread keeps adding.
+     * @throws EHistException if the file cannot be written or a name is too long
+     * @param data the data control to write
+     * @param path the path of the snapshot
+     */
+    public static void write(DataControl data, Path path) {
+        SnapshotWriteEvent event = new SnapshotWriteEvent();
+        event.begin();
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        PayPeriodStore store = data.getPayPeriodStore().snapshot();
+        int rows = store.size();
+        int deductions = store.deductionOffsetColumn().get(rows);
+
+        /* Taken after what refers to them, so every id referred to is within them */
+        List<DeductionType> types = data.getDeductionTypes();
+        List<Position> positions = data.getPositions();
+        List<Employer> employers = data.getEmployers();
+
+        ByteBuffer names = ByteBuffer.allocate(4096).order(ByteOrder.LITTLE_ENDIAN);
+
+        for (Employer employer : employers) {
+            names = putName(names, employer.getName());
+        }
+
+        for (Position position : positions) {
+            names = ensure(names, 4);
+            names.putInt(position.getEmployer().getId());
+            names = putName(names, position.getTitle());
+        }
+
+        for (DeductionType type : types) {
+            names = putName(names, type.getName());
+        }
+
+        names.flip();
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+
+            buffer.putInt(MAGIC)
+                    .putInt(employers.size())
+                    .putInt(positions.size())
+                    .putInt(types.size())
+                    .putInt(rows)
+                    .putInt(deductions)
+                    .putInt(names.remaining())
+                    .putInt(0);
+            drain(channel, buffer);
+
+            while (names.hasRemaining()) {
+                channel.write(names);
+            }
+
+            long offset = HEADER + (long)names.limit();
+
+            buffer.put(new byte[(int)(align(offset) - offset)]);
+
+            write(channel, buffer, store.grossColumn(), rows);
+            write(channel, buffer, store.deductionTotalColumn(), rows);
+            write(channel, buffer, store.deductionCentsColumn(), deductions);
+            write(channel, buffer, store.startColumn(), rows);
+            write(channel, buffer, store.endColumn(), rows);
+            write(channel, buffer, store.positionColumn(), rows);
+            write(channel, buffer, store.deductionOffsetColumn(), rows + 1);
+            write(channel, buffer, store.deductionTypeColumn(), deductions);
+            drain(channel, buffer);
+            channel.force(true);
+            event.bytes = channel.size();
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new EHistException("Snapshot: cannot write " + path, e);
+        }
+
+        try {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new EHistException("Snapshot: cannot replace " + path, e);
+        }
+
+        if (event.shouldCommit()) {
+            event.path = path.toString();
+            event.rows = rows;
+            event.commit();
+        }
+    }
+
+    /**
+     * @param offset a file offset
+     * @return the offset rounded up to a multiple of eight
+     */
+    private static long align(long offset) {
+        return ((offset + 7) & ~7L);
+    }
+
+    /**
+     * @param path the file to delete, if it exists
+     */
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            /* Already failing, the first error is the one reported */
+        }
+    }
+
+    /**
+     *  Writes out the buffer and clears it.
+     * @param channel the channel to write to
+     * @param buffer  the buffer to write
+     * @throws IOException if the channel cannot be written
+     */
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+
+    /**
+     * @param buffer the buffer to write into
+     * @param needed the number of bytes about to be put
+     * @return the buffer, or a larger copy of it if it did not have room
+     */
+    private static ByteBuffer ensure(ByteBuffer buffer, int needed) {
+        if (buffer.remaining() >= needed) {
+            return (buffer);
+        }
+
+        ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + needed))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.flip();
+        larger.put(buffer);
+        return (larger);
+    }
+
+    /**
+     *  Decodes a name whose length is at the current position of the buffer.
+     * @param buffer the buffer to read from
+     * @return the name
+     */
+    private static String getName(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return (new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    /**
+     *  Maps part of the file read only.
+     * @throws EHistException if the part is too large to map
+     * @param channel the channel of the file
+     * @param offset  the offset of the part
+     * @param length  the length of the part in bytes
+     * @return the little endian mapped part
+     * @throws IOException if the file cannot be mapped
+     */
+    private static ByteBuffer map(FileChannel channel, long offset, long length) throws IOException {
+        if (length > Integer.MAX_VALUE) {
+            throw new EHistException("Snapshot: column of " + length + " bytes is too large to map");
+        }
+        return (channel.map(FileChannel.MapMode.READ_ONLY, offset, length).order(ByteOrder.LITTLE_ENDIAN));
+    }
+
+    /**
+     *  Encodes a name with its length, a null name as empty.
+     * @throws EHistException if the name is longer than 65535 bytes
+     * @param buffer the buffer to write into
+     * @param name   the name
+     * @return the buffer, or a larger copy of it if it did not have room
+     */
+    private static ByteBuffer putName(ByteBuffer buffer, String name) {
+        byte[] bytes = (name != null ? name : "").getBytes(StandardCharsets.UTF_8);
+
+        if (bytes.length > 0xFFFF) {
+            throw new EHistException("Snapshot: name longer than 65535 bytes");
+        }
+
+        buffer = ensure(buffer, 2 + bytes.length);
+        buffer.putShort((short)bytes.length);
+        buffer.put(bytes);
+        return (buffer);
+    }
+
+    /**
+     *  Writes the first values of a column through the buffer.
+     * @param channel the channel to write to
+     * @param buffer  the buffer to write through
+     * @param column  the column
+     * @param count   the number of values to write
+     * @throws IOException if the channel cannot be written
+     */
+    private static void write(FileChannel channel, ByteBuffer buffer, IntBuffer column, int count) throws IOException {
+        IntBuffer values = column.duplicate();
+        values.clear();
+        values.limit(count);
+
+        while (values.hasRemaining()) {
+            if (buffer.remaining() < 4) {
+                drain(channel, buffer);
+            }
+
+            IntBuffer view = buffer.asIntBuffer();
+            int n = Math.min(view.remaining(), values.remaining());
+            IntBuffer part = values.duplicate();
+            part.limit(part.position() + n);
+            view.put(part);
+            values.position(values.position() + n);
+            buffer.position(buffer.position() + n * 4);
+        }
+    }
+
+    /**
+     *  Writes the first values of a column through the buffer.
+     * @param channel the channel to write to
+     * @param buffer  the buffer to write through
+     * @param column  the column
+     * @param count   the number of values to write
+     * @throws IOException if the channel cannot be written
+     */
+    private static void write(FileChannel channel, ByteBuffer buffer, LongBuffer column, int count) throws IOException {
+        LongBuffer values = column.duplicate();
+        values.clear();
+        values.limit(count);
+
+        while (values.hasRemaining()) {
+            if (buffer.remaining() < 8) {
+                drain(channel, buffer);
+            }
+
+            LongBuffer view = buffer.asLongBuffer();
+            int n = Math.min(view.remaining(), values.remaining());
+            LongBuffer part = values.duplicate();
+            part.limit(part.position() + n);
+            view.put(part);
+            values.position(values.position() + n);
+            buffer.position(buffer.position() + n * 8);
+        }
+    }
+}
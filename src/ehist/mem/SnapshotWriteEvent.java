@@ -0,0 +1,48 @@
+package ehist.mem;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * <p>
+ * === SnapshotWriteEvent Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  A Java Flight Recorder event for one {@link Snapshot} written, including
+ * forcing it to the device and moving it into place. Disabled by default,
+ * enable <tt>ehist.SnapshotWrite</tt> in a recording.
+ * </p>
+ *
+ * @see Snapshot
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+@Name("ehist.SnapshotWrite")
+@Label("Snapshot Write")
+@Category({"EHist", "Persistence"})
+@Description("A data control written to a snapshot file")
+@Enabled(false)
+@StackTrace(false)
+final class SnapshotWriteEvent extends Event {
+
+    /** The path of the snapshot. */
+    @Label("Path")
+    String path;
+
+    /** The number of pay periods written. */
+    @Label("Rows")
+    int rows;
+
+    /** The size of the snapshot. */
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+}
+
@@ -1,5 +1,11 @@
 package ehist.mem.date;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * <p>
  * === CustomDateFormatter Class ===
@@ -38,60 +44,364 @@ package ehist.mem.date;
  */
 final class CustomDateFormatter implements DateFormatter {
 
-    /** The string used in the formatting process. */
-    private final String format;
+    /** Token for a run of literal text from the format string. */
+    static final int LITERAL = 0;
+
+    /** Token for the <tt>$d$</tt> key. */
+    static final int DAY = 1;
+
+    /** Token for the <tt>$dd$</tt> key. */
+    static final int DAY_PADDED = 2;
+
+    /** Token for the <tt>$D$</tt> key. */
+    static final int DAY_SUFFIXED = 3;
+
+    /** Token for the <tt>$m$</tt> key. */
+    static final int MONTH = 4;
+
+    /** Token for the <tt>$mm$</tt> key. */
+    static final int MONTH_PADDED = 5;
+
+    /** Token for the <tt>$M$</tt> key. */
+    static final int MONTH_NAME = 6;
+
+    /** Token for the <tt>$Ms$</tt> key. */
+    static final int MONTH_SHORT = 7;
+
+    /** Token for the <tt>$y$</tt> key. */
+    static final int YEAR = 8;
+
+    /** Token for the <tt>$yy$</tt> key. */
+    static final int YEAR_PADDED = 9;
+
+    /** Token for the <tt>$W$</tt> key. */
+    static final int DOW_NAME = 10;
+
+    /** Token for the <tt>$Ws$</tt> key. */
+    static final int DOW_SHORT = 11;
+
+    /** The tokens the format string was parsed into, in order of output. */
+    private final int[] tokens;
+
+    /** The literal text of each {@link #LITERAL} token, null for the other tokens. */
+    private final String[] literals;
+
+    /** If the format uses the day of the week, which is only calculated when needed. */
+    private final boolean uses_dow;
+
+    /** The length of the literal text, used to size the output. */
+    private final int literal_length;
+
+    /** The most characters a single formatted date can take. */
+    private final int max_length;
+
+    /** Scratch space for writers and other outputs that are handed the date as chars. */
+    private static final ThreadLocal<char[][]> CHAR_SCRATCH = ThreadLocal.withInitial(() -> new char[1][64]);
+
+    /** Scratch space for byte buffers that cannot be written to directly. */
+    private static final ThreadLocal<byte[][]> BYTE_SCRATCH = ThreadLocal.withInitial(() -> new byte[1][64]);
 
     /**
      *  Creates a new custom date formatter. Restricted creation to the current package.
+     * The format string is parsed once here into the tokens used by each call to
+     * {@link #format(Date)}.
      * @param format the format string to use in the formatting process
      */
     protected CustomDateFormatter(String format) {
-        this.format = format;
+        List<Integer> tokens = new ArrayList<>();
+        List<String> literals = new ArrayList<>();
+        int literal_start = 0, i = 0, end, token;
+
+        while (i < format.length()) {
+            if (format.charAt(i) != '$'
+                    || (end = format.indexOf('$', i + 1)) == -1
+                    || (token = keyToken(format, i + 1, end)) == LITERAL) {
+                ++i;
+                continue;
+            }
+
+            if (literal_start < i) {
+                tokens.add(LITERAL);
+                literals.add(format.substring(literal_start, i));
+            }
+
+            tokens.add(token);
+            literals.add(null);
+            i = literal_start = end + 1;
+        }
+
+        if (literal_start < format.length()) {
+            tokens.add(LITERAL);
+            literals.add(format.substring(literal_start));
+        }
+
+        this.tokens = new int[tokens.size()];
+        this.literals = literals.toArray(new String[0]);
+
+        boolean uses_dow = false;
+        int length = 0, max = 0;
+
+        for (int t = 0; t < this.tokens.length; ++t) {
+            this.tokens[t] = tokens.get(t);
+            uses_dow |= (this.tokens[t] == DOW_NAME || this.tokens[t] == DOW_SHORT);
+            length += (this.literals[t] == null ? 0 : this.literals[t].length());
+            max += maxTokenLength(this.tokens[t], this.literals[t]);
+        }
+
+        this.uses_dow = uses_dow;
+        this.literal_length = length;
+        this.max_length = max;
     }
 
     @Override
     public String format(Date date) {
-        StringBuilder sb = new StringBuilder(format);
+        /* Enough room for the literals and the longest names */
+        StringBuilder sb = new StringBuilder(literal_length + 10 * tokens.length);
+        formatTo(date, sb);
+        return (sb.toString());
+    }
 
-        int   day       = date.getDay();
-        int   month_num = date.getMonthNumber();
-        int   year      = date.getYear();
-        Day   dow       = Day.dayOfWeek(year, month_num, day);
-        Month month     = Month.getMonth(month_num);
+    /**
+     *  Appends the formatted date to the given string builder in a single pass
+     * over the tokens. Fields are only calculated if the format uses them.
+     * @param date the date to format
+     * @param sb   the string builder to append to
+     */
+    @Override
+    public void formatTo(Date date, StringBuilder sb) {
+        int day       = date.getDay();
+        int month_num = date.getMonthNumber();
+        int year      = date.getYear();
+        Day dow       = (uses_dow ? Day.dayOfWeek(year, month_num, day) : null);
 
+        for (int i = 0; i < tokens.length; ++i) {
+            switch (tokens[i]) {
+                case LITERAL:      sb.append(literals[i]);                             break;
+                case DAY:          sb.append(day);                                     break;
+                case DAY_PADDED:   appendPadded(sb, day);                              break;
+                case DAY_SUFFIXED: sb.append(day).append(Day.getNumberSuffix(day));    break;
+                case MONTH:        sb.append(month_num);                               break;
+                case MONTH_PADDED: appendPadded(sb, month_num);                        break;
+                case MONTH_NAME:   sb.append(Month.getMonth(month_num).getName());     break;
+                case MONTH_SHORT:  sb.append(Month.getMonth(month_num).getShortForm()); break;
+                case YEAR:         sb.append(year);                                    break;
+                case YEAR_PADDED:  appendPadded(sb, year);                             break;
+                case DOW_NAME:     sb.append(dow.getName());                           break;
+                case DOW_SHORT:
+                default:           sb.append(dow.getShortForm());
+            }
+        }
+    }
 
-        replaceAll(sb, "$d$",  Integer.toString(day));
-        replaceAll(sb, "$dd$", String.format("%02d", day));
-        replaceAll(sb, "$D$",  Day.formatNumber(day));
+    /**
+     *  Appends the formatted date to the output. The date is written into a
+     * reused per thread char array in a single pass over the tokens, which a
+     * writer is handed in one call and any other output one char at a time.
+     * @param date the date to format
+     * @param out  the output to append to
+     * @throws IOException if the output fails to append
+     */
+    @Override
+    public void formatTo(Date date, Appendable out) throws IOException {
+        if (out instanceof StringBuilder) {
+            formatTo(date, (StringBuilder)out);
+            return;
+        }
 
-        replaceAll(sb, "$m$",  Integer.toString(month_num));
-        replaceAll(sb, "$mm$", String.format("%02d", month_num));
-        replaceAll(sb, "$M$",  month.getName());
-        replaceAll(sb, "$Ms$", month.getShortForm());
+        char[][] holder = CHAR_SCRATCH.get();
 
-        replaceAll(sb, "$y$",  Integer.toString(year));
-        replaceAll(sb, "$yy$", String.format("%02d", year));
+        if (holder[0].length < max_length) {
+            holder[0] = new char[max_length];
+        }
 
-        replaceAll(sb, "$W$",  dow.getName());
-        replaceAll(sb, "$Ws$", dow.getShortForm());
+        char[] chars = holder[0];
+        int length = formatTo(date, chars, 0);
 
-        return (sb.toString());
+        if (out instanceof Writer) {
+            ((Writer)out).write(chars, 0, length);
+        } else {
+            for (int i = 0; i < length; ++i) {
+                out.append(chars[i]);
+            }
+        }
     }
 
     /**
-     *  Replaces all instances of the 'from' string with the 'to'
-     * string. Only added since string builder does not have its
-     * own replace all.
-     * @param sb   the string builder to replace all in, this is the output
-     * @param from the string to replace
-     * @param to   the string to replace with
+     *  Writes the formatted date into the array in a single pass over the
+     * tokens. Fields are only calculated if the format uses them.
+     * @param date   the date to format
+     * @param buf    the array to write to, with room for the longest date of the format
+     * @param offset the index to start writing at
+     * @return the index after the last char written
      */
-    private static void replaceAll(StringBuilder sb, final String from, final String to) {
-        int index = sb.indexOf(from);
+    int formatTo(Date date, char[] buf, int offset) {
+        int day       = date.getDay();
+        int month_num = date.getMonthNumber();
+        int year      = date.getYear();
+        Day dow       = (uses_dow ? Day.dayOfWeek(year, month_num, day) : null);
 
-        while (index != -1) {
-            sb.replace(index, index + from.length(), to);
-            index = sb.indexOf(from, index + to.length());
+        for (int i = 0; i < tokens.length; ++i) {
+            switch (tokens[i]) {
+                case LITERAL:      offset = DateDigits.writeChars(buf, offset, literals[i]);                      break;
+                case DAY:          offset = DateDigits.writeInt(buf, offset, day);                                break;
+                case DAY_PADDED:   offset = DateDigits.writePadded(buf, offset, day);                             break;
+                case DAY_SUFFIXED: offset = DateDigits.writeChars(buf, DateDigits.writeInt(buf, offset, day),
+                                                                  Day.getNumberSuffix(day));                      break;
+                case MONTH:        offset = DateDigits.writeInt(buf, offset, month_num);                          break;
+                case MONTH_PADDED: offset = DateDigits.writePadded(buf, offset, month_num);                       break;
+                case MONTH_NAME:   offset = DateDigits.writeChars(buf, offset, Month.getName(month_num));         break;
+                case MONTH_SHORT:  offset = DateDigits.writeChars(buf, offset, Month.getShortForm(month_num));    break;
+                case YEAR:         offset = DateDigits.writeInt(buf, offset, year);                               break;
+                case YEAR_PADDED:  offset = DateDigits.writePadded(buf, offset, year);                            break;
+                case DOW_NAME:     offset = DateDigits.writeChars(buf, offset, dow.getName());                    break;
+                case DOW_SHORT:
+                default:           offset = DateDigits.writeChars(buf, offset, dow.getShortForm());
+            }
         }
+
+        return (offset);
+    }
+
+    /**
+     *  Writes the formatted date as ASCII into the array in a single pass over
+     * the tokens. Fields are only calculated if the format uses them.
+     * @param date   the date to format
+     * @param buf    the array to write to
+     * @param offset the index to start writing at
+     * @return the index after the last byte written
+     */
+    @Override
+    public int formatTo(Date date, byte[] buf, int offset) {
+        int day       = date.getDay();
+        int month_num = date.getMonthNumber();
+        int year      = date.getYear();
+        Day dow       = (uses_dow ? Day.dayOfWeek(year, month_num, day) : null);
+
+        for (int i = 0; i < tokens.length; ++i) {
+            switch (tokens[i]) {
+                case LITERAL:      offset = DateDigits.writeAscii(buf, offset, literals[i]);                      break;
+                case DAY:          offset = DateDigits.writeInt(buf, offset, day);                                break;
+                case DAY_PADDED:   offset = DateDigits.writePadded(buf, offset, day);                             break;
+                case DAY_SUFFIXED: offset = DateDigits.writeAscii(buf, DateDigits.writeInt(buf, offset, day),
+                                                                  Day.getNumberSuffix(day));                      break;
+                case MONTH:        offset = DateDigits.writeInt(buf, offset, month_num);                          break;
+                case MONTH_PADDED: offset = DateDigits.writePadded(buf, offset, month_num);                       break;
+                case MONTH_NAME:   offset = DateDigits.writeAscii(buf, offset, Month.getName(month_num));         break;
+                case MONTH_SHORT:  offset = DateDigits.writeAscii(buf, offset, Month.getShortForm(month_num));    break;
+                case YEAR:         offset = DateDigits.writeInt(buf, offset, year);                               break;
+                case YEAR_PADDED:  offset = DateDigits.writePadded(buf, offset, year);                            break;
+                case DOW_NAME:     offset = DateDigits.writeAscii(buf, offset, dow.getName());                    break;
+                case DOW_SHORT:
+                default:           offset = DateDigits.writeAscii(buf, offset, dow.getShortForm());
+            }
+        }
+
+        return (offset);
+    }
+
+    /**
+     *  Writes the formatted date as ASCII at the buffer's position, advancing
+     * the position. Array backed buffers with room for the longest possible
+     * date are written to directly, others go through a reused per thread array.
+     * @param date the date to format
+     * @param buf  the buffer to write to
+     * @throws java.nio.BufferOverflowException if the buffer does not have room for the date
+     */
+    @Override
+    public void formatTo(Date date, ByteBuffer buf) {
+        if (buf.hasArray() && buf.remaining() >= max_length) {
+            int start = buf.arrayOffset() + buf.position();
+            buf.position(buf.position() + formatTo(date, buf.array(), start) - start);
+        } else {
+            byte[][] holder = BYTE_SCRATCH.get();
+
+            if (holder[0].length < max_length) {
+                holder[0] = new byte[max_length];
+            }
+
+            buf.put(holder[0], 0, formatTo(date, holder[0], 0));
+        }
+    }
+
+    /**
+     * @return the literal text of each token, null for tokens that are not literals
+     */
+    String[] getLiterals() {
+        return (literals);
+    }
+
+    /**
+     * @return the tokens of the format string in order of output
+     */
+    int[] getTokens() {
+        return (tokens);
+    }
+
+    /**
+     *  Appends the number so single digit values are lead with a zero.
+     * @param sb    the string builder to append to
+     * @param value the non negative value to append
+     */
+    private static void appendPadded(StringBuilder sb, int value) {
+        if (value < 10) {
+            sb.append('0');
+        }
+        sb.append(value);
+    }
+
+    /**
+     *  Gets the most characters a token can produce.
+     * @param token   the token
+     * @param literal the literal text of the token, null if not a literal
+     * @return the most characters the token can produce
+     */
+    private static int maxTokenLength(int token, String literal) {
+        int length;
+
+        switch (token) {
+            case LITERAL:      length = literal.length();                        break;
+            case DAY:
+            case DAY_PADDED:
+            case MONTH:
+            case MONTH_PADDED: length = 2;                                       break;
+            case DAY_SUFFIXED: length = 4;                                       break;
+            case YEAR:
+            case YEAR_PADDED:  length = DateDigits.digits(Year.MAX_YEAR);        break;
+            case MONTH_NAME:   length = "September".length();                   break;
+            case MONTH_SHORT:  length = "Sept".length();                         break;
+            case DOW_NAME:     length = "Wednesday".length();                    break;
+            case DOW_SHORT:
+            default:           length = "Thurs".length();
+        }
+
+        return (length);
+    }
+
+    /**
+     *  Finds the token of the key between two '$' characters.
+     * @param format the format string
+     * @param start  the index of the first character of the key
+     * @param end    the index of the closing '$'
+     * @return the token of the key or {@link #LITERAL} if it is not a key
+     */
+    private static int keyToken(String format, int start, int end) {
+        int token;
+
+        switch (format.substring(start, end)) {
+            case "d":  token = DAY;          break;
+            case "dd": token = DAY_PADDED;   break;
+            case "D":  token = DAY_SUFFIXED; break;
+            case "m":  token = MONTH;        break;
+            case "mm": token = MONTH_PADDED; break;
+            case "M":  token = MONTH_NAME;   break;
+            case "Ms": token = MONTH_SHORT;  break;
+            case "y":  token = YEAR;         break;
+            case "yy": token = YEAR_PADDED;  break;
+            case "W":  token = DOW_NAME;     break;
+            case "Ws": token = DOW_SHORT;    break;
+            default:   token = LITERAL;
+        }
+
+        return (token);
     }
 }
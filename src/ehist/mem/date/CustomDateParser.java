@@ -0,0 +1,331 @@
+package ehist.mem.date;
+
+import static ehist.mem.date.CustomDateFormatter.*;
+
+/**
+ * <p>
+ * === CustomDateParser Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  The inverse of a {@link CustomDateFormatter}, reads text written with the
+ * same format keys back into a date value. The tokens of the formatter are
+ * walked once over the text, numbers are accumulated from the characters and
+ * names are matched in place so no strings are created while parsing.
+ * </p><p>
+ *  Days and months read at most two digits and years at most seven. A year
+ * directly followed by days or months, such as <tt>$y$$mm$$dd$</tt>, leaves
+ * two digits for each of them. Month and day of the week names are matched
+ * ignoring case. If the format contains the day of the week it must agree with
+ * the parsed date.
+ * </p>
+ *
+ * @see DateParser
+ * @see CustomDateFormatter
+ *
+ * @since EHist 1.0
+ *
+ * @author Michael van Dyk
+ */
+final class CustomDateParser implements DateParser {
+
+    /** The most digits of a year that fits in {@link Year#MAX_YEAR}. */
+    private static final int YEAR_DIGITS = DateDigits.digits(Year.MAX_YEAR);
+
+    /** Reused per thread view of a char array. */
+    private static final ThreadLocal<ArraySequence> CHARS = ThreadLocal.withInitial(ArraySequence::new);
+
+    /** Reused per thread view of an ASCII byte array. */
+    private static final ThreadLocal<ArraySequence> BYTES = ThreadLocal.withInitial(ArraySequence::new);
+
+    /** The tokens of the format, shared with the formatter. */
+    private final int[] tokens;
+
+    /** The literal text of each literal token, shared with the formatter. */
+    private final String[] literals;
+
+    /** For each year token, the digits of the day and month tokens directly following it. */
+    private final int[] reserved;
+
+    /**
+     *  Creates the parser that reads the output of the given formatter.
+     * @param formatter the formatter to parse the output of
+     */
+    CustomDateParser(CustomDateFormatter formatter) {
+        this.tokens = formatter.getTokens();
+        this.literals = formatter.getLiterals();
+        this.reserved = new int[tokens.length];
+
+        for (int i = 0; i < tokens.length; ++i) {
+            for (int t = i + 1; (tokens[i] == YEAR || tokens[i] == YEAR_PADDED) && t < tokens.length; ++t) {
+                if (tokens[t] != DAY && tokens[t] != DAY_PADDED && tokens[t] != DAY_SUFFIXED
+                        && tokens[t] != MONTH && tokens[t] != MONTH_PADDED) {
+                    break;
+                }
+
+                reserved[i] += 2;
+
+                if (tokens[t] == DAY_SUFFIXED) {
+                    break;
+                }
+            }
+        }
+    }
+
+    @Override
+    public int parseDateVal(CharSequence text, int start, int end) {
+        int day = -1, month = -1, year = -1, dow = -1;
+        int pos = start;
+
+        for (int i = 0; i < tokens.length; ++i) {
+            int token = tokens[i];
+            int next;
+
+            switch (token) {
+                case LITERAL:
+                    next = matchLiteral(text, pos, end, literals[i]);
+                    break;
+
+                case DAY:
+                case DAY_PADDED:
+                case DAY_SUFFIXED:
+                    next = readDigits(text, pos, end, 2);
+                    day = readValue(text, pos, next);
+
+                    if (token == DAY_SUFFIXED && next > pos) {
+                        next = matchIgnoreCase(text, next, end, Day.getNumberSuffix(day));
+                    }
+                    break;
+
+                case MONTH:
+                case MONTH_PADDED:
+                    next = readDigits(text, pos, end, 2);
+                    month = readValue(text, pos, next);
+                    break;
+
+                case MONTH_NAME:
+                case MONTH_SHORT:
+                    next = -1;
+
+                    for (int m = 1; m <= 12 && next == -1; ++m) {
+                        next = matchIgnoreCase(text, pos, end, token == MONTH_NAME ? Month.getName(m) : Month.getShortForm(m));
+                        month = m;
+                    }
+                    break;
+
+                case YEAR:
+                case YEAR_PADDED:
+                    /* Leave two digits for each day or month directly after, such as in 20170312 */
+                    next = Math.max(pos, readDigits(text, pos, end, YEAR_DIGITS + reserved[i]) - reserved[i]);
+                    year = readValue(text, pos, next);
+                    break;
+
+                case DOW_NAME:
+                case DOW_SHORT:
+                default:
+                    next = -1;
+
+                    for (int d = 1; d <= 7 && next == -1; ++d) {
+                        Day name = Day.getDayOfWeek(d);
+                        next = matchIgnoreCase(text, pos, end, token == DOW_NAME ? name.getName() : name.getShortForm());
+                        dow = d;
+                    }
+            }
+
+            if (next == -1 || (next == pos && token != LITERAL)) {
+                throw new RuntimeException(String.format("Unable to parse date '%s' at index %d",
+                        text.subSequence(start, end), pos - start));
+            }
+
+            pos = next;
+        }
+
+        if (pos != end) {
+            throw new RuntimeException(String.format("Unable to parse date '%s', unexpected text at index %d",
+                    text.subSequence(start, end), pos - start));
+        } else if (day == -1 || month == -1 || year == -1) {
+            throw new RuntimeException("Format does not contain a day, month and year to parse");
+        }
+
+        Year.checkRange(year);
+        /* No month check since Day.checkRange does the same check */
+        Day.checkRange(year, month, day);
+
+        if (dow != -1 && Day.dayOfWeek(year, month, day) != Day.getDayOfWeek(dow)) {
+            throw new RuntimeException(String.format("%s is not the day of the week of %d/%d/%d",
+                    Day.getDayOfWeek(dow).getName(), year, month, day));
+        }
+
+        return (Date.toDateVal(year, month, day));
+    }
+
+    /**
+     *  Views part of a char array as a char sequence reused by the current thread.
+     * @param text  the char array
+     * @param start the index of the first char
+     * @param end   the index after the last char
+     * @return the reused view of the array
+     */
+    static CharSequence wrap(char[] text, int start, int end) {
+        return (CHARS.get().set(text, null, start, end));
+    }
+
+    /**
+     *  Views part of an ASCII byte array as a char sequence reused by the current thread.
+     * @param text  the byte array
+     * @param start the index of the first byte
+     * @param end   the index after the last byte
+     * @return the reused view of the array
+     */
+    static CharSequence wrap(byte[] text, int start, int end) {
+        return (BYTES.get().set(null, text, start, end));
+    }
+
+    /**
+     *  Matches the literal text exactly.
+     * @param text    the text being parsed
+     * @param pos     the index to match at
+     * @param end     the end of the text being parsed
+     * @param literal the literal to match
+     * @return the index after the literal or -1 if it does not match
+     */
+    private static int matchLiteral(CharSequence text, int pos, int end, String literal) {
+        if (end - pos < literal.length()) {
+            return (-1);
+        }
+
+        for (int i = 0; i < literal.length(); ++i) {
+            if (text.charAt(pos + i) != literal.charAt(i)) {
+                return (-1);
+            }
+        }
+
+        return (pos + literal.length());
+    }
+
+    /**
+     *  Matches the name ignoring case.
+     * @param text the text being parsed
+     * @param pos  the index to match at
+     * @param end  the end of the text being parsed
+     * @param name the name to match
+     * @return the index after the name or -1 if it does not match
+     */
+    private static int matchIgnoreCase(CharSequence text, int pos, int end, String name) {
+        if (end - pos < name.length()) {
+            return (-1);
+        }
+
+        for (int i = 0; i < name.length(); ++i) {
+            if (Character.toLowerCase(text.charAt(pos + i)) != Character.toLowerCase(name.charAt(i))) {
+                return (-1);
+            }
+        }
+
+        return (pos + name.length());
+    }
+
+    /**
+     *  Finds the end of a run of digits.
+     * @param text the text being parsed
+     * @param pos  the index of the first digit
+     * @param end  the end of the text being parsed
+     * @param max  the most digits to read
+     * @return the index after the last digit
+     */
+    private static int readDigits(CharSequence text, int pos, int end, int max) {
+        int limit = Math.min(end, pos + max);
+        char c;
+
+        while (pos < limit && (c = text.charAt(pos)) >= '0' && c <= '9') {
+            ++pos;
+        }
+
+        return (pos);
+    }
+
+    /**
+     *  Reads the value of a run of digits found by {@link #readDigits(CharSequence, int, int, int)}.
+     * @param text  the text being parsed
+     * @param start the index of the first digit
+     * @param end   the index after the last digit
+     * @return the value of the digits
+     */
+    private static int readValue(CharSequence text, int start, int end) {
+        int value = 0;
+
+        for (int i = start; i < end; ++i) {
+            value = value * 10 + (text.charAt(i) - '0');
+        }
+
+        return (value);
+    }
+
+    /**
+     *  A char sequence over part of a char array or an ASCII byte array,
+     * reused between calls by a single thread.
+     */
+    private static final class ArraySequence implements CharSequence {
+
+        /** The chars being viewed, null if viewing bytes. */
+        private char[] chars;
+
+        /** The bytes being viewed, null if viewing chars. */
+        private byte[] bytes;
+
+        /** The index of the first element viewed. */
+        private int offset;
+
+        /** The number of elements viewed. */
+        private int length;
+
+        /**
+         *  Points the view at a new array.
+         * @param chars the chars to view, or null
+         * @param bytes the bytes to view, or null
+         * @param start the index of the first element
+         * @param end   the index after the last element
+         * @return this view
+         */
+        ArraySequence set(char[] chars, byte[] bytes, int start, int end) {
+            int size = (chars != null ? chars.length : bytes.length);
+
+            if (start < 0 || end > size || start > end) {
+                throw new IndexOutOfBoundsException(String.format("Range [%d, %d) out of bounds for length %d",
+                        start, end, size));
+            }
+
+            this.chars = chars;
+            this.bytes = bytes;
+            this.offset = start;
+            this.length = end - start;
+            return (this);
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (chars != null ? chars[offset + index] : (char)(bytes[offset + index] & 0xFF));
+        }
+
+        @Override
+        public int length() {
+            return (length);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return (toString().substring(start, end));
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(length);
+
+            for (int i = 0; i < length; ++i) {
+                sb.append(charAt(i));
+            }
+
+            return (sb.toString());
+        }
+    }
+}
@@ -38,6 +38,21 @@ public final class Date implements Comparable<Date> {
      */
     private final int date_val;
 
+    /**
+     *  The number of days from 0000/03/01, the start of the first 400 year cycle
+     * when years are considered to start in March, to 1970/01/01.
+     */
+    private static final long EPOCH_OFFSET = 719468;
+
+    /** The number of days in a 400 year cycle of the calendar. */
+    private static final int DAYS_PER_CYCLE = 146097;
+
+    /** The epoch day of 0000/01/01, the earliest date that can be stored. */
+    public static final long MIN_EPOCH_DAY = toEpochDay(toDateVal(0, 1, 1));
+
+    /** The epoch day of the last day of {@link Year#MAX_YEAR}, the latest date that can be stored. */
+    public static final long MAX_EPOCH_DAY = toEpochDay(toDateVal(Year.MAX_YEAR, 12, 31));
+
     /**
      *  Creates a date object.
      * @param date_val the compressed date value to store
@@ -58,38 +73,32 @@ public final class Date implements Comparable<Date> {
      * @return the days between dates (inclusive)
      */
     public static int daysBetween(Date a, Date b) {
-        /* The count of days */
-        int days;
-
-        if (a.compareTo(b) > 0) {
-            /* Reverse the dates since the second date comes before the first */
-            days = daysBetween(b, a);
-        } else {
-            /* Values related to the first date */
-            int y1 = a.getYear(), m1 = a.getMonthNumber(), d1 = a.getDay();
-
-            /* Values related to the second date*/
-            int y2 = b.getYear(), m2 = b.getMonthNumber(), d2 = b.getDay();
-
-            if (y1 == y2) {
-                days = d2 - d1 + 1;
-
-                // if the years are the same then you only need to consider if the months vary
-                if (m1 != m2) {
-                    days += Month.getDaysBetweenStart(m1, m2, Year.isLeapYear(y1));
-                }
-            } else {
-                days = Month.getDaysFromEndOfYear(m1, Year.isLeapYear(y1)) - d1 + 1
-                        + Month.getDaysFromStartOfYear(m2, Year.isLeapYear(y2)) + d2;
-
-                // Add all the years that are between year of the lower and upper date (exclusive)
-                for (int ys = y1 + 1; ys < y2; ++ys) {
-                    days += (Year.isLeapYear(ys) ? 366 : 365);
-                }
-            }
-        }
+        return (daysBetween(a.date_val, b.date_val));
+    }
 
-        return (days);
+    /**
+     *  Finds the number of days between two date values. It is inclusive and the
+     * order of the values does not matter.
+     * @param a the first date value
+     * @param b the second date value
+     * @return the days between date values (inclusive)
+     */
+    public static int daysBetween(int a, int b) {
+        return ((int)Math.abs(toEpochDay(b) - toEpochDay(a)) + 1);
+    }
+
+    /**
+     *  Finds the number of days between each pair of date values at the same index
+     * in the given arrays, storing the inclusive count in the result array.
+     * @throws IndexOutOfBoundsException if either date array is shorter than the result
+     * @param a      the first date values
+     * @param b      the second date values
+     * @param result the array to store the days between in
+     */
+    public static void daysBetween(int[] a, int[] b, int[] result) {
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = daysBetween(a[i], b[i]);
+        }
     }
 
     /** @return the day of the week this date represents */
@@ -97,6 +106,29 @@ public final class Date implements Comparable<Date> {
         return (Day.dayOfWeek(getYear(), getMonthNumber(), getDay()));
     }
 
+    /**
+     *  Gets the date value of the day that is the given number of days from
+     * 1970/01/01. Runs in constant time no matter how far the day is from the epoch.
+     * @param epochDay the number of days from 1970/01/01
+     * @return the date value of the day
+     */
+    public static int epochDayToDateVal(long epochDay) {
+        long z = epochDay + EPOCH_OFFSET;
+        long era = Math.floorDiv(z, DAYS_PER_CYCLE);
+        int doe = (int)(z - era * DAYS_PER_CYCLE);
+
+        /* Year, day of year and month of the cycle with years starting in March */
+        int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        int mp = (5 * doy + 2) / 153;
+
+        int day = doy - (153 * mp + 2) / 5 + 1;
+        int month = (mp < 10 ? mp + 3 : mp - 9);
+        long year = era * 400 + yoe + (month <= 2 ? 1 : 0);
+
+        return (toDateVal((int)year, month, day));
+    }
+
     /** @return the date formatted by the default formatter */
     public String format() {
         return (formatter.get().format(this));
@@ -114,7 +146,7 @@ public final class Date implements Comparable<Date> {
     /**
      * @return the date value stored by this date
      */
-    protected int getDateVal() {
+    public int getDateVal() {
         return (date_val);
     }
 
@@ -129,7 +161,7 @@ public final class Date implements Comparable<Date> {
      * @param date_val the date value to get the day from
      * @return the day represented in this date value
      */
-    private static int getDay(int date_val) {
+    public static int getDay(int date_val) {
         return (date_val & 0x1F);
     }
 
@@ -158,7 +190,7 @@ public final class Date implements Comparable<Date> {
      * @param date_val the date value to get the month number from
      * @return the month number represented in this date value
      */
-    private static int getMonthNumber(int date_val) {
+    public static int getMonthNumber(int date_val) {
         return ((date_val >>> 5) & 0xF);
     }
 
@@ -173,7 +205,7 @@ public final class Date implements Comparable<Date> {
      * @param date_val the date value to get the year from
      * @return the year represented in this date value
      */
-    private static int getYear(int date_val) {
+    public static int getYear(int date_val) {
         return (date_val >>> 9);
     }
 
@@ -184,6 +216,22 @@ public final class Date implements Comparable<Date> {
         return (Year.isLeapYear(getYear()));
     }
 
+    /**
+     *  Gets the date that is the given number of days from 1970/01/01. The date
+     * is retrieved through {@link DateManager#getDate(int)}.
+     * @throws RuntimeException if the day is before 0000/01/01 or past the end of {@link Year#MAX_YEAR}
+     * @param epochDay the number of days from 1970/01/01
+     * @return the date of the day
+     */
+    public static Date ofEpochDay(long epochDay) {
+        if (epochDay < MIN_EPOCH_DAY || epochDay > MAX_EPOCH_DAY) {
+            throw new RuntimeException(String.format("%d is not a valid epoch day (%d <= day <= %d)",
+                    epochDay, MIN_EPOCH_DAY, MAX_EPOCH_DAY));
+        }
+
+        return (DateManager.getDate(epochDayToDateVal(epochDay)));
+    }
+
     /**
      *  Sets the default formatter.
      * @param formatter the formatter that will be the new default
@@ -203,6 +251,34 @@ public final class Date implements Comparable<Date> {
         return ((year << 9) | (month << 5) | day);
     }
 
+    /**
+     * @return the number of days from 1970/01/01 to this date
+     */
+    public long toEpochDay() {
+        return (toEpochDay(date_val));
+    }
+
+    /**
+     *  Gets the number of days from 1970/01/01 to the date the date value
+     * represents. Runs in constant time no matter how far the date is from
+     * the epoch.
+     * @param date_val the date value
+     * @return the number of days from 1970/01/01
+     */
+    public static long toEpochDay(int date_val) {
+        int month = getMonthNumber(date_val);
+        int day = getDay(date_val);
+
+        /* Years are considered to start in March so the leap day is the last day of the year */
+        long year = getYear(date_val) - (month <= 2 ? 1 : 0);
+        long era = Math.floorDiv(year, 400);
+        int yoe = (int)(year - era * 400);
+        int doy = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+
+        return (era * DAYS_PER_CYCLE + doe - EPOCH_OFFSET);
+    }
+
     @Override
     public String toString() {
         return (format());
@@ -6,31 +6,124 @@ package ehist.mem.date;
  * </p><p>
  * Date : March 12, 2017
  * </p><p>
- * TODO Description here
+ *  Operations for moving dates forwards and backwards in time. Years and
+ * months are added first, if the day does not exist in the resulting month
+ * the date is clamped to the end of that month (January 31st plus a month is
+ * the last day of February). Weeks and days are then added using the epoch day
+ * of the date so the cost does not depend on the number of days added.
+ * </p><p>
+ *  The methods working on <tt>int[]</tt> shift arrays of date values (see
+ * {@link Date#getDateVal()}) in place without creating a {@link Date} for
+ * each element.
  * </p>
  *
+ * @see Date
+ * @since EHist 1.0
+ *
  * @author Michael van Dyk
  */
 public class DateArithmetic {
 
+    /**
+     *  Adds the given amounts of time to a date, any amount can be negative.
+     * The date is retrieved through {@link DateManager#getDate(int)}.
+     * @throws RuntimeException if the resulting year is out of range
+     * @param date   the date to add to
+     * @param years  the years to add
+     * @param months the months to add
+     * @param weeks  the weeks to add
+     * @param days   the days to add
+     * @return the date after adding the time
+     */
     public static Date add(Date date, int years, int months, int weeks, int days) {
-        int new_year = date.getYear() + years;
-        int current_month = date.getMonthNumber();
-        int new_month = current_month + months;
-        int new_days = 7 * weeks + days + date.getDay();
-
-        //TODO reduce days
-
-        //TODO reduce months
-        if (new_month > 0) {
-            new_year += (new_month - 1) / 12;
-            new_month = ((new_month - 1) % 12) + 1;
-        } else {
-            new_year += new_month/12 - 1;
-            new_month = new_month + 12 * (-new_month/12 + 1);
+        return (DateManager.getDate(add(date.getDateVal(), years, months, weeks, days)));
+    }
+
+    /**
+     *  Adds the given amounts of time to a date value, any amount can be negative.
+     * @throws RuntimeException if the resulting year is out of range
+     * @param date_val the date value to add to
+     * @param years    the years to add
+     * @param months   the months to add
+     * @param weeks    the weeks to add
+     * @param days     the days to add
+     * @return the date value after adding the time
+     */
+    public static int add(int date_val, int years, int months, int weeks, int days) {
+        return (addDays(addMonths(date_val, 12L * years + months), 7L * weeks + days));
+    }
+
+    /**
+     *  Adds days to each of the date values in place.
+     * @throws RuntimeException if a resulting year is out of range
+     * @param dateVals the date values to shift
+     * @param days     the days to add, can be negative
+     */
+    public static void addDays(int[] dateVals, int days) {
+        for (int i = 0; i < dateVals.length; ++i) {
+            dateVals[i] = addDays(dateVals[i], days);
+        }
+    }
+
+    /**
+     *  Adds days to a date value.
+     * @throws RuntimeException if the resulting year is out of range
+     * @param date_val the date value to add to
+     * @param days     the days to add, can be negative
+     * @return the date value after adding the days
+     */
+    public static int addDays(int date_val, long days) {
+        if (days == 0) {
+            return (date_val);
+        }
+
+        long epochDay = Date.toEpochDay(date_val) + days;
+
+        if (epochDay < Date.MIN_EPOCH_DAY || epochDay > Date.MAX_EPOCH_DAY) {
+            throw new RuntimeException(String.format("Adding %d days to %d/%d/%d is out of range", days,
+                    Date.getYear(date_val), Date.getMonthNumber(date_val), Date.getDay(date_val)));
         }
 
-        return (null);
+        return (Date.epochDayToDateVal(epochDay));
+    }
+
+    /**
+     *  Adds months to each of the date values in place, clamping to the end
+     * of the month where needed.
+     * @throws RuntimeException if a resulting year is out of range
+     * @param dateVals the date values to shift
+     * @param months   the months to add, can be negative
+     */
+    public static void addMonths(int[] dateVals, int months) {
+        for (int i = 0; i < dateVals.length; ++i) {
+            dateVals[i] = addMonths(dateVals[i], months);
+        }
     }
 
+    /**
+     *  Adds months to a date value, clamping to the end of the month where needed.
+     * @throws RuntimeException if the resulting year is out of range
+     * @param date_val the date value to add to
+     * @param months   the months to add, can be negative
+     * @return the date value after adding the months
+     */
+    public static int addMonths(int date_val, long months) {
+        if (months == 0) {
+            return (date_val);
+        }
+
+        /* Months counted from zero so the year and month fall out of a floored division */
+        long total = 12L * Date.getYear(date_val) + (Date.getMonthNumber(date_val) - 1) + months;
+        long new_year = Math.floorDiv(total, 12);
+        int new_month = Math.floorMod(total, 12) + 1;
+
+        if (new_year < 0 || new_year > Year.MAX_YEAR) {
+            throw new RuntimeException(String.format("%d is not a valid year (0 <= year <= %d)", new_year, Year.MAX_YEAR));
+        }
+
+        int day = Math.min(Date.getDay(date_val),
+                Month.getMonth(new_month).getDays(Year.isLeapYear((int)new_year)));
+
+        return (Date.toDateVal((int)new_year, new_month, day));
+    }
 }
@@ -0,0 +1,135 @@
+package ehist.mem.date;
+
+/**
+ * <p>
+ * === DateDigits Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Writes the numbers and names of a date into byte arrays as ASCII without
+ * creating any objects. Used by the {@link DateFormatter} implementations.
+ * Values are expected to be non negative, which all date fields are.
+ * </p>
+ *
+ * @see DateFormatter
+ * @since EHist 1.0
+ *
+ * @author Michael van Dyk
+ */
+final class DateDigits {
+
+    /** Not to be instantiated. */
+    private DateDigits() { }
+
+    /**
+     * @param value the non negative value
+     * @return the number of decimal digits in the value
+     */
+    static int digits(int value) {
+        int digits = 1;
+
+        while (value >= 10) {
+            value /= 10;
+            ++digits;
+        }
+
+        return (digits);
+    }
+
+    /**
+     *  Writes the characters of the string, characters outside of ASCII are
+     * written as '?'.
+     * @param buf    the array to write to
+     * @param offset the index to start writing at
+     * @param str    the string to write
+     * @return the index after the last byte written
+     */
+    static int writeAscii(byte[] buf, int offset, String str) {
+        for (int i = 0; i < str.length(); ++i) {
+            char c = str.charAt(i);
+            buf[offset++] = (byte)(c < 0x80 ? c : '?');
+        }
+
+        return (offset);
+    }
+
+    /**
+     *  Writes the decimal digits of the value.
+     * @param buf    the array to write to
+     * @param offset the index to start writing at
+     * @param value  the non negative value to write
+     * @return the index after the last byte written
+     */
+    static int writeInt(byte[] buf, int offset, int value) {
+        int end = offset + digits(value);
+
+        for (int i = end - 1; i >= offset; --i) {
+            buf[i] = (byte)('0' + value % 10);
+            value /= 10;
+        }
+
+        return (end);
+    }
+
+    /**
+     *  Writes the decimal digits of the value so single digit values are lead
+     * with a zero.
+     * @param buf    the array to write to
+     * @param offset the index to start writing at
+     * @param value  the non negative value to write
+     * @return the index after the last byte written
+     */
+    static int writePadded(byte[] buf, int offset, int value) {
+        if (value < 10) {
+            buf[offset++] = '0';
+        }
+
+        return (writeInt(buf, offset, value));
+    }
+
+    /**
+     *  Writes the characters of the string.
+     * @param buf    the array to write to
+     * @param offset the index to start writing at
+     * @param str    the string to write
+     * @return the index after the last char written
+     */
+    static int writeChars(char[] buf, int offset, String str) {
+        str.getChars(0, str.length(), buf, offset);
+        return (offset + str.length());
+    }
+
+    /**
+     *  Writes the decimal digits of the value.
+     * @param buf    the array to write to
+     * @param offset the index to start writing at
+     * @param value  the non negative value to write
+     * @return the index after the last char written
+     */
+    static int writeInt(char[] buf, int offset, int value) {
+        int end = offset + digits(value);
+
+        for (int i = end - 1; i >= offset; --i) {
+            buf[i] = (char)('0' + value % 10);
+            value /= 10;
+        }
+
+        return (end);
+    }
+
+    /**
+     *  Writes the decimal digits of the value so single digit values are lead
+     * with a zero.
+     * @param buf    the array to write to
+     * @param offset the index to start writing at
+     * @param value  the non negative value to write
+     * @return the index after the last char written
+     */
+    static int writePadded(char[] buf, int offset, int value) {
+        if (value < 10) {
+            buf[offset++] = '0';
+        }
+
+        return (writeInt(buf, offset, value));
+    }
+}
@@ -1,5 +1,8 @@
 package ehist.mem.date;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
 /**
  * <p>
  * === DateFormatter ===
@@ -10,6 +13,10 @@ package ehist.mem.date;
  * to {@link DateFormatter#format(Date)} will return the formatted string.
  * </p><p>
  *     Several pre-made <tt>DateFormatter</tt> methods are available in this interface.
+ * </p><p>
+ *     The <tt>formatTo</tt> methods write the date straight into an existing output. The
+ * pre-made formatters and those from {@link #createFormatter(String)} do so without
+ * creating any objects, which is meant for streaming a large number of dates.
  * </p>
  *
  * @see Date
@@ -27,75 +34,110 @@ public interface DateFormatter {
      */
     String format(Date date);
 
+    /**
+     *  Appends the formatted date to the string builder.
+     * @param date the date to format
+     * @param sb   the string builder to append to
+     */
+    default void formatTo(Date date, StringBuilder sb) {
+        sb.append(format(date));
+    }
+
+    /**
+     *  Appends the formatted date to the output.
+     * @param date the date to format
+     * @param out  the output to append to
+     * @throws IOException if the output fails to append
+     */
+    default void formatTo(Date date, Appendable out) throws IOException {
+        out.append(format(date));
+    }
+
+    /**
+     *  Writes the formatted date into the array as ASCII, characters outside
+     * of ASCII are written as '?'.
+     * @throws ArrayIndexOutOfBoundsException if the array does not have room for the date
+     * @param date   the date to format
+     * @param buf    the array to write to
+     * @param offset the index to start writing at
+     * @return the index after the last byte written
+     */
+    default int formatTo(Date date, byte[] buf, int offset) {
+        return (DateDigits.writeAscii(buf, offset, format(date)));
+    }
+
+    /**
+     *  Writes the formatted date into the buffer as ASCII at its position,
+     * characters outside of ASCII are written as '?'. The position is advanced
+     * past the written date.
+     * @throws java.nio.BufferOverflowException if the buffer does not have room for the date
+     * @param date the date to format
+     * @param buf  the buffer to write to
+     */
+    default void formatTo(Date date, ByteBuffer buf) {
+        String str = format(date);
+
+        for (int i = 0; i < str.length(); ++i) {
+            char c = str.charAt(i);
+            buf.put((byte)(c < 0x80 ? c : '?'));
+        }
+    }
+
     /**
      * Formats the date by day/month/year.
      */
-    DateFormatter DAY_MONTH_YEAR = (Date date) ->
-            (String.format("%d/%d/%d", date.getDay(), date.getMonthNumber(), date.getYear()));
+    DateFormatter DAY_MONTH_YEAR = new CustomDateFormatter("$d$/$m$/$y$");
 
     /**
      * Formats the date by day/month/year, month and day are formatted to have a leading zero if a single digit.
      */
-    DateFormatter DD_MM_YEAR = (Date date) ->
-            (String.format("%02d/%02d/%d", date.getDay(), date.getMonthNumber(), date.getYear()));
+    DateFormatter DD_MM_YEAR = new CustomDateFormatter("$dd$/$mm$/$y$");
 
     /**
      * Formats the date by day/month/year, all are formatted to have a leading zero if a single digit.
      */
-    DateFormatter DD_MM_YY = (Date date) ->
-            (String.format("%02d/%02d/%02d", date.getDay(), date.getMonthNumber(), date.getYear()));
+    DateFormatter DD_MM_YY = new CustomDateFormatter("$dd$/$mm$/$yy$");
 
     /**
      * Formats the date similar to 'Sunday, March 12, 2017'.
      */
-    DateFormatter DOW_MONTH_DAY_YEAR = (Date date) ->
-            (String.format("%s, %s %d, %d", date.dayOfWeek().getName(), date.getMonth().getName(),
-                    date.getDay(), date.getYear()));
+    DateFormatter DOW_MONTH_DAY_YEAR = new CustomDateFormatter("$W$, $M$ $d$, $y$");
 
     /**
      * Formats the date similar to 'Sunday, March 12th, 2017'.
      */
-    DateFormatter DOW_MONTH_DAY_TH_YEAR = (Date date) ->
-            (String.format("%s, %s %s, %d", date.dayOfWeek().getName(), date.getMonth().getName(),
-                    Day.formatNumber(date.getDay()), date.getYear()));
+    DateFormatter DOW_MONTH_DAY_TH_YEAR = new CustomDateFormatter("$W$, $M$ $D$, $y$");
 
     /**
      * Formats the date similar to 'Sun, Mar 12, 2017'.
      */
-    DateFormatter SHORT_DOW_MONTH_DAY_YEAR = (Date date) ->
-            (String.format("%s, %s %d, %d", date.dayOfWeek().getShortForm(), date.getMonth().getShortForm(),
-                    date.getDay(), date.getYear()));
+    DateFormatter SHORT_DOW_MONTH_DAY_YEAR = new CustomDateFormatter("$Ws$, $Ms$ $d$, $y$");
 
     /**
      * Formats the date similar to 'Sun, Mar 12th, 2017'.
      */
-    DateFormatter SHORT_DOW_MONTH_DAY_TH_YEAR = (Date date) ->
-            (String.format("%s, %s %s, %d", date.dayOfWeek().getShortForm(), date.getMonth().getShortForm(),
-                    Day.formatNumber(date.getDay()), date.getYear()));
+    DateFormatter SHORT_DOW_MONTH_DAY_TH_YEAR = new CustomDateFormatter("$Ws$, $Ms$ $D$, $y$");
 
     /**
      * Formats the date by year/month/day, month and day are formatted to have a leading zero if a single digit.
      */
-    DateFormatter YEAR_MM_DD = (Date date) ->
-            (String.format("%d/%02d/%02d", date.getYear(), date.getMonthNumber(), date.getDay()));
+    DateFormatter YEAR_MM_DD = new CustomDateFormatter("$y$/$mm$/$dd$");
 
     /**
      * Formats the date by year/month/day.
      */
-    DateFormatter YEAR_MONTH_DAY = (Date date) ->
-            (String.format("%d/%d/%d", date.getYear(), date.getMonthNumber(), date.getDay()));
+    DateFormatter YEAR_MONTH_DAY = new CustomDateFormatter("$y$/$m$/$d$");
 
     /**
      * Formats the date by year/month/day, all are formatted to have a leading zero if a single digit.
      */
-    DateFormatter YY_MM_DD = (Date date) ->
-            (String.format("%02d/%02d/%02d", date.getYear(), date.getMonthNumber(), date.getDay()));
+    DateFormatter YY_MM_DD = new CustomDateFormatter("$yy$/$mm$/$dd$");
 
     /**
      * <p>
      *     Creates a DateFormatter that will follow the rules of the given string to display the date.
-     *   If you know how to create a DateFormatter without using this method, do so as it will create a
-     *   likely quicker method of formatting.
+     *   The string is parsed once when the formatter is created, the pre-made formatters are created
+     *   the same way.
      * </p>
      * <p>
      *  The string can use the special format keys:
@@ -0,0 +1,217 @@
+package ehist.mem.date;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * <p>
+ * === DateInternTable Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  A concurrent table of reference counted {@link Date} objects keyed by the
+ * primitive date value, laid out as a {@link SegmentedDateTable}. Lookups
+ * never lock and never allocate, a hit is a probe of the segment array
+ * followed by a compare and set on the reference count of the found entry.
+ * </p><p>
+ *  An entry whose count has dropped to zero can no longer be acquired
+ * without the segment lock. This closes the race between a lookup and the
+ * removal of the same date: the removing thread only clears the slot if the
+ * count is still zero once it holds the lock, and a locked lookup revives the
+ * entry instead of creating a second instance.
+ * </p>
+ *
+ * @see DateManager
+ * @since EHist 1.0
+ *
+ * @author Michael van Dyk
+ */
+final class DateInternTable extends SegmentedDateTable<DateInternTable.DateReferenceCounter> {
+
+    /** Marks a slot whose entry was removed so probing continues past it. */
+    private static final DateReferenceCounter TOMBSTONE = new DateReferenceCounter(-1, null);
+
+    /**
+     *  Creates an empty table.
+     */
+    DateInternTable() {
+        super(TOMBSTONE);
+    }
+
+    /**
+     *  Attempts to find and acquire an already stored date without locking.
+     * @param date_val the date value of the date
+     * @return the stored date, or null if the date has to go through {@link #intern(int)}
+     */
+    Date acquire(int date_val) {
+        int hash = hash(date_val);
+        DateReferenceCounter found = segmentFor(hash).find(date_val, hash);
+
+        return ((found != null && found.tryInc()) ? found.date : null);
+    }
+
+    /**
+     *  Acquires the date for the given date value, storing a new date if one
+     * does not exist. The date value is expected to be valid. Stores even while
+     * the table is closed, for the dates of the dense window.
+     * @param date_val the date value of the date
+     * @return the stored date
+     */
+    Date intern(int date_val) {
+        return (intern(date_val, false));
+    }
+
+    /**
+     *  Acquires the date for the given date value as {@link #intern(int)}
+     * does, unless the table is closed.
+     * @param date_val the date value of the date
+     * @return the stored date, or null if the table is closed
+     */
+    Date internIfOpen(int date_val) {
+        return (intern(date_val, true));
+    }
+
+    /**
+     * @param date_val the date value of the date
+     * @param if_open  if nothing is stored while the table is closed
+     * @return the stored date, or null if closed and only storing while open
+     */
+    private Date intern(int date_val, boolean if_open) {
+        int hash = hash(date_val);
+        Segment segment = segmentFor(hash);
+
+        synchronized (segment) {
+            DateReferenceCounter e = segment.find(date_val, hash);
+
+            if (e != null) {
+                /* Only possible to revive a zero count entry while locked */
+                e.inc();
+                return (e.date);
+            } else if (if_open && isClosed()) {
+                return (null);
+            }
+
+            segment.put(e = new DateReferenceCounter(date_val, new Date(date_val)), hash);
+            return (e.date);
+        }
+    }
+
+    /**
+     *  Finds an already stored date without acquiring it or locking.
+     * @param date_val the date value of the date
+     * @return the stored date, or null if not stored
+     */
+    Date peek(int date_val) {
+        int hash = hash(date_val);
+        DateReferenceCounter found = segmentFor(hash).find(date_val, hash);
+
+        return ((found != null && found.count > 0) ? found.date : null);
+    }
+
+    /**
+     *  Releases a date acquired from this table. Once every acquisition is
+     * released the date is removed from the table.
+     * @param date_val the date value of the date
+     * @return false if the date was not stored or was released more times than acquired
+     */
+    boolean release(int date_val) {
+        int hash = hash(date_val);
+        Segment segment = segmentFor(hash);
+        DateReferenceCounter found = segment.find(date_val, hash);
+
+        if (found == null) {
+            return (false);
+        }
+
+        int count = found.dec();
+
+        if (count == 0) {
+            synchronized (segment) {
+                /* Only removed if no one has acquired it since the count reached zero */
+                if (found.count == 0) {
+                    segment.remove(found, hash);
+                }
+            }
+        }
+
+        return (count >= 0);
+    }
+
+    @Override
+    int dateValOf(DateReferenceCounter entry) {
+        return (entry.date_val);
+    }
+
+    @Override
+    boolean isKept(DateReferenceCounter entry) {
+        return (true);
+    }
+
+    /**
+     *  Holds a stored date and the number of outstanding acquisitions of it.
+     */
+    static final class DateReferenceCounter {
+
+        /** Updater for the count, avoids an atomic object per entry. */
+        private static final AtomicIntegerFieldUpdater<DateReferenceCounter> COUNT =
+                AtomicIntegerFieldUpdater.newUpdater(DateReferenceCounter.class, "count");
+
+        /** The date value of the stored date. */
+        private final int date_val;
+
+        /** The stored date. */
+        private final Date date;
+
+        /** The number of outstanding acquisitions. */
+        private volatile int count;
+
+        /**
+         *  Creates a counter that has been acquired once.
+         * @param date_val the date value of the date
+         * @param date     the date to store
+         */
+        DateReferenceCounter(int date_val, Date date) {
+            this.date_val = date_val;
+            this.date = date;
+            this.count = 1;
+        }
+
+        /**
+         *  Increments the count unless it has already dropped to zero.
+         * @return if the count was incremented
+         */
+        boolean tryInc() {
+            int c;
+
+            while ((c = count) > 0) {
+                if (COUNT.compareAndSet(this, c, c + 1)) {
+                    return (true);
+                }
+            }
+
+            return (false);
+        }
+
+        /**
+         *  Increments the count, only to be used while holding the segment lock.
+         */
+        void inc() {
+            COUNT.incrementAndGet(this);
+        }
+
+        /**
+         *  Decrements the count unless it has already dropped to zero.
+         * @return the new count, or -1 if the count was already zero
+         */
+        int dec() {
+            int c;
+
+            while ((c = count) > 0) {
+                if (COUNT.compareAndSet(this, c, c - 1)) {
+                    return (c - 1);
+                }
+            }
+
+            return (-1);
+        }
+    }
+}
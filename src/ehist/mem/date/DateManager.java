@@ -1,7 +1,6 @@
 package ehist.mem.date;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * <p>
@@ -9,9 +8,32 @@ import java.util.Map;
  * </p><p>
  * Date : April 26, 2017
  * </p><p>
- * TODO Description here
+ *  Hands out the shared {@link Date} instances. Each call to
+ * {@link #getDate(int, int, int)} acquires a reference to the date and each call
+ * to {@link #removeDate(Date)} releases one, once all references are released
+ * the date is no longer stored. All methods are safe to call from multiple
+ * threads and a lookup of an already stored date does not lock or allocate.
+ * </p><p>
+ *  A window of years can be made dense with {@link #setDenseYears(int, int, boolean)},
+ * dates within the window are looked up with a single array load and are never
+ * released, {@link #removeDate(Date)} does nothing for them. Dates outside of the
+ * window are counted as described above.
+ * </p><p>
+ *  Instead of counting, dates outside of the dense window can be released by
+ * the garbage collector once nothing refers to them, see
+ * {@link #setWeakEviction(boolean)}. In this mode {@link #removeDate(Date)} does
+ * nothing and callers do not have to pair it with each get.
+ * </p><p>
+ *  Lookups that find a stored date, lookups that have to store one and
+ * releases of dates that were not held are counted in striped counters, read
+ * through {@link #getMXBean()}.
  * </p>
  *
+ * @see DateInternTable
+ * @see DenseDateTable
+ * @see WeakDateTable
+ * @since EHist 1.0
+ *
  * @author Michael van Dyk
  */
 public enum DateManager {
@@ -21,13 +43,94 @@ public enum DateManager {
      * created again, it's current existing instance will be found in this before
      * making another Date instance with the same date.
      */
-    private final static Map<Integer, DateReferenceCounter> DATE_MAP = new HashMap<>();
+    private final static DateInternTable DATE_TABLE = new DateInternTable();
+
+    /** The most years a dense window can have, each year takes 512 array slots. */
+    public final static int MAX_DENSE_YEARS = 1 << 16;
+
+    /** The dense window of dates, null if there is no dense window. */
+    private static volatile DenseDateTable dense_table;
+
+    /** Weakly holds the dates when evicting by garbage collection, null when counting. */
+    private static volatile WeakDateTable weak_table;
+
+    /** The estimated bytes of each stored date with its table entry. */
+    private final static int BYTES_PER_DATE = 48;
+
+    /** The number of gets that found the date already stored. */
+    private final static LongAdder HITS = new LongAdder();
+
+    /** The number of gets that had to store the date. */
+    private final static LongAdder MISSES = new LongAdder();
+
+    /** The number of removes of dates with no reference left to release. */
+    private final static LongAdder UNDERFLOWS = new LongAdder();
+
+    /** The view of the counters exported as an MXBean. */
+    private final static DateManagerMXBean MX_BEAN = new DateManagerMXBean() {
+        @Override
+        public int getDatesStored() {
+            return (datesStored());
+        }
+
+        @Override
+        public long getEstimatedBytes() {
+            DenseDateTable dense = dense_table;
+            long bytes = (long)datesStored() * BYTES_PER_DATE;
+
+            if (dense != null) {
+                bytes += (dense.getLastYear() - dense.getFirstYear() + 1L) * 512 * Integer.BYTES;
+            }
+
+            return (bytes);
+        }
+
+        @Override
+        public long getHitCount() {
+            return (HITS.sum());
+        }
+
+        @Override
+        public long getMissCount() {
+            return (MISSES.sum());
+        }
+
+        @Override
+        public long getUnderflowCount() {
+            return (UNDERFLOWS.sum());
+        }
+
+        @Override
+        public boolean isWeakEviction() {
+            return (weak_table != null);
+        }
+    };
+
+    /**
+     *  Removes the dense window. Dates already handed out from the window stay
+     * stored and should not be passed to {@link #removeDate(Date)}.
+     */
+    public static void clearDenseYears() {
+        dense_table = null;
+    }
 
     /**
      * @return the total number of Date objects stored
      */
     public static int datesStored() {
-        return (DATE_MAP.size());
+        WeakDateTable weak = weak_table;
+        return (DATE_TABLE.size() + (weak != null ? weak.size() : 0));
+    }
+
+    /**
+     *  Used to get a date object that represents the given date value (see
+     * {@link Date#getDateVal()}). Behaves the same as {@link #getDate(int, int, int)}.
+     * @throws RuntimeException if the date value is not a valid date
+     * @param date_val the date value of the date
+     * @return a Date object that represents the given date value
+     */
+    public static Date getDate(int date_val) {
+        return (getDate(Date.getYear(date_val), Date.getMonthNumber(date_val), Date.getDay(date_val)));
     }
 
     /**
@@ -56,47 +159,144 @@ public enum DateManager {
      */
     public static Date getDate(int year, int month, int day) {
         int date_val = Date.toDateVal(year, month, day);
-        DateReferenceCounter get = DATE_MAP.get(date_val);
-        Date ret;
+        DenseDateTable dense = dense_table;
+        WeakDateTable weak = weak_table;
+        Date ret = null;
+
+        /* A month or day that spills out of its bits would alias another date */
+        if (((month & ~0xF) | (day & ~0x1F)) == 0) {
+            if (dense != null && dense.contains(date_val)) {
+                ret = dense.get(date_val);
+            } else {
+                dense = null;
+                ret = (weak != null ? weak.get(date_val) : DATE_TABLE.acquire(date_val));
+            }
+        }
 
-        if (get == null) {
+        if (ret != null) {
+            HITS.increment();
+        } else {
+            MISSES.increment();
             Year.checkRange(year);
             /* No month check since Day.checkRange does the same check */
             Day.checkRange(year, month, day);
 
-            DATE_MAP.put(date_val, new DateReferenceCounter(ret = new Date(date_val)));
-        } else {
-            get.inc();
-            ret = get.date;
+            if (dense != null) {
+                ret = dense.fill(date_val, DATE_TABLE);
+            } else {
+                while ((ret = (weak != null ? weak.intern(date_val) : DATE_TABLE.internIfOpen(date_val))) == null) {
+                    /* The eviction mode changed after it was read, the table read is closed */
+                    weak = weak_table;
+                }
+            }
         }
 
         return (ret);
     }
 
+    /**
+     * @return the counters of this manager, to be registered with an MBean server
+     */
+    public static DateManagerMXBean getMXBean() {
+        return (MX_BEAN);
+    }
+
+    /**
+     *  Gets the stored date of the date value without acquiring a reference to
+     * it. Meant for holders of date values whose reference was acquired when the
+     * value was stored, such as the pay period columns of a data control. If
+     * the date is not stored it is retrieved as by {@link #getDate(int)}.
+     * @throws RuntimeException if the date value is not a valid date
+     * @param date_val the date value of the date
+     * @return a Date object that represents the given date value
+     */
+    public static Date lookupDate(int date_val) {
+        DenseDateTable dense = dense_table;
+        WeakDateTable weak = weak_table;
+        Date ret = (dense != null ? dense.get(date_val) : null);
+
+        if (ret == null) {
+            ret = (weak != null ? weak.get(date_val) : DATE_TABLE.peek(date_val));
+        }
+
+        return (ret != null ? ret : getDate(date_val));
+    }
+
+    /**
+     *  Releases a date previously returned by {@link #getDate(int, int, int)}. Once
+     * every call to get the date has been matched by a call to this the date is
+     * no longer stored.
+     * @param date the date to release
+     */
     public static void removeDate(Date date) {
-        int date_val = date.getDateVal();
-        DateReferenceCounter get = DATE_MAP.get(date_val);
+        DenseDateTable dense = dense_table;
 
-        if (get != null && get.dec() == 0) {
-            DATE_MAP.remove(date_val);
+        if (weak_table == null && (dense == null || !dense.contains(date.getDateVal()))) {
+            if (!DATE_TABLE.release(date.getDateVal())) {
+                UNDERFLOWS.increment();
+            }
         }
     }
 
-    private static class DateReferenceCounter {
-        private final Date date;
-        private int count;
+    /**
+     *  Makes the dates of the given window of years dense. Dates within the
+     * window are kept in a flat array and looked up with a single array load,
+     * they are never released. Any previous window is replaced.
+     * @throws RuntimeException if either year is out of range or the last year is before the first
+     * @param firstYear the first year of the window
+     * @param lastYear  the last year of the window
+     * @param eager     if every date of the window is created now rather than when first used
+     */
+    public static void setDenseYears(int firstYear, int lastYear, boolean eager) {
+        Year.checkRange(firstYear);
+        Year.checkRange(lastYear);
 
-        protected DateReferenceCounter(Date date) {
-            this.date = date;
-            this.count = 1;
+        if (lastYear < firstYear) {
+            throw new RuntimeException(String.format("Last year %d is before the first year %d", lastYear, firstYear));
+        } else if (lastYear - firstYear >= MAX_DENSE_YEARS) {
+            throw new RuntimeException(String.format("A dense window can have at most %d years", MAX_DENSE_YEARS));
         }
 
-        public int inc() {
-            return (++this.count);
+        DenseDateTable dense = new DenseDateTable(firstYear, lastYear);
+
+        if (eager) {
+            dense.fillAll(DATE_TABLE);
+        }
+
+        dense_table = dense;
+    }
+
+    /**
+     *  Switches between releasing dates by counting calls to {@link #removeDate(Date)}
+     * and letting the garbage collector release dates once they can no longer
+     * be reached. Collected dates are removed in bulk whenever a date is added
+     * or {@link #datesStored()} is called. The dense window is unaffected.
+     * Can only be changed while no dates are stored, so it should be set before
+     * {@link #setDenseYears(int, int, boolean)} and the first date is retrieved.
+     * The check and the switch are made with every segment of the table in use
+     * locked, a concurrent get either stores its date first and fails the
+     * switch or stores it in the table switched to.
+     * @throws RuntimeException if any dates are stored
+     * @param weak if dates are released by the garbage collector
+     */
+    public static synchronized void setWeakEviction(boolean weak) {
+        WeakDateTable current = weak_table;
+        boolean switched;
+
+        if (weak == (current != null)) {
+            return;
+        } else if (weak) {
+            WeakDateTable table = new WeakDateTable();
+            switched = DATE_TABLE.closeIfEmpty(() -> weak_table = table);
+        } else {
+            switched = current.closeIfEmpty(() -> {
+                DATE_TABLE.reopen();
+                weak_table = null;
+            });
         }
 
-        public int dec() {
-            return (--this.count);
+        if (!switched) {
+            throw new RuntimeException("The eviction mode can only be changed while no dates are stored");
         }
     }
 }
@@ -0,0 +1,52 @@
+package ehist.mem.date;
+
+/**
+ * <p>
+ * === DateManagerMXBean Interface ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  The management interface of the {@link DateManager}, how many dates it
+ * stores and how often lookups find them. The counters are striped so the
+ * lookups they count stay as cheap as without them.
+ * </p>
+ *
+ * @see DateManager#getMXBean()
+ * @since EHist 1.0
+ *
+ * @author Michael van Dyk
+ */
+public interface DateManagerMXBean {
+
+    /**
+     * @return the number of dates stored
+     * @see DateManager#datesStored()
+     */
+    int getDatesStored();
+
+    /**
+     * @return an estimate of the bytes held by the stored dates and the dense window
+     */
+    long getEstimatedBytes();
+
+    /**
+     * @return the number of gets that found the date already stored
+     */
+    long getHitCount();
+
+    /**
+     * @return the number of gets that had to store the date
+     */
+    long getMissCount();
+
+    /**
+     * @return the number of removes of a date that had no reference left to release
+     */
+    long getUnderflowCount();
+
+    /**
+     * @return if dates are released by the garbage collector rather than by counting
+     * @see DateManager#setWeakEviction(boolean)
+     */
+    boolean isWeakEviction();
+}
@@ -0,0 +1,196 @@
+package ehist.mem.date;
+
+/**
+ * <p>
+ * === DateParser ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  The inverse of a {@link DateFormatter}, reads the text of a date back into
+ * a date value (see {@link Date#getDateVal()}) or a managed {@link Date}. Text
+ * can be read from part of a <tt>CharSequence</tt>, <tt>char[]</tt> or an
+ * ASCII <tt>byte[]</tt> without creating strings, so it can be used directly
+ * on buffers read by an importer.
+ * </p><p>
+ *     There is a pre-made <tt>DateParser</tt> for each pre-made <tt>DateFormatter</tt>.
+ * Invalid text or dates throw a {@link RuntimeException}.
+ * </p>
+ *
+ * @see DateFormatter
+ * @see Date
+ *
+ * @since EHist 1.0
+ *
+ * @author Michael van Dyk
+ */
+public interface DateParser {
+
+    /**
+     *  Parses the date from part of the text. The whole range must be the date.
+     * @throws RuntimeException if the text is not a valid date
+     * @param text  the text to parse
+     * @param start the index of the first character of the date
+     * @param end   the index after the last character of the date
+     * @return the date value of the parsed date
+     */
+    int parseDateVal(CharSequence text, int start, int end);
+
+    /**
+     *  Parses the date from the text. The whole text must be the date.
+     * @throws RuntimeException if the text is not a valid date
+     * @param text the text to parse
+     * @return the date value of the parsed date
+     */
+    default int parseDateVal(CharSequence text) {
+        return (parseDateVal(text, 0, text.length()));
+    }
+
+    /**
+     *  Parses the date from part of the char array. The whole range must be the date.
+     * @throws RuntimeException if the text is not a valid date
+     * @param text  the chars to parse
+     * @param start the index of the first character of the date
+     * @param end   the index after the last character of the date
+     * @return the date value of the parsed date
+     */
+    default int parseDateVal(char[] text, int start, int end) {
+        return (parseDateVal(CustomDateParser.wrap(text, start, end), 0, end - start));
+    }
+
+    /**
+     *  Parses the date from part of an ASCII byte array. The whole range must be the date.
+     * @throws RuntimeException if the text is not a valid date
+     * @param text  the bytes to parse
+     * @param start the index of the first byte of the date
+     * @param end   the index after the last byte of the date
+     * @return the date value of the parsed date
+     */
+    default int parseDateVal(byte[] text, int start, int end) {
+        return (parseDateVal(CustomDateParser.wrap(text, start, end), 0, end - start));
+    }
+
+    /**
+     *  Parses the date from the text, the date is retrieved through
+     * {@link DateManager#getDate(int)}.
+     * @throws RuntimeException if the text is not a valid date
+     * @param text the text to parse
+     * @return the parsed date
+     */
+    default Date parse(CharSequence text) {
+        return (DateManager.getDate(parseDateVal(text, 0, text.length())));
+    }
+
+    /**
+     *  Parses the date from part of the text, the date is retrieved through
+     * {@link DateManager#getDate(int)}.
+     * @throws RuntimeException if the text is not a valid date
+     * @param text  the text to parse
+     * @param start the index of the first character of the date
+     * @param end   the index after the last character of the date
+     * @return the parsed date
+     */
+    default Date parse(CharSequence text, int start, int end) {
+        return (DateManager.getDate(parseDateVal(text, start, end)));
+    }
+
+    /**
+     *  Parses the date from part of the char array, the date is retrieved through
+     * {@link DateManager#getDate(int)}.
+     * @throws RuntimeException if the text is not a valid date
+     * @param text  the chars to parse
+     * @param start the index of the first character of the date
+     * @param end   the index after the last character of the date
+     * @return the parsed date
+     */
+    default Date parse(char[] text, int start, int end) {
+        return (DateManager.getDate(parseDateVal(text, start, end)));
+    }
+
+    /**
+     *  Parses the date from part of an ASCII byte array, the date is retrieved
+     * through {@link DateManager#getDate(int)}.
+     * @throws RuntimeException if the text is not a valid date
+     * @param text  the bytes to parse
+     * @param start the index of the first byte of the date
+     * @param end   the index after the last byte of the date
+     * @return the parsed date
+     */
+    default Date parse(byte[] text, int start, int end) {
+        return (DateManager.getDate(parseDateVal(text, start, end)));
+    }
+
+    /**
+     * Parses dates formatted by {@link DateFormatter#DAY_MONTH_YEAR}.
+     */
+    DateParser DAY_MONTH_YEAR = forFormatter(DateFormatter.DAY_MONTH_YEAR);
+
+    /**
+     * Parses dates formatted by {@link DateFormatter#DD_MM_YEAR}.
+     */
+    DateParser DD_MM_YEAR = forFormatter(DateFormatter.DD_MM_YEAR);
+
+    /**
+     * Parses dates formatted by {@link DateFormatter#DD_MM_YY}.
+     */
+    DateParser DD_MM_YY = forFormatter(DateFormatter.DD_MM_YY);
+
+    /**
+     * Parses dates formatted by {@link DateFormatter#DOW_MONTH_DAY_YEAR}.
+     */
+    DateParser DOW_MONTH_DAY_YEAR = forFormatter(DateFormatter.DOW_MONTH_DAY_YEAR);
+
+    /**
+     * Parses dates formatted by {@link DateFormatter#DOW_MONTH_DAY_TH_YEAR}.
+     */
+    DateParser DOW_MONTH_DAY_TH_YEAR = forFormatter(DateFormatter.DOW_MONTH_DAY_TH_YEAR);
+
+    /**
+     * Parses dates formatted by {@link DateFormatter#SHORT_DOW_MONTH_DAY_YEAR}.
+     */
+    DateParser SHORT_DOW_MONTH_DAY_YEAR = forFormatter(DateFormatter.SHORT_DOW_MONTH_DAY_YEAR);
+
+    /**
+     * Parses dates formatted by {@link DateFormatter#SHORT_DOW_MONTH_DAY_TH_YEAR}.
+     */
+    DateParser SHORT_DOW_MONTH_DAY_TH_YEAR = forFormatter(DateFormatter.SHORT_DOW_MONTH_DAY_TH_YEAR);
+
+    /**
+     * Parses dates formatted by {@link DateFormatter#YEAR_MM_DD}.
+     */
+    DateParser YEAR_MM_DD = forFormatter(DateFormatter.YEAR_MM_DD);
+
+    /**
+     * Parses dates formatted by {@link DateFormatter#YEAR_MONTH_DAY}.
+     */
+    DateParser YEAR_MONTH_DAY = forFormatter(DateFormatter.YEAR_MONTH_DAY);
+
+    /**
+     * Parses dates formatted by {@link DateFormatter#YY_MM_DD}.
+     */
+    DateParser YY_MM_DD = forFormatter(DateFormatter.YY_MM_DD);
+
+    /**
+     *  Creates a DateParser that reads dates written with the given format string.
+     * The string uses the same format keys as {@link DateFormatter#createFormatter(String)}.
+     * @param format the format string of the dates to parse
+     * @return the DateParser that will parse dates of the given format string
+     */
+    static DateParser createParser(String format) {
+        return (new CustomDateParser(new CustomDateFormatter(format)));
+    }
+
+    /**
+     *  Gets a DateParser that reads the output of the given formatter. Only
+     * pre-made formatters and those made by {@link DateFormatter#createFormatter(String)}
+     * can be reversed.
+     * @throws RuntimeException if the formatter cannot be reversed
+     * @param formatter the formatter to parse the output of
+     * @return the DateParser that will parse the output of the formatter
+     */
+    static DateParser forFormatter(DateFormatter formatter) {
+        if (!(formatter instanceof CustomDateFormatter)) {
+            throw new RuntimeException("Only pre-made or created formatters can be reversed into a parser");
+        }
+        return (new CustomDateParser((CustomDateFormatter)formatter));
+    }
+}
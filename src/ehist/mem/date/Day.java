@@ -79,7 +79,7 @@ public enum Day {
      */
     protected static void checkRange(int year, int month, int day) {
         int days = Month.getMonth(month).getDays(Year.isLeapYear(year));
-        if (day > days || days <= 0)
+        if (day > days || day <= 0)
             throw new RuntimeException(String.format("%d is not a valid day value for %s %d (1 <= day <= %d)",
                     day, Month.getMonth(month).getName(), year, Month.getMonth(month).getDays(Year.isLeapYear(year))));
     }
@@ -120,26 +120,7 @@ public enum Day {
      * @return the formatted day
      */
     public static String formatNumber(int day) {
-        String ret;
-
-        if (day / 10 == 1) {
-            ret = (day + "th");
-        } else {
-            switch (day % 10) {
-                case 1:
-                    ret = (day + "st");
-                    break;
-                case 2:
-                    ret = (day + "nd");
-                    break;
-                case 3:
-                    ret = (day + "rd");
-                    break;
-                default:
-                    ret = (day + "th");
-            }
-        }
-        return (ret);
+        return (day + getNumberSuffix(day));
     }
 
     /**
@@ -160,6 +141,36 @@ public enum Day {
         return (long_form);
     }
 
+    /**
+     *  Gets the st, nd, rd or th that is attached to the number by
+     * {@link #formatNumber(int)}. Only certain it works for numbers in the
+     * range 1 to 31.
+     * @param day the day to get the ending for
+     * @return the ending of the day
+     */
+    public static String getNumberSuffix(int day) {
+        String ret;
+
+        if (day / 10 == 1) {
+            ret = "th";
+        } else {
+            switch (day % 10) {
+                case 1:
+                    ret = "st";
+                    break;
+                case 2:
+                    ret = "nd";
+                    break;
+                case 3:
+                    ret = "rd";
+                    break;
+                default:
+                    ret = "th";
+            }
+        }
+        return (ret);
+    }
+
     /**
      * @return the short form of the day of the week
      */
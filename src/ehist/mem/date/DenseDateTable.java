@@ -0,0 +1,133 @@
+package ehist.mem.date;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>
+ * === DenseDateTable Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  A flat array of the {@link Date} objects within a window of years, indexed
+ * directly by the date value minus the date value of the first year. Since a
+ * date value is the year shifted above the month and day bits each year takes
+ * 512 slots, of which the slots of invalid dates (month or day zero, the 30th
+ * of February) stay empty. A lookup is a bounds check and a single array load.
+ * </p><p>
+ *  Dates in the window are never released. Slots are filled with the dates of
+ * the {@link DateInternTable} so there is only ever one instance of a date and
+ * the count of stored dates stays accurate.
+ * </p>
+ *
+ * @see DateManager#setDenseYears(int, int, boolean)
+ * @since EHist 1.0
+ *
+ * @author Michael van Dyk
+ */
+final class DenseDateTable {
+
+    /** The number of slots for each year, the range of the month and day bits. */
+    private static final int SLOTS_PER_YEAR = 1 << 9;
+
+    /** The first year in the window. */
+    private final int first_year;
+
+    /** The last year in the window. */
+    private final int last_year;
+
+    /** The date value of the first slot. */
+    private final int base;
+
+    /** The dates of the window, null until filled. */
+    private final AtomicReferenceArray<Date> dates;
+
+    /**
+     *  Creates a table for the window of years, the years are expected to be valid.
+     * @param first_year the first year of the window
+     * @param last_year  the last year of the window
+     */
+    DenseDateTable(int first_year, int last_year) {
+        this.first_year = first_year;
+        this.last_year = last_year;
+        this.base = Date.toDateVal(first_year, 0, 0);
+        this.dates = new AtomicReferenceArray<>((last_year - first_year + 1) * SLOTS_PER_YEAR);
+    }
+
+    /**
+     *  Checks if the date value falls within the window.
+     * @param date_val the date value to check
+     * @return if the date value is in the window
+     */
+    boolean contains(int date_val) {
+        /* Values below the base wrap to large unsigned values */
+        return (Integer.compareUnsigned(date_val - base, dates.length()) < 0);
+    }
+
+    /**
+     *  Fills every valid date of the window.
+     * @param table the table to take the dates from
+     */
+    void fillAll(DateInternTable table) {
+        for (int year = first_year; year <= last_year; ++year) {
+            boolean leap = Year.isLeapYear(year);
+
+            for (int month = 1; month <= 12; ++month) {
+                int days = Month.getMonth(month).getDays(leap);
+
+                for (int day = 1; day <= days; ++day) {
+                    fill(Date.toDateVal(year, month, day), table);
+                }
+            }
+        }
+    }
+
+    /**
+     *  Fills the slot of a valid date value within the window if it is empty.
+     * The date is taken from the table and acquired once so it is never released.
+     * @param date_val the valid date value to fill
+     * @param table    the table to take the date from
+     * @return the date in the slot
+     */
+    Date fill(int date_val, DateInternTable table) {
+        int index = date_val - base;
+        Date ret = dates.get(index);
+
+        if (ret == null) {
+            Date date = table.intern(date_val);
+
+            if (dates.compareAndSet(index, null, date)) {
+                ret = date;
+            } else {
+                /* Another thread filled the slot first, the table gave it the same instance */
+                table.release(date_val);
+                ret = dates.get(index);
+            }
+        }
+
+        return (ret);
+    }
+
+    /**
+     *  Gets the date in the slot of the date value.
+     * @param date_val the date value to get the date of
+     * @return the date or null if outside the window or not yet filled
+     */
+    Date get(int date_val) {
+        int index = date_val - base;
+        return (Integer.compareUnsigned(index, dates.length()) < 0 ? dates.get(index) : null);
+    }
+
+    /**
+     * @return the first year of the window
+     */
+    int getFirstYear() {
+        return (first_year);
+    }
+
+    /**
+     * @return the last year of the window
+     */
+    int getLastYear() {
+        return (last_year);
+    }
+}
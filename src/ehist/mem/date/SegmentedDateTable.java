@@ -0,0 +1,289 @@
+package ehist.mem.date;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>
+ * === SegmentedDateTable Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  The layout shared by the tables of {@link DateManager}: entries keyed by
+ * the primitive date value, split into segments that are each an open
+ * addressed array guarded by its own lock for inserts and removals. Lookups
+ * never lock, they probe the volatile array of a segment. What an entry holds
+ * and when it stops being stored is left to the subclass, which stores and
+ * removes entries while holding the lock of their segment.
+ * </p><p>
+ *  A table can be closed while empty, with every segment locked, after which
+ * the subclass turns away stores. A store that read the table before it was
+ * closed then either finished first and kept the table from closing or finds
+ * it closed, never adding to a table that is no longer in use.
+ * </p>
+ *
+ * @see DateInternTable
+ * @see WeakDateTable
+ * @since EHist 1.0
+ *
+ * @author Michael van Dyk
+ *
+ * @param <E> The type of entry stored in the table.
+ */
+abstract class SegmentedDateTable<E> {
+
+    /** The number of bits of the hash used to select a segment. */
+    private static final int SEGMENT_BITS = 4;
+
+    /** The initial size of each segment array, must be a power of two. */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** Marks a slot whose entry was removed so probing continues past it. */
+    private final E tombstone;
+
+    /** The segments of the table, selected by the upper bits of the hash. */
+    private final Segment[] segments;
+
+    /** If stores are turned away, only set while every segment is locked. */
+    private volatile boolean closed;
+
+    /**
+     *  Creates an empty table.
+     * @param tombstone the entry marking removed slots, never returned by a lookup
+     */
+    @SuppressWarnings("unchecked")
+    SegmentedDateTable(E tombstone) {
+        this.tombstone = tombstone;
+        this.segments = (Segment[])new SegmentedDateTable<?>.Segment[1 << SEGMENT_BITS];
+
+        for (int i = 0; i < segments.length; ++i) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * @param entry an entry of the table
+     * @return the date value of the entry
+     */
+    abstract int dateValOf(E entry);
+
+    /**
+     * @param entry an entry of the table
+     * @return if the entry is kept when its segment grows
+     */
+    abstract boolean isKept(E entry);
+
+    /**
+     * @return the number of entries in the table
+     */
+    int size() {
+        int size = 0;
+
+        for (Segment segment : segments) {
+            size += segment.count;
+        }
+
+        return (size);
+    }
+
+    /**
+     *  Closes the table if it has no entries. Every segment is locked while the
+     * table is checked, closed and the given action runs.
+     * @param onClose run once the table is closed, before any segment is unlocked
+     * @return if the table was empty and is now closed
+     */
+    final boolean closeIfEmpty(Runnable onClose) {
+        return (closeIfEmpty(0, onClose));
+    }
+
+    /**
+     *  Locks the segments from the given one on, then closes the table.
+     * @param from    the first segment not yet locked
+     * @param onClose run once the table is closed
+     * @return if the table was empty and is now closed
+     */
+    private boolean closeIfEmpty(int from, Runnable onClose) {
+        if (from < segments.length) {
+            synchronized (segments[from]) {
+                return (closeIfEmpty(from + 1, onClose));
+            }
+        } else if (size() != 0) {
+            return (false);
+        }
+
+        closed = true;
+        onClose.run();
+
+        return (true);
+    }
+
+    /**
+     *  Lets stores into the table again.
+     */
+    final void reopen() {
+        closed = false;
+    }
+
+    /**
+     * @return if stores are turned away, only final when read under a segment lock
+     */
+    final boolean isClosed() {
+        return (closed);
+    }
+
+    /**
+     *  Spreads the bits of the date value, the day and month live in the
+     * lowest bits so they are multiplied up into the bits used for indexing.
+     * @param date_val the date value to hash
+     * @return the hash of the date value
+     */
+    static int hash(int date_val) {
+        int h = date_val * 0x9E3779B9;
+        return (h ^ (h >>> 16));
+    }
+
+    /**
+     * @param hash the hash of the date value
+     * @return the segment responsible for the hash
+     */
+    final Segment segmentFor(int hash) {
+        return (segments[hash >>> (Integer.SIZE - SEGMENT_BITS)]);
+    }
+
+    /**
+     *  A single lock striped section of the table. Writers synchronize on the
+     * segment, readers only read the volatile array reference.
+     */
+    final class Segment {
+
+        /** The current slots, replaced whole when the segment grows. */
+        private volatile AtomicReferenceArray<E> table = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+
+        /** The number of entries in this segment. */
+        private volatile int count;
+
+        /** The number of entries and tombstones, guarded by this. */
+        private int used;
+
+        /**
+         *  Finds the entry of the date value without locking.
+         * @param date_val the date value to find
+         * @param hash     the hash of the date value
+         * @return the entry or null if not in the segment
+         */
+        E find(int date_val, int hash) {
+            AtomicReferenceArray<E> tab = table;
+            int mask = tab.length() - 1;
+            E e;
+
+            for (int i = hash & mask; (e = tab.get(i)) != null; i = (i + 1) & mask) {
+                if (e != tombstone && dateValOf(e) == date_val) {
+                    return (e);
+                }
+            }
+
+            return (null);
+        }
+
+        /**
+         *  Stores the entry, in place of any entry with the same date value.
+         * @param entry the entry to store
+         * @param hash  the hash of the entry's date value
+         */
+        synchronized void put(E entry, int hash) {
+            int date_val = dateValOf(entry);
+            AtomicReferenceArray<E> tab = table;
+            int mask = tab.length() - 1;
+            E e;
+
+            for (int i = hash & mask; (e = tab.get(i)) != null; i = (i + 1) & mask) {
+                if (e != tombstone && dateValOf(e) == date_val) {
+                    /* The replaced entry will no longer be found */
+                    tab.set(i, entry);
+                    return;
+                }
+            }
+
+            if ((used + 1) * 4 > tab.length() * 3) {
+                rehash();
+                tab = table;
+                mask = tab.length() - 1;
+            }
+
+            int i = hash & mask;
+
+            while ((e = tab.get(i)) != null && e != tombstone) {
+                i = (i + 1) & mask;
+            }
+
+            if (e == null) {
+                ++used;
+            }
+
+            tab.set(i, entry);
+            ++count;
+        }
+
+        /**
+         *  Removes the entry if it is still in the segment.
+         * @param entry the entry to remove
+         * @param hash  the hash of the entry's date value
+         */
+        synchronized void remove(E entry, int hash) {
+            AtomicReferenceArray<E> tab = table;
+            int mask = tab.length() - 1;
+            E e;
+
+            for (int i = hash & mask; (e = tab.get(i)) != null; i = (i + 1) & mask) {
+                if (e == entry) {
+                    tab.set(i, tombstone);
+                    --count;
+                    return;
+                }
+            }
+        }
+
+        /**
+         *  Copies the kept entries into a new array, doubling the size if they
+         * would fill more than half of the current one. The entries themselves
+         * are shared so concurrent readers of the old array still see the same
+         * entries. Entries that are not kept are dropped here and will not be
+         * found by a later removal.
+         */
+        private void rehash() {
+            AtomicReferenceArray<E> old = table;
+            int length = old.length();
+            int kept = 0;
+
+            for (int j = 0; j < old.length(); ++j) {
+                E e = old.get(j);
+                kept += (e != null && e != tombstone && isKept(e) ? 1 : 0);
+            }
+
+            if (kept * 2 >= length) {
+                length <<= 1;
+            }
+
+            AtomicReferenceArray<E> tab = new AtomicReferenceArray<>(length);
+            int mask = length - 1;
+            kept = 0;
+
+            for (int j = 0; j < old.length(); ++j) {
+                E e = old.get(j);
+
+                if (e != null && e != tombstone && isKept(e)) {
+                    int i = hash(dateValOf(e)) & mask;
+
+                    while (tab.get(i) != null) {
+                        i = (i + 1) & mask;
+                    }
+
+                    tab.set(i, e);
+                    ++kept;
+                }
+            }
+
+            used = count = kept;
+            table = tab;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package ehist.mem.date;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+/**
+ * <p>
+ * === WeakDateTable Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  A concurrent table of {@link Date} objects keyed by the primitive date
+ * value that only weakly holds its dates. A date stays in the table for as long
+ * as something else can reach it, once collected its reference is placed on a
+ * queue that is drained in bulk whenever a date is added or the size is read.
+ * No reference counting is done, so callers never have to release dates.
+ * </p><p>
+ *  The layout is that of a {@link SegmentedDateTable}, lock striped segments
+ * of open addressed arrays with lock free lookups. A slot whose date was
+ * collected but not yet drained is replaced in place when the date is needed
+ * again.
+ * </p>
+ *
+ * @see DateManager#setWeakEviction(boolean)
+ * @since EHist 1.0
+ *
+ * @author Michael van Dyk
+ */
+final class WeakDateTable extends SegmentedDateTable<WeakDateTable.DateReference> {
+
+    /** Marks a slot whose entry was removed so probing continues past it. */
+    private static final DateReference TOMBSTONE = new DateReference(-1, null, null);
+
+    /** Receives the references of collected dates. */
+    private final ReferenceQueue<Date> queue;
+
+    /**
+     *  Creates an empty table.
+     */
+    WeakDateTable() {
+        super(TOMBSTONE);
+        this.queue = new ReferenceQueue<>();
+    }
+
+    /**
+     *  Attempts to find a stored date without locking.
+     * @param date_val the date value of the date
+     * @return the stored date, or null if the date has to go through {@link #intern(int)}
+     */
+    Date get(int date_val) {
+        int hash = hash(date_val);
+        DateReference found = segmentFor(hash).find(date_val, hash);
+
+        return (found != null ? found.get() : null);
+    }
+
+    /**
+     *  Gets the date for the given date value, storing a new date if one does
+     * not exist or was collected. The date value is expected to be valid.
+     * @param date_val the date value of the date
+     * @return the stored date, or null if the table is closed
+     */
+    Date intern(int date_val) {
+        drain();
+
+        int hash = hash(date_val);
+        Segment segment = segmentFor(hash);
+
+        synchronized (segment) {
+            DateReference e = segment.find(date_val, hash);
+            Date date = (e != null ? e.get() : null);
+
+            if (date == null && !isClosed()) {
+                /* A collected but not drained entry is replaced in place */
+                segment.put(new DateReference(date_val, date = new Date(date_val), queue), hash);
+            }
+
+            return (date);
+        }
+    }
+
+    /**
+     * @return the number of dates stored in the table that have not been collected
+     */
+    @Override
+    int size() {
+        drain();
+        return (super.size());
+    }
+
+    /**
+     *  Removes the entries of all collected dates waiting on the queue.
+     */
+    private void drain() {
+        Reference<? extends Date> ref;
+
+        while ((ref = queue.poll()) != null) {
+            DateReference entry = (DateReference)ref;
+            int hash = hash(entry.date_val);
+            segmentFor(hash).remove(entry, hash);
+        }
+    }
+
+    @Override
+    int dateValOf(DateReference entry) {
+        return (entry.date_val);
+    }
+
+    /**
+     *  Entries of collected dates are dropped when their segment grows.
+     */
+    @Override
+    boolean isKept(DateReference entry) {
+        return (entry.get() != null);
+    }
+
+    /**
+     *  A weak reference to a stored date that remembers the date value so it
+     * can be found in the table after the date is collected.
+     */
+    static final class DateReference extends WeakReference<Date> {
+
+        /** The date value of the referenced date. */
+        private final int date_val;
+
+        /**
+         *  Creates a reference to the date.
+         * @param date_val the date value of the date
+         * @param date     the date to reference
+         * @param queue    the queue to place this on once the date is collected
+         */
+        DateReference(int date_val, Date date, ReferenceQueue<Date> queue) {
+            super(date, queue);
+            this.date_val = date_val;
+        }
+    }
+}
@@ -12,6 +12,7 @@
  *  The package also includes some helpful classes and interfaces such as:
  *  <ul>
  *      <li>{@link ehist.mem.date.DateFormatter} - for formatting dates to readable output</li>
+ *      <li>{@link ehist.mem.date.DateParser} - for parsing formatted dates back into dates</li>
  *  </ul>
  * For creating <tt>Date</tt> instances in a managed way, use the
  * {@link ehist.mem.date.DateManager#getDate(int, int, int)} or
@@ -0,0 +1,24 @@
+/**
+ * <p>
+ * === mem package ===
+ * </p><p>
+ *  The <tt>mem</tt> package holds an earnings history in memory. Everything is
+ * created through a {@link ehist.mem.DataControl}, which keeps the pay periods
+ * as rows of the primitive columns of a {@link ehist.mem.PayPeriodStore} along
+ * with the indexes and totals kept over them. Histories are loaded with the
+ * {@link ehist.mem.CsvImporter}, kept durable with a {@link ehist.mem.Journal},
+ * saved and mapped back with a {@link ehist.mem.Snapshot} and written out with
+ * the {@link ehist.mem.Exporter}.
+ * </p><p>
+ *  The package needs Java 11 or later: its work is recorded as Java Flight
+ * Recorder events of <tt>jdk.jfr</tt>, standard from Java 11 on, and
+ * {@link java.lang.Math#floorMod(long, int)} is used from Java 9 on. Mapped
+ * snapshots use <tt>java.nio</tt> buffers rather than the memory segments of
+ * later releases, so nothing past Java 11 is needed.
+ * </p>
+ *
+ * @since EHist 1.0
+ *
+ * @author Michael van Dyk
+ */
+package ehist.mem;
@@ -0,0 +1,105 @@
+package ehist.mem;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ * === AmountTest Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Tests {@link Amount}: the cache of small amounts, comparisons of amounts
+ * whose difference does not fit in a long and formatting, and that an
+ * {@link AmountAccumulator} totals the same as adding amounts.
+ * </p>
+ *
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+class AmountTest {
+
+    @Test
+    void ofReusesAmountsWithinTheCache() {
+        assertSame(Amount.ZERO, Amount.of(0));
+        assertSame(Amount.of(-100_00), Amount.of(-100_00));
+        assertSame(Amount.of(100_00), Amount.of(100_00));
+        assertSame(Amount.of(1234), new Amount(12, 34).add(Amount.ZERO));
+
+        /* Just past either end is created every time, but still equal */
+        assertNotSame(Amount.of(-100_01), Amount.of(-100_01));
+        assertNotSame(Amount.of(100_01), Amount.of(100_01));
+        assertEquals(Amount.of(100_01), Amount.of(100_01));
+        assertEquals(Amount.of(100_01).hashCode(), new Amount(100, 1).hashCode());
+
+        for (long cents = -100_00; cents <= 100_00; cents += 37) {
+            assertEquals(cents, Amount.of(cents).getCents());
+        }
+        assertEquals(Long.MIN_VALUE, Amount.of(Long.MIN_VALUE).getCents());
+        assertEquals(Long.MAX_VALUE, Amount.of(Long.MAX_VALUE).getCents());
+    }
+
+    @Test
+    void comparesAmountsWhoseDifferenceOverflows() {
+        Amount min = Amount.of(Long.MIN_VALUE);
+        Amount max = Amount.of(Long.MAX_VALUE);
+        Amount one = Amount.of(1);
+        Amount minus_one = Amount.of(-1);
+
+        assertTrue(min.compareTo(one) < 0);
+        assertTrue(one.compareTo(min) > 0);
+        assertTrue(max.compareTo(minus_one) > 0);
+        assertTrue(minus_one.compareTo(max) < 0);
+        assertTrue(min.compareTo(max) < 0);
+        assertTrue(max.compareTo(min) > 0);
+        assertEquals(0, min.compareTo(Amount.of(Long.MIN_VALUE)));
+    }
+
+    @Test
+    void formatsDollarsAndCents() {
+        assertEquals("$0.00", Amount.ZERO.toString());
+        assertEquals("$12.05", Amount.of(1205).toString());
+        assertEquals("-$0.50", Amount.of(-50).toString());
+        assertEquals("-$100.01", Amount.of(-100_01).toString());
+        assertEquals("$92233720368547758.07", Amount.of(Long.MAX_VALUE).toString());
+        assertEquals("-$92233720368547758.08", Amount.of(Long.MIN_VALUE).toString());
+    }
+
+    @Test
+    void accumulatorMatchesAddingAmounts() {
+        Random random = new Random(91);
+        AmountAccumulator accumulator = new AmountAccumulator();
+        Amount total = Amount.ZERO;
+
+        for (int i = 0; i < 10_000; ++i) {
+            Amount amount = Amount.of(random.nextInt(2_000_000) - 1_000_000);
+
+            if (random.nextInt(4) == 0) {
+                accumulator.subtract(amount);
+                total = total.subtract(amount);
+            } else if (random.nextBoolean()) {
+                accumulator.add(amount);
+                total = total.add(amount);
+            } else {
+                accumulator.add(amount.getCents());
+                total = total.add(amount);
+            }
+
+            assertEquals(total.getCents(), accumulator.getCents());
+        }
+
+        assertEquals(total, accumulator.toAmount());
+        assertEquals(total.toString(), accumulator.toString());
+
+        accumulator.reset().subtract(250).add(Amount.of(100));
+        assertSame(Amount.of(-150), accumulator.toAmount());
+        assertEquals(0, accumulator.reset().getCents());
+        assertSame(Amount.ZERO, accumulator.toAmount());
+    }
+}
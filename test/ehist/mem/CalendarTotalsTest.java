@@ -0,0 +1,158 @@
+package ehist.mem;
+
+import ehist.mem.date.Date;
+import ehist.mem.date.DateManager;
+import ehist.mem.date.Month;
+import ehist.mem.date.Year;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ * === CalendarTotalsTest Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Tests the calendar totals of positions and employers: the total of each
+ * month equals what the range index finds over its days, a year is the sum
+ * of its months, the first and last years are those of the pay periods and a
+ * pay period crossing into a new year is split between both.
+ * </p>
+ *
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+class CalendarTotalsTest {
+
+    /**
+     *  Checks every month and year of the totals against the range index over
+     * the same days, and that each year is the sum of its months.
+     * @param totals the calendar totals
+     * @param index  the range index of the same pay periods
+     */
+    private static void assertMatchesRangeIndex(CalendarTotals totals, EarningsRangeIndex index) {
+        for (int year = totals.getFirstYear() - 1; year <= totals.getLastYear() + 1; ++year) {
+            long gross = 0;
+            long deductions = 0;
+            long net = 0;
+
+            for (Month month : Month.values()) {
+                Date from = DateManager.getDate(year, month, 1);
+                Date to = DateManager.getDate(year, month, month.getDays(Year.isLeapYear(year)));
+                String at = year + " " + month;
+
+                assertEquals(index.getGrossCents(from, to), totals.getGrossCents(year, month), at);
+                assertEquals(index.getDeductionCents(from, to), totals.getDeductionCents(year, month), at);
+                assertEquals(index.getNetCents(from, to), totals.getNetCents(year, month), at);
+
+                gross += totals.getGrossCents(year, month);
+                deductions += totals.getDeductionCents(year, month);
+                net += totals.getNetCents(year, month);
+            }
+
+            assertEquals(gross, totals.getGrossCents(year), "" + year);
+            assertEquals(deductions, totals.getDeductionCents(year), "" + year);
+            assertEquals(net, totals.getNetCents(year), "" + year);
+            assertEquals(index.getGrossCents(DateManager.getDate(year, 1, 1), DateManager.getDate(year, 12, 31)),
+                    totals.getGrossCents(year), "" + year);
+        }
+    }
+
+    @Test
+    void monthsMatchTheRangeIndex() {
+        DataControl data = new DataControl();
+        Histories.generate(data, 3000, 81);
+
+        for (Position position : data.getPositions()) {
+            assertMatchesRangeIndex(position.getCalendarTotals(), position.getEarningsRangeIndex());
+        }
+        for (Employer employer : data.getEmployers()) {
+            assertMatchesRangeIndex(employer.getCalendarTotals(), employer.getEarningsRangeIndex());
+        }
+    }
+
+    @Test
+    void firstAndLastYearsAreThoseOfThePayPeriods() {
+        DataControl data = new DataControl();
+        Histories.generate(data, 500, 82);
+
+        PayPeriodStore store = data.getPayPeriodStore();
+
+        for (Position position : data.getPositions()) {
+            int first = Integer.MAX_VALUE;
+            int last = Integer.MIN_VALUE;
+            long gross = 0;
+
+            for (int row = 0; row < store.size(); ++row) {
+                if (store.getPositionId(row) == position.getId()) {
+                    first = Math.min(first, Date.getYear(store.getStart(row)));
+                    last = Math.max(last, Date.getYear(store.getEnd(row)));
+                    gross += store.getGrossCents(row);
+                }
+            }
+
+            CalendarTotals totals = position.getCalendarTotals();
+            long years = 0;
+
+            assertFalse(totals.isEmpty());
+            assertEquals(first, totals.getFirstYear());
+            assertEquals(last, totals.getLastYear());
+
+            for (int year = first; year <= last; ++year) {
+                years += totals.getGrossCents(year);
+            }
+
+            assertEquals(gross, years);
+        }
+    }
+
+    @Test
+    void emptyTotalsHaveNoYears() {
+        DataControl data = new DataControl();
+        Position position = data.addPosition("Developer", data.addEmployer("Acme"));
+        CalendarTotals totals = position.getCalendarTotals();
+
+        assertTrue(totals.isEmpty());
+        assertEquals(0, totals.getGrossCents(2020));
+        assertEquals(0, totals.getNetCents(2020, Month.JANUARY));
+        assertThrows(EHistException.class, totals::getFirstYear);
+        assertThrows(EHistException.class, totals::getLastYear);
+        assertThrows(EHistException.class, () -> totals.getGrossCents(2020, null));
+    }
+
+    @Test
+    void payPeriodCrossingAYearIsSplitByDay() {
+        DataControl data = new DataControl();
+        Employer employer = data.addEmployer("Acme");
+        Position position = data.addPosition("Developer", employer);
+        DeductionType tax = data.addDeductionType("Tax");
+
+        /* 12 days in December and 9 in January, 100 gross and 10 tax a day */
+        data.addPayPeriod(DateManager.getDate(2019, 12, 20), DateManager.getDate(2020, 1, 9), position,
+                Amount.of(2100), new Deduction[] {new Deduction(Amount.of(210), tax)});
+
+        for (CalendarTotals totals : new CalendarTotals[] {position.getCalendarTotals(), employer.getCalendarTotals()}) {
+            assertEquals(2019, totals.getFirstYear());
+            assertEquals(2020, totals.getLastYear());
+            assertEquals(1200, totals.getGrossCents(2019));
+            assertEquals(1200, totals.getGrossCents(2019, Month.DECEMBER));
+            assertEquals(120, totals.getDeductionCents(2019, Month.DECEMBER));
+            assertEquals(900, totals.getGrossCents(2020));
+            assertEquals(810, totals.getNetCents(2020, Month.JANUARY));
+            assertEquals(0, totals.getGrossCents(2020, Month.FEBRUARY));
+        }
+
+        /* 7 days of a leap February, 1 of March, and 2 cents that do not divide by day */
+        data.addPayPeriod(DateManager.getDate(2020, 2, 23), DateManager.getDate(2020, 3, 1), position,
+                Amount.of(802), new Deduction[0]);
+
+        assertEquals(701, position.getCalendarTotals().getGrossCents(2020, Month.FEBRUARY));
+        assertEquals(101, position.getCalendarTotals().getGrossCents(2020, Month.MARCH));
+        assertEquals(900 + 802, position.getCalendarTotals().getGrossCents(2020));
+        assertMatchesRangeIndex(position.getCalendarTotals(), position.getEarningsRangeIndex());
+    }
+}
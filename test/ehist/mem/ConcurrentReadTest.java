@@ -0,0 +1,217 @@
+package ehist.mem;
+
+import ehist.mem.date.Date;
+import ehist.mem.date.DateManager;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ * === ConcurrentReadTest Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Tests reading a {@link DataControl} while another thread keeps adding pay
+ * periods: every read sees one moment of the history, an export sees a name
+ * for every pay period it writes and the action of a query may query and add
+ * again without deadlocking.
+ * </p>
+ *
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+class ConcurrentReadTest {
+
+    /** The gross of every pay period added by the writers. */
+    private static final long GROSS = 100;
+
+    /** The deduction of every pay period added by the writers. */
+    private static final long DEDUCTION = 10;
+
+    /** The number of pay periods each writer adds. */
+    private static final int APPENDS = 50_000;
+
+    /** The longest a test may take before it is taken to be deadlocked. */
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    /**
+     *  Adds a pay period of 2020/01/01 to 2020/01/14.
+     * @param data     the data control
+     * @param position the position
+     * @param type     the type of its one deduction
+     */
+    private static void append(DataControl data, Position position, DeductionType type) {
+        data.addPayPeriod(DateManager.getDate(2020, 1, 1), DateManager.getDate(2020, 1, 14), position,
+                Amount.of(GROSS), new Deduction[] {new Deduction(Amount.of(DEDUCTION), type)});
+    }
+
+    @Test
+    void everyReadSeesOneMoment() {
+        DataControl data = new DataControl();
+        Position position = data.addPosition("Developer", data.addEmployer("Acme"));
+        DeductionType tax = data.addDeductionType("Tax");
+        Date from = DateManager.getDate(2019, 12, 1);
+        Date to = DateManager.getDate(2020, 2, 1);
+
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            ExecutorService pool = Executors.newFixedThreadPool(3);
+            AtomicBoolean done = new AtomicBoolean();
+
+            try {
+                List<Future<Integer>> readers = new ArrayList<>();
+
+                for (int r = 0; r < 2; ++r) {
+                    readers.add(pool.submit(() -> {
+                        long last = 0;
+                        int reads = 0;
+
+                        while (!done.get() || reads == 0) {
+                            /* Gross and deductions of one read always agree */
+                            long net = data.getEarningsRangeIndex().getNetCents(from, to);
+                            long year = position.getCalendarTotals().getNetCents(2020);
+                            int count = data.getPayPeriodIndex().countOverlapping(from.getDateVal(), to.getDateVal());
+
+                            assertEquals(0, net % (GROSS - DEDUCTION), "net " + net);
+                            assertEquals(0, year % (GROSS - DEDUCTION), "year " + year);
+                            assertTrue(net >= last, "net went back from " + last + " to " + net);
+                            assertTrue(count <= data.getPayPeriodStore().size());
+                            last = net;
+                            ++reads;
+                        }
+
+                        return (reads);
+                    }));
+                }
+
+                pool.submit(() -> {
+                    for (int i = 0; i < APPENDS; ++i) {
+                        append(data, position, tax);
+                    }
+                    done.set(true);
+                }).get();
+
+                for (Future<Integer> reader : readers) {
+                    assertTrue(reader.get() > 0);
+                }
+            } finally {
+                done.set(true);
+                pool.shutdownNow();
+            }
+        });
+
+        assertEquals(APPENDS * (GROSS - DEDUCTION), data.getEarningsRangeIndex().getNetCents(from, to));
+        assertEquals(APPENDS * (GROSS - DEDUCTION), position.getCalendarTotals().getNetCents(2020));
+        assertEquals(APPENDS * DEDUCTION, tax.getCents(2020));
+        assertEquals(APPENDS, data.getPayPeriodIndex().size());
+        assertEquals(APPENDS, position.getPayPeriodCount());
+    }
+
+    @Test
+    void exportsOnlyPayPeriodsWithNames() {
+        DataControl data = new DataControl();
+        DeductionType tax = data.addDeductionType("Tax");
+
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            ExecutorService pool = Executors.newSingleThreadExecutor();
+            AtomicBoolean done = new AtomicBoolean();
+
+            try {
+                /* Each pay period is of a new employer and position, named just before it is added */
+                Future<?> writer = pool.submit(() -> {
+                    for (int i = 0; i < APPENDS / 5; ++i) {
+                        append(data, data.addPosition("Title " + i, data.addEmployer("Employer " + i)), tax);
+                    }
+                    done.set(true);
+                });
+                int exports = 0;
+
+                while (!done.get() || exports == 0) {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    long written = new Exporter(data, Exporter.Format.JSON_LINES).export(Channels.newChannel(out));
+                    String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+
+                    if (written > 0) {
+                        assertEquals(written, lines.length);
+
+                        String last = lines[lines.length - 1];
+                        int at = last.indexOf("\"employer\":\"Employer ") + 21;
+                        String id = last.substring(at, last.indexOf('"', at));
+
+                        assertTrue(last.contains("\"position\":\"Title " + id + "\""), last);
+                    }
+                    ++exports;
+                }
+
+                writer.get();
+            } finally {
+                done.set(true);
+                pool.shutdownNow();
+            }
+        });
+    }
+
+    @Test
+    void actionsMayQueryAndAddAgain() {
+        DataControl data = new DataControl();
+        Position position = data.addPosition("Developer", data.addEmployer("Acme"));
+        DeductionType tax = data.addDeductionType("Tax");
+        int from_val = DateManager.getDate(2020, 1, 1).getDateVal();
+        int to_val = DateManager.getDate(2020, 1, 14).getDateVal();
+
+        for (int i = 0; i < 1000; ++i) {
+            append(data, position, tax);
+        }
+
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            ExecutorService pool = Executors.newSingleThreadExecutor();
+            AtomicBoolean done = new AtomicBoolean();
+
+            try {
+                Future<?> writer = pool.submit(() -> {
+                    for (int i = 0; i < APPENDS / 5; ++i) {
+                        append(data, position, tax);
+                    }
+                    done.set(true);
+                });
+                int rounds = 0;
+
+                while (!done.get() || rounds == 0) {
+                    int[] calls = new int[1];
+
+                    data.getPayPeriodIndex().forEachOverlapping(from_val, to_val, row -> {
+                        if (calls[0]++ % 100 == 0) {
+                            assertTrue(data.getPayPeriodIndex().countOverlapping(from_val, to_val) > row);
+                            append(data, position, tax);
+                        }
+                    });
+                    assertTrue(calls[0] >= 1000);
+                    ++rounds;
+                }
+
+                writer.get();
+            } finally {
+                done.set(true);
+                pool.shutdownNow();
+            }
+        });
+
+        int rows = data.getPayPeriodStore().size();
+
+        assertEquals(rows, data.getPayPeriodIndex().size());
+        assertEquals(rows * (GROSS - DEDUCTION), position.getCalendarTotals().getNetCents(2020));
+    }
+}
@@ -0,0 +1,166 @@
+package ehist.mem;
+
+import ehist.mem.date.Date;
+import ehist.mem.date.DateManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ * === CsvImporterTest Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Tests loading CSV files with the {@link CsvImporter}, from a few lines to
+ * files of several chunks, valid and invalid.
+ * </p>
+ *
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+class CsvImporterTest {
+
+    /** The number of lines of a file long enough to be cut into several chunks. */
+    private static final int LONG_FILE = 300_000;
+
+    @TempDir
+    Path dir;
+
+    /**
+     *  Writes a file of numbered pay periods, the gross of each its line number
+     * in cents, cycling through the employers, titles and deduction types.
+     * @param path    the path of the file
+     * @param lines   the number of pay periods
+     * @param invalid the line number given a thirteenth month, or 0 for none
+     */
+    private static void writeNumbered(Path path, int lines, int invalid) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            out.write("employer,position,start,end,gross,deduction type,amount\n");
+
+            for (int i = 0; i < lines; ++i) {
+                int month = 1 + i % 12;
+                out.write(String.format("Employer %d,Title %d,2020-%02d-01,2020-%02d-28,%d.%02d,Tax %d,1.%02d%n",
+                        i % 7, i % 3, (i + 2 == invalid ? 13 : month), month, i / 100, i % 100, i % 5, i % 100));
+            }
+        }
+    }
+
+    @Test
+    void loadsNamesQuotesAndDeductions() throws IOException {
+        Path path = dir.resolve("history.csv");
+        Files.writeString(path, "employer,position,start,end,gross,deduction type,amount\n"
+                + "Acme,Developer,2024-01-01,2024-01-14,2500.00,Income Tax,412.50,Pension,120\n"
+                + "\n"
+                + "\"Smith, Jones & Co\",\"The \"\"Lead\"\"\",2024-01-15,2024-01-28,-3.5,,,Pension,0.05\n"
+                + "Caf\u00e9 Zo\u00eb,Developer,2024-02-01,2024-02-29,7\n");
+
+        DataControl data = new DataControl();
+
+        assertEquals(3, CsvImporter.load(data, path));
+        assertEquals(3, data.getEmployers().size());
+        assertEquals(2, data.getDeductionTypes().size());
+
+        PayPeriodStore store = data.getPayPeriodStore();
+        Employer smith = data.findEmployer("Smith, Jones & Co");
+
+        assertNotNull(smith);
+        assertEquals("The \"Lead\"", data.getPosition(store.getPositionId(1)).getTitle());
+        assertEquals(smith, data.getPosition(store.getPositionId(1)).getEmployer());
+        assertEquals("Caf\u00e9 Zo\u00eb", data.getPosition(store.getPositionId(2)).getEmployer().getName());
+
+        assertEquals(250_000, store.getGrossCents(0));
+        assertEquals(2, store.getDeductionCount(0));
+        assertEquals(41_250, store.getDeductionCents(0, 0));
+        assertEquals(12_000, store.getDeductionCents(0, 1));
+        assertEquals(-350, store.getGrossCents(1));
+        assertEquals(1, store.getDeductionCount(1));
+        assertEquals("Pension", data.getDeductionType(store.getDeductionTypeId(1, 0)).getName());
+        assertEquals(0, store.getDeductionCount(2));
+
+        assertEquals(DateManager.getDate(2024, 2, 1).getDateVal(), store.getStart(2));
+        assertEquals(DateManager.getDate(2024, 2, 29).getDateVal(), store.getEnd(2));
+    }
+
+    @Test
+    void keepsTheOrderOfEveryChunk() throws IOException {
+        Path path = dir.resolve("long.csv");
+        writeNumbered(path, LONG_FILE, 0);
+
+        DataControl data = new DataControl();
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            assertEquals(LONG_FILE, CsvImporter.load(data, path, pool));
+        } finally {
+            pool.shutdown();
+        }
+
+        PayPeriodStore store = data.getPayPeriodStore();
+
+        assertTrue(Files.size(path) > 2 * (1 << 23), "the file is cut into at least three chunks");
+        assertEquals(7, data.getEmployers().size());
+        assertEquals(5, data.getDeductionTypes().size());
+
+        for (int row = 0; row < LONG_FILE; ++row) {
+            assertEquals(row, store.getGrossCents(row));
+            assertEquals("Employer " + row % 7, data.getPosition(store.getPositionId(row)).getEmployer().getName());
+        }
+
+        /* The indexes and totals are brought up to date with every chunk */
+        long from_day = Date.toEpochDay(DateManager.getDate(2020, 1, 1).getDateVal());
+        assertEquals(store.totalGrossCents() - store.totalDeductionCents(),
+                data.getEarningsRangeIndex().getNetCents(from_day, from_day + 366));
+        assertEquals(LONG_FILE, data.getPayPeriodIndex().size());
+    }
+
+    @Test
+    void stopsAtTheFirstInvalidLine() throws IOException {
+        Path path = dir.resolve("invalid.csv");
+        writeNumbered(path, 10, 4);
+
+        DataControl data = new DataControl();
+        EHistException e = assertThrows(EHistException.class, () -> CsvImporter.load(data, path));
+
+        assertTrue(e.getMessage().contains("line 4: invalid date 2020-13-01"), e.getMessage());
+        assertEquals(0, data.getPayPeriodStore().size());
+    }
+
+    @Test
+    void keepsTheChunksBeforeAnInvalidLine() throws IOException {
+        Path path = dir.resolve("invalid.csv");
+        writeNumbered(path, LONG_FILE, LONG_FILE - 10);
+
+        DataControl data = new DataControl();
+        EHistException e = assertThrows(EHistException.class, () -> CsvImporter.load(data, path));
+        int added = data.getPayPeriodStore().size();
+
+        assertTrue(e.getMessage().contains(String.format("line %d:", LONG_FILE - 10)), e.getMessage());
+        assertTrue(e.getMessage().contains(String.format("(%d pay periods added)", added)), e.getMessage());
+        assertTrue(added > 0 && added < LONG_FILE - 11);
+
+        for (int row = 0; row < added; ++row) {
+            assertEquals(row, data.getPayPeriodStore().getGrossCents(row));
+        }
+    }
+
+    @Test
+    void refusesLinesMissingFields() throws IOException {
+        Path path = dir.resolve("short.csv");
+        Files.writeString(path, "header\nAcme,Developer,2024-01-01\n");
+
+        assertThrows(EHistException.class, () -> CsvImporter.load(new DataControl(), path));
+        assertThrows(EHistException.class, () -> CsvImporter.load(new DataControl(), dir.resolve("missing.csv")));
+    }
+}
@@ -0,0 +1,147 @@
+package ehist.mem;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * <p>
+ * === DataControlTest Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Tests finding or adding employers, positions and deduction types from many
+ * threads at once over overlapping names: each name ends up with exactly one
+ * entity and the ids stay dense.
+ * </p>
+ *
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+class DataControlTest {
+
+    /** The number of threads finding or adding at once. */
+    private static final int THREADS = 8;
+
+    /** The number of distinct names, each looked up by every thread. */
+    private static final int NAMES = 500;
+
+    /** The longest the test may take before it is taken to be deadlocked. */
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    /**
+     *  Checks that every entity has an id equal to its place in the list.
+     * @param ids the ids in the order of the data control's list
+     */
+    private static void assertDense(List<Integer> ids) {
+        for (int i = 0; i < ids.size(); ++i) {
+            assertEquals(i, ids.get(i));
+        }
+    }
+
+    @Test
+    void findOrAddGivesOneEntityPerName() {
+        DataControl data = new DataControl();
+
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+            CountDownLatch start = new CountDownLatch(1);
+
+            try {
+                List<Future<Object[]>> found = new ArrayList<>();
+
+                for (int t = 0; t < THREADS; ++t) {
+                    int offset = t * NAMES / THREADS;
+
+                    /* Each thread walks the names from a different place so they race on every one */
+                    found.add(pool.submit(() -> {
+                        Object[] entities = new Object[NAMES * 3];
+
+                        start.await();
+                        for (int n = 0; n < NAMES; ++n) {
+                            int i = (n + offset) % NAMES;
+                            Employer employer = data.findOrAddEmployer("Employer " + (i / 2));
+
+                            entities[i * 3] = employer;
+                            entities[i * 3 + 1] = data.findOrAddPosition("Title " + (i % 7), employer);
+                            entities[i * 3 + 2] = data.findOrAddDeductionType("Type " + (i / 3));
+                        }
+                        return (entities);
+                    }));
+                }
+
+                start.countDown();
+
+                Object[] first = found.get(0).get();
+
+                for (Future<Object[]> other : found) {
+                    Object[] entities = other.get();
+
+                    for (int i = 0; i < entities.length; ++i) {
+                        assertSame(first[i], entities[i], "entity " + i);
+                    }
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        });
+
+        Set<String> employer_names = new HashSet<>();
+        Set<String> type_names = new HashSet<>();
+        Set<String> position_keys = new HashSet<>();
+        List<Integer> employer_ids = new ArrayList<>();
+        List<Integer> position_ids = new ArrayList<>();
+        List<Integer> type_ids = new ArrayList<>();
+        IdentityHashMap<Employer, Integer> positions_per_employer = new IdentityHashMap<>();
+
+        for (Employer employer : data.getEmployers()) {
+            employer_names.add(employer.getName());
+            employer_ids.add(employer.getId());
+        }
+        for (Position position : data.getPositions()) {
+            position_keys.add(position.getTitle() + " at " + position.getEmployer().getName());
+            position_ids.add(position.getId());
+            positions_per_employer.merge(position.getEmployer(), 1, Integer::sum);
+        }
+        for (DeductionType type : data.getDeductionTypes()) {
+            type_names.add(type.getName());
+            type_ids.add(type.getId());
+        }
+
+        assertEquals(NAMES / 2, data.getEmployers().size());
+        assertEquals(NAMES / 2, employer_names.size());
+        assertEquals((NAMES + 2) / 3, data.getDeductionTypes().size());
+        assertEquals((NAMES + 2) / 3, type_names.size());
+        /* Names 2e and 2e + 1 share employer e under two different titles */
+        assertEquals(NAMES, data.getPositions().size());
+        assertEquals(NAMES, position_keys.size());
+        assertEquals(NAMES / 2, positions_per_employer.size());
+
+        assertDense(employer_ids);
+        assertDense(position_ids);
+        assertDense(type_ids);
+
+        for (Employer employer : data.getEmployers()) {
+            assertSame(employer, data.findEmployer(employer.getName()));
+        }
+        for (Position position : data.getPositions()) {
+            assertSame(position, data.findPosition(position.getTitle(), position.getEmployer()));
+        }
+        for (DeductionType type : data.getDeductionTypes()) {
+            assertSame(type, data.findDeductionType(type.getName()));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package ehist.mem;
+
+import ehist.mem.date.DateManager;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ * === EHistMBeansTest Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Tests registering the date manager and data controls with the platform
+ * MBean server: the names are under the <tt>ehist</tt> domain, the
+ * attributes report the counters, the date manager may be registered by many
+ * threads at once and a data control name may only be used once.
+ * </p>
+ *
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+class EHistMBeansTest {
+
+    @Test
+    void dataControlReportsItsCounters() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        DataControl data = new DataControl();
+        Position position = data.addPosition("Developer", data.addEmployer("Acme"));
+        DeductionType tax = data.addDeductionType("Tax");
+
+        for (int i = 0; i < 3; ++i) {
+            data.addPayPeriod(DateManager.getDate(2020, 1 + i, 1), DateManager.getDate(2020, 1 + i, 14), position,
+                    Amount.of(100_000), new Deduction[] {new Deduction(Amount.of(20_000), tax)});
+        }
+
+        ObjectName name = EHistMBeans.register(data, "test, \"quoted\"");
+
+        try {
+            assertEquals(EHistMBeans.DOMAIN, name.getDomain());
+            assertEquals("DataControl", name.getKeyProperty("type"));
+            assertEquals("test, \"quoted\"", ObjectName.unquote(name.getKeyProperty("name")));
+            assertTrue(server.isRegistered(name));
+
+            assertEquals(1, server.getAttribute(name, "EmployerCount"));
+            assertEquals(1, server.getAttribute(name, "PositionCount"));
+            assertEquals(1, server.getAttribute(name, "DeductionTypeCount"));
+            assertEquals(3, server.getAttribute(name, "PayPeriodCount"));
+            assertEquals(3, server.getAttribute(name, "DeductionCount"));
+            assertEquals(3L, server.getAttribute(name, "PayPeriodsAppended"));
+
+            long queries = (Long) server.getAttribute(name, "QueryCount");
+
+            assertEquals(240_000, data.getEarningsRangeIndex().getNetCents(DateManager.getDate(2020, 1, 1),
+                    DateManager.getDate(2020, 12, 31)));
+            assertEquals(queries + 1, server.getAttribute(name, "QueryCount"));
+            assertTrue((Long) server.getAttribute(name, "EstimatedHeapBytes") > 0);
+
+            /* A second data control may not take the name */
+            assertThrows(EHistException.class, () -> EHistMBeans.register(new DataControl(), "test, \"quoted\""));
+        } finally {
+            EHistMBeans.unregister(name);
+        }
+
+        assertFalse(server.isRegistered(name));
+        EHistMBeans.unregister(name);
+    }
+
+    @Test
+    void dateManagerRegistersOnceFromManyThreads() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        ObjectName name = null;
+
+        try {
+            List<Future<ObjectName>> names = new ArrayList<>();
+
+            for (int t = 0; t < 4; ++t) {
+                names.add(pool.submit(() -> {
+                    start.await();
+                    return (EHistMBeans.registerDateManager());
+                }));
+            }
+            start.countDown();
+
+            name = names.get(0).get();
+            for (Future<ObjectName> other : names) {
+                assertEquals(name, other.get());
+            }
+
+            assertEquals(new ObjectName("ehist:type=DateManager"), name);
+            assertTrue(server.isRegistered(name));
+            assertEquals(name, EHistMBeans.registerDateManager());
+
+            DateManager.getDate(2020, 6, 15);
+
+            long hits = (Long) server.getAttribute(name, "HitCount");
+
+            DateManager.getDate(2020, 6, 15);
+            assertTrue((Long) server.getAttribute(name, "HitCount") > hits);
+            assertTrue((Integer) server.getAttribute(name, "DatesStored") > 0);
+        } finally {
+            pool.shutdownNow();
+            if (name != null) {
+                EHistMBeans.unregister(name);
+            }
+        }
+    }
+}
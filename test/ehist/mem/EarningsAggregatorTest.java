@@ -0,0 +1,265 @@
+package ehist.mem;
+
+import ehist.mem.date.Date;
+import ehist.mem.date.DateManager;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ * === EarningsAggregatorTest Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Tests aggregations against sums taken one pay period at a time, for
+ * groupings by year, month, employer, position and deduction type. Each
+ * grouping is run with few cells, where every worker keeps a copy of every
+ * cell, and with more cells than {@link EarningsAggregator#MAX_PARTIAL_LONGS}
+ * allows, where workers only sum the cells their rows touch.
+ * </p>
+ *
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+class EarningsAggregatorTest {
+
+    /** The groupings checked, from everything in one group to every key. */
+    private static final List<EnumSet<GroupBy>> GROUPINGS = List.of(
+            EnumSet.noneOf(GroupBy.class),
+            EnumSet.of(GroupBy.YEAR),
+            EnumSet.of(GroupBy.MONTH),
+            EnumSet.of(GroupBy.YEAR, GroupBy.MONTH),
+            EnumSet.of(GroupBy.EMPLOYER),
+            EnumSet.of(GroupBy.POSITION, GroupBy.YEAR),
+            EnumSet.of(GroupBy.DEDUCTION_TYPE),
+            EnumSet.of(GroupBy.YEAR, GroupBy.EMPLOYER, GroupBy.DEDUCTION_TYPE),
+            EnumSet.allOf(GroupBy.class));
+
+    /** The number of pay periods, enough for the rows to be split across tasks. */
+    private static final int PAY_PERIODS = 60_000;
+
+    /** The number of employers of the data with many cells, each with {@link #TITLES} positions. */
+    private static final int MANY_EMPLOYERS = 60;
+
+    /** The titles of the positions of the data with many cells. */
+    private static final int TITLES = 4;
+
+    /**
+     * @param by         the keys grouped by
+     * @param pay_period the pay period
+     * @return the values of the keys of the pay period
+     */
+    private static String key(EnumSet<GroupBy> by, PayPeriod pay_period) {
+        Date end = pay_period.getEndDate();
+        return (key(by, end.getYear(), end.getMonthNumber(), pay_period.getPosition()));
+    }
+
+    /**
+     * @param by       the keys grouped by
+     * @param year     the year
+     * @param month    the month number
+     * @param position the position
+     * @return the values of the keys grouped by
+     */
+    private static String key(EnumSet<GroupBy> by, int year, int month, Position position) {
+        return ((by.contains(GroupBy.YEAR) ? year : "-") + "/"
+                + (by.contains(GroupBy.MONTH) ? month : "-") + "/"
+                + (by.contains(GroupBy.POSITION) ? "p" + position.getId()
+                        : by.contains(GroupBy.EMPLOYER) ? "e" + position.getEmployer().getId() : "-"));
+    }
+
+    /**
+     *  Sums the count, gross, deductions and deductions by type of every
+     * group, one pay period at a time.
+     * @param data the data control
+     * @param by   the keys grouped by
+     * @return the sums of each group by its key values
+     */
+    private static Map<String, long[]> naive(DataControl data, EnumSet<GroupBy> by) {
+        Map<String, long[]> sums = new HashMap<>();
+        int types = data.getDeductionTypes().size();
+
+        for (int row = 0; row < data.getPayPeriodStore().size(); ++row) {
+            PayPeriod pay_period = data.getPayPeriod(row);
+            long[] sum = sums.computeIfAbsent(key(by, pay_period), k -> new long[3 + types]);
+
+            sum[0] += 1;
+            sum[1] += pay_period.getGrossCents();
+            sum[2] += pay_period.getDeductionCents();
+
+            for (Deduction deduction : pay_period.getDeductions()) {
+                sum[3 + deduction.getDeductionType().getId()] += deduction.getAmount().getCents();
+            }
+        }
+
+        return (sums);
+    }
+
+    /**
+     *  Checks an aggregation of the data against the naive sums.
+     * @param data the data control
+     * @param pool the pool to aggregate on
+     * @param by   the keys grouped by
+     */
+    private static void assertAggregates(DataControl data, ForkJoinPool pool, EnumSet<GroupBy> by) {
+        Map<String, long[]> want = naive(data, by);
+        EarningsSummary summary = EarningsAggregator.aggregate(data, pool, by.toArray(new GroupBy[0]));
+        int types = data.getDeductionTypes().size();
+
+        assertEquals(by, summary.getGroupBy());
+        assertEquals(want.size(), summary.getGroupCount(), by.toString());
+
+        for (int g = 0; g < summary.getGroupCount(); ++g) {
+            Position position = (by.contains(GroupBy.POSITION) ? summary.getPosition(g)
+                    : by.contains(GroupBy.EMPLOYER) ? summary.getEmployer(g).getPositions().get(0) : null);
+            String key = key(by, by.contains(GroupBy.YEAR) ? summary.getYear(g) : 0,
+                    by.contains(GroupBy.MONTH) ? summary.getMonth(g).getMonthNumber() : 0, position);
+            long[] sum = want.get(key);
+            long[] got = new long[3 + types];
+
+            assertNotNull(sum, by + " " + key);
+            got[0] = summary.getPayPeriodCount(g);
+            got[1] = summary.getGrossCents(g);
+            got[2] = summary.getDeductionCents(g);
+            assertEquals(got[1] - got[2], summary.getNetCents(g));
+
+            for (int t = 0; t < types; ++t) {
+                got[3 + t] = (by.contains(GroupBy.DEDUCTION_TYPE)
+                        ? summary.getDeductionCents(g, data.getDeductionType(t)) : sum[3 + t]);
+            }
+
+            assertArrayEquals(sum, got, by + " " + key);
+        }
+    }
+
+    /**
+     * @param data the data control
+     * @param by   the keys grouped by
+     * @return the number of sums a copy of every cell of the grouping would take
+     */
+    private static long partialLongs(DataControl data, EnumSet<GroupBy> by) {
+        PayPeriodStore store = data.getPayPeriodStore();
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+
+        for (int row = 0; row < store.size(); ++row) {
+            int year = Date.getYear(store.getEnd(row));
+            min = Math.min(min, year);
+            max = Math.max(max, year);
+        }
+
+        long cells = (by.contains(GroupBy.YEAR) ? max - min + 1 : 1) * (by.contains(GroupBy.MONTH) ? 12 : 1)
+                * (by.contains(GroupBy.POSITION) ? data.getPositions().size()
+                        : by.contains(GroupBy.EMPLOYER) ? data.getEmployers().size() : 1);
+        return (cells * (3 + (by.contains(GroupBy.DEDUCTION_TYPE) ? data.getDeductionTypes().size() : 0)));
+    }
+
+    @Test
+    void denseCellsMatchNaiveSums() {
+        DataControl data = new DataControl();
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        Histories.generate(data, PAY_PERIODS, 11);
+
+        try {
+            for (EnumSet<GroupBy> by : GROUPINGS) {
+                assertTrue(partialLongs(data, by) <= EarningsAggregator.MAX_PARTIAL_LONGS, by.toString());
+                assertAggregates(data, pool, by);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void sparseCellsMatchNaiveSums() {
+        DataControl data = new DataControl();
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        for (String type : Histories.DEDUCTION_TYPES) {
+            data.addDeductionType(type);
+        }
+        for (int e = 0; e < MANY_EMPLOYERS; ++e) {
+            Employer employer = data.addEmployer("Employer " + e);
+
+            for (int t = 0; t < TITLES; ++t) {
+                data.addPosition("Title " + t, employer);
+            }
+        }
+        Histories.generate(data, PAY_PERIODS, 12);
+
+        try {
+            assertTrue(partialLongs(data, EnumSet.allOf(GroupBy.class)) > EarningsAggregator.MAX_PARTIAL_LONGS);
+            assertTrue(partialLongs(data, EnumSet.of(GroupBy.YEAR, GroupBy.MONTH, GroupBy.POSITION))
+                    > EarningsAggregator.MAX_PARTIAL_LONGS);
+
+            for (EnumSet<GroupBy> by : GROUPINGS) {
+                assertAggregates(data, pool, by);
+            }
+            assertAggregates(data, pool, EnumSet.of(GroupBy.YEAR, GroupBy.MONTH, GroupBy.POSITION));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void emptyDataHasNoGroups() {
+        DataControl data = new DataControl();
+
+        data.addPosition("Developer", data.addEmployer("Acme"));
+        assertEquals(0, EarningsAggregator.aggregate(data, GroupBy.YEAR, GroupBy.POSITION).getGroupCount());
+    }
+
+    @Test
+    void aggregationCoversOnePointInTime() {
+        DataControl data = new DataControl();
+        Position position = data.addPosition("Developer", data.addEmployer("Acme"));
+        DeductionType tax = data.addDeductionType("Tax");
+
+        assertTimeoutPreemptively(Duration.ofSeconds(60), () -> {
+            ExecutorService writer = Executors.newSingleThreadExecutor();
+
+            try {
+                Future<?> appends = writer.submit(() -> {
+                    for (int i = 0; i < PAY_PERIODS; ++i) {
+                        data.addPayPeriod(DateManager.getDate(2020, 1, 1), DateManager.getDate(2020, 1, 14),
+                                position, Amount.of(1000), new Deduction[] {new Deduction(Amount.of(100), tax)});
+                    }
+                });
+
+                do {
+                    EarningsSummary summary = EarningsAggregator.aggregate(data, GroupBy.DEDUCTION_TYPE);
+
+                    /* Every pay period counted was counted whole */
+                    if (summary.getGroupCount() > 0) {
+                        long count = summary.getPayPeriodCount(0);
+
+                        assertEquals(count * 1000, summary.getGrossCents(0));
+                        assertEquals(count * 100, summary.getDeductionCents(0, tax));
+                    }
+                } while (!appends.isDone());
+
+                appends.get();
+            } finally {
+                writer.shutdownNow();
+            }
+        });
+
+        assertEquals(PAY_PERIODS, EarningsAggregator.aggregate(data).getPayPeriodCount(0));
+    }
+}
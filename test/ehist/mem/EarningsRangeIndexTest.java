@@ -0,0 +1,344 @@
+package ehist.mem;
+
+import ehist.mem.date.Date;
+import ehist.mem.date.DateManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * <p>
+ * === EarningsRangeIndexTest Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Tests the range indexes of a data control, its positions and its employers
+ * against prorating every pay period one at a time. The histories mix one day
+ * pay periods with longer ones and the ranges cut pay periods at both ends.
+ * The same history appended one pay period at a time, in batches of every
+ * size and through a snapshot must give the same answers.
+ * </p>
+ *
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+class EarningsRangeIndexTest {
+
+    /** The number of pay periods of the random history, besides the one day ones. */
+    private static final int PAY_PERIODS = 3000;
+
+    /** The number of one day pay periods of the random history. */
+    private static final int ONE_DAY_PAY_PERIODS = 300;
+
+    /** The number of random ranges queried. */
+    private static final int RANGES = 300;
+
+    @TempDir
+    Path dir;
+
+    /**
+     *  Builds a random history of pay periods of 6 to 30 days and of one day.
+     * @param seed the seed of the random history
+     * @return the data control holding the history
+     */
+    private static DataControl history(long seed) {
+        DataControl data = new DataControl();
+        Random random = new Random(seed);
+
+        Histories.generate(data, PAY_PERIODS, seed);
+
+        for (int i = 0; i < ONE_DAY_PAY_PERIODS; ++i) {
+            Date day = Date.ofEpochDay(Date.toEpochDay(DateManager.getDate(1990, 1, 1).getDateVal())
+                    + random.nextInt(40 * 365));
+            Deduction[] deductions = {new Deduction(Amount.of(random.nextInt(5000)), data.getDeductionType(1))};
+
+            data.addPayPeriod(day, day, data.getPosition(random.nextInt(data.getPositions().size())),
+                    Amount.of(random.nextInt(30_000)), deductions);
+        }
+
+        return (data);
+    }
+
+    /**
+     *  Adds the employers, positions and deduction types of a data control to
+     * an empty one, in the same order so they have the same ids.
+     * @param from the data control to copy the names of
+     * @return the new data control
+     */
+    private static DataControl copyNames(DataControl from) {
+        DataControl data = new DataControl();
+
+        for (DeductionType type : from.getDeductionTypes()) {
+            data.addDeductionType(type.getName());
+        }
+        for (Position position : from.getPositions()) {
+            Employer employer = data.findOrAddEmployer(position.getEmployer().getName());
+            data.addPosition(position.getTitle(), employer);
+        }
+
+        return (data);
+    }
+
+    /**
+     *  Appends a row of one data control to another with the same names.
+     * @param from the data control holding the row
+     * @param to   the data control to append to
+     * @param row  the row
+     */
+    private static void copyRow(DataControl from, DataControl to, int row) {
+        PayPeriodStore store = from.getPayPeriodStore();
+        Deduction[] deductions = new Deduction[store.getDeductionCount(row)];
+
+        for (int d = 0; d < deductions.length; ++d) {
+            deductions[d] = new Deduction(Amount.of(store.getDeductionCents(row, d)),
+                    to.getDeductionType(store.getDeductionTypeId(row, d)));
+        }
+
+        to.addPayPeriod(DateManager.getDate(store.getStart(row)), DateManager.getDate(store.getEnd(row)),
+                to.getPosition(store.getPositionId(row)), Amount.of(store.getGrossCents(row)), deductions);
+    }
+
+    /**
+     *  The amount earned by the end of the j-th day of n, as the index prorates.
+     * @param amount the amount of the pay period
+     * @param day    the number of days up to and including the day, from 0 to n
+     * @param length the number of days of the pay period, n
+     * @return the part of the amount earned
+     */
+    private static long earned(long amount, long day, long length) {
+        return (amount / length * day + amount % length * day / length);
+    }
+
+    /**
+     *  Prorates the first pay periods of the position or employer, or of the
+     * data control if neither is given, over a range of days.
+     * @param data     the data control
+     * @param rows     the number of rows of the data control to prorate
+     * @param position the position to limit to, or null
+     * @param employer the employer to limit to, or null
+     * @param kind     0 for the gross, 1 for the deductions, 2 for the net, 3 on for the deduction type 3 less
+     * @param from_day the epoch day of the first day of the range
+     * @param to_day   the epoch day of the last day of the range
+     * @return the amount earned over the range in cents
+     */
+    private static long naive(DataControl data, int rows, Position position, Employer employer, int kind,
+                              long from_day, long to_day) {
+        PayPeriodStore store = data.getPayPeriodStore();
+        long sum = 0;
+
+        for (int row = 0; row < rows; ++row) {
+            Position of = data.getPosition(store.getPositionId(row));
+
+            if ((position != null && of != position) || (employer != null && of.getEmployer() != employer)) {
+                continue;
+            }
+
+            long start = Date.toEpochDay(store.getStart(row));
+            long length = Date.toEpochDay(store.getEnd(row)) - start + 1;
+            long amount;
+
+            if (kind == 0) {
+                amount = store.getGrossCents(row);
+            } else if (kind == 1) {
+                amount = store.getDeductionTotalCents(row);
+            } else if (kind == 2) {
+                amount = store.getNetCents(row);
+            } else {
+                amount = 0;
+                for (int d = 0; d < store.getDeductionCount(row); ++d) {
+                    if (store.getDeductionTypeId(row, d) == kind - 3) {
+                        amount += store.getDeductionCents(row, d);
+                    }
+                }
+            }
+
+            long before = Math.min(Math.max(from_day - start, 0), length);
+            long through = Math.min(Math.max(to_day - start + 1, 0), length);
+
+            if (kind == 2) {
+                /* The net is the prorated gross less the prorated deductions, not the prorated net */
+                long gross = store.getGrossCents(row);
+                long deductions = store.getDeductionTotalCents(row);
+
+                sum += earned(gross, through, length) - earned(gross, before, length)
+                        - (earned(deductions, through, length) - earned(deductions, before, length));
+            } else {
+                sum += earned(amount, through, length) - earned(amount, before, length);
+            }
+        }
+
+        return (sum);
+    }
+
+    /**
+     * @param data  the data control
+     * @param index the range index
+     * @param kind  the kind of amount, as for {@link #naive}
+     * @param from_day the epoch day of the first day of the range
+     * @param to_day   the epoch day of the last day of the range
+     * @return the amount the index gives for the range
+     */
+    private static long query(DataControl data, EarningsRangeIndex index, int kind, long from_day, long to_day) {
+        switch (kind) {
+            case 0:
+                return (index.getGrossCents(from_day, to_day));
+            case 1:
+                return (index.getDeductionCents(from_day, to_day));
+            case 2:
+                return (index.getNetCents(from_day, to_day));
+            default:
+                return (index.getDeductionCents(data.getDeductionType(kind - 3), from_day, to_day));
+        }
+    }
+
+    /**
+     *  Checks every range index of a data control against prorating each pay
+     * period of another holding the same history, or more of it.
+     * @param want     the data control to prorate the pay periods of
+     * @param data     the data control to check
+     * @param from_day the epoch day of the first day of the range
+     * @param to_day   the epoch day of the last day of the range
+     */
+    private static void assertRange(DataControl want, DataControl data, long from_day, long to_day) {
+        String range = Date.ofEpochDay(from_day) + " to " + Date.ofEpochDay(to_day);
+        int rows = data.getPayPeriodStore().size();
+
+        for (int kind = 0; kind < 3 + want.getDeductionTypes().size(); ++kind) {
+            assertEquals(naive(want, rows, null, null, kind, from_day, to_day),
+                    query(data, data.getEarningsRangeIndex(), kind, from_day, to_day), kind + " " + range);
+
+            for (Position position : want.getPositions()) {
+                assertEquals(naive(want, rows, position, null, kind, from_day, to_day),
+                        query(data, data.getPosition(position.getId()).getEarningsRangeIndex(), kind, from_day,
+                                to_day), position.getTitle() + " " + kind + " " + range);
+            }
+
+            for (Employer employer : want.getEmployers()) {
+                assertEquals(naive(want, rows, null, employer, kind, from_day, to_day),
+                        query(data, data.getEmployer(employer.getId()).getEarningsRangeIndex(), kind, from_day,
+                                to_day), employer.getName() + " " + kind + " " + range);
+            }
+        }
+    }
+
+    /**
+     *  Checks random ranges: single days, short and long ranges, and ranges
+     * starting and ending inside pay periods.
+     * @param want the data control to prorate the pay periods of
+     * @param data the data control to check
+     * @param seed the seed of the random ranges
+     */
+    private static void assertRanges(DataControl want, DataControl data, long seed) {
+        Random random = new Random(seed);
+        PayPeriodStore store = want.getPayPeriodStore();
+        long first_day = Date.toEpochDay(DateManager.getDate(1989, 6, 1).getDateVal());
+
+        for (int i = 0; i < RANGES; ++i) {
+            long from_day;
+            long to_day;
+
+            switch (i % 4) {
+                case 0:
+                    from_day = first_day + random.nextInt(42 * 365);
+                    to_day = from_day;
+                    break;
+                case 1:
+                    from_day = first_day + random.nextInt(42 * 365);
+                    to_day = from_day + random.nextInt(60);
+                    break;
+                case 2:
+                    from_day = first_day + random.nextInt(42 * 365);
+                    to_day = from_day + random.nextInt(10 * 365);
+                    break;
+                default:
+                    /* From inside one pay period to inside another */
+                    int a = random.nextInt(store.size());
+                    int b = random.nextInt(store.size());
+                    long a_start = Date.toEpochDay(store.getStart(a));
+                    long b_start = Date.toEpochDay(store.getStart(b));
+
+                    from_day = a_start + random.nextInt((int)(Date.toEpochDay(store.getEnd(a)) - a_start + 1));
+                    to_day = b_start + random.nextInt((int)(Date.toEpochDay(store.getEnd(b)) - b_start + 1));
+
+                    if (from_day > to_day) {
+                        long swap = from_day;
+                        from_day = to_day;
+                        to_day = swap;
+                    }
+                    break;
+            }
+
+            assertRange(want, data, from_day, to_day);
+        }
+
+        /* Everything, and nothing */
+        assertRange(want, data, first_day - 365, first_day + 45 * 365);
+        assertRange(want, data, first_day - 365, first_day - 1);
+        assertEquals(0, data.getEarningsRangeIndex().getGrossCents(first_day + 10, first_day));
+    }
+
+    @Test
+    void matchesProratingEachPayPeriod() {
+        DataControl data = history(21);
+
+        assertRanges(data, data, 22);
+    }
+
+    @Test
+    void batchesMatchSingleAppends() {
+        DataControl want = history(31);
+        DataControl data = copyNames(want);
+        int rows = want.getPayPeriodStore().size();
+        int row = 0;
+
+        /* A first batch builds the interval indexes, smaller ones insert into them, then single appends */
+        for (int batch : new int[] {rows / 2, rows / 4, 1, 50, 0}) {
+            synchronized (data) {
+                data.beginBatch();
+
+                try {
+                    for (int end = row + batch; row < end; ++row) {
+                        copyRow(want, data, row);
+                    }
+                } finally {
+                    data.listAll();
+                }
+            }
+
+            assertRanges(want, data, 32 + batch);
+        }
+
+        while (row < rows) {
+            copyRow(want, data, row++);
+        }
+
+        assertRanges(want, data, 33);
+    }
+
+    @Test
+    void snapshotMatchesSingleAppends() {
+        Path path = dir.resolve("history.snapshot");
+        DataControl want = history(41);
+
+        Snapshot.write(want, path);
+
+        DataControl data = Snapshot.open(path);
+
+        assertRanges(want, data, 42);
+
+        /* Single appends to the opened data control insert into the indexes built on open */
+        DataControl more = history(43);
+        int rows = more.getPayPeriodStore().size();
+
+        for (int row = 0; row < rows; row += 7) {
+            copyRow(more, want, row);
+            copyRow(more, data, row);
+        }
+
+        assertRanges(want, data, 44);
+    }
+}
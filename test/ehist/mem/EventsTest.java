@@ -0,0 +1,153 @@
+package ehist.mem;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+import jdk.jfr.SettingDescriptor;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ * === EventsTest Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Tests the Flight Recorder events: none are recorded unless enabled, and
+ * once the <tt>ehist</tt> events are enabled in a recording an export, an
+ * aggregation and a snapshot write each record their event with its rows and
+ * bytes or groups filled in.
+ * </p>
+ *
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+class EventsTest {
+
+    /** The names of every event. */
+    private static final List<String> EVENTS = List.of("ehist.ImportBatch", "ehist.Aggregation", "ehist.Export",
+            "ehist.SnapshotWrite", "ehist.JournalWrite");
+
+    /** The number of pay periods of the history. */
+    private static final int PAY_PERIODS = 1000;
+
+    @TempDir
+    Path dir;
+
+    /**
+     *  Exports, aggregates and writes a snapshot of a history.
+     * @param data the data control holding the history
+     * @return the number of bytes exported
+     */
+    private long work(DataControl data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(PAY_PERIODS, new Exporter(data, Exporter.Format.CSV).export(Channels.newChannel(out)));
+        EarningsAggregator.aggregate(data, GroupBy.POSITION);
+        Snapshot.write(data, dir.resolve("history.snapshot"));
+
+        return (out.size());
+    }
+
+    /**
+     * @param recording the stopped recording
+     * @return the ehist events of the recording
+     * @throws IOException if the recording cannot be read back
+     */
+    private List<RecordedEvent> events(Recording recording) throws IOException {
+        Path path = dir.resolve("events.jfr");
+
+        recording.dump(path);
+        return (RecordingFile.readAllEvents(path).stream()
+                .filter(e -> e.getEventType().getName().startsWith("ehist."))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * @param events the recorded events
+     * @param name   the name of the event
+     * @return the one event of the name
+     */
+    private static RecordedEvent only(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> found = events.stream()
+                .filter(e -> e.getEventType().getName().equals(name))
+                .collect(Collectors.toList());
+
+        assertEquals(1, found.size(), name);
+        return (found.get(0));
+    }
+
+    @Test
+    void eventsAreDisabledByDefault() throws Exception {
+        DataControl data = new DataControl();
+        Histories.generate(data, PAY_PERIODS, 101);
+
+        for (Class<? extends Event> event : List.of(ImportBatchEvent.class, AggregationEvent.class,
+                ExportEvent.class, SnapshotWriteEvent.class, JournalWriteEvent.class)) {
+            EventType type = EventType.getEventType(event);
+            SettingDescriptor enabled = type.getSettingDescriptors().stream()
+                    .filter(d -> d.getName().equals("enabled")).findFirst().orElseThrow();
+
+            assertTrue(EVENTS.contains(type.getName()), type.getName());
+            assertEquals("false", enabled.getDefaultValue(), type.getName());
+        }
+
+        try (Recording recording = new Recording(Configuration.getConfiguration("profile"))) {
+            recording.start();
+            work(data);
+            recording.stop();
+
+            assertTrue(events(recording).isEmpty());
+        }
+    }
+
+    @Test
+    void enabledEventsRecordRowsAndBytes() throws Exception {
+        DataControl data = new DataControl();
+        Histories.generate(data, PAY_PERIODS, 102);
+
+        try (Recording recording = new Recording()) {
+            for (String name : EVENTS) {
+                recording.enable(name);
+            }
+
+            recording.start();
+
+            long exported = work(data);
+
+            recording.stop();
+
+            List<RecordedEvent> events = events(recording);
+            RecordedEvent export = only(events, "ehist.Export");
+            RecordedEvent aggregation = only(events, "ehist.Aggregation");
+            RecordedEvent snapshot = only(events, "ehist.SnapshotWrite");
+
+            assertEquals("CSV", export.getString("format"));
+            assertEquals(PAY_PERIODS, export.getLong("rows"));
+            assertEquals(exported, export.getLong("bytes"));
+
+            assertEquals(PAY_PERIODS, aggregation.getInt("rows"));
+            assertEquals(data.getPositions().size(), aggregation.getInt("groups"));
+            assertNotNull(aggregation.getString("keys"));
+
+            assertEquals(PAY_PERIODS, snapshot.getInt("rows"));
+            assertEquals(Files.size(dir.resolve("history.snapshot")), snapshot.getLong("bytes"));
+            assertTrue(snapshot.getString("path").endsWith("history.snapshot"));
+        }
+    }
+}
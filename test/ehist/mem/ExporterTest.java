@@ -0,0 +1,150 @@
+package ehist.mem;
+
+import ehist.mem.date.Date;
+import ehist.mem.date.DateManager;
+import ehist.mem.date.DateParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ * === ExporterTest Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Tests writing pay periods with the {@link Exporter}, as CSV loaded back by
+ * the {@link CsvImporter} and as JSON lines, whole and filtered.
+ * </p>
+ *
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+class ExporterTest {
+
+    /** The first date of a CSV line, its start date, as no name of the histories has a date in it. */
+    private static final Pattern DATE = Pattern.compile("\\d{4}-\\d{2}-\\d{2}");
+
+    @TempDir
+    Path dir;
+
+    /**
+     * @param exporter the exporter
+     * @return the text written by the exporter
+     */
+    private static String export(Exporter exporter) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.export(Channels.newChannel(out));
+        return (out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void importsTheCsvItWrites() throws IOException {
+        Path path = dir.resolve("history.csv");
+        DataControl data = new DataControl();
+
+        Histories.generate(data, 20_000, 21);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            assertEquals(20_000, new Exporter(data, Exporter.Format.CSV).export(channel));
+        }
+
+        DataControl loaded = new DataControl();
+
+        assertEquals(20_000, CsvImporter.load(loaded, path));
+        Histories.assertSameHistory(data, loaded);
+    }
+
+    @Test
+    void writesOneJsonObjectPerLine() {
+        DataControl data = new DataControl();
+        DeductionType tax = data.addDeductionType("Income \"Tax\"");
+        Position position = data.addPosition("Developer", data.addEmployer("Caf\u00e9\tZo\u00eb"));
+
+        data.addPayPeriod(DateManager.getDate(2024, 1, 1), DateManager.getDate(2024, 1, 14), position,
+                Amount.of(250_000), new Deduction[] {new Deduction(Amount.of(41_250), tax)});
+        data.addPayPeriod(DateManager.getDate(2024, 1, 15), DateManager.getDate(2024, 1, 28), position,
+                Amount.of(-5), new Deduction[0]);
+
+        assertEquals("{\"employer\":\"Caf\u00e9\\u0009Zo\u00eb\",\"position\":\"Developer\",\"start\":\"2024-01-01\","
+                        + "\"end\":\"2024-01-14\",\"gross\":2500.00,\"deductions\":[{\"type\":\"Income \\\"Tax\\\"\","
+                        + "\"amount\":412.50}],\"net\":2087.50}\n"
+                        + "{\"employer\":\"Caf\u00e9\\u0009Zo\u00eb\",\"position\":\"Developer\",\"start\":\"2024-01-15\","
+                        + "\"end\":\"2024-01-28\",\"gross\":-0.05,\"deductions\":[],\"net\":-0.05}\n",
+                export(new Exporter(data, Exporter.Format.JSON_LINES)));
+    }
+
+    @Test
+    void filtersByDateRangeAndEmployer() {
+        DataControl data = new DataControl();
+
+        Histories.generate(data, 5000, 22);
+
+        Date from = DateManager.getDate(2000, 1, 1);
+        Date to = DateManager.getDate(2004, 12, 31);
+        Employer employer = data.findEmployer(Histories.EMPLOYERS[1]);
+        PayPeriodStore store = data.getPayPeriodStore();
+        int in_range = 0;
+        int of_employer = 0;
+        int last_start = 0;
+
+        for (int row = 0; row < store.size(); ++row) {
+            boolean ends_in_range = store.getEnd(row) >= from.getDateVal() && store.getEnd(row) <= to.getDateVal();
+            boolean employed = data.getPosition(store.getPositionId(row)).getEmployer() == employer;
+
+            in_range += (ends_in_range ? 1 : 0);
+            of_employer += (ends_in_range && employed ? 1 : 0);
+        }
+
+        String csv = export(new Exporter(data, Exporter.Format.CSV).setDateRange(from, to));
+        String[] lines = csv.split("\n");
+
+        assertEquals(in_range + 1, lines.length);
+
+        /* Within a range pay periods are written in order of start date */
+        for (int i = 1; i < lines.length; ++i) {
+            Matcher matcher = DATE.matcher(lines[i]);
+            assertTrue(matcher.find(), lines[i]);
+            int start = DateParser.createParser("$y$-$mm$-$dd$").parseDateVal(matcher.group());
+
+            assertTrue(start >= last_start, lines[i]);
+            last_start = start;
+        }
+
+        assertEquals(of_employer, new Exporter(data, Exporter.Format.CSV).setDateRange(from, to)
+                .setEmployer(employer).export(Channels.newChannel(new ByteArrayOutputStream())));
+        assertThrows(EHistException.class, () -> new Exporter(data, Exporter.Format.CSV).setDateRange(to, from));
+        assertThrows(EHistException.class, () -> new Exporter(data, Exporter.Format.CSV)
+                .setEmployer(new DataControl().addEmployer("Other")));
+    }
+
+    @Test
+    void refusesCsvOfNamesWithLineEnds() {
+        DataControl data = new DataControl();
+        Position position = data.addPosition("Developer", data.addEmployer("Two\nLines"));
+
+        data.addPayPeriod(DateManager.getDate(2024, 1, 1), DateManager.getDate(2024, 1, 14), position,
+                Amount.of(100), new Deduction[0]);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EHistException e = assertThrows(EHistException.class,
+                () -> new Exporter(data, Exporter.Format.CSV).export(Channels.newChannel(out)));
+
+        assertTrue(e.getMessage().contains("\"Two\\u000aLines\""), e.getMessage());
+        assertEquals(0, out.size());
+        assertTrue(export(new Exporter(data, Exporter.Format.JSON_LINES)).contains("\"Two\\u000aLines\""));
+    }
+}
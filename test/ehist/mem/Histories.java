@@ -0,0 +1,147 @@
+package ehist.mem;
+
+import ehist.mem.date.Date;
+import ehist.mem.date.DateManager;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * <p>
+ * === Histories Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Builds small random earnings histories for the tests and checks that two
+ * data controls hold the same one. Names include a comma, a quote and
+ * characters past ASCII so they go through the quoting of CSV and the UTF-8
+ * of journals and snapshots.
+ * </p>
+ *
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+final class Histories {
+
+    /** The names of the employers. */
+    static final String[] EMPLOYERS = {"Acme", "Smith, Jones & Co", "\"Quoted\" Ltd", "Caf\u00e9 Zo\u00eb"};
+
+    /** The titles of the positions, each held at every employer. */
+    static final String[] TITLES = {"Developer", "Manager"};
+
+    /** The names of the deduction types. */
+    static final String[] DEDUCTION_TYPES = {"Income Tax", "Pension", "Union, Local 12"};
+
+    private Histories() {
+    }
+
+    /**
+     *  Adds random pay periods between 1990 and 2029 to the data control, adding
+     * the employers, positions and deduction types first if it has none.
+     * @param data        the data control
+     * @param pay_periods the number of pay periods to add
+     * @param seed        the seed of the random history
+     */
+    static void generate(DataControl data, int pay_periods, long seed) {
+        if (data.getEmployers().isEmpty()) {
+            for (String type : DEDUCTION_TYPES) {
+                data.addDeductionType(type);
+            }
+            for (String name : EMPLOYERS) {
+                Employer employer = data.addEmployer(name);
+
+                for (String title : TITLES) {
+                    data.addPosition(title, employer);
+                }
+            }
+        }
+
+        Random random = new Random(seed);
+        long first_day = Date.toEpochDay(DateManager.getDate(1990, 1, 1).getDateVal());
+
+        for (int i = 0; i < pay_periods; ++i) {
+            long start_day = first_day + random.nextInt(40 * 365);
+            Date start = Date.ofEpochDay(start_day);
+            Date end = Date.ofEpochDay(start_day + 6 + random.nextInt(25));
+            Position position = data.getPosition(random.nextInt(data.getPositions().size()));
+            Deduction[] deductions = new Deduction[random.nextInt(DEDUCTION_TYPES.length + 1)];
+
+            for (int d = 0; d < deductions.length; ++d) {
+                deductions[d] = new Deduction(Amount.of(random.nextInt(50_000)), data.getDeductionType(d));
+            }
+
+            data.addPayPeriod(start, end, position, Amount.of(100_000 + random.nextInt(400_000)), deductions);
+        }
+    }
+
+    /**
+     *  Checks that both data controls have the same pay periods in the same
+     * order, by the names of their employers, positions and deduction types,
+     * and the same totals kept over them.
+     * @param expected the data control holding the history
+     * @param actual   the data control to check
+     */
+    static void assertSameHistory(DataControl expected, DataControl actual) {
+        PayPeriodStore want = expected.getPayPeriodStore();
+        PayPeriodStore got = actual.getPayPeriodStore();
+
+        assertEquals(want.size(), got.size());
+
+        for (int row = 0; row < want.size(); ++row) {
+            Position want_position = expected.getPosition(want.getPositionId(row));
+            Position got_position = actual.getPosition(got.getPositionId(row));
+
+            assertEquals(want_position.getTitle(), got_position.getTitle());
+            assertEquals(want_position.getEmployer().getName(), got_position.getEmployer().getName());
+            assertEquals(want.getStart(row), got.getStart(row));
+            assertEquals(want.getEnd(row), got.getEnd(row));
+            assertEquals(want.getGrossCents(row), got.getGrossCents(row));
+            assertEquals(want.getDeductionCount(row), got.getDeductionCount(row));
+
+            for (int d = 0; d < want.getDeductionCount(row); ++d) {
+                assertEquals(expected.getDeductionType(want.getDeductionTypeId(row, d)).getName(),
+                        actual.getDeductionType(got.getDeductionTypeId(row, d)).getName());
+                assertEquals(want.getDeductionCents(row, d), got.getDeductionCents(row, d));
+            }
+        }
+
+        assertSameTotals(expected, actual);
+    }
+
+    /**
+     *  Checks that the indexes and totals of both data controls agree.
+     * @param expected the data control holding the history
+     * @param actual   the data control to check
+     */
+    static void assertSameTotals(DataControl expected, DataControl actual) {
+        for (int year = 1990; year < 2030; year += 3) {
+            long from_day = Date.toEpochDay(DateManager.getDate(year, 1, 1).getDateVal());
+            long to_day = from_day + 400;
+
+            assertEquals(expected.getEarningsRangeIndex().getNetCents(from_day, to_day),
+                    actual.getEarningsRangeIndex().getNetCents(from_day, to_day));
+            assertEquals(expected.getPayPeriodIndex().countOverlapping(Date.epochDayToDateVal(from_day),
+                    Date.epochDayToDateVal(to_day)), actual.getPayPeriodIndex().countOverlapping(
+                    Date.epochDayToDateVal(from_day), Date.epochDayToDateVal(to_day)));
+
+            for (Employer employer : expected.getEmployers()) {
+                Employer other = actual.findEmployer(employer.getName());
+
+                assertEquals(employer.getCalendarTotals().getNetCents(year), other.getCalendarTotals().getNetCents(year));
+
+                for (Position position : employer.getPositions()) {
+                    Position same = actual.findPosition(position.getTitle(), other);
+
+                    assertEquals(position.getCalendarTotals().getGrossCents(year),
+                            same.getCalendarTotals().getGrossCents(year));
+                    assertEquals(position.getPayPeriodCount(), same.getPayPeriodCount());
+                }
+            }
+
+            for (DeductionType type : expected.getDeductionTypes()) {
+                assertEquals(type.getCents(year), actual.findDeductionType(type.getName()).getCents(year));
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package ehist.mem;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ * === JournalTest Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Tests replaying a {@link Journal}, cutting a torn tail left by a crash and
+ * refusing a journal damaged anywhere else.
+ * </p>
+ *
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+class JournalTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     *  Writes a journal of a random history.
+     * @param path        the path of the journal
+     * @param pay_periods the number of pay periods
+     * @return the data control journaled
+     */
+    private static DataControl write(Path path, int pay_periods) {
+        DataControl data = new DataControl();
+        Journal journal = Journal.open(path, data);
+
+        Histories.generate(data, pay_periods, 7);
+        journal.close();
+
+        return (data);
+    }
+
+    /**
+     * @param path the path of the journal
+     * @return a new data control the journal was replayed into, the journal closed
+     */
+    private static DataControl replay(Path path) {
+        DataControl data = new DataControl();
+        Journal.open(path, data).close();
+        return (data);
+    }
+
+    /**
+     *  Flips bits of one byte of a file.
+     * @param path   the path of the file
+     * @param offset the offset of the byte
+     */
+    private static void corrupt(Path path, long offset) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            channel.read(b, offset);
+            b.put(0, (byte)(b.get(0) ^ 0x10)).rewind();
+            channel.write(b, offset);
+        }
+    }
+
+    @Test
+    void replaysEveryCreationInOrder() {
+        Path path = dir.resolve("history.journal");
+        DataControl data = write(path, 2000);
+        DataControl replayed = replay(path);
+
+        assertEquals(data.getEmployers().size(), replayed.getEmployers().size());
+        assertEquals(data.getPositions().size(), replayed.getPositions().size());
+        assertEquals(data.getDeductionTypes().size(), replayed.getDeductionTypes().size());
+
+        for (int id = 0; id < data.getPositions().size(); ++id) {
+            assertEquals(data.getPosition(id).getEmployer().getId(), replayed.getPosition(id).getEmployer().getId());
+        }
+
+        Histories.assertSameHistory(data, replayed);
+    }
+
+    @Test
+    void appendsAfterAReplay() {
+        Path path = dir.resolve("history.journal");
+        DataControl data = write(path, 500);
+        DataControl reopened = new DataControl();
+        Journal journal = Journal.open(path, reopened);
+
+        Histories.generate(reopened, 500, 8);
+        Histories.generate(data, 500, 8);
+        journal.close();
+
+        Histories.assertSameHistory(data, replay(path));
+    }
+
+    @Test
+    void cutsATornTail() throws IOException {
+        Path path = dir.resolve("history.journal");
+        DataControl data = write(path, 100);
+        long size = Files.size(path);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 5);
+        }
+
+        DataControl replayed = replay(path);
+
+        assertEquals(data.getPayPeriodStore().size() - 1, replayed.getPayPeriodStore().size());
+        assertTrue(Files.size(path) < size - 5);
+
+        /* The cut journal replays the same again */
+        assertEquals(replayed.getPayPeriodStore().size(), replay(path).getPayPeriodStore().size());
+    }
+
+    @Test
+    void cutsADamagedLastRecordFollowedByZeros() throws IOException {
+        Path path = dir.resolve("history.journal");
+        DataControl data = write(path, 100);
+        long size = Files.size(path);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4096), size);
+        }
+        corrupt(path, size - 1);
+
+        DataControl replayed = replay(path);
+
+        assertEquals(data.getPayPeriodStore().size() - 1, replayed.getPayPeriodStore().size());
+        assertTrue(Files.size(path) < size);
+    }
+
+    @Test
+    void refusesADamagedRecordInTheMiddle() throws IOException {
+        Path path = dir.resolve("history.journal");
+        write(path, 100);
+        long size = Files.size(path);
+
+        /* A byte of the CRC of the first record, after the magic number and length */
+        corrupt(path, 10);
+        assertThrows(EHistException.class, () -> replay(path));
+
+        /* A byte within a pay period record halfway through */
+        Path middle = dir.resolve("middle.journal");
+        write(middle, 100);
+        corrupt(middle, size / 2);
+        assertThrows(EHistException.class, () -> replay(middle));
+
+        assertEquals(size, Files.size(path));
+        assertEquals(size, Files.size(middle));
+    }
+
+    @Test
+    void onlyReplaysIntoAnEmptyDataControl() {
+        Path path = dir.resolve("history.journal");
+        write(path, 10);
+
+        DataControl data = new DataControl();
+        data.addEmployer("Acme");
+
+        assertThrows(EHistException.class, () -> Journal.open(path, data));
+    }
+
+    @Test
+    void refusesAFileThatIsNotAJournal() throws IOException {
+        Path path = dir.resolve("other.txt");
+        Files.writeString(path, "employer,position,start,end,gross\n");
+
+        assertThrows(EHistException.class, () -> replay(path));
+    }
+}
@@ -0,0 +1,186 @@
+package ehist.mem;
+
+import ehist.mem.date.Date;
+import ehist.mem.date.DateManager;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * <p>
+ * === PayPeriodIndexTest Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Tests the interval index against a linear scan of the rows, after pay
+ * periods are added one at a time, in a batch at least as large as the index
+ * that rebuilds the tree and in smaller batches inserted into it. The index of
+ * only some rows kept by a range index is checked the same way.
+ * </p>
+ *
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+class PayPeriodIndexTest {
+
+    /** The number of random ranges queried after each step. */
+    private static final int RANGES = 400;
+
+    /**
+     *  Finds the rows overlapping a range by checking every row.
+     * @param store    the store of the rows
+     * @param rows     the rows to check
+     * @param from_val the date value of the first date of the range
+     * @param to_val   the date value of the last date of the range
+     * @return the overlapping rows in order of start date, then row
+     */
+    private static int[] scan(PayPeriodStore store, int[] rows, int from_val, int to_val) {
+        List<Integer> found = new ArrayList<>();
+
+        for (int row : rows) {
+            if (Integer.compareUnsigned(store.getStart(row), to_val) <= 0
+                    && Integer.compareUnsigned(store.getEnd(row), from_val) >= 0) {
+                found.add(row);
+            }
+        }
+
+        /* Date values compare as unsigned numbers */
+        found.sort((a, b) -> store.getStart(a) != store.getStart(b)
+                ? Integer.compareUnsigned(store.getStart(a), store.getStart(b)) : Integer.compare(a, b));
+        return (found.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * @param count the number of rows
+     * @return the rows from 0 to count - 1
+     */
+    private static int[] allRows(int count) {
+        int[] rows = new int[count];
+
+        Arrays.setAll(rows, i -> i);
+        return (rows);
+    }
+
+    /**
+     *  Checks the queries of an index against a scan of its rows over random
+     * ranges, single dates and ranges past either end of the rows.
+     * @param data  the data control of the rows
+     * @param index the index
+     * @param rows  the rows in the index
+     * @param seed  the seed of the random ranges
+     */
+    private static void assertMatchesScan(DataControl data, PayPeriodIndex index, int[] rows, long seed) {
+        PayPeriodStore store = data.getPayPeriodStore();
+        Random random = new Random(seed);
+        long first_day = Date.toEpochDay(DateManager.getDate(1989, 6, 1).getDateVal());
+
+        assertEquals(rows.length, index.size());
+
+        for (int i = 0; i < RANGES; ++i) {
+            long from_day = first_day + random.nextInt(42 * 365);
+            long to_day = from_day + (i % 3 == 0 ? 0 : random.nextInt(i % 3 == 1 ? 40 : 3000));
+            int from_val = Date.epochDayToDateVal(from_day);
+            int to_val = Date.epochDayToDateVal(to_day);
+            int[] want = scan(store, rows, from_val, to_val);
+            String range = Date.ofEpochDay(from_day) + " to " + Date.ofEpochDay(to_day);
+
+            assertArrayEquals(want, index.overlapping(from_val, to_val), range);
+            assertEquals(want.length, index.countOverlapping(from_val, to_val), range);
+
+            List<Integer> visited = new ArrayList<>();
+            index.forEachOverlapping(from_val, to_val, visited::add);
+            assertArrayEquals(want, visited.stream().mapToInt(Integer::intValue).toArray(), range);
+
+            if (from_day == to_day) {
+                assertArrayEquals(want, index.covering(from_val), range);
+                assertArrayEquals(want, index.covering(Date.ofEpochDay(from_day)), range);
+            }
+        }
+
+        int before = DateManager.getDate(1980, 1, 1).getDateVal();
+        int after = DateManager.getDate(2040, 1, 1).getDateVal();
+
+        assertEquals(0, index.countOverlapping(before, before));
+        assertEquals(0, index.countOverlapping(after, after));
+        assertArrayEquals(scan(store, rows, before, after), index.overlapping(before, after));
+    }
+
+    @Test
+    void matchesScanAcrossRebuildsAndInserts() {
+        DataControl data = new DataControl();
+        Histories.generate(data, 1, 51);
+
+        PayPeriodIndex index = data.getPayPeriodIndex();
+        Random random = new Random(52);
+
+        assertMatchesScan(data, index, allRows(1), 53);
+
+        /* Many more rows than indexed rebuild the tree, fewer are inserted one by one */
+        for (int batch : new int[] {2000, 600, 1999, 1, 3000, 0}) {
+            synchronized (data) {
+                data.beginBatch();
+
+                try {
+                    Histories.generate(data, batch, random.nextLong());
+                } finally {
+                    data.listAll();
+                }
+            }
+
+            assertMatchesScan(data, index, allRows(data.getPayPeriodStore().size()), batch);
+        }
+
+        Histories.generate(data, 500, 54);
+        assertMatchesScan(data, index, allRows(data.getPayPeriodStore().size()), 55);
+    }
+
+    @Test
+    void addAllTakesBothPaths() {
+        DataControl data = new DataControl();
+        Histories.generate(data, 3000, 61);
+
+        /* Filled from an empty index, then from indexes larger and smaller than the rows left */
+        for (int first : new int[] {0, 1, 1000, 1500, 2999}) {
+            PayPeriodIndex index = new PayPeriodIndex(data);
+            PayPeriodStore store = data.getPayPeriodStore();
+
+            for (int row = 0; row < first; ++row) {
+                index.add(row, store.getStart(row), store.getEnd(row));
+            }
+
+            index.addAll(store, store.size());
+            assertMatchesScan(data, index, allRows(store.size()), first);
+        }
+    }
+
+    @Test
+    void subsetIndexMatchesScanOfItsRows() {
+        DataControl data = new DataControl();
+        Histories.generate(data, 4000, 71);
+
+        PayPeriodStore store = data.getPayPeriodStore();
+        PayPeriodIndex index = new PayPeriodIndex(data, true);
+        List<Integer> rows = new ArrayList<>();
+        Random random = new Random(72);
+        int row = 0;
+
+        /* Staged in a first large flush that builds the tree, then smaller ones and single rows */
+        for (int batch : new int[] {1500, 300, 1, 1, 900, 1200}) {
+            for (int end = Math.min(row + batch, store.size()); row < end; ++row) {
+                if (random.nextInt(3) == 0) {
+                    index.stage(row, store.getStart(row), store.getEnd(row));
+                    rows.add(row);
+                }
+            }
+
+            index.flush();
+            assertMatchesScan(data, index, rows.stream().mapToInt(Integer::intValue).toArray(), batch + row);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package ehist.mem;
+
+import ehist.mem.date.Date;
+import ehist.mem.date.DateManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ * === SnapshotTest Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Tests writing a {@link Snapshot} and opening it back as a data control
+ * read from the mapped file, whose pay periods are listed by its first use.
+ * </p>
+ *
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+class SnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void opensTheSameHistory() {
+        Path path = dir.resolve("history.snapshot");
+        DataControl data = new DataControl();
+
+        Histories.generate(data, 5000, 11);
+        Snapshot.write(data, path);
+
+        DataControl opened = Snapshot.open(path);
+
+        assertTrue(opened.getPayPeriodStore().isMapped());
+        Histories.assertSameHistory(data, opened);
+    }
+
+    @Test
+    void opensAnEmptyDataControl() {
+        Path path = dir.resolve("empty.snapshot");
+        Snapshot.write(new DataControl(), path);
+
+        DataControl opened = Snapshot.open(path);
+
+        assertTrue(opened.getEmployers().isEmpty());
+        assertEquals(0, opened.getPayPeriodStore().size());
+    }
+
+    @Test
+    void addsToTheHeapNeverTheFile() throws IOException {
+        Path path = dir.resolve("history.snapshot");
+        DataControl data = new DataControl();
+
+        Histories.generate(data, 1000, 11);
+        Snapshot.write(data, path);
+
+        byte[] written = Files.readAllBytes(path);
+        DataControl opened = Snapshot.open(path);
+
+        Histories.generate(opened, 1000, 12);
+        Histories.generate(data, 1000, 12);
+
+        assertFalse(opened.getPayPeriodStore().isMapped());
+        Histories.assertSameHistory(data, opened);
+        assertArrayEquals(written, Files.readAllBytes(path));
+    }
+
+    @Test
+    void listsThePayPeriodsOnFirstUse() throws Exception {
+        Path path = dir.resolve("history.snapshot");
+        DataControl data = new DataControl();
+
+        Histories.generate(data, 3000, 13);
+        Snapshot.write(data, path);
+
+        /* Exports and aggregations read only the columns */
+        DataControl opened = Snapshot.open(path);
+
+        assertEquals(0, opened.listed());
+        assertEquals(3000, new Exporter(opened, Exporter.Format.CSV).export(Channels.newChannel(OutputStream.nullOutputStream())));
+        assertEquals(3000, EarningsAggregator.aggregate(opened).getPayPeriodCount(0));
+        assertEquals(0, opened.listed());
+
+        /* Several first reads at once all wait for the one listing */
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        long from_day = Date.toEpochDay(DateManager.getDate(1990, 1, 1).getDateVal());
+        long want = data.getEarningsRangeIndex().getNetCents(from_day, from_day + 20 * 365);
+
+        try {
+            List<Future<Long>> reads = new ArrayList<>();
+
+            for (int t = 0; t < 4; ++t) {
+                reads.add(pool.submit(() -> opened.getEarningsRangeIndex().getNetCents(from_day, from_day + 20 * 365)));
+            }
+            for (Future<Long> read : reads) {
+                assertEquals(want, read.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(3000, opened.listed());
+        Histories.assertSameHistory(data, opened);
+
+        /* An append or a log asked for before any read sees every pay period of the snapshot */
+        DataControl appended = Snapshot.open(path);
+        DeductionLog log = appended.getDeductionType(0).keepLog();
+
+        Histories.generate(appended, 10, 14);
+        Histories.generate(data, 10, 14);
+
+        assertEquals(3010, appended.listed());
+        assertEquals(data.getDeductionType(0).keepLog().size(), log.size());
+        Histories.assertSameHistory(data, appended);
+    }
+
+    @Test
+    void refusesFilesThatAreNotWholeSnapshots() throws IOException {
+        Path path = dir.resolve("history.snapshot");
+        DataControl data = new DataControl();
+
+        Histories.generate(data, 1000, 11);
+        Snapshot.write(data, path);
+
+        long size = Files.size(path);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 8);
+        }
+        assertThrows(EHistException.class, () -> Snapshot.open(path));
+
+        Path other = dir.resolve("other.bin");
+        byte[] ones = new byte[64];
+        Arrays.fill(ones, (byte)1);
+        Files.write(other, ones);
+        assertThrows(EHistException.class, () -> Snapshot.open(other));
+        assertThrows(EHistException.class, () -> Snapshot.open(dir.resolve("missing.snapshot")));
+    }
+}
@@ -0,0 +1,69 @@
+package ehist.mem.date;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * <p>
+ * === DateArithmeticTest Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Tests adding years, months, weeks and days to date values, one at a time
+ * and to arrays in place.
+ * </p>
+ *
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+class DateArithmeticTest {
+
+    @Test
+    void clampsToTheEndOfTheMonth() {
+        assertEquals(Date.toDateVal(2023, 2, 28), DateArithmetic.addMonths(Date.toDateVal(2023, 1, 31), 1));
+        assertEquals(Date.toDateVal(2024, 2, 29), DateArithmetic.addMonths(Date.toDateVal(2024, 1, 31), 1));
+        assertEquals(Date.toDateVal(2023, 2, 28), DateArithmetic.add(Date.toDateVal(2024, 2, 29), -1, 0, 0, 0));
+        assertEquals(Date.toDateVal(2023, 11, 30), DateArithmetic.addMonths(Date.toDateVal(2024, 1, 31), -2));
+    }
+
+    @Test
+    void addsMonthsBeforeDays() {
+        /* 2024/01/31 plus a month is 2024/02/29, then one day more */
+        assertEquals(Date.toDateVal(2024, 3, 1), DateArithmetic.add(Date.toDateVal(2024, 1, 31), 0, 1, 0, 1));
+        assertEquals(Date.toDateVal(2025, 3, 15), DateArithmetic.add(Date.toDateVal(2024, 1, 1), 1, 2, 2, 0));
+    }
+
+    @Test
+    void addsDaysAcrossYearsAndEras() {
+        int date_val = Date.toDateVal(1999, 12, 31);
+
+        assertEquals(Date.toDateVal(2000, 1, 1), DateArithmetic.addDays(date_val, 1));
+        assertEquals(Date.toDateVal(2400, 12, 31), DateArithmetic.addDays(date_val, 146097 + 366));
+        assertEquals(Date.toDateVal(1599, 12, 31), DateArithmetic.addDays(date_val, -146097));
+        assertEquals(date_val, DateArithmetic.addDays(DateArithmetic.addDays(date_val, 1_000_000), -1_000_000));
+    }
+
+    @Test
+    void shiftsArraysInPlace() {
+        int[] date_vals = {Date.toDateVal(2023, 1, 31), Date.toDateVal(2023, 3, 31), Date.toDateVal(2023, 12, 31)};
+
+        DateArithmetic.addMonths(date_vals, 1);
+        assertArrayEquals(new int[] {Date.toDateVal(2023, 2, 28), Date.toDateVal(2023, 4, 30),
+                Date.toDateVal(2024, 1, 31)}, date_vals);
+
+        DateArithmetic.addDays(date_vals, -28);
+        assertArrayEquals(new int[] {Date.toDateVal(2023, 1, 31), Date.toDateVal(2023, 4, 2),
+                Date.toDateVal(2024, 1, 3)}, date_vals);
+    }
+
+    @Test
+    void rejectsResultsOutOfRange() {
+        assertThrows(RuntimeException.class, () -> DateArithmetic.addDays(Date.toDateVal(0, 1, 1), -1));
+        assertThrows(RuntimeException.class, () -> DateArithmetic.addMonths(Date.toDateVal(0, 1, 1), -1));
+        assertThrows(RuntimeException.class, () -> DateArithmetic.addDays(Date.toDateVal(Year.MAX_YEAR, 12, 31), 1));
+        assertThrows(RuntimeException.class, () -> DateArithmetic.addMonths(Date.toDateVal(Year.MAX_YEAR, 12, 1), 1));
+    }
+}
@@ -0,0 +1,102 @@
+package ehist.mem.date;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * <p>
+ * === DateFormatterTest Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Tests the pre-made and created formatters, and that every
+ * <tt>formatTo</tt> path writes the same text as {@link DateFormatter#format(Date)}.
+ * </p>
+ *
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+class DateFormatterTest {
+
+    /** Every pre-made formatter. */
+    static final DateFormatter[] FORMATTERS = {
+            DateFormatter.DAY_MONTH_YEAR, DateFormatter.DD_MM_YEAR, DateFormatter.DD_MM_YY,
+            DateFormatter.DOW_MONTH_DAY_YEAR, DateFormatter.DOW_MONTH_DAY_TH_YEAR,
+            DateFormatter.SHORT_DOW_MONTH_DAY_YEAR, DateFormatter.SHORT_DOW_MONTH_DAY_TH_YEAR,
+            DateFormatter.YEAR_MM_DD, DateFormatter.YEAR_MONTH_DAY, DateFormatter.YY_MM_DD
+    };
+
+    @Test
+    void formatsThePreMadeFormats() {
+        Date date = DateManager.getDate(2017, 3, 2);
+
+        assertEquals("2/3/2017", DateFormatter.DAY_MONTH_YEAR.format(date));
+        assertEquals("02/03/2017", DateFormatter.DD_MM_YEAR.format(date));
+        assertEquals("Thursday, March 2, 2017", DateFormatter.DOW_MONTH_DAY_YEAR.format(date));
+        assertEquals("Thursday, March 2nd, 2017", DateFormatter.DOW_MONTH_DAY_TH_YEAR.format(date));
+        assertEquals("Thurs, Mar 2, 2017", DateFormatter.SHORT_DOW_MONTH_DAY_YEAR.format(date));
+        assertEquals("Thurs, Mar 2nd, 2017", DateFormatter.SHORT_DOW_MONTH_DAY_TH_YEAR.format(date));
+        assertEquals("2017/03/02", DateFormatter.YEAR_MM_DD.format(date));
+        assertEquals("2017/3/2", DateFormatter.YEAR_MONTH_DAY.format(date));
+
+        Date early = DateManager.getDate(7, 11, 13);
+
+        assertEquals("13/11/07", DateFormatter.DD_MM_YY.format(early));
+        assertEquals("07/11/13", DateFormatter.YY_MM_DD.format(early));
+        assertEquals("13th", DateFormatter.createFormatter("$D$").format(early));
+
+        DateManager.removeDate(date);
+        DateManager.removeDate(early);
+    }
+
+    @Test
+    void formatsCreatedPatterns() {
+        Date date = DateManager.getDate(1999, 12, 21);
+
+        assertEquals("21st of December (Dec) 1999, a Tuesday (Tues)",
+                DateFormatter.createFormatter("$D$ of $M$ ($Ms$) $y$, a $W$ ($Ws$)").format(date));
+        assertEquals("19991221", DateFormatter.createFormatter("$y$$mm$$dd$").format(date));
+        assertEquals("no keys", DateFormatter.createFormatter("no keys").format(date));
+
+        DateManager.removeDate(date);
+    }
+
+    @Test
+    void everyFormatToPathMatchesFormat() throws IOException {
+        byte[] bytes = new byte[64];
+        StringBuilder sb = new StringBuilder();
+
+        for (long day = Date.toEpochDay(Date.toDateVal(1999, 12, 1)); day < 11100; day += 13) {
+            Date date = Date.ofEpochDay(day);
+
+            for (DateFormatter formatter : FORMATTERS) {
+                String expected = formatter.format(date);
+
+                sb.setLength(0);
+                sb.append('>');
+                formatter.formatTo(date, sb);
+                assertEquals(">" + expected, sb.toString());
+
+                StringWriter writer = new StringWriter();
+                formatter.formatTo(date, writer);
+                assertEquals(expected, writer.toString());
+
+                int end = formatter.formatTo(date, bytes, 3);
+                assertEquals(expected, new String(bytes, 3, end - 3, StandardCharsets.US_ASCII));
+
+                /* A buffer with only just enough room goes through the scratch */
+                ByteBuffer buf = ByteBuffer.allocate(expected.length());
+                formatter.formatTo(date, buf);
+                assertEquals(expected, new String(buf.array(), StandardCharsets.US_ASCII));
+            }
+
+            DateManager.removeDate(date);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package ehist.mem.date;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ * === DateInternTableTest Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Tests the packing of date values and the reference counted interning of
+ * {@link DateInternTable}, on its own and through {@link DateManager}.
+ * </p>
+ *
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+class DateInternTableTest {
+
+    @Test
+    void packsYearMonthAndDay() {
+        int date_val = Date.toDateVal(2024, 2, 29);
+
+        assertEquals(2024, Date.getYear(date_val));
+        assertEquals(2, Date.getMonthNumber(date_val));
+        assertEquals(29, Date.getDay(date_val));
+
+        int max_val = Date.toDateVal(Year.MAX_YEAR, 12, 31);
+
+        assertEquals(Year.MAX_YEAR, Date.getYear(max_val));
+        assertEquals(12, Date.getMonthNumber(max_val));
+        assertEquals(31, Date.getDay(max_val));
+    }
+
+    @Test
+    void ordersDateValuesAsDates() {
+        assertTrue(Date.toDateVal(2023, 12, 31) < Date.toDateVal(2024, 1, 1));
+        assertTrue(Date.toDateVal(2024, 1, 31) < Date.toDateVal(2024, 2, 1));
+        assertTrue(Date.toDateVal(2024, 2, 1) < Date.toDateVal(2024, 2, 2));
+    }
+
+    @Test
+    void getDateReturnsOneInstancePerDate() {
+        Date date = DateManager.getDate(1987, 6, 15);
+
+        assertSame(date, DateManager.getDate(1987, Month.JUNE, 15));
+        assertSame(date, DateManager.getDate(date.getDateVal()));
+        assertEquals(1987, date.getYear());
+        assertEquals(Month.JUNE, date.getMonth());
+        assertEquals(15, date.getDay());
+
+        DateManager.removeDate(date);
+        DateManager.removeDate(date);
+        DateManager.removeDate(date);
+    }
+
+    @Test
+    void getDateRejectsInvalidDates() {
+        assertThrows(RuntimeException.class, () -> DateManager.getDate(2023, 2, 29));
+        assertThrows(RuntimeException.class, () -> DateManager.getDate(2023, 13, 1));
+        assertThrows(RuntimeException.class, () -> DateManager.getDate(2023, 4, 0));
+        assertThrows(RuntimeException.class, () -> DateManager.getDate(-1, 1, 1));
+
+        /* A month or day past its bits must not alias a stored date */
+        assertThrows(RuntimeException.class, () -> DateManager.getDate(2023, 1, 32));
+        assertThrows(RuntimeException.class, () -> DateManager.getDate(2023, 17, 1));
+    }
+
+    @Test
+    void removesDateOnceEveryAcquireIsReleased() {
+        DateInternTable table = new DateInternTable();
+        int date_val = Date.toDateVal(2001, 9, 9);
+
+        assertNull(table.acquire(date_val));
+
+        Date date = table.intern(date_val);
+
+        assertSame(date, table.acquire(date_val));
+        assertEquals(1, table.size());
+        assertTrue(table.release(date_val));
+        assertSame(date, table.peek(date_val));
+        assertTrue(table.release(date_val));
+        assertNull(table.peek(date_val));
+        assertEquals(0, table.size());
+        assertFalse(table.release(date_val));
+
+        assertNotSame(date, table.intern(date_val));
+    }
+
+    @Test
+    void closedTableOnlyInternsWhenAsked() {
+        DateInternTable table = new DateInternTable();
+        int date_val = Date.toDateVal(2001, 9, 9);
+
+        assertTrue(table.closeIfEmpty(() -> { }));
+        assertNull(table.internIfOpen(date_val));
+
+        /* The dates of the dense window are interned even while closed */
+        Date date = table.intern(date_val);
+
+        assertSame(date, table.peek(date_val));
+        assertFalse(table.closeIfEmpty(() -> { }));
+
+        table.reopen();
+        assertSame(date, table.internIfOpen(date_val));
+    }
+
+    @Test
+    void concurrentInternsShareOneInstance() throws Exception {
+        DateInternTable table = new DateInternTable();
+        int threads = 4;
+        int rounds = 2000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        try {
+            List<Future<Date[]>> results = new ArrayList<>();
+
+            for (int t = 0; t < threads; ++t) {
+                Callable<Date[]> task = () -> {
+                    Date[] dates = new Date[rounds];
+
+                    for (int i = 0; i < rounds; ++i) {
+                        int date_val = Date.epochDayToDateVal(i);
+                        Date date = table.acquire(date_val);
+                        dates[i] = (date != null ? date : table.intern(date_val));
+
+                        /* Release every other date so removals race the lookups */
+                        if ((i & 1) == 0) {
+                            table.release(date_val);
+                        }
+                    }
+
+                    return (dates);
+                };
+                results.add(pool.submit(task));
+            }
+
+            Date[] first = results.get(0).get();
+
+            for (Future<Date[]> result : results) {
+                Date[] dates = result.get();
+
+                for (int i = 1; i < rounds; i += 2) {
+                    assertSame(first[i], dates[i]);
+                    assertSame(first[i], table.peek(first[i].getDateVal()));
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
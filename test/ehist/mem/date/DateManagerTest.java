@@ -0,0 +1,155 @@
+package ehist.mem.date;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ * === DateManagerTest Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Tests the dense window of years of the {@link DateManager} and the weak
+ * eviction of the {@link WeakDateTable}. The manager is shared by every test
+ * of the run, so the windows are of years no other test uses and are cleared
+ * again, and the eviction mode is only switched on a table of its own.
+ * </p>
+ *
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+class DateManagerTest {
+
+    /** The most garbage collections waited for before a weakly held date is taken to be kept. */
+    private static final int MAX_COLLECTIONS = 50;
+
+    @Test
+    void denseWindowHandsOutOneInstancePerDate() {
+        try {
+            DateManager.setDenseYears(3100, 3101, false);
+
+            Date inside = DateManager.getDate(3100, 5, 5);
+
+            assertSame(inside, DateManager.getDate(3100, Month.MAY, 5));
+            assertSame(inside, DateManager.getDate(inside.getDateVal()));
+            assertSame(inside, DateManager.lookupDate(inside.getDateVal()));
+
+            /* Dates of the window are never released */
+            DateManager.removeDate(inside);
+            DateManager.removeDate(inside);
+            assertSame(inside, DateManager.getDate(3100, 5, 5));
+
+            /* Both ends of the window, and the first date past it */
+            assertSame(DateManager.getDate(3100, 1, 1), DateManager.getDate(3100, 1, 1));
+            assertSame(DateManager.getDate(3101, 12, 31), DateManager.getDate(3101, 12, 31));
+
+            int stored = DateManager.datesStored();
+            Date outside = DateManager.getDate(3102, 1, 1);
+
+            assertSame(outside, DateManager.getDate(3102, 1, 1));
+            assertEquals(stored + 1, DateManager.datesStored());
+
+            /* Dates outside the window are counted, two gets need two releases */
+            DateManager.removeDate(outside);
+            assertEquals(stored + 1, DateManager.datesStored());
+            DateManager.removeDate(outside);
+            assertEquals(stored, DateManager.datesStored());
+
+            /* Dates handed out from the window stay stored once it is cleared */
+            DateManager.clearDenseYears();
+            assertSame(inside, DateManager.getDate(3100, 5, 5));
+            DateManager.removeDate(inside);
+        } finally {
+            DateManager.clearDenseYears();
+        }
+    }
+
+    @Test
+    void eagerWindowStoresEveryDate() {
+        try {
+            int stored = DateManager.datesStored();
+
+            /* 3200 is a leap year */
+            DateManager.setDenseYears(3200, 3200, true);
+            assertEquals(stored + 366, DateManager.datesStored());
+            assertEquals(29, DateManager.getDate(3200, 2, 29).getDay());
+            assertEquals(stored + 366, DateManager.datesStored());
+        } finally {
+            DateManager.clearDenseYears();
+        }
+    }
+
+    @Test
+    void rejectsInvalidWindows() {
+        assertThrows(RuntimeException.class, () -> DateManager.setDenseYears(2001, 2000, false));
+        assertThrows(RuntimeException.class, () -> DateManager.setDenseYears(-1, 2000, false));
+        assertThrows(RuntimeException.class, () -> DateManager.setDenseYears(0, Year.MAX_YEAR + 1, false));
+        assertThrows(RuntimeException.class,
+                () -> DateManager.setDenseYears(0, DateManager.MAX_DENSE_YEARS, false));
+    }
+
+    @Test
+    void evictionModeCannotChangeWhileDatesAreStored() {
+        Date date = DateManager.getDate(2001, 1, 1);
+
+        try {
+            assertFalse(DateManager.getMXBean().isWeakEviction());
+            assertThrows(RuntimeException.class, () -> DateManager.setWeakEviction(true));
+            assertFalse(DateManager.getMXBean().isWeakEviction());
+
+            /* Already counting, nothing to switch */
+            DateManager.setWeakEviction(false);
+            assertSame(date, DateManager.getDate(2001, 1, 1));
+            DateManager.removeDate(date);
+        } finally {
+            DateManager.removeDate(date);
+        }
+    }
+
+    @Test
+    void weakTableDropsUnreachableDates() throws InterruptedException {
+        WeakDateTable table = new WeakDateTable();
+        int date_val = Date.toDateVal(2005, 6, 7);
+        Date date = table.intern(date_val);
+
+        assertNotNull(date);
+        assertSame(date, table.intern(date_val));
+        assertSame(date, table.get(date_val));
+        assertEquals(1, table.size());
+
+        /* A table holding dates cannot be closed to switch modes */
+        assertFalse(table.closeIfEmpty(() -> { }));
+
+        WeakReference<Date> ref = new WeakReference<>(date);
+        date = null;
+
+        for (int i = 0; i < MAX_COLLECTIONS && (ref.get() != null || table.size() != 0); ++i) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertNull(ref.get());
+        assertEquals(0, table.size());
+        assertNull(table.get(date_val));
+
+        /* An empty table closes and turns stores away until reopened */
+        assertTrue(table.closeIfEmpty(() -> { }));
+        assertNull(table.intern(date_val));
+        table.reopen();
+
+        Date again = table.intern(date_val);
+
+        assertNotNull(again);
+        assertEquals(date_val, again.getDateVal());
+        assertEquals(1, table.size());
+    }
+}
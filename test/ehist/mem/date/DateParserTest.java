@@ -0,0 +1,85 @@
+package ehist.mem.date;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * <p>
+ * === DateParserTest Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Tests that every pre-made parser reads back what its formatter writes,
+ * from strings, chars and bytes, and that invalid text is rejected.
+ * </p>
+ *
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+class DateParserTest {
+
+    /** Every pre-made formatter, at the same index as its parser. */
+    private static final DateFormatter[] FORMATTERS = {
+            DateFormatter.DAY_MONTH_YEAR, DateFormatter.DD_MM_YEAR, DateFormatter.DD_MM_YY,
+            DateFormatter.DOW_MONTH_DAY_YEAR, DateFormatter.DOW_MONTH_DAY_TH_YEAR,
+            DateFormatter.SHORT_DOW_MONTH_DAY_YEAR, DateFormatter.SHORT_DOW_MONTH_DAY_TH_YEAR,
+            DateFormatter.YEAR_MM_DD, DateFormatter.YEAR_MONTH_DAY, DateFormatter.YY_MM_DD
+    };
+
+    /** Every pre-made parser. */
+    private static final DateParser[] PARSERS = {
+            DateParser.DAY_MONTH_YEAR, DateParser.DD_MM_YEAR, DateParser.DD_MM_YY,
+            DateParser.DOW_MONTH_DAY_YEAR, DateParser.DOW_MONTH_DAY_TH_YEAR,
+            DateParser.SHORT_DOW_MONTH_DAY_YEAR, DateParser.SHORT_DOW_MONTH_DAY_TH_YEAR,
+            DateParser.YEAR_MM_DD, DateParser.YEAR_MONTH_DAY, DateParser.YY_MM_DD
+    };
+
+    @Test
+    void parsesWhatEveryFormatterWrites() {
+        for (long day = Date.MIN_EPOCH_DAY; day < 20000; day += (day < -700000 ? 1 : 37)) {
+            Date date = Date.ofEpochDay(day);
+
+            for (int i = 0; i < PARSERS.length; ++i) {
+                String text = FORMATTERS[i].format(date);
+                String padded = "[" + text + "]";
+                char[] chars = padded.toCharArray();
+                byte[] bytes = padded.getBytes(StandardCharsets.US_ASCII);
+
+                assertEquals(date.getDateVal(), PARSERS[i].parseDateVal(text), text);
+                assertEquals(date.getDateVal(), PARSERS[i].parseDateVal(padded, 1, padded.length() - 1), text);
+                assertEquals(date.getDateVal(), PARSERS[i].parseDateVal(chars, 1, chars.length - 1), text);
+                assertEquals(date.getDateVal(), PARSERS[i].parseDateVal(bytes, 1, bytes.length - 1), text);
+            }
+
+            DateManager.removeDate(date);
+        }
+    }
+
+    @Test
+    void parsesCreatedPatterns() {
+        DateParser parser = DateParser.createParser("$y$-$mm$-$dd$T");
+        Date date = parser.parse("2024-02-29T");
+
+        assertSame(DateManager.getDate(2024, 2, 29), date);
+        assertEquals(Date.toDateVal(1, 1, 1), parser.parseDateVal("1-01-01T"));
+
+        DateManager.removeDate(date);
+        DateManager.removeDate(date);
+    }
+
+    @Test
+    void rejectsInvalidText() {
+        assertThrows(RuntimeException.class, () -> DateParser.YEAR_MM_DD.parseDateVal("2023/02/29"));
+        assertThrows(RuntimeException.class, () -> DateParser.YEAR_MM_DD.parseDateVal("2023/13/01"));
+        assertThrows(RuntimeException.class, () -> DateParser.YEAR_MM_DD.parseDateVal("2023-01-01"));
+        assertThrows(RuntimeException.class, () -> DateParser.YEAR_MM_DD.parseDateVal("2023/01/01 "));
+        assertThrows(RuntimeException.class, () -> DateParser.YEAR_MM_DD.parseDateVal("2023/01/"));
+        assertThrows(RuntimeException.class, () -> DateParser.DOW_MONTH_DAY_YEAR.parseDateVal("Someday, March 2, 2017"));
+        assertThrows(RuntimeException.class, () -> DateParser.forFormatter(date -> "custom"));
+    }
+}
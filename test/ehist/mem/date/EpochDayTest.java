@@ -0,0 +1,101 @@
+package ehist.mem.date;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * <p>
+ * === EpochDayTest Class ===
+ * </p><p>
+ * Date : October 18, 2026
+ * </p><p>
+ *  Tests the conversions between date values and days from 1970/01/01, and
+ * {@link Date#daysBetween(int, int)} built on them.
+ * </p>
+ *
+ * @since EHist 1.0
+ * @author Michael van Dyk
+ */
+class EpochDayTest {
+
+    @Test
+    void convertsKnownDays() {
+        assertEquals(0, Date.toEpochDay(Date.toDateVal(1970, 1, 1)));
+        assertEquals(-1, Date.toEpochDay(Date.toDateVal(1969, 12, 31)));
+        assertEquals(11016, Date.toEpochDay(Date.toDateVal(2000, 2, 29)));
+        assertEquals(-719528, Date.toEpochDay(Date.toDateVal(0, 1, 1)));
+        assertEquals(Date.MIN_EPOCH_DAY, Date.toEpochDay(Date.toDateVal(0, 1, 1)));
+    }
+
+    @Test
+    void roundTripsEveryDayOfFourHundredYears() {
+        long first = Date.toEpochDay(Date.toDateVal(1800, 1, 1));
+        long last = Date.toEpochDay(Date.toDateVal(2199, 12, 31));
+        int previous = Date.epochDayToDateVal(first - 1);
+
+        for (long day = first; day <= last; ++day) {
+            int date_val = Date.epochDayToDateVal(day);
+
+            assertEquals(day, Date.toEpochDay(date_val));
+            assertEquals(2, Date.daysBetween(previous, date_val));
+            previous = date_val;
+        }
+    }
+
+    @Test
+    void roundTripsTheEndsOfTheRange() {
+        for (long day = Date.MIN_EPOCH_DAY; day < Date.MIN_EPOCH_DAY + 800; ++day) {
+            assertEquals(day, Date.toEpochDay(Date.epochDayToDateVal(day)));
+        }
+
+        assertEquals(Date.toDateVal(Year.MAX_YEAR, 12, 31), Date.epochDayToDateVal(Date.MAX_EPOCH_DAY));
+    }
+
+    /**
+     *  January and February of year 0 come before 0000/03/01, where the
+     * conversion's cycles start, and used to be rejected by {@link Date#ofEpochDay(long)}.
+     */
+    @Test
+    void ofEpochDayAcceptsJanuaryAndFebruaryOfYearZero() {
+        Date first = Date.ofEpochDay(Date.MIN_EPOCH_DAY);
+
+        assertEquals(0, first.getYear());
+        assertEquals(1, first.getMonthNumber());
+        assertEquals(1, first.getDay());
+
+        Date leap_day = Date.ofEpochDay(Date.toEpochDay(Date.toDateVal(0, 2, 29)));
+
+        assertEquals(Date.toDateVal(0, 2, 29), leap_day.getDateVal());
+        assertEquals(Date.toDateVal(0, 3, 1), Date.ofEpochDay(Date.MIN_EPOCH_DAY + 60).getDateVal());
+
+        DateManager.removeDate(first);
+        DateManager.removeDate(leap_day);
+    }
+
+    @Test
+    void ofEpochDayRejectsDaysOutOfRange() {
+        assertThrows(RuntimeException.class, () -> Date.ofEpochDay(Date.MIN_EPOCH_DAY - 1));
+        assertThrows(RuntimeException.class, () -> Date.ofEpochDay(Date.MAX_EPOCH_DAY + 1));
+    }
+
+    /**
+     *  The count is inclusive of both dates and the same in either order.
+     */
+    @Test
+    void daysBetweenSpansCenturiesAndEras() {
+        assertEquals(146098, Date.daysBetween(Date.toDateVal(1600, 3, 1), Date.toDateVal(2000, 3, 1)));
+        assertEquals(367, Date.daysBetween(Date.toDateVal(2001, 1, 1), Date.toDateVal(2000, 1, 1)));
+        assertEquals(366, Date.daysBetween(Date.toDateVal(1900, 1, 1), Date.toDateVal(1901, 1, 1)));
+        assertEquals(1, Date.daysBetween(Date.toDateVal(1900, 2, 28), Date.toDateVal(1900, 2, 28)));
+
+        int[] from = {Date.toDateVal(2020, 1, 1), Date.toDateVal(0, 1, 1)};
+        int[] to = {Date.toDateVal(2020, 12, 31), Date.toDateVal(1970, 1, 1)};
+        int[] days = new int[2];
+
+        Date.daysBetween(from, to, days);
+        assertArrayEquals(new int[] {366, 719529}, days);
+    }
+}